@@ -38,8 +38,22 @@ import org.chocosolver.memory.structure.S64BitSet;
  */
 public abstract class AbstractEnvironment implements IEnvironment {
 
-    protected enum Type {
-        FLAT, CHUNK, UNSAFE
+    /**
+     * The ways trails are stored.
+     */
+    public enum Type {
+        /**
+         * Growable arrays
+         */
+        FLAT,
+        /**
+         * Lists of fixed-size chunks
+         */
+        CHUNK,
+        /**
+         * Growable off-heap buffers (values and stamps only, the references to the objects are kept on the heap)
+         */
+        BUFFER
     }
 
     protected final Type type;
@@ -29,6 +29,8 @@
 package org.chocosolver.memory;
 
 import org.chocosolver.memory.copy.EnvironmentCopying;
+import org.chocosolver.memory.hybrid.EnvironmentHybrid;
+import org.chocosolver.memory.recomputation.EnvironmentRecomputation;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
 
 /**
@@ -53,6 +55,20 @@ public enum Environments {
                     new EnvironmentCopying();
         }
     },
+    HYBRID() {
+        @Override
+        public IEnvironment make() {
+            return
+                    new EnvironmentHybrid();
+        }
+    },
+    RECOMPUTATION() {
+        @Override
+        public IEnvironment make() {
+            return
+                    new EnvironmentRecomputation();
+        }
+    },
     DEFAULT() {
         @Override
         public IEnvironment make() {
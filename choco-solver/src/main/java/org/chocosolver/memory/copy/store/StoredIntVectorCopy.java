@@ -43,11 +43,9 @@ public class StoredIntVectorCopy implements IStorage {
     int[][][] values;
     int position;
 
-    int lastSavedWorldIndex;
-
     public StoredIntVectorCopy(int worldIndex) {
         objects = new RcIntVector[64];
-        lastSavedWorldIndex = worldIndex;
+        values = new int[64][][];
     }
 
 
@@ -62,20 +60,14 @@ public class StoredIntVectorCopy implements IStorage {
     }
 
     public void worldPush(int worldIndex) {
-        if (lastSavedWorldIndex >= worldIndex) lastSavedWorldIndex = 0;
-
-        if (values.length >= worldIndex) {
+        if (values.length <= worldIndex) {
             int[][][] tmp = values;
-            values = new int[worldIndex * 3 / 2 + 1][][];
-            System.arraycopy(tmp, 0, values, 0, worldIndex - 1);
+            values = new int[tmp.length * 3 / 2 + 1][][];
+            System.arraycopy(tmp, 0, values, 0, tmp.length);
         }
-        int[][] tmpint = new int[objects.length][];
-        for (int i = objects.length; --i >= 0; ) {
-            if (worldIndex != 0 && lastSavedWorldIndex >= (objects[i]).getTimeStamp()) {
-                tmpint[i] = values[lastSavedWorldIndex][i];
-            } else {
-                tmpint[i] = objects[i].deepCopy();
-            }
+        int[][] tmpint = new int[position][];
+        for (int i = position; --i >= 0; ) {
+            tmpint[i] = objects[i].deepCopy();
         }
         values[worldIndex] = tmpint;
     }
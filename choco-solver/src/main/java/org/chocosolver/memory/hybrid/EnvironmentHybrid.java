@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.hybrid;
+
+import org.chocosolver.memory.*;
+import org.chocosolver.memory.copy.EnvironmentCopying;
+import org.chocosolver.memory.structure.Operation;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+
+/**
+ * An environment which chooses, for each backtrackable object, whether it is restored by copying or by trailing.
+ * <br/>
+ * Copying pays off for small structures modified on almost every node, since a world is saved with a single
+ * loop over the copied objects, without any test.
+ * Trailing pays off for large structures sparsely modified, since only the modified values are saved.
+ * <br/>
+ * By default, booleans, integers and doubles are copied, whereas longs (mainly used as bitset words) and vectors
+ * are trailed. Each factory method also comes with a variant taking the {@link Restoration} to use.
+ * <br/>
+ * Under the hood, a copying environment and a trailing environment are maintained in the same world.
+ *
+ * @author Charles Prud'homme
+ * @since 26/06/2015
+ */
+public final class EnvironmentHybrid extends AbstractEnvironment {
+
+    /**
+     * The ways a backtrackable object can be restored.
+     */
+    public enum Restoration {
+        /**
+         * The value is saved in each world
+         */
+        COPY,
+        /**
+         * The value is saved in a world only when modified
+         */
+        TRAIL
+    }
+
+    private final EnvironmentCopying copying;
+
+    private final EnvironmentTrailing trailing;
+
+    public EnvironmentHybrid() {
+        super(Type.FLAT);
+        this.copying = new EnvironmentCopying();
+        this.trailing = new EnvironmentTrailing();
+    }
+
+    /**
+     * @return the environment in charge of the copied objects
+     */
+    public EnvironmentCopying getCopying() {
+        return copying;
+    }
+
+    /**
+     * @return the environment in charge of the trailed objects
+     */
+    public EnvironmentTrailing getTrailing() {
+        return trailing;
+    }
+
+    private IEnvironment select(Restoration restoration) {
+        return restoration == Restoration.COPY ? copying : trailing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPush() {
+        timestamp++;
+        copying.worldPush();
+        trailing.worldPush();
+        currentWorld++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPop() {
+        timestamp++;
+        trailing.worldPop();
+        copying.worldPop();
+        currentWorld--;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldCommit() {
+        throw (new UnsupportedOperationException());
+    }
+
+    @Override
+    public void buildFakeHistoryOn(ICondition condition) {
+        copying.buildFakeHistoryOn(condition);
+        trailing.buildFakeHistoryOn(condition);
+        super.buildFakeHistoryOn(condition);
+    }
+
+    @Override
+    public void save(Operation operation) {
+        trailing.save(operation);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateBool makeBool(boolean initialValue) {
+        return makeBool(initialValue, Restoration.COPY);
+    }
+
+    public IStateBool makeBool(boolean initialValue, Restoration restoration) {
+        return select(restoration).makeBool(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt() {
+        return makeInt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt(int initialValue) {
+        return makeInt(initialValue, Restoration.COPY);
+    }
+
+    public IStateInt makeInt(int initialValue, Restoration restoration) {
+        return select(restoration).makeInt(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat() {
+        return makeFloat(Double.NaN);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat(double initialValue) {
+        return makeFloat(initialValue, Restoration.COPY);
+    }
+
+    public IStateDouble makeFloat(double initialValue, Restoration restoration) {
+        return select(restoration).makeFloat(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong() {
+        return makeLong(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong(long init) {
+        return makeLong(init, Restoration.TRAIL);
+    }
+
+    public IStateLong makeLong(long init, Restoration restoration) {
+        return select(restoration).makeLong(init);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateIntVector makeIntVector(int size, int initialValue) {
+        return makeIntVector(size, initialValue, Restoration.TRAIL);
+    }
+
+    public IStateIntVector makeIntVector(int size, int initialValue, Restoration restoration) {
+        return select(restoration).makeIntVector(size, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDoubleVector makeDoubleVector(int size, double initialValue) {
+        return makeDoubleVector(size, initialValue, Restoration.TRAIL);
+    }
+
+    public IStateDoubleVector makeDoubleVector(int size, double initialValue, Restoration restoration) {
+        return select(restoration).makeDoubleVector(size, initialValue);
+    }
+}
@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.recomputation;
+
+import org.chocosolver.memory.*;
+import org.chocosolver.memory.structure.Operation;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+
+/**
+ * An environment which only saves the state of some worlds, and rebuilds the other ones by recomputation.
+ * <br/>
+ * When a {@link IReplayer} is declared, the worlds it is able to rebuild are saved only every
+ * <code>period</code> worlds.
+ * Restoring a world which has not been saved consists in restoring the closest saved world below it,
+ * then asking the replayer to re-apply what led to it (commonly, the decisions of the search).
+ * <br/>
+ * The modifications done between two saved worlds are trailed only once, so the memory consumed by the
+ * history is roughly divided by <code>period</code> on deep search trees, at the cost of recomputation on backtrack.
+ * Without replayer, every world is saved and this environment behaves like {@link EnvironmentTrailing}.
+ *
+ * @author Charles Prud'homme
+ * @since 30/06/2015
+ */
+public final class EnvironmentRecomputation extends AbstractEnvironment {
+
+    /**
+     * Default number of worlds between two saved worlds
+     */
+    public static final int DEFAULT_PERIOD = 8;
+
+    private final EnvironmentTrailing trailing;
+
+    private final int period;
+
+    /**
+     * Indices of the saved worlds, the i^th one is restored by the i^th world of the trailing environment
+     */
+    private int[] snapshots;
+
+    private int nbSnapshots;
+
+    /**
+     * Indicates, for each world index, if the world can be rebuilt by the replayer from the world below
+     */
+    private boolean[] replayable;
+
+    private IReplayer replayer;
+
+    public EnvironmentRecomputation() {
+        this(DEFAULT_PERIOD);
+    }
+
+    /**
+     * Creates an environment saving a world every <code>period</code> replayable worlds.
+     *
+     * @param period number of worlds between two saved worlds, 1 means all worlds are saved
+     */
+    public EnvironmentRecomputation(int period) {
+        super(Type.FLAT);
+        if (period < 1) {
+            throw new IllegalArgumentException("The period should be strictly positive");
+        }
+        this.period = period;
+        this.trailing = new EnvironmentTrailing();
+        this.snapshots = new int[16];
+        this.nbSnapshots = 0;
+        this.replayable = new boolean[16];
+    }
+
+    /**
+     * @return the environment in charge of the saved worlds
+     */
+    public EnvironmentTrailing getTrailing() {
+        return trailing;
+    }
+
+    /**
+     * @return number of worlds between two saved worlds
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return number of worlds currently saved
+     */
+    public int getNbSavedWorlds() {
+        return nbSnapshots;
+    }
+
+    /**
+     * Declares the object in charge of rebuilding the worlds which are not saved.
+     * Set to <tt>null</tt> to save all worlds.
+     *
+     * @param replayer a replayer, or <tt>null</tt>
+     */
+    public void setReplayer(IReplayer replayer) {
+        this.replayer = replayer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPush() {
+        timestamp++;
+        // a world which cannot be rebuilt from the world below has to be saved
+        if (nbSnapshots == 0 || !replayable[currentWorld]
+                || currentWorld - snapshots[nbSnapshots - 1] >= period) {
+            if (nbSnapshots == snapshots.length) {
+                int[] tmp = snapshots;
+                snapshots = new int[tmp.length * 3 / 2];
+                System.arraycopy(tmp, 0, snapshots, 0, nbSnapshots);
+            }
+            snapshots[nbSnapshots++] = currentWorld;
+            trailing.worldPush();
+        }
+        currentWorld++;
+        if (currentWorld == replayable.length) {
+            boolean[] tmp = replayable;
+            replayable = new boolean[tmp.length * 3 / 2];
+            System.arraycopy(tmp, 0, replayable, 0, currentWorld);
+        }
+        replayable[currentWorld] = replayer != null && replayer.canReplay(currentWorld - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPop() {
+        worldPopUntil(currentWorld - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/>
+     * At most one recomputation is done, whatever the number of worlds popped.
+     */
+    @Override
+    public void worldPopUntil(int w) {
+        if (currentWorld <= w) {
+            return;
+        }
+        timestamp++;
+        boolean saved = false;
+        while (nbSnapshots > 0 && snapshots[nbSnapshots - 1] >= w) {
+            saved = snapshots[--nbSnapshots] == w;
+            trailing.worldPop();
+        }
+        currentWorld = w;
+        if (!saved) {
+            assert replayer != null && nbSnapshots > 0;
+            // restore the closest saved world below, then recompute from it
+            int from = snapshots[nbSnapshots - 1];
+            trailing.worldPop();
+            trailing.worldPush();
+            replayer.replay(from, w);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldCommit() {
+        throw (new UnsupportedOperationException());
+    }
+
+    @Override
+    public void buildFakeHistoryOn(ICondition condition) {
+        trailing.buildFakeHistoryOn(condition);
+        super.buildFakeHistoryOn(condition);
+    }
+
+    @Override
+    public void save(Operation operation) {
+        trailing.save(operation);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateBool makeBool(boolean initialValue) {
+        return trailing.makeBool(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt() {
+        return makeInt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt(int initialValue) {
+        return trailing.makeInt(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat() {
+        return makeFloat(Double.NaN);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat(double initialValue) {
+        return trailing.makeFloat(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong() {
+        return makeLong(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong(long init) {
+        return trailing.makeLong(init);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateIntVector makeIntVector(int size, int initialValue) {
+        return trailing.makeIntVector(size, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDoubleVector makeDoubleVector(int size, double initialValue) {
+        return trailing.makeDoubleVector(size, initialValue);
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.recomputation;
+
+/**
+ * An object able to rebuild the state of a world by re-applying what led to it from a previous world.
+ * <br/>
+ * It is declared to a {@link EnvironmentRecomputation}, commonly by the search loop.
+ *
+ * @author Charles Prud'homme
+ * @since 30/06/2015
+ */
+public interface IReplayer {
+
+    /**
+     * Indicates whether the world about to be pushed from <code>world</code> could later be rebuilt
+     * with {@link #replay(int, int)}.
+     *
+     * @param world the current world index
+     * @return <tt>true</tt> if the next world does not require to be saved
+     */
+    boolean canReplay(int world);
+
+    /**
+     * Rebuilds the state of world <code>to</code> from the state of world <code>from</code>,
+     * that is, re-applies the operations that led from <code>from</code> to <code>to</code>.
+     *
+     * @param from index of the world whose state is restored
+     * @param to   index of the world whose state is expected
+     */
+    void replay(int from, int to);
+}
@@ -487,6 +487,33 @@ public class S64BitSet implements IStateBitSet {
                 && ((words[wordIndex].get() & (1L << bitIndex)) != 0);
     }
 
+    /**
+     * Returns the word storing bits <code>64 * wordIndex</code> to <code>64 * wordIndex + 63</code>.
+     *
+     * @param wordIndex a word index
+     * @return the word at <code>wordIndex</code>, 0 if it is beyond the words in use
+     */
+    public long getWord(int wordIndex) {
+        return wordIndex < wordsInUse.get() ? words[wordIndex].get() : 0L;
+    }
+
+    /**
+     * Replaces the word storing bits <code>64 * wordIndex</code> to <code>64 * wordIndex + 63</code>.
+     *
+     * @param wordIndex a word index
+     * @param word      the new value of the word
+     */
+    public void setWord(int wordIndex, long word) {
+        if (word != 0) {
+            expandTo(wordIndex);
+            words[wordIndex].set(word);
+        } else if (wordIndex < wordsInUse.get()) {
+            words[wordIndex].set(0L);
+            recalculateWordsInUse();
+        }
+        if (CHECK) checkInvariants();
+    }
+
     /**
      * Returns a new <tt>BitSet</tt> composed of bits from this <tt>BitSet</tt>
      * from <tt>fromIndex</tt> (inclusive) to <tt>toIndex</tt> (exclusive).
@@ -0,0 +1,367 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.structure;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.util.procedure.SafeIntProcedure;
+
+import java.util.BitSet;
+
+/**
+ * A backtrackable sparse bitset, which maintains the index of its non-zero words.
+ * <br/>
+ * Words are stored in backtrackable longs, so a modified word is saved at most once per world.
+ * The indices of the non-zero words are kept at the beginning of an array, up to a backtrackable limit:
+ * when a word becomes zero, its index is swapped with the last one and the limit is decreased.
+ * Thus, emptiness checks are done in constant time, and intersections, bulk operations and iterations
+ * only consider the non-zero words.
+ * <br/>
+ * Since the index cannot be restored otherwise, bits can only be removed once the set is built: this fits
+ * the structures which only shrink during search, such as supports or domains.
+ * <br/>
+ * Masks given to bulk operations are indexed like the words of this set:
+ * bit <i>i</i> is stored in the word <code>i / 64</code>.
+ *
+ * @author Charles Prud'homme
+ * @since 25/06/2015
+ */
+public class StoredSparseBitSet {
+
+    private final static int ADDRESS_BITS_PER_WORD = 6;
+
+    /**
+     * Words, zero words are never modified
+     */
+    private final IStateLong[] words;
+
+    /**
+     * Indices of the words, the non-zero ones are stored in <code>index[0..limit]</code>
+     */
+    private final int[] index;
+
+    /**
+     * Position of the last non-zero word in <code>index</code>
+     */
+    private final IStateInt limit;
+
+    /**
+     * Number of bits this set can store
+     */
+    private final int nbits;
+
+    /**
+     * Creates a sparse bitset where the bits in <code>[0, nbits-1]</code> are set.
+     *
+     * @param environment backtrackable environment
+     * @param nbits       the number of bits
+     */
+    public StoredSparseBitSet(IEnvironment environment, int nbits) {
+        this(environment, full(nbits), nbits);
+    }
+
+    /**
+     * Creates a sparse bitset where the bits set in <code>bits</code> are set.
+     *
+     * @param environment backtrackable environment
+     * @param bits        the initial content
+     */
+    public StoredSparseBitSet(IEnvironment environment, BitSet bits) {
+        this(environment, bits, bits.length());
+    }
+
+    private StoredSparseBitSet(IEnvironment environment, BitSet bits, int nbits) {
+        this.nbits = nbits;
+        long[] init = bits.toLongArray();
+        int nbWords = wordIndex(nbits - 1) + 1;
+        this.words = new IStateLong[nbWords];
+        this.index = new int[nbWords];
+        int l = -1;
+        for (int w = 0; w < nbWords; w++) {
+            long word = w < init.length ? init[w] : 0L;
+            words[w] = environment.makeLong(word);
+            if (word != 0L) {
+                index[++l] = w;
+            }
+        }
+        // zero words are stored after the limit, in any order
+        int k = l;
+        for (int w = 0; w < nbWords; w++) {
+            if (words[w].get() == 0L) {
+                index[++k] = w;
+            }
+        }
+        this.limit = environment.makeInt(l);
+    }
+
+    private static BitSet full(int nbits) {
+        BitSet bits = new BitSet(nbits);
+        bits.set(0, nbits);
+        return bits;
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    /**
+     * @return the number of bits this set can store
+     */
+    public int size() {
+        return nbits;
+    }
+
+    /**
+     * @return <code>true</code> if no bit is set, in constant time
+     */
+    public boolean isEmpty() {
+        return limit.get() == -1;
+    }
+
+    /**
+     * @return the number of bits set
+     */
+    public int cardinality() {
+        int c = 0;
+        for (int i = limit.get(); i >= 0; i--) {
+            c += Long.bitCount(words[index[i]].get());
+        }
+        return c;
+    }
+
+    /**
+     * @param bitIndex a bit index
+     * @return the value of the bit with the specified index
+     */
+    public boolean get(int bitIndex) {
+        int w = wordIndex(bitIndex);
+        return w < words.length && (words[w].get() & (1L << bitIndex)) != 0;
+    }
+
+    /**
+     * Sets the bit specified by the index to <code>false</code>.
+     *
+     * @param bitIndex the index of the bit to be cleared
+     */
+    public void clear(int bitIndex) {
+        int w = wordIndex(bitIndex);
+        if (w < words.length) {
+            long word = words[w].get();
+            long nword = word & ~(1L << bitIndex);
+            if (word != nword) {
+                words[w].set(nword);
+                if (nword == 0L) {
+                    removeWord(w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the zero word <i>w</i> from the non-zero words.
+     */
+    private void removeWord(int w) {
+        int l = limit.get();
+        for (int i = l; i >= 0; i--) {
+            if (index[i] == w) {
+                index[i] = index[l];
+                index[l] = w;
+                limit.set(l - 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Intersects this set with <code>mask</code>: each non-zero word is ANDed with its counterpart in the mask.
+     *
+     * @param mask a mask, indexed like the words of this set
+     * @return <code>true</code> if this set has been modified
+     */
+    public boolean and(long[] mask) {
+        int l = limit.get();
+        boolean modified = false;
+        for (int i = l; i >= 0; i--) {
+            int w = index[i];
+            long word = words[w].get();
+            long nword = word & (w < mask.length ? mask[w] : 0L);
+            if (word != nword) {
+                modified = true;
+                words[w].set(nword);
+                if (nword == 0L) {
+                    index[i] = index[l];
+                    index[l] = w;
+                    l--;
+                }
+            }
+        }
+        limit.set(l);
+        return modified;
+    }
+
+    /**
+     * Removes from this set the bits set in <code>mask</code>: each non-zero word is ANDed with the complement
+     * of its counterpart in the mask.
+     *
+     * @param mask a mask, indexed like the words of this set
+     * @return <code>true</code> if this set has been modified
+     */
+    public boolean andNot(long[] mask) {
+        int l = limit.get();
+        boolean modified = false;
+        for (int i = l; i >= 0; i--) {
+            int w = index[i];
+            if (w < mask.length) {
+                long word = words[w].get();
+                long nword = word & ~mask[w];
+                if (word != nword) {
+                    modified = true;
+                    words[w].set(nword);
+                    if (nword == 0L) {
+                        index[i] = index[l];
+                        index[l] = w;
+                        l--;
+                    }
+                }
+            }
+        }
+        limit.set(l);
+        return modified;
+    }
+
+    /**
+     * Looks for a word where this set and <code>mask</code> intersect.
+     * The answer can be stored as a residue and checked again in constant time with {@link #intersects(long[], int)}.
+     *
+     * @param mask a mask, indexed like the words of this set
+     * @return the index of a word where this set and <code>mask</code> intersect, or -1 if they are disjoint
+     */
+    public int intersectIndex(long[] mask) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int w = index[i];
+            if (w < mask.length && (words[w].get() & mask[w]) != 0L) {
+                return w;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param mask a mask, indexed like the words of this set
+     * @param w    a word index
+     * @return <code>true</code> if this set and <code>mask</code> intersect in the word <i>w</i>
+     */
+    public boolean intersects(long[] mask, int w) {
+        return w > -1 && w < mask.length && (words[w].get() & mask[w]) != 0L;
+    }
+
+    /**
+     * @return the number of non-zero words
+     */
+    public int getNbNonZeroWords() {
+        return limit.get() + 1;
+    }
+
+    /**
+     * @param i a position in <code>[0, getNbNonZeroWords()-1]</code>
+     * @return the index of the <i>i</i><sup>th</sup> non-zero word, in no particular order
+     */
+    public int getNonZeroWordIndex(int i) {
+        return index[i];
+    }
+
+    /**
+     * @param w a word index
+     * @return the current value of the word <i>w</i>
+     */
+    public long getWord(int w) {
+        return words[w].get();
+    }
+
+    /**
+     * Executes <code>procedure</code> on each bit set, in no particular order.
+     * Only non-zero words are scanned.
+     *
+     * @param procedure a procedure
+     */
+    public void forEachSetBit(SafeIntProcedure procedure) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int w = index[i];
+            long word = words[w].get();
+            while (word != 0L) {
+                int b = Long.numberOfTrailingZeros(word);
+                procedure.execute((w << ADDRESS_BITS_PER_WORD) + b);
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first bit that is set to <code>true</code> that occurs on or after
+     * the specified starting index. If no such bit exists then -1 is returned.
+     * <br/>
+     * Unlike the other operations, this one scans the words in increasing order, including zero words.
+     *
+     * @param fromIndex the index to start checking from (inclusive)
+     * @return the index of the next set bit, or -1 if there is no such bit
+     */
+    public int nextSetBit(int fromIndex) {
+        int w = wordIndex(fromIndex);
+        if (w >= words.length || isEmpty()) {
+            return -1;
+        }
+        long word = words[w].get() & (-1L << fromIndex);
+        while (true) {
+            if (word != 0L) {
+                return (w << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w].get();
+        }
+    }
+
+    /**
+     * @return a copy of the current content of this set
+     */
+    public BitSet copyToBitSet() {
+        long[] content = new long[words.length];
+        for (int i = limit.get(); i >= 0; i--) {
+            content[index[i]] = words[index[i]].get();
+        }
+        return BitSet.valueOf(content);
+    }
+
+    @Override
+    public String toString() {
+        return copyToBitSet().toString();
+    }
+}
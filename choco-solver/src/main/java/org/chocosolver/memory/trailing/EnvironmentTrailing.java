@@ -34,10 +34,10 @@ import org.chocosolver.memory.structure.Operation;
 import org.chocosolver.memory.trailing.trail.*;
 import org.chocosolver.memory.trailing.trail.chunck.*;
 import org.chocosolver.memory.trailing.trail.flatten.*;
-import org.chocosolver.memory.trailing.trail.unsafe.UnsafeBoolTrail;
-import org.chocosolver.memory.trailing.trail.unsafe.UnsafeDoubleTrail;
-import org.chocosolver.memory.trailing.trail.unsafe.UnsafeIntTrail;
-import org.chocosolver.memory.trailing.trail.unsafe.UnsafeLongTrail;
+import org.chocosolver.memory.trailing.trail.buffer.BufferBoolTrail;
+import org.chocosolver.memory.trailing.trail.buffer.BufferDoubleTrail;
+import org.chocosolver.memory.trailing.trail.buffer.BufferIntTrail;
+import org.chocosolver.memory.trailing.trail.buffer.BufferLongTrail;
 
 /**
  * The root class for managing memory and sessions.
@@ -85,7 +85,16 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
      */
 
     public EnvironmentTrailing() {
-        super(Type.FLAT);
+        this(Type.FLAT);
+    }
+
+    /**
+     * Constructs a new <code>IEnvironment</code> whose trails are stored as specified by <code>type</code>.
+     *
+     * @param type the way trails are stored
+     */
+    public EnvironmentTrailing(Type type) {
+        super(type);
         trails = new ITrailStorage[0];
         trailSize = 0;
     }
@@ -226,8 +235,8 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
                 case CHUNK:
                     intTrail = new StoredIntChunckTrail(maxWorld);
                     break;
-                case UNSAFE:
-                    intTrail = new UnsafeIntTrail(MaxHist, maxWorld);
+                case BUFFER:
+                    intTrail = new BufferIntTrail(MaxHist, maxWorld);
                     break;
             }
             increaseTrail();
@@ -245,8 +254,8 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
                 case CHUNK:
                     longTrail = new StoredLongChunckTrail(maxWorld);
                     break;
-                case UNSAFE:
-                    longTrail = new UnsafeLongTrail(MaxHist, maxWorld);
+                case BUFFER:
+                    longTrail = new BufferLongTrail(MaxHist, maxWorld);
                     break;
             }
 
@@ -265,8 +274,8 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
                 case CHUNK:
                     boolTrail = new StoredBoolChunckTrail(maxWorld);
                     break;
-                case UNSAFE:
-                    boolTrail = new UnsafeBoolTrail(MaxHist, maxWorld);
+                case BUFFER:
+                    boolTrail = new BufferBoolTrail(MaxHist, maxWorld);
                     break;
             }
 
@@ -285,8 +294,8 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
                 case CHUNK:
                     doubleTrail = new StoredDoubleChunckTrail(maxWorld);
                     break;
-                case UNSAFE:
-                    doubleTrail = new UnsafeDoubleTrail(MaxHist, maxWorld);
+                case BUFFER:
+                    doubleTrail = new BufferDoubleTrail(MaxHist, maxWorld);
                     break;
             }
             increaseTrail();
@@ -302,7 +311,7 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
                     operationTrail = new OperationTrail(MaxHist, maxWorld);
                     break;
                 case CHUNK:
-                case UNSAFE:
+                case BUFFER:
                     operationTrail = new OperationChunckTrail(maxWorld);
                     break;
             }
@@ -2,51 +2,51 @@
  * Copyright (c) 2014,
  *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
  *       Jean-Guillaume Fages (COSLING S.A.S.).
- *  All rights reserved.
+ * All rights reserved.
  *
- *  Redistribution and use in source and binary forms, with or without
- *  modification, are permitted provided that the following conditions are met:
- *      * Redistributions of source code must retain the above copyright
- *        notice, this list of conditions and the following disclaimer.
- *      * Redistributions in binary form must reproduce the above copyright
- *        notice, this list of conditions and the following disclaimer in the
- *        documentation and/or other materials provided with the distribution.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
  *     * Neither the name of the <organization> nor the
- *        names of its contributors may be used to endorse or promote products
- *        derived from this software without specific prior written permission.
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
  *
  * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
  * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
  * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
- *  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
- *  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
- *  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
- *  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
- *  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
- *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.chocosolver.memory.trailing.trail.unsafe;
+package org.chocosolver.memory.trailing.trail.buffer;
 
 import org.chocosolver.memory.trailing.StoredDouble;
 import org.chocosolver.memory.trailing.trail.IStoredDoubleTrail;
-import sun.misc.Unsafe;
 
-import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
+ * A trail which stores former values and world stamps off-heap, in direct byte buffers.
  * <br/>
+ * Only the references to the modified objects are stored on the heap.
  *
  * @author Charles Prud'homme
- * @since 13/05/13
+ * @since 29/06/2015
  */
-public class UnsafeDoubleTrail implements IStoredDoubleTrail {
+public class BufferDoubleTrail implements IStoredDoubleTrail {
 
-    private final Unsafe unsafe;
+    public static final int SIZEOF_DATA = Double.BYTES;
 
-    public static final int SIZEOF_DATA = Unsafe.ARRAY_DOUBLE_INDEX_SCALE;
-
-    public static final int SIZEOF_INT = Unsafe.ARRAY_INT_INDEX_SCALE;
+    public static final int SIZEOF_INT = Integer.BYTES;
 
     /**
      * Stack of backtrackable search variables.
@@ -57,14 +57,14 @@ public class UnsafeDoubleTrail implements IStoredDoubleTrail {
     /**
      * Stack of values (former values that need be restored upon backtracking).
      */
-    private long valueStack;
+    private ByteBuffer valueStack;
 
 
     /**
      * Stack of timestamps indicating the world where the former value
      * had been written.
      */
-    private long stampStack;
+    private ByteBuffer stampStack;
 
 
     /**
@@ -86,23 +86,16 @@ public class UnsafeDoubleTrail implements IStoredDoubleTrail {
      * @param nWorlds  maximal number of worlds that will be stored
      */
 
-    public UnsafeDoubleTrail(int nUpdates, int nWorlds) {
-        unsafe = getTheUnsafe();
+    public BufferDoubleTrail(int nUpdates, int nWorlds) {
         currentLevel = 0;
         variableStack = new StoredDouble[nUpdates];
-        valueStack = unsafe.allocateMemory(nUpdates * SIZEOF_DATA);
-        stampStack = unsafe.allocateMemory(nUpdates * SIZEOF_INT);
+        valueStack = allocate(nUpdates * SIZEOF_DATA);
+        stampStack = allocate(nUpdates * SIZEOF_INT);
         worldStartLevels = new int[nWorlds];
     }
 
-    public static Unsafe getTheUnsafe() {
-        try {
-            Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
-            theUnsafe.setAccessible(true);
-            return (Unsafe) theUnsafe.get(null);
-        } catch (Exception e) {
-            return null;
-        }
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
     }
 
     /**
@@ -130,8 +123,8 @@ public class UnsafeDoubleTrail implements IStoredDoubleTrail {
         while (currentLevel > wsl) {
             currentLevel--;
             v = variableStack[currentLevel];
-            value = unsafe.getDouble(valueStack + (currentLevel * SIZEOF_DATA));
-            stamp = unsafe.getInt(stampStack + (currentLevel * SIZEOF_INT));
+            value = valueStack.getDouble(currentLevel * SIZEOF_DATA);
+            stamp = stampStack.getInt(currentLevel * SIZEOF_INT);
             v._set(value, stamp);
         }
     }
@@ -156,13 +149,13 @@ public class UnsafeDoubleTrail implements IStoredDoubleTrail {
 
 
     /**
-     * Reacts when a StoredInt is modified: push the former value & timestamp
+     * Reacts when a StoredDouble is modified: push the former value & timestamp
      * on the stacks.
      */
     public void savePreviousState(StoredDouble v, double oldValue, int oldStamp) {
-        unsafe.putDouble(valueStack + currentLevel * SIZEOF_DATA, oldValue);
+        valueStack.putDouble(currentLevel * SIZEOF_DATA, oldValue);
         variableStack[currentLevel] = v;
-        unsafe.putInt(stampStack + currentLevel * SIZEOF_INT, oldStamp);
+        stampStack.putInt(currentLevel * SIZEOF_INT, oldStamp);
         currentLevel++;
         if (variableStack.length == currentLevel) {
             resizeUpdateCapacity();
@@ -185,11 +178,14 @@ public class UnsafeDoubleTrail implements IStoredDoubleTrail {
             i1 = f + w - 1;
             s -= f;
             System.arraycopy(variableStack, f, variableStack, i1, s);
-            unsafe.copyMemory(valueStack + f * SIZEOF_DATA, valueStack + i1 * SIZEOF_DATA, SIZEOF_DATA * s);
-            unsafe.copyMemory(stampStack + f * SIZEOF_INT, stampStack + i1 * SIZEOF_INT, SIZEOF_INT * s);
+            // regions overlap and i1 > f: copy from the end
+            for (int k = s - 1; k >= 0; k--) {
+                valueStack.putDouble((i1 + k) * SIZEOF_DATA, valueStack.getDouble((f + k) * SIZEOF_DATA));
+                stampStack.putInt((i1 + k) * SIZEOF_INT, stampStack.getInt((f + k) * SIZEOF_INT));
+            }
             variableStack[--i1] = v;
-            unsafe.putDouble(valueStack + i1 * SIZEOF_DATA, initValue);
-            unsafe.putInt(stampStack + i1 * SIZEOF_INT, w - 2);
+            valueStack.putDouble(i1 * SIZEOF_DATA, initValue);
+            stampStack.putInt(i1 * SIZEOF_INT, w - 2);
             worldStartLevels[w] += w - 1;
             currentLevel++;
             s = f;
@@ -204,16 +200,18 @@ public class UnsafeDoubleTrail implements IStoredDoubleTrail {
         StoredDouble[] tmp1 = new StoredDouble[newCapacity];
         System.arraycopy(variableStack, 0, tmp1, 0, oldCapacity);
         variableStack = tmp1;
-        // then, copy the stack of former values
-        long ad1 = unsafe.allocateMemory(newCapacity * SIZEOF_DATA);
-        unsafe.copyMemory(valueStack, ad1, oldCapacity * SIZEOF_DATA);
-        unsafe.freeMemory(valueStack);
-        valueStack = ad1;
-        // then, copy the stack of world stamps
-        long ad2 = unsafe.allocateMemory(newCapacity * SIZEOF_INT);
-        unsafe.copyMemory(stampStack, ad2, oldCapacity * SIZEOF_INT);
-        unsafe.freeMemory(stampStack);
-        stampStack = ad2;
+        // then, copy the stack of former values and the stack of world stamps,
+        // the former buffers are released by the garbage collector
+        valueStack = grow(valueStack, newCapacity * SIZEOF_DATA);
+        stampStack = grow(stampStack, newCapacity * SIZEOF_INT);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer nbuffer = allocate(capacity);
+        buffer.clear();
+        nbuffer.put(buffer);
+        nbuffer.clear();
+        return nbuffer;
     }
 
     public void resizeWorldCapacity(int newWorldCapacity) {
@@ -221,11 +219,4 @@ public class UnsafeDoubleTrail implements IStoredDoubleTrail {
         System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
         worldStartLevels = tmp;
     }
-
-    @Override
-    protected void finalize() throws Throwable {
-        super.finalize();
-        unsafe.freeMemory(valueStack);
-        unsafe.freeMemory(stampStack);
-    }
 }
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.thread.AbstractParallelSlave;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+
+/**
+ * A slave which solves one independent sub-problem of a {@link DecompositionSolver}.
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 23/06/2015
+ */
+public class ComponentSolver extends AbstractParallelSlave<DecompositionSolver> {
+
+    final Solver solver;
+    final ResolutionPolicy policy;
+    final IntVar objective;
+    volatile boolean stopped;
+
+    /**
+     * Create a slave born to solve a sub-problem for satisfaction
+     *
+     * @param master the driver
+     * @param id     slave unique name
+     * @param solver the solver of the sub-problem
+     */
+    public ComponentSolver(DecompositionSolver master, int id, Solver solver) {
+        this(master, id, solver, ResolutionPolicy.SATISFACTION, null);
+    }
+
+    /**
+     * Create a slave born to solve a sub-problem
+     *
+     * @param master    the driver
+     * @param id        slave unique name
+     * @param solver    the solver of the sub-problem
+     * @param policy    the resolution policy
+     * @param objective the objective variable of the sub-problem (can be null)
+     */
+    public ComponentSolver(DecompositionSolver master, int id, Solver solver, ResolutionPolicy policy, IntVar objective) {
+        super(master, id);
+        this.solver = solver;
+        this.policy = policy;
+        this.objective = objective;
+    }
+
+    @Override
+    public void work() {
+        if (stopped) return;
+        if (policy.equals(ResolutionPolicy.SATISFACTION)) {
+            solver.findSolution();
+        } else {
+            solver.findOptimalSolution(policy, objective);
+        }
+        if (solver.isFeasible() == ESat.FALSE) {
+            master.onFailure();
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+        solver.getCancellationToken().cancel();
+    }
+}
@@ -0,0 +1,490 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.solver.thread.AbstractParallelMaster;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.view.IView;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.graphOperations.connectivity.ConnectivityFinder;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A solver which splits a problem into independent sub-problems and solves them separately.
+ * <p>
+ * The variable graph of the problem (two variables are adjacent when they share a constraint, or when one is a view
+ * over the other) is computed wrt the current domains: instantiated variables do not link anything.
+ * Each connected component of this graph is then copied into its own solver, with the current domains of its variables,
+ * and solved independently of the others, optionally in parallel.
+ * Since the components do not interact, the cartesian product of their search spaces is never explored.
+ * <p>
+ * The decomposition can be computed before the resolution, or at any point of a search (for instance, once some
+ * decisions have been applied and propagated), since only the current state of the problem is considered.
+ * <p>
+ * The expected ways to solve a problem using DecompositionSolver is:
+ * <pre>
+ *     Solver solver = new Solver();
+ *     // declare the variables and constraints
+ *     //...
+ *     DecompositionSolver ds = new DecompositionSolver(solver);
+ *     ds.decompose();
+ *     if(ds.findSolution(true)){
+ *         int v = ds.getIntVal(x);
+ *     }
+ * </pre>
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 23/06/2015
+ */
+public class DecompositionSolver extends AbstractParallelMaster<ComponentSolver> {
+
+    /**
+     * The problem to decompose
+     */
+    final Solver solver;
+
+    /**
+     * One solver per component
+     */
+    Solver[] components = new Solver[0];
+
+    /**
+     * For each component, maps variables of the problem to their copy
+     */
+    THashMap<Object, Object>[] copies;
+
+    /**
+     * Maps a variable ID to its component, -1 if the variable is instantiated
+     */
+    TIntIntHashMap v2c;
+
+    /**
+     * For each component, the variable equal to the sum of its objective terms, if any
+     */
+    IntVar[] sums;
+
+    /**
+     * For each component, the objective terms summed up in <i>sums</i> and the constraint defining it
+     */
+    IntVar[][] summed;
+    Constraint[] sumCstrs;
+
+    /**
+     * Constant part of the objective: the sum of the terms instantiated at decomposition time
+     */
+    int offset;
+
+    /**
+     * Set to true when the decomposition itself detects a failure
+     */
+    boolean infeasible;
+
+    /**
+     * Resolution policy defined.
+     */
+    ResolutionPolicy policy = ResolutionPolicy.SATISFACTION;
+
+    public DecompositionSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Compute the connected components of the problem, wrt the current state of its variables, and create one
+     * solver per component.
+     *
+     * @return the number of independent sub-problems
+     * @throws SolverException if a constraint of the problem cannot be duplicated
+     */
+    @SuppressWarnings("unchecked")
+    public int decompose() {
+        Variable[] vars = solver.getVars();
+        int n = vars.length;
+        TIntIntHashMap id2idx = new TIntIntHashMap(n, .5f, -1, -1);
+        for (int i = 0; i < n; i++) {
+            id2idx.put(vars[i].getId(), i);
+        }
+        // 1. build the variable graph
+        UndirectedGraph graph = new UndirectedGraph(n, SetType.LINKED_LIST, true);
+        for (int i = 0; i < n; i++) {
+            if ((vars[i].getTypeAndKind() & Variable.VIEW) != 0) {
+                link(graph, vars[i], ((IView) vars[i]).getVariable(), id2idx);
+            }
+        }
+        Constraint[] cstrs = solver.getCstrs();
+        for (int c = 0; c < cstrs.length; c++) {
+            // the free variables of a constraint are linked to the first of them
+            Variable first = null;
+            for (Propagator p : cstrs[c].getPropagators()) {
+                for (int v = 0; v < p.getNbVars(); v++) {
+                    if (first == null) {
+                        if (!p.getVar(v).isInstantiated()) {
+                            first = p.getVar(v);
+                        }
+                    } else {
+                        link(graph, first, p.getVar(v), id2idx);
+                    }
+                }
+            }
+        }
+        ConnectivityFinder finder = new ConnectivityFinder(graph);
+        finder.findAllCC();
+        // 2. keep components with at least one free variable
+        int[] cc2c = new int[finder.getNBCC()];
+        int nbc = 0;
+        for (int cc = 0; cc < cc2c.length; cc++) {
+            int node = finder.getCC_firstNode()[cc];
+            cc2c[cc] = (vars[node].isInstantiated() && finder.getCC_nextNode()[node] == -1) ? -1 : nbc++;
+        }
+        v2c = new TIntIntHashMap(n, .5f, -1, -1);
+        for (int i = 0; i < n; i++) {
+            v2c.put(vars[i].getId(), cc2c[finder.getNode_CC()[i]]);
+        }
+        // 3. dispatch constraints
+        List<Constraint>[] c2c = new List[nbc];
+        for (int k = 0; k < nbc; k++) {
+            c2c[k] = new ArrayList<>();
+        }
+        infeasible = false;
+        for (int c = 0; c < cstrs.length; c++) {
+            int k = componentOf(cstrs[c]);
+            if (k > -1) {
+                c2c[k].add(cstrs[c]);
+            } else if (cstrs[c].isSatisfied() == ESat.FALSE) {
+                infeasible = true;
+            }
+        }
+        // 4. create one solver per component
+        components = new Solver[nbc];
+        copies = new THashMap[nbc];
+        sums = new IntVar[nbc];
+        summed = new IntVar[nbc][];
+        sumCstrs = new Constraint[nbc];
+        for (int k = 0; k < nbc; k++) {
+            try {
+                components[k] = new Solver(solver.getEnvironment().getClass().newInstance(), solver.getName() + "_" + k);
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new SolverException("The current solver cannot be decomposed:\n" + e.getMessage());
+            }
+            components[k].set(solver.getSettings());
+            copies[k] = new THashMap<>();
+        }
+        for (int i = 0; i < n; i++) {
+            int k = v2c.get(vars[i].getId());
+            if (k > -1) {
+                vars[i].duplicate(components[k], copies[k]);
+            }
+        }
+        for (int k = 0; k < nbc; k++) {
+            for (Constraint c : c2c[k]) {
+                c.duplicate(components[k], copies[k]);
+                components[k].post((Constraint) copies[k].get(c));
+            }
+            infeasible |= !restrict(vars, copies[k]);
+        }
+        return nbc;
+    }
+
+    private static void link(UndirectedGraph graph, Variable v1, Variable v2, TIntIntHashMap id2idx) {
+        if (!v1.isInstantiated() && !v2.isInstantiated()) {
+            int i = id2idx.get(v1.getId());
+            int j = id2idx.get(v2.getId());
+            if (i > -1 && j > -1 && i != j) {
+                graph.addEdge(i, j);
+            }
+        }
+    }
+
+    /**
+     * @return the component of the first free variable of <i>c</i>, -1 if all its variables are instantiated
+     */
+    private int componentOf(Constraint c) {
+        for (Propagator p : c.getPropagators()) {
+            for (int v = 0; v < p.getNbVars(); v++) {
+                if (!p.getVar(v).isInstantiated()) {
+                    return v2c.get(p.getVar(v).getId());
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reduce the domains of the integer variables copied in a component to the current domains of their original.
+     *
+     * @return false if a failure occurred
+     */
+    private static boolean restrict(Variable[] vars, THashMap<Object, Object> copy) {
+        try {
+            for (int i = 0; i < vars.length; i++) {
+                if ((vars[i].getTypeAndKind() & Variable.VAR) != 0 && (vars[i].getTypeAndKind() & Variable.INT) != 0
+                        && copy.containsKey(vars[i])) {
+                    IntVar o = (IntVar) vars[i];
+                    IntVar c = (IntVar) copy.get(vars[i]);
+                    c.updateLowerBound(o.getLB(), Cause.Null);
+                    c.updateUpperBound(o.getUB(), Cause.Null);
+                    if (o.hasEnumeratedDomain()) {
+                        int ub = c.getUB();
+                        for (int v = c.getLB(); v <= ub; v = c.nextValue(v)) {
+                            if (!o.contains(v)) {
+                                c.removeValue(v, Cause.Null);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (ContradictionException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Return the solvers of the sub-problems, as built by the last call to {@link #decompose()}.
+     *
+     * @return the array of solvers
+     */
+    public Solver[] getComponents() {
+        return components;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    /////////////////////////////////////// RELATED TO RESOLUTION //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Attempts to find a solution of every sub-problem.
+     *
+     * @param parallel set to <code>true</code> to solve each sub-problem in its own thread
+     * @return <code>true</code> if and only if a solution has been found for every sub-problem
+     */
+    public boolean findSolution(boolean parallel) {
+        this.policy = ResolutionPolicy.SATISFACTION;
+        if (infeasible) {
+            return false;
+        }
+        resetComponents();
+        this.slaves = new ComponentSolver[components.length];
+        for (int k = 0; k < components.length; k++) {
+            this.slaves[k] = new ComponentSolver(this, k, components[k]);
+        }
+        solve(parallel);
+        return isFeasible() == ESat.TRUE;
+    }
+
+    /**
+     * Attempts to optimize the sum of the <code>objectives</code> w.r.t. to the optimization <code>policy</code>.
+     * Each variable of <code>objectives</code> must belong to a single sub-problem, that is,
+     * the terms must not be linked to each other by a constraint (such as a sum) in the problem.
+     * The sub-problems without objective term are solved for satisfaction only.
+     *
+     * @param policy     optimization policy, among ResolutionPolicy.MINIMIZE and ResolutionPolicy.MAXIMIZE
+     * @param parallel   set to <code>true</code> to solve each sub-problem in its own thread
+     * @param objectives the terms of the objective function
+     */
+    public void findOptimalSolution(ResolutionPolicy policy, boolean parallel, IntVar... objectives) {
+        if (policy == ResolutionPolicy.SATISFACTION) {
+            throw new SolverException("DecompositionSolver.findOptimalSolution(...) cannot be called with ResolutionPolicy.SATISFACTION.");
+        }
+        this.policy = policy;
+        if (infeasible) {
+            return;
+        }
+        resetComponents();
+        offset = 0;
+        List<IntVar>[] terms = new List[components.length];
+        for (IntVar o : objectives) {
+            int k = v2c.get(o.getId());
+            if (k > -1) {
+                if (terms[k] == null) {
+                    terms[k] = new ArrayList<>();
+                }
+                terms[k].add((IntVar) copies[k].get(o));
+            } else {
+                // instantiated at decomposition time
+                offset += o.getValue();
+            }
+        }
+        this.slaves = new ComponentSolver[components.length];
+        for (int k = 0; k < components.length; k++) {
+            IntVar objective = null;
+            if (terms[k] != null) {
+                if (terms[k].size() == 1) {
+                    objective = terms[k].get(0);
+                } else {
+                    objective = sum(k, terms[k].toArray(new IntVar[terms[k].size()]));
+                }
+            }
+            this.slaves[k] = new ComponentSolver(this, k, components[k],
+                    objective == null ? ResolutionPolicy.SATISFACTION : policy, objective);
+        }
+        solve(parallel);
+    }
+
+    /**
+     * Return a variable of the component <i>k</i> equal to the sum of <i>ts</i>.
+     * The variable and its constraint are built once, and replaced only when the terms change.
+     */
+    private IntVar sum(int k, IntVar[] ts) {
+        if (sums[k] != null) {
+            if (Arrays.equals(summed[k], ts)) {
+                return sums[k];
+            }
+            components[k].unpost(sumCstrs[k]);
+            components[k].unassociates(sums[k]);
+        }
+        int lb = 0, ub = 0;
+        for (IntVar t : ts) {
+            lb += t.getLB();
+            ub += t.getUB();
+        }
+        sums[k] = VF.bounded("obj_" + k, lb, ub, components[k]);
+        summed[k] = ts;
+        sumCstrs[k] = ICF.sum(ts, sums[k]);
+        components[k].post(sumCstrs[k]);
+        return sums[k];
+    }
+
+    /**
+     * Prepare the sub-problems for a new resolution.
+     */
+    private void resetComponents() {
+        for (Solver component : components) {
+            component.getSearchLoop().reset();
+            component.getCancellationToken().reset();
+        }
+    }
+
+    private void solve(boolean parallel) {
+        if (slaves.length == 0) {
+            return;
+        }
+        if (parallel) {
+            distributedSlavery();
+        } else {
+            sequentialSlavery();
+        }
+    }
+
+    /**
+     * A sub-problem has been proven to have no solution, so has the problem: stop the other slaves.
+     */
+    synchronized void onFailure() {
+        for (ComponentSolver s : slaves) {
+            s.stop();
+        }
+    }
+
+    /**
+     * Returns information on the feasibility of the problem.
+     *
+     * @return {@link org.chocosolver.util.ESat#TRUE} if every sub-problem has a solution,
+     * {@link org.chocosolver.util.ESat#FALSE} if one sub-problem has been proven to have no solution,
+     * {@link org.chocosolver.util.ESat#UNDEFINED} otherwise.
+     */
+    public ESat isFeasible() {
+        if (infeasible) {
+            return ESat.FALSE;
+        }
+        ESat feasible = ESat.TRUE;
+        for (Solver component : components) {
+            ESat f = component.isFeasible();
+            if (f == ESat.FALSE) {
+                return ESat.FALSE;
+            } else if (f != ESat.TRUE) {
+                feasible = ESat.UNDEFINED;
+            }
+        }
+        return feasible;
+    }
+
+    /**
+     * @return <code>true</code> if at least one sub-problem has been solved with a limit reached.
+     */
+    public boolean hasReachedLimit() {
+        for (Solver component : components) {
+            if (component.hasReachedLimit()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the value of the objective function of the best composed solution, that is,
+     * the sum of the best value found in each sub-problem and of the terms instantiated at decomposition time.
+     * If a sub-problem has not been solved to optimality, this is a bound of the optimum.
+     *
+     * @return the best value of the objective, <code>null</code> if no solution has been found
+     */
+    @SuppressWarnings("unchecked")
+    public Integer getBestSolutionValue() {
+        if (isFeasible() != ESat.TRUE) {
+            return null;
+        }
+        int best = offset;
+        for (int k = 0; k < components.length; k++) {
+            if (slaves[k].objective != null) {
+                best += (Integer) components[k].getObjectiveManager().getBestSolutionValue();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Return the value of <i>var</i> in the composed solution.
+     *
+     * @param var an integer variable of the decomposed problem
+     * @return its value, <code>null</code> if no solution is available
+     */
+    public Integer getIntVal(IntVar var) {
+        int k = v2c.get(var.getId());
+        if (k == -1) {
+            return var.isInstantiated() ? var.getValue() : null;
+        }
+        Solution solution = components[k].getSolutionRecorder().getLastSolution();
+        // the sub-problem has not been solved yet, or has no solution
+        return solution == null ? null : solution.getIntVal((IntVar) copies[k].get(var));
+    }
+}
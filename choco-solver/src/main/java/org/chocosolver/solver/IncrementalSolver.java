@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.explanations.ExplanationEngine;
+import org.chocosolver.solver.explanations.strategies.ConflictBackJumping;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An incremental interface to a solver, to answer many closely related queries on the same model.
+ * <br/>
+ * Constraints can be posted in named groups, which are stacked and removed with {@link #pop()}.
+ * A query is solved under assumptions, that are constraints (like literals or variable assignments) holding for
+ * this query only. When a query has no solution, the assumptions responsible for it are available as an unsat core.
+ * Between two queries, the search loop is reset and the propagation engine is kept.
+ * <p>
+ * The expected way to use an IncrementalSolver is:
+ * <pre>
+ *     Solver solver = new Solver();
+ *     // declare the variables, the constraints common to all queries, and an optional search strategy
+ *     IncrementalSolver is = new IncrementalSolver(solver);
+ *     is.push("scenario");
+ *     is.post(ICF.arithm(x, "<", y));
+ *     is.assume(b);
+ *     is.assume(x, 3);
+ *     if (is.solve() == ESat.FALSE) {
+ *         List&lt;Constraint&gt; core = is.getUnsatCore();
+ *     }
+ *     is.pop();
+ * </pre>
+ * The unsat core is extracted from the explanation of the last conflict, so the solver is explained with a
+ * conflict-based backjumping strategy, and the constraints in conflict are recorded.
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class IncrementalSolver {
+
+    private final Solver solver;
+
+    private final ConflictBackJumping cbj;
+
+    private final Deque<String> names;
+
+    private final Deque<List<Constraint>> groups;
+
+    private final List<Constraint> assumptions;
+
+    private final List<Constraint> core;
+
+    private Constraint[] posted; // assumptions of the last query
+
+    private boolean solved;
+
+    public IncrementalSolver(Solver solver) {
+        if (solver.getExplainer() != null) {
+            throw new SolverException("IncrementalSolver relies on its own explanation engine, the solver is already explained");
+        }
+        this.solver = solver;
+        // complete explanations: a partial one may miss some assumptions
+        this.cbj = new ConflictBackJumping(new ExplanationEngine(solver, true, false), solver, false);
+        this.names = new ArrayDeque<>();
+        this.groups = new ArrayDeque<>();
+        this.assumptions = new ArrayList<>();
+        this.core = new ArrayList<>();
+        this.posted = new Constraint[0];
+    }
+
+    public Solver getSolver() {
+        return solver;
+    }
+
+    /**
+     * Opens a new group of constraints, on top of the previous ones.
+     *
+     * @param name name of the group
+     */
+    public void push(String name) {
+        names.push(name);
+        groups.push(new ArrayList<>());
+    }
+
+    /**
+     * Removes the constraints of the group on top of the stack, and closes it.
+     *
+     * @return the name of the closed group
+     */
+    public String pop() {
+        if (groups.isEmpty()) {
+            throw new SolverException("IncrementalSolver: no group to pop");
+        }
+        backToRoot();
+        for (Constraint c : groups.pop()) {
+            solver.unpost(c);
+        }
+        return names.pop();
+    }
+
+    /**
+     * @return the number of opened groups
+     */
+    public int getNbGroups() {
+        return groups.size();
+    }
+
+    /**
+     * Posts constraints in the group on top of the stack, or permanently if no group is opened.
+     *
+     * @param cs constraints to post
+     */
+    public void post(Constraint... cs) {
+        backToRoot();
+        solver.post(cs);
+        if (!groups.isEmpty()) {
+            Collections.addAll(groups.peek(), cs);
+        }
+    }
+
+    /**
+     * Assumes <code>literal</code> is true during the next query.
+     *
+     * @param literal a boolean variable
+     * @return the assumption, as a constraint
+     */
+    public Constraint assume(BoolVar literal) {
+        return assume(ICF.arithm(literal, "=", 1));
+    }
+
+    /**
+     * Assumes <code>var</code> = <code>value</code> during the next query.
+     *
+     * @param var   an integer variable
+     * @param value a value
+     * @return the assumption, as a constraint
+     */
+    public Constraint assume(IntVar var, int value) {
+        return assume(ICF.arithm(var, "=", value));
+    }
+
+    /**
+     * Assumes <code>assumption</code> holds during the next query.
+     *
+     * @param assumption a constraint, not posted
+     * @return <code>assumption</code>
+     */
+    public Constraint assume(Constraint assumption) {
+        assumptions.add(assumption);
+        return assumption;
+    }
+
+    /**
+     * Looks for a solution satisfying the posted constraints and the assumptions declared since the last query.
+     * The assumptions are then forgotten.
+     *
+     * @return {@link ESat#TRUE} if a solution has been found (the variables are then instantiated),
+     * {@link ESat#FALSE} if there is none (an unsat core is then available),
+     * {@link ESat#UNDEFINED} if a limit has been reached.
+     */
+    public ESat solve() {
+        backToRoot();
+        core.clear();
+        posted = assumptions.toArray(new Constraint[assumptions.size()]);
+        assumptions.clear();
+        solver.post(posted);
+        solved = true;
+        boolean found = solver.findSolution();
+        ESat answer = found ? ESat.TRUE : (solver.hasReachedLimit() ? ESat.UNDEFINED : ESat.FALSE);
+        if (answer == ESat.FALSE) {
+            extractCore();
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the assumptions of the last query involved in the proof of its infeasibility.
+     * An empty core means the posted constraints have no solution, whatever the assumptions are.
+     *
+     * @return a subset of the assumptions of the last query, empty if the last query was not proven infeasible
+     */
+    public List<Constraint> getUnsatCore() {
+        return Collections.unmodifiableList(core);
+    }
+
+    private void extractCore() {
+        Set<Constraint> inConflict = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (cbj.getLastExplanation() != null) {
+            for (ICause cause : cbj.getLastExplanation().getCauses()) {
+                if (cause instanceof Propagator) {
+                    inConflict.add(((Propagator) cause).getConstraint());
+                }
+            }
+        }
+        for (Constraint c : posted) {
+            if (inConflict.contains(c)) {
+                core.add(c);
+            }
+        }
+    }
+
+    private void backToRoot() {
+        if (solved) {
+            solver.getSearchLoop().reset();
+            solver.setFeasible(ESat.UNDEFINED);
+            for (Constraint c : posted) {
+                solver.unpost(c);
+            }
+            posted = new Constraint[0];
+            solved = false;
+        }
+    }
+}
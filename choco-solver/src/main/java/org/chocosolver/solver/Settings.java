@@ -138,6 +138,16 @@ public interface Settings extends Serializable {
         return new short[]{-1, -1, -1, 0, 1, 2, 3};
     }
 
+    /**
+     * Defines, for {@link org.chocosolver.solver.propagation.hardcoded.ClusteredPropagationEngine}, the maximum number
+     * of propagators a variable can be watched by to connect them into a same cluster.
+     * Beyond that value, the variable is considered as shared by several clusters.
+     * /!\ for advanced usage only
+     */
+    default public int getClusteringDegreeThreshold() {
+        return Integer.MAX_VALUE;
+    }
+
     /**
      * Return the search binder
      */
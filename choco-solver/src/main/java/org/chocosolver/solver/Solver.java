@@ -48,6 +48,7 @@ import org.chocosolver.solver.propagation.IPropagationEngine;
 import org.chocosolver.solver.propagation.NoPropagationEngine;
 import org.chocosolver.solver.propagation.PropagationEngineFactory;
 import org.chocosolver.solver.propagation.PropagationTrigger;
+import org.chocosolver.solver.search.limits.CancellationToken;
 import org.chocosolver.solver.search.loop.ISearchLoop;
 import org.chocosolver.solver.search.loop.SearchLoop;
 import org.chocosolver.solver.search.loop.monitors.ISearchMonitor;
@@ -121,6 +122,11 @@ public class Solver implements Serializable {
 
     protected ISolutionRecorder solutionRecorder;
 
+    /**
+     * Token to stop the resolution from any thread
+     */
+    protected final CancellationToken cancellation = new CancellationToken();
+
     /**
      * Solver name
      */
@@ -231,6 +237,15 @@ public class Solver implements Serializable {
         return engine;
     }
 
+    /**
+     * Returns the token to stop the resolution of <code>this</code> as soon as possible, from any thread.
+     *
+     * @return the cancellation token
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellation;
+    }
+
     /**
      * Returns the array of declared <code>Variable</code> objects defined in this <code>Solver</code>.
      *
@@ -476,6 +491,15 @@ public class Solver implements Serializable {
         search.plugSearchMonitor(sm);
     }
 
+    /**
+     * Remove a search monitor previously plugged in the solver
+     *
+     * @param sm a search monitor to be unplugged from the solver
+     */
+    public void unplugMonitor(ISearchMonitor sm) {
+        search.getSMList().remove(sm);
+    }
+
     /**
      * Override the default {@link org.chocosolver.solver.Settings} object.
      *
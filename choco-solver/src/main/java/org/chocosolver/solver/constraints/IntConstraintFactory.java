@@ -41,6 +41,7 @@ import org.chocosolver.solver.constraints.extension.nary.*;
 import org.chocosolver.solver.constraints.nary.PropDiffN;
 import org.chocosolver.solver.constraints.nary.PropKLoops;
 import org.chocosolver.solver.constraints.nary.PropKnapsack;
+import org.chocosolver.solver.constraints.nary.PropKnapsackDP;
 import org.chocosolver.solver.constraints.nary.PropSort;
 import org.chocosolver.solver.constraints.nary.alldifferent.AllDifferent;
 import org.chocosolver.solver.constraints.nary.alldifferent.conditions.Condition;
@@ -52,12 +53,13 @@ import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.PropMultiCostRegular;
 import org.chocosolver.solver.constraints.nary.automata.PropRegular;
+import org.chocosolver.solver.constraints.nary.binpacking.PropBinPacking;
 import org.chocosolver.solver.constraints.nary.channeling.*;
 import org.chocosolver.solver.constraints.nary.circuit.*;
 import org.chocosolver.solver.constraints.nary.count.PropCountVar;
 import org.chocosolver.solver.constraints.nary.count.PropCount_AC;
 import org.chocosolver.solver.constraints.nary.cumulative.Cumulative;
-import org.chocosolver.solver.constraints.nary.element.PropElementV_fast;
+import org.chocosolver.solver.constraints.nary.element.PropElementV_support;
 import org.chocosolver.solver.constraints.nary.globalcardinality.GlobalCardinality;
 import org.chocosolver.solver.constraints.nary.lex.PropLex;
 import org.chocosolver.solver.constraints.nary.lex.PropLexChain;
@@ -283,6 +285,21 @@ public class IntConstraintFactory {
         return new Constraint("Element", new PropElement(VALUE, TABLE, INDEX, OFFSET, PropElement.Sort.valueOf(SORT)));
     }
 
+    /**
+     * Build ELEMENT constraint: VALUE = TABLE[INDEX-OFFSET]
+     * <br/>
+     * Ensures arc consistency when both VALUE and INDEX have an enumerated domain, bound consistency otherwise,
+     * whatever the ordering of TABLE. Supports are maintained incrementally.
+     *
+     * @param VALUE  an integer variable taking its value in TABLE
+     * @param TABLE  an array of integer values
+     * @param INDEX  an integer variable representing the value of VALUE in TABLE
+     * @param OFFSET offset matching INDEX.LB and TABLE[0] (Generally 0)
+     */
+    public static Constraint element(IntVar VALUE, int[] TABLE, IntVar INDEX, int OFFSET) {
+        return new Constraint("Element", new PropElementSupport(VALUE, TABLE, INDEX, OFFSET));
+    }
+
     /**
      * Build ELEMENT constraint: VALUE = TABLE[INDEX]
      *
@@ -291,7 +308,7 @@ public class IntConstraintFactory {
      * @param INDEX an integer variable representing the value of VALUE in TABLE
      */
     public static Constraint element(IntVar VALUE, int[] TABLE, IntVar INDEX) {
-        return element(VALUE, TABLE, INDEX, 0, "detect");
+        return element(VALUE, TABLE, INDEX, 0);
     }
 
     /**
@@ -599,6 +616,8 @@ public class IntConstraintFactory {
      * forall b in [0,BIN_LOAD.length-1],
      * BIN_LOAD[b]=sum(ITEM_SIZE[i] | i in [0,ITEM_SIZE.length-1], ITEM_BIN[i] = b+OFFSET
      * forall i in [0,ITEM_SIZE.length-1], ITEM_BIN is in [OFFSET,BIN_LOAD.length-1+OFFSET],
+     * <p/>
+     * Filtered by a single propagator, working on ITEM_BIN and BIN_LOAD (see {@link PropBinPacking}).
      *
      * @param ITEM_BIN  IntVar representing the bin of each item
      * @param ITEM_SIZE int representing the size of each item
@@ -607,25 +626,7 @@ public class IntConstraintFactory {
      *                  (which counts from 1 to n instead of from 0 to n-1)
      */
     public static Constraint[] bin_packing(IntVar[] ITEM_BIN, int[] ITEM_SIZE, IntVar[] BIN_LOAD, int OFFSET) {
-        int nbBins = BIN_LOAD.length;
-        int nbItems = ITEM_BIN.length;
-        Solver s = ITEM_BIN[0].getSolver();
-        BoolVar[][] xbi = VF.boolMatrix("xbi", nbBins, nbItems, s);
-        int sum = 0;
-        for (int is : ITEM_SIZE) {
-            sum += is;
-        }
-        IntVar sumView = VF.fixed(sum, s);
-        // constraints
-        Constraint[] bpcons = new Constraint[nbItems + nbBins + 1];
-        for (int i = 0; i < nbItems; i++) {
-            bpcons[i] = ICF.boolean_channeling(ArrayUtils.getColumn(xbi, i), ITEM_BIN[i], OFFSET);
-        }
-        for (int b = 0; b < nbBins; b++) {
-            bpcons[nbItems + b] = ICF.scalar(xbi[b], ITEM_SIZE, BIN_LOAD[b]);
-        }
-        bpcons[nbItems + nbBins] = ICF.sum(BIN_LOAD, sumView);
-        return bpcons;
+        return new Constraint[]{new Constraint("BinPacking", new PropBinPacking(ITEM_BIN, ITEM_SIZE, BIN_LOAD, OFFSET))};
     }
 
     /**
@@ -905,11 +906,7 @@ public class IntConstraintFactory {
      * @param OFFSET int offset, generally 0
      */
     public static Constraint element(IntVar VALUE, IntVar[] TABLE, IntVar INDEX, int OFFSET) {
-        // uses two propagator to perform a fix point
-        return new Constraint(
-                "Element",
-                new PropElementV_fast(VALUE, TABLE, INDEX, OFFSET, true),
-                new PropElementV_fast(VALUE, TABLE, INDEX, OFFSET, true));
+        return new Constraint("Element", new PropElementV_support(VALUE, TABLE, INDEX, OFFSET));
     }
 
     /**
@@ -924,9 +921,32 @@ public class IntConstraintFactory {
      * @param CLOSED      restricts domains of VARS to VALUES if set to true
      */
     public static Constraint global_cardinality(IntVar[] VARS, int[] VALUES, IntVar[] OCCURRENCES, boolean CLOSED) {
+        return global_cardinality(VARS, VALUES, OCCURRENCES, CLOSED, "DEFAULT");
+    }
+
+    /**
+     * Global Cardinality constraint (GCC):
+     * Each value VALUES[i] should be taken by exactly OCCURRENCES[i] variables of VARS.
+     * The consistency level should be chosen among "AC" and "DEFAULT".
+     *
+     * @param VARS        collection of variables
+     * @param VALUES      collection of constrained values
+     * @param OCCURRENCES collection of cardinality variables
+     * @param CLOSED      restricts domains of VARS to VALUES if set to true
+     * @param CONSISTENCY consistency level, among {"AC", "DEFAULT"}
+     *                    <p>
+     *                    <b>AC</b>:
+     *                    Uses Regin algorithm: arc consistency on VARS and bound consistency on OCCURRENCES,
+     *                    based on a feasible flow which is repaired incrementally.
+     *                    <p>
+     *                    <b>DEFAULT</b>:
+     *                    Fast filtering, without any well-defined level of consistency.
+     */
+    public static Constraint global_cardinality(IntVar[] VARS, int[] VALUES, IntVar[] OCCURRENCES, boolean CLOSED,
+                                                String CONSISTENCY) {
         assert VALUES.length == OCCURRENCES.length;
         if (!CLOSED) {
-            return new GlobalCardinality(VARS, VALUES, OCCURRENCES);
+            return new GlobalCardinality(VARS, VALUES, OCCURRENCES, CONSISTENCY);
         } else {
             TIntArrayList toAdd = new TIntArrayList();
             TIntSet givenValues = new TIntHashSet();
@@ -954,9 +974,9 @@ public class IntConstraintFactory {
                     values[i] = toAdd.get(i - VALUES.length);
                     cards[i] = VariableFactory.fixed(0, VARS[0].getSolver());
                 }
-                return new GlobalCardinality(VARS, values, cards);
+                return new GlobalCardinality(VARS, values, cards, CONSISTENCY);
             } else {
-                return new GlobalCardinality(VARS, VALUES, OCCURRENCES);
+                return new GlobalCardinality(VARS, VALUES, OCCURRENCES, CONSISTENCY);
             }
         }
     }
@@ -1007,6 +1027,10 @@ public class IntConstraintFactory {
      * the total weight is less than or equal to a given limit and the total value is as large as possible.
      * It derives its name from the problem faced by someone who is constrained by a fixed-size knapsack
      * and must fill it with the most useful items."
+     * <p>
+     * When the capacity is small enough, the constraint is filtered by a dynamic programming graph
+     * which achieves arc-consistency on the weight equation ({@link PropKnapsackDP}),
+     * otherwise by a bound based on the items sorted by energy/weight ratio ({@link PropKnapsack}).
      *
      * @param OCCURRENCES  number of occurrences of an item
      * @param TOTAL_WEIGHT capacity of the knapsack
@@ -1019,7 +1043,9 @@ public class IntConstraintFactory {
         return new Constraint("Knapsack", ArrayUtils.append(
                 scalar(OCCURRENCES, WEIGHT, TOTAL_WEIGHT).propagators,
                 scalar(OCCURRENCES, ENERGY, TOTAL_ENERGY).propagators,
-                new Propagator[]{new PropKnapsack(OCCURRENCES, TOTAL_WEIGHT, TOTAL_ENERGY, WEIGHT, ENERGY)}
+                new Propagator[]{PropKnapsackDP.isAffordable(OCCURRENCES, TOTAL_WEIGHT, WEIGHT) ?
+                        new PropKnapsackDP(OCCURRENCES, TOTAL_WEIGHT, TOTAL_ENERGY, WEIGHT, ENERGY) :
+                        new PropKnapsack(OCCURRENCES, TOTAL_WEIGHT, TOTAL_ENERGY, WEIGHT, ENERGY)}
         ));
     }
 
@@ -1480,10 +1506,14 @@ public class IntConstraintFactory {
     /**
      * A constraint for the Traveling Salesman Problem :
      * Enforces SUCCS to form a hamiltonian circuit of value COST
+     * <p>
+     * In addition to the decomposition (element, sum and circuit), the cost of the circuit is bounded
+     * by the Held-Karp relaxation, which also removes arcs based on reduced costs
+     * (see {@link org.chocosolver.solver.constraints.nary.circuit.PropCircuitHeldKarp}).
      *
      * @param SUCCS       successors variables
      * @param COST        cost of the cycle
-     * @param COST_MATRIX symmetric cost matrix
+     * @param COST_MATRIX cost matrix, asymmetric matrices are handled but filtered less
      * @return a CP model for the TSP
      */
     public static Constraint[] tsp(IntVar[] SUCCS, IntVar COST, int[][] COST_MATRIX) {
@@ -1494,12 +1524,13 @@ public class IntConstraintFactory {
         for (int i = 0; i < n; i++) {
             costOf[i] = VF.enumerated("costOf(" + i + ")", COST_MATRIX[i], COST.getSolver());
         }
-        Constraint[] model = new Constraint[n + 2];
+        Constraint[] model = new Constraint[n + 3];
         for (int i = 0; i < n; i++) {
             model[i] = element(costOf[i], COST_MATRIX[i], SUCCS[i]);
         }
         model[n] = sum(costOf, COST);
         model[n + 1] = circuit(SUCCS, 0);
+        model[n + 2] = new Constraint("HeldKarp", new PropCircuitHeldKarp(SUCCS, 0, COST_MATRIX, COST));
         return model;
     }
 
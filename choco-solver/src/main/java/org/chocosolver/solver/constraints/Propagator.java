@@ -38,6 +38,7 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.explanations.RuleStore;
 import org.chocosolver.solver.propagation.NoPropagationEngine;
+import org.chocosolver.solver.search.limits.CancellationToken;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
@@ -432,6 +433,20 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         solver.getEngine().fails(aCause, variable, message);
     }
 
+    /**
+     * Throws a contradiction exception if the resolution has been cancelled.
+     * Expensive filtering algorithms should call it regularly, to stop as soon as possible.
+     *
+     * @throws org.chocosolver.solver.exception.ContradictionException if the resolution has been cancelled
+     * @see Solver#getCancellationToken()
+     */
+    protected final void checkCancellation() throws ContradictionException {
+        CancellationToken token = solver.getCancellationToken();
+        if (token.isCancelled()) {
+            solver.getEngine().fails(token, null, CancellationToken.MSG_CANCELLED);
+        }
+    }
+
     @Override
     public int compareTo(Propagator o) {
         return this.ID - o.ID;
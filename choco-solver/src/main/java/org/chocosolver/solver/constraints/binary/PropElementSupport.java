@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.binary;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.RuleStore;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * VALUE = TABLE[INDEX-OFFSET]
+ * <br/>
+ * Arc consistency when both variables have an enumerated domain, bound consistency otherwise.
+ * <br/>
+ * Positions of TABLE are grouped by value, and the distinct values are sorted:
+ * the bounds of VALUE are maintained with two backtrackable pointers over the sorted values,
+ * and each value keeps the last position found to support it (a residue), which remains valid upon backtrack.
+ * Removals are handled incrementally through the deltas of the variables.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropElementSupport extends Propagator<IntVar> {
+
+    private final int[] table;
+    private final int offset;
+    // distinct values of the table, in increasing order
+    private final int[] vals;
+    // positions of the table, sorted by value: positions of vals[k] are order[start[k]..start[k+1]-1]
+    private final int[] order, start;
+    // index in vals of the value at each position of the table
+    private final int[] rank;
+    // for each value, index in order of its last support
+    private final int[] residues;
+    // first and last values of vals which may still be supported
+    private final IStateInt lo, hi;
+    private final IIntDeltaMonitor[] idms;
+    private final IntProcedure onValueRemoval, onIndexRemoval;
+
+    public PropElementSupport(IntVar value, int[] table, IntVar index, int offset) {
+        super(ArrayUtils.toArray(value, index), PropagatorPriority.BINARY, true);
+        this.table = table;
+        this.offset = offset;
+        int n = table.length;
+        long[] keys = new long[n];
+        for (int p = 0; p < n; p++) {
+            keys[p] = ((long) table[p] << 32) | p;
+        }
+        Arrays.sort(keys);
+        this.order = new int[n];
+        this.rank = new int[n];
+        int[] vs = new int[n];
+        int[] st = new int[n + 1];
+        int k = -1;
+        for (int q = 0; q < n; q++) {
+            order[q] = (int) keys[q];
+            int v = table[order[q]];
+            if (k == -1 || vs[k] != v) {
+                vs[++k] = v;
+                st[k] = q;
+            }
+            rank[order[q]] = k;
+        }
+        this.vals = Arrays.copyOf(vs, k + 1);
+        this.start = Arrays.copyOf(st, k + 2);
+        this.start[k + 1] = n;
+        this.residues = Arrays.copyOf(start, k + 1);
+        this.lo = solver.getEnvironment().makeInt(0);
+        this.hi = solver.getEnvironment().makeInt(k);
+        this.idms = new IIntDeltaMonitor[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            idms[i] = vars[i].hasEnumeratedDomain() ? vars[i].monitorDelta(this) : IIntDeltaMonitor.Default.NONE;
+        }
+        this.onValueRemoval = v -> {
+            int b = Arrays.binarySearch(vals, v);
+            if (b >= 0) {
+                removePositions(b);
+            }
+        };
+        this.onIndexRemoval = i -> {
+            int p = i - this.offset;
+            if (p >= 0 && p < this.table.length) {
+                int b = rank[p];
+                if (vars[0].contains(vals[b]) && !supported(b)) {
+                    vars[0].removeValue(vals[b], aCause);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        IntVar value = vars[0], index = vars[1];
+        index.updateLowerBound(offset, aCause);
+        index.updateUpperBound(table.length - 1 + offset, aCause);
+        if (value.hasEnumeratedDomain()) {
+            // values out of the table are never supported
+            int ub = value.getUB();
+            for (int v = value.getLB(); v <= ub; v = value.nextValue(v)) {
+                if (Arrays.binarySearch(vals, v) < 0) {
+                    value.removeValue(v, aCause);
+                }
+            }
+        }
+        int size;
+        do {
+            size = value.getDomainSize() + index.getDomainSize();
+            int ub = index.getUB();
+            for (int i = index.getLB(); i <= ub; i = index.nextValue(i)) {
+                if (!value.contains(table[i - offset])) {
+                    index.removeValue(i, aCause);
+                }
+            }
+            filterBounds();
+            if (value.hasEnumeratedDomain()) {
+                for (int b = lo.get() + 1; b < hi.get(); b++) {
+                    if (value.contains(vals[b]) && !supported(b)) {
+                        value.removeValue(vals[b], aCause);
+                    }
+                }
+            }
+            // removing a position in the middle of a bounded domain has no effect: iterate until the fix point
+        } while (!index.hasEnumeratedDomain() && size != value.getDomainSize() + index.getDomainSize());
+        for (int i = 0; i < idms.length; i++) {
+            idms[i].unfreeze();
+        }
+    }
+
+    @Override
+    public void propagate(int varIdx, int mask) throws ContradictionException {
+        if (!vars[1].hasEnumeratedDomain()) {
+            propagate(0);
+            return;
+        }
+        idms[varIdx].freeze();
+        if (varIdx == 0) {
+            idms[varIdx].forEachRemVal(onValueRemoval);
+        } else if (vars[0].hasEnumeratedDomain()) {
+            idms[varIdx].forEachRemVal(onIndexRemoval);
+        }
+        idms[varIdx].unfreeze();
+        filterBounds();
+    }
+
+    /**
+     * @return true iff at least one position of the table holding vals[b] is in the domain of INDEX
+     */
+    private boolean supported(int b) {
+        if (vars[1].contains(order[residues[b]] + offset)) {
+            return true;
+        }
+        for (int q = start[b]; q < start[b + 1]; q++) {
+            if (vars[1].contains(order[q] + offset)) {
+                residues[b] = q;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removePositions(int b) throws ContradictionException {
+        for (int q = start[b]; q < start[b + 1]; q++) {
+            vars[1].removeValue(order[q] + offset, aCause);
+        }
+    }
+
+    private boolean viable(int b) {
+        return vars[0].contains(vals[b]) && supported(b);
+    }
+
+    /**
+     * Moves the pointers over the sorted values until supported bounds are found,
+     * removing the positions of the values skipped.
+     */
+    private void filterBounds() throws ContradictionException {
+        int l = lo.get(), h = hi.get();
+        while (l <= h && !viable(l)) {
+            removePositions(l++);
+        }
+        while (l <= h && !viable(h)) {
+            removePositions(h--);
+        }
+        if (l > h) {
+            contradiction(vars[0], "no support");
+        }
+        lo.set(l);
+        hi.set(h);
+        vars[0].updateLowerBound(vals[l], aCause);
+        vars[0].updateUpperBound(vals[h], aCause);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (this.vars[0].isInstantiated()) {
+            boolean allVal = true;
+            boolean oneVal = false;
+            int ub = this.vars[1].getUB();
+            for (int val = this.vars[1].getLB(); val <= ub; val = this.vars[1].nextValue(val)) {
+                boolean b = (val - this.offset) >= 0
+                        && (val - this.offset) < this.table.length
+                        && this.table[val - this.offset] == this.vars[0].getValue();
+                allVal &= b;
+                oneVal |= b;
+            }
+            if (allVal) {
+                return ESat.TRUE;
+            }
+            if (oneVal) {
+                return ESat.UNDEFINED;
+            }
+        } else {
+            int ub = this.vars[1].getUB();
+            for (int val = this.vars[1].getLB(); val <= ub; val = this.vars[1].nextValue(val)) {
+                if ((val - this.offset) >= 0 && (val - this.offset) < this.table.length
+                        && this.vars[0].contains(this.table[val - this.offset])) {
+                    return ESat.UNDEFINED;
+                }
+            }
+        }
+        return ESat.FALSE;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(32);
+        sb.append("nth(").append(this.vars[0]).append(" = ");
+        sb.append(" <");
+        int i = 0;
+        for (; i < Math.min(this.table.length - 1, 5); i++) {
+            sb.append(this.table[i]).append(", ");
+        }
+        if (i == 5 && this.table.length - 1 > 5) sb.append("..., ");
+        sb.append(this.table[table.length - 1]);
+        sb.append("> [").append(this.vars[1]).append("])");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean why(RuleStore ruleStore, IntVar var, IEventType evt, int value) {
+        return ruleStore.addPropagatorActivationRule(this)
+                | ruleStore.addFullDomainRule((var == vars[0]) ? vars[1] : vars[0]);
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            this.vars[0].duplicate(solver, identitymap);
+            IntVar X = (IntVar) identitymap.get(this.vars[0]);
+            this.vars[1].duplicate(solver, identitymap);
+            IntVar Y = (IntVar) identitymap.get(this.vars[1]);
+
+            identitymap.put(this, new PropElementSupport(X, this.table, Y, this.offset));
+        }
+    }
+}
@@ -154,7 +154,8 @@ public class PropLargeMDDC extends Propagator<IntVar> {
                 this.vars[i].duplicate(solver, identitymap);
                 aVars[i] = (IntVar) identitymap.get(this.vars[i]);
             }
-            identitymap.put(this, new PropLargeMDDC(MDD.duplicate(), aVars));
+            // the MDD is only read by the propagator, the duplicate can share it
+            identitymap.put(this, new PropLargeMDDC(MDD, aVars));
         }
     }
 }
@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.graph;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.DirectedGraphVar;
+import org.chocosolver.solver.variables.GraphVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.UndirectedGraphVar;
+import org.chocosolver.util.objects.graphs.Orientation;
+
+import java.util.Arrays;
+
+/**
+ * Constraints over graph variables
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class GraphConstraintFactory {
+
+    GraphConstraintFactory() {
+    }
+
+    //***********************************************************************************
+    // CONNECTIVITY
+    //***********************************************************************************
+
+    /**
+     * Constraint which ensures that GRAPH is connected (weakly connected if GRAPH is directed).
+     * The empty graph is considered as connected.
+     *
+     * @param GRAPH a graph variable
+     * @return A constraint ensuring that GRAPH is connected
+     */
+    public static Constraint connected(GraphVar GRAPH) {
+        return new Constraint("GraphConnected", new PropConnected(GRAPH));
+    }
+
+    /**
+     * Constraint which ensures that GRAPH has NB connected components
+     * (weakly connected components if GRAPH is directed)
+     *
+     * @param GRAPH a graph variable
+     * @param NB    an integer variable
+     * @return A constraint ensuring that GRAPH has NB connected components
+     */
+    public static Constraint nb_connected_components(GraphVar GRAPH, IntVar NB) {
+        return new Constraint("GraphNbCC", new PropNbCC(GRAPH, NB));
+    }
+
+    /**
+     * Constraint which ensures that GRAPH is a tree: it is connected and has no cycle.
+     * Hence, its number of edges is its number of nodes minus one.
+     *
+     * @param GRAPH an undirected graph variable
+     * @return A constraint ensuring that GRAPH is a tree
+     */
+    public static Constraint tree(UndirectedGraphVar GRAPH) {
+        return new Constraint("GraphTree", new PropConnected(GRAPH), new PropAcyclic(GRAPH));
+    }
+
+    /**
+     * Constraint which ensures that GRAPH has no cycle (it is a forest)
+     *
+     * @param GRAPH an undirected graph variable
+     * @return A constraint ensuring that GRAPH has no cycle
+     */
+    public static Constraint no_cycle(UndirectedGraphVar GRAPH) {
+        return new Constraint("GraphNoCycle", new PropAcyclic(GRAPH));
+    }
+
+    //***********************************************************************************
+    // DEGREES
+    //***********************************************************************************
+
+    /**
+     * Constraint which ensures that every node of GRAPH has at least MIN_DEGREE neighbors
+     *
+     * @param GRAPH      an undirected graph variable
+     * @param MIN_DEGREE minimum degree of the nodes which belong to GRAPH
+     * @return A constraint ensuring a minimum degree
+     */
+    public static Constraint min_degrees(UndirectedGraphVar GRAPH, int MIN_DEGREE) {
+        return min_degrees(GRAPH, fill(GRAPH, MIN_DEGREE));
+    }
+
+    /**
+     * Constraint which ensures that every node x of GRAPH has at least MIN_DEGREES[x] neighbors
+     *
+     * @param GRAPH       an undirected graph variable
+     * @param MIN_DEGREES minimum degree of each node, only applies to the nodes which belong to GRAPH
+     * @return A constraint ensuring a minimum degree
+     */
+    public static Constraint min_degrees(UndirectedGraphVar GRAPH, int[] MIN_DEGREES) {
+        return new Constraint("GraphMinDegrees", new PropNodeDegreeAtLeast(GRAPH, Orientation.SUCCESSORS, MIN_DEGREES));
+    }
+
+    /**
+     * Constraint which ensures that every node of GRAPH has at most MAX_DEGREE neighbors
+     *
+     * @param GRAPH      an undirected graph variable
+     * @param MAX_DEGREE maximum degree of the nodes
+     * @return A constraint ensuring a maximum degree
+     */
+    public static Constraint max_degrees(UndirectedGraphVar GRAPH, int MAX_DEGREE) {
+        return max_degrees(GRAPH, fill(GRAPH, MAX_DEGREE));
+    }
+
+    /**
+     * Constraint which ensures that every node x of GRAPH has at most MAX_DEGREES[x] neighbors
+     *
+     * @param GRAPH       an undirected graph variable
+     * @param MAX_DEGREES maximum degree of each node
+     * @return A constraint ensuring a maximum degree
+     */
+    public static Constraint max_degrees(UndirectedGraphVar GRAPH, int[] MAX_DEGREES) {
+        return new Constraint("GraphMaxDegrees", new PropNodeDegreeAtMost(GRAPH, Orientation.SUCCESSORS, MAX_DEGREES));
+    }
+
+    /**
+     * Constraint which ensures that every node x of GRAPH has at least MIN_DEGREES[x] successors
+     *
+     * @param GRAPH       a directed graph variable
+     * @param MIN_DEGREES minimum out-degree of each node, only applies to the nodes which belong to GRAPH
+     * @return A constraint ensuring a minimum out-degree
+     */
+    public static Constraint min_out_degrees(DirectedGraphVar GRAPH, int[] MIN_DEGREES) {
+        return new Constraint("GraphMinOutDegrees", new PropNodeDegreeAtLeast(GRAPH, Orientation.SUCCESSORS, MIN_DEGREES));
+    }
+
+    /**
+     * Constraint which ensures that every node x of GRAPH has at most MAX_DEGREES[x] successors
+     *
+     * @param GRAPH       a directed graph variable
+     * @param MAX_DEGREES maximum out-degree of each node
+     * @return A constraint ensuring a maximum out-degree
+     */
+    public static Constraint max_out_degrees(DirectedGraphVar GRAPH, int[] MAX_DEGREES) {
+        return new Constraint("GraphMaxOutDegrees", new PropNodeDegreeAtMost(GRAPH, Orientation.SUCCESSORS, MAX_DEGREES));
+    }
+
+    /**
+     * Constraint which ensures that every node x of GRAPH has at least MIN_DEGREES[x] predecessors
+     *
+     * @param GRAPH       a directed graph variable
+     * @param MIN_DEGREES minimum in-degree of each node, only applies to the nodes which belong to GRAPH
+     * @return A constraint ensuring a minimum in-degree
+     */
+    public static Constraint min_in_degrees(DirectedGraphVar GRAPH, int[] MIN_DEGREES) {
+        return new Constraint("GraphMinInDegrees", new PropNodeDegreeAtLeast(GRAPH, Orientation.PREDECESSORS, MIN_DEGREES));
+    }
+
+    /**
+     * Constraint which ensures that every node x of GRAPH has at most MAX_DEGREES[x] predecessors
+     *
+     * @param GRAPH       a directed graph variable
+     * @param MAX_DEGREES maximum in-degree of each node
+     * @return A constraint ensuring a maximum in-degree
+     */
+    public static Constraint max_in_degrees(DirectedGraphVar GRAPH, int[] MAX_DEGREES) {
+        return new Constraint("GraphMaxInDegrees", new PropNodeDegreeAtMost(GRAPH, Orientation.PREDECESSORS, MAX_DEGREES));
+    }
+
+    //***********************************************************************************
+    // COUNTING
+    //***********************************************************************************
+
+    /**
+     * Constraint which ensures that GRAPH has NB edges (a loop counts for one)
+     *
+     * @param GRAPH an undirected graph variable
+     * @param NB    an integer variable
+     * @return A constraint ensuring that GRAPH has NB edges
+     */
+    public static Constraint nb_edges(UndirectedGraphVar GRAPH, IntVar NB) {
+        return new Constraint("GraphNbEdges", new PropNbArcs(GRAPH, NB));
+    }
+
+    /**
+     * Constraint which ensures that GRAPH has NB arcs
+     *
+     * @param GRAPH a directed graph variable
+     * @param NB    an integer variable
+     * @return A constraint ensuring that GRAPH has NB arcs
+     */
+    public static Constraint nb_arcs(DirectedGraphVar GRAPH, IntVar NB) {
+        return new Constraint("GraphNbArcs", new PropNbArcs(GRAPH, NB));
+    }
+
+    private static int[] fill(GraphVar GRAPH, int DEGREE) {
+        int[] degrees = new int[GRAPH.getNbMaxNodes()];
+        Arrays.fill(degrees, DEGREE);
+        return degrees;
+    }
+}
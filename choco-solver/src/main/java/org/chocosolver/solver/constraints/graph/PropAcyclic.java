@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.graph;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.variables.events.GraphEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+/**
+ * Ensures that an undirected graph has no cycle (loops included):
+ * fails if the kernel has a cycle and removes the edges of the envelope
+ * whose extremities are already connected in the kernel.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropAcyclic extends Propagator<UndirectedGraphVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final UndirectedGraphVar g;
+    private final int n;
+    // union-find over the kernel edges
+    private final int[] parent;
+    // buffer to iterate over sets without using their internal cursor
+    private final int[] buffer;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    public PropAcyclic(UndirectedGraphVar graph) {
+        super(new UndirectedGraphVar[]{graph}, PropagatorPriority.LINEAR, false);
+        this.g = vars[0];
+        this.n = g.getNbMaxNodes();
+        this.parent = new int[n];
+        this.buffer = new int[n];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return GraphEventType.ADD_ARC.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (!unionKernel()) {
+            contradiction(g, "the kernel has a cycle");
+        }
+        UndirectedGraph env = g.getEnvelopeGraph();
+        UndirectedGraph ker = g.getKernelGraph();
+        for (int x = 0; x < n; x++) {
+            for (int y : env.getNeighOf(x).toArray()) {
+                if (x <= y && !ker.edgeExists(x, y) && find(x) == find(y)) {
+                    g.removeArc(x, y, aCause);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges the extremities of the kernel edges
+     *
+     * @return false iff the kernel has a cycle
+     */
+    private boolean unionKernel() {
+        for (int x = 0; x < n; x++) {
+            parent[x] = x;
+        }
+        UndirectedGraph ker = g.getKernelGraph();
+        for (int x = 0; x < n; x++) {
+            ISet nei = ker.getNeighOf(x);
+            for (int i = 0, k = nei.toArray(buffer); i < k; i++) {
+                int y = buffer[i];
+                if (x <= y) {
+                    int rx = find(x), ry = find(y);
+                    if (rx == ry) {
+                        return false;
+                    }
+                    parent[rx] = ry;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (!unionKernel()) {
+            return ESat.FALSE;
+        }
+        if (g.isInstantiated()) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            g.duplicate(solver, identitymap);
+            identitymap.put(this, new PropAcyclic((UndirectedGraphVar) identitymap.get(g)));
+        }
+    }
+}
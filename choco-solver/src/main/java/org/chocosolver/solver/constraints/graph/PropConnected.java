@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.graph;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.GraphVar;
+import org.chocosolver.solver.variables.events.GraphEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.IGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+import java.util.Arrays;
+
+/**
+ * Ensures that a graph is connected (weakly connected if it is directed):
+ * mandatory nodes must be reachable from each other in the envelope,
+ * and nodes which cannot reach them are removed.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropConnected extends Propagator<GraphVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final GraphVar g;
+    private final int n;
+    private final boolean[] visited;
+    private final int[] fifo;
+    // buffer to iterate over sets without using their internal cursor
+    private final int[] buffer;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    public PropConnected(GraphVar graph) {
+        super(new GraphVar[]{graph}, PropagatorPriority.LINEAR, false);
+        this.g = vars[0];
+        this.n = g.getNbMaxNodes();
+        this.visited = new boolean[n];
+        this.fifo = new int[n];
+        this.buffer = new int[n];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return GraphEventType.REMOVE_ARC.getMask() + GraphEventType.REMOVE_NODE.getMask() + GraphEventType.ADD_NODE.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        ISet mand = g.getKernelGraph().getNodes();
+        if (mand.getSize() == 0) {
+            return;
+        }
+        if (!explore(g.getEnvelopeGraph(), mand.newIterator().nextInt(), visited, fifo)) {
+            contradiction(g, "mandatory nodes cannot be connected");
+        }
+        int[] nodes = g.getEnvelopeGraph().getNodes().toArray();
+        for (int x : nodes) {
+            if (!visited[x]) {
+                g.removeNode(x, aCause);
+            }
+        }
+    }
+
+    /**
+     * Breadth-first search in graph, ignoring arc directions
+     *
+     * @return true iff all nodes of the kernel have been reached
+     */
+    private boolean explore(IGraph graph, int root, boolean[] visited, int[] fifo) {
+        Arrays.fill(visited, false);
+        int first = 0, last = 0;
+        fifo[last++] = root;
+        visited[root] = true;
+        while (first < last) {
+            int x = fifo[first++];
+            last = push(graph.getSuccOrNeighOf(x), visited, fifo, last);
+            if (graph.isDirected()) {
+                last = push(graph.getPredOrNeighOf(x), visited, fifo, last);
+            }
+        }
+        ISet mand = g.getKernelGraph().getNodes();
+        for (int i = 0, k = mand.toArray(buffer); i < k; i++) {
+            if (!visited[buffer[i]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int push(ISet next, boolean[] visited, int[] fifo, int last) {
+        for (int i = 0, k = next.toArray(buffer); i < k; i++) {
+            int y = buffer[i];
+            if (!visited[y]) {
+                visited[y] = true;
+                fifo[last++] = y;
+            }
+        }
+        return last;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        ISet mand = g.getKernelGraph().getNodes();
+        if (mand.getSize() == 0) {
+            return g.isInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+        }
+        boolean[] vis = new boolean[n];
+        int[] f = new int[n];
+        if (!explore(g.getEnvelopeGraph(), mand.newIterator().nextInt(), vis, f)) {
+            return ESat.FALSE;
+        }
+        if (g.isInstantiated()) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            g.duplicate(solver, identitymap);
+            identitymap.put(this, new PropConnected((GraphVar) identitymap.get(g)));
+        }
+    }
+}
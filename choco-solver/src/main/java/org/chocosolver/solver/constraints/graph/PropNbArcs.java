@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.graph;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.GraphVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.GraphEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.IGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+/**
+ * Ensures that NB is the number of arcs of a graph (of edges if it is undirected, a loop counts for one)
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropNbArcs extends Propagator<Variable> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final GraphVar g;
+    private final IntVar nb;
+    private final int n;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    public PropNbArcs(GraphVar graph, IntVar nb) {
+        super(new Variable[]{graph, nb}, PropagatorPriority.LINEAR, false);
+        this.g = graph;
+        this.nb = nb;
+        this.n = g.getNbMaxNodes();
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return vIdx == 0 ? GraphEventType.ADD_ARC.getMask() + GraphEventType.REMOVE_ARC.getMask() : IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        IGraph env = g.getEnvelopeGraph();
+        IGraph ker = g.getKernelGraph();
+        int k = count(ker);
+        int e = count(env);
+        nb.updateLowerBound(k, aCause);
+        nb.updateUpperBound(e, aCause);
+        if (k < e && (nb.getUB() == k || nb.getLB() == e)) {
+            boolean enforce = nb.getLB() == e;
+            for (int x = 0; x < n; x++) {
+                for (int y : env.getSuccOrNeighOf(x).toArray()) {
+                    if (enforce) {
+                        g.enforceArc(x, y, aCause);
+                    } else if (!ker.isArcOrEdge(x, y)) {
+                        g.removeArc(x, y, aCause);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of arcs (or edges) of graph
+     */
+    private int count(IGraph graph) {
+        int c = 0, loops = 0;
+        for (int x = 0; x < n; x++) {
+            ISet succ = graph.getSuccOrNeighOf(x);
+            c += succ.getSize();
+            if (succ.contain(x)) {
+                loops++;
+            }
+        }
+        return graph.isDirected() ? c : (c + loops) / 2;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        int k = count(g.getKernelGraph());
+        int e = count(g.getEnvelopeGraph());
+        if (k > nb.getUB() || e < nb.getLB()) {
+            return ESat.FALSE;
+        }
+        if (isCompletelyInstantiated()) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            g.duplicate(solver, identitymap);
+            nb.duplicate(solver, identitymap);
+            identitymap.put(this, new PropNbArcs((GraphVar) identitymap.get(g), (IntVar) identitymap.get(nb)));
+        }
+    }
+}
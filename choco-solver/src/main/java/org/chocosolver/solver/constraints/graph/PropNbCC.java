@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.graph;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.GraphVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.GraphEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.IGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+import java.util.Arrays;
+
+/**
+ * Ensures that NB is the number of connected components of a graph
+ * (weakly connected components if it is directed).
+ * <br/>
+ * The number of components is at least the number of components of the envelope containing a mandatory node,
+ * and at most the number of components of the kernel plus the number of optional nodes.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropNbCC extends Propagator<Variable> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final GraphVar g;
+    private final IntVar nb;
+    private final int n;
+    // component index of each node, in the envelope and in the kernel
+    private final int[] envCC, kerCC;
+    private final int[] fifo;
+    // buffer to iterate over sets without using their internal cursor
+    private final int[] buffer;
+    private final boolean[] mandCC;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    public PropNbCC(GraphVar graph, IntVar nb) {
+        super(new Variable[]{graph, nb}, PropagatorPriority.LINEAR, false);
+        this.g = graph;
+        this.nb = nb;
+        this.n = g.getNbMaxNodes();
+        this.envCC = new int[n];
+        this.kerCC = new int[n];
+        this.fifo = new int[n];
+        this.buffer = new int[n];
+        this.mandCC = new boolean[n];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return vIdx == 0 ? GraphEventType.all() : IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        IGraph env = g.getEnvelopeGraph();
+        IGraph ker = g.getKernelGraph();
+        int nbEnvCC = components(env, envCC);
+        int nbKerCC = components(ker, kerCC);
+        // lower bound: envelope components holding a mandatory node
+        Arrays.fill(mandCC, 0, nbEnvCC, false);
+        ISet mand = ker.getNodes();
+        for (int i = 0, k = mand.toArray(buffer); i < k; i++) {
+            mandCC[envCC[buffer[i]]] = true;
+        }
+        int lb = 0;
+        for (int c = 0; c < nbEnvCC; c++) {
+            if (mandCC[c]) {
+                lb++;
+            }
+        }
+        // upper bound: each optional node may be an isolated component
+        int ub = nbKerCC + env.getNodes().getSize() - mand.getSize();
+        nb.updateLowerBound(lb, aCause);
+        nb.updateUpperBound(ub, aCause);
+        if (nb.getUB() == lb && lb < ub) {
+            // no other component can appear
+            for (int x : env.getNodes().toArray()) {
+                if (!mandCC[envCC[x]]) {
+                    g.removeNode(x, aCause);
+                }
+            }
+        } else if (nb.getLB() == ub && lb < ub) {
+            // every optional node is an isolated component and kernel components cannot be merged (loops are harmless)
+            for (int x : env.getNodes().toArray()) {
+                g.enforceNode(x, aCause);
+            }
+            for (int x = 0; x < n; x++) {
+                for (int y : env.getSuccOrNeighOf(x).toArray()) {
+                    if (x != y && !ker.isArcOrEdge(x, y) && (kerCC[x] != kerCC[y] || kerCC[x] == -1)) {
+                        g.removeArc(x, y, aCause);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the connected components of the nodes of graph, ignoring arc directions
+     *
+     * @param graph a graph
+     * @param cc    component index of each node, -1 for nodes not in graph
+     * @return the number of components
+     */
+    private int components(IGraph graph, int[] cc) {
+        Arrays.fill(cc, -1);
+        int nbCC = 0;
+        ISet nodes = graph.getNodes();
+        for (int r = 0; r < n; r++) {
+            if (cc[r] == -1 && nodes.contain(r)) {
+                int first = 0, last = 0;
+                fifo[last++] = r;
+                cc[r] = nbCC;
+                while (first < last) {
+                    int x = fifo[first++];
+                    last = push(graph.getSuccOrNeighOf(x), cc, nbCC, last);
+                    if (graph.isDirected()) {
+                        last = push(graph.getPredOrNeighOf(x), cc, nbCC, last);
+                    }
+                }
+                nbCC++;
+            }
+        }
+        return nbCC;
+    }
+
+    private int push(ISet next, int[] cc, int c, int last) {
+        for (int i = 0, k = next.toArray(buffer); i < k; i++) {
+            int y = buffer[i];
+            if (cc[y] == -1) {
+                cc[y] = c;
+                fifo[last++] = y;
+            }
+        }
+        return last;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (g.isInstantiated()) {
+            int c = components(g.getKernelGraph(), kerCC);
+            if (nb.isInstantiated()) {
+                return ESat.eval(c == nb.getValue());
+            }
+            return nb.contains(c) ? ESat.UNDEFINED : ESat.FALSE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            g.duplicate(solver, identitymap);
+            nb.duplicate(solver, identitymap);
+            identitymap.put(this, new PropNbCC((GraphVar) identitymap.get(g), (IntVar) identitymap.get(nb)));
+        }
+    }
+}
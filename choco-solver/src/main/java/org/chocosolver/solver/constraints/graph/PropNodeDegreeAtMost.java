@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.graph;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.GraphVar;
+import org.chocosolver.solver.variables.events.GraphEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.IGraph;
+import org.chocosolver.util.objects.graphs.Orientation;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+/**
+ * Ensures that every node of a graph has at most degrees[x] neighbors (or successors, or predecessors).
+ * Once a node reaches its maximum degree in the kernel, its other arcs are removed from the envelope.
+ * Nodes which do not belong to the graph are not constrained.
+ * In an undirected graph, a loop counts for one.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropNodeDegreeAtMost extends Propagator<GraphVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final GraphVar g;
+    private final Orientation orientation;
+    private final int[] degrees;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * @param graph       a graph variable
+     * @param orientation SUCCESSORS or PREDECESSORS, ignored if graph is undirected
+     * @param degrees     degree bound of each node
+     */
+    public PropNodeDegreeAtMost(GraphVar graph, Orientation orientation, int[] degrees) {
+        super(new GraphVar[]{graph}, PropagatorPriority.LINEAR, false);
+        this.g = vars[0];
+        this.orientation = orientation;
+        this.degrees = degrees;
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return GraphEventType.ADD_ARC.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        IGraph env = g.getEnvelopeGraph();
+        IGraph ker = g.getKernelGraph();
+        for (int x : ker.getNodes().toArray()) {
+            int d = target(ker, x).getSize();
+            if (d > degrees[x]) {
+                contradiction(g, "maximum degree exceeded");
+            } else if (d == degrees[x] && target(env, x).getSize() > d) {
+                for (int y : target(env, x).toArray()) {
+                    if (!isMandatory(x, y)) {
+                        remove(x, y);
+                    }
+                }
+            }
+        }
+    }
+
+    private ISet target(IGraph graph, int x) {
+        return orientation == Orientation.PREDECESSORS ? graph.getPredOrNeighOf(x) : graph.getSuccOrNeighOf(x);
+    }
+
+    private boolean isMandatory(int x, int y) {
+        return orientation == Orientation.PREDECESSORS ? g.getKernelGraph().isArcOrEdge(y, x) : g.getKernelGraph().isArcOrEdge(x, y);
+    }
+
+    private void remove(int x, int y) throws ContradictionException {
+        if (orientation == Orientation.PREDECESSORS) {
+            g.removeArc(y, x, aCause);
+        } else {
+            g.removeArc(x, y, aCause);
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        IGraph env = g.getEnvelopeGraph();
+        IGraph ker = g.getKernelGraph();
+        for (int x : env.getNodes().toArray()) {
+            if (target(ker, x).getSize() > degrees[x]) {
+                return ESat.FALSE;
+            }
+        }
+        if (g.isInstantiated()) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            g.duplicate(solver, identitymap);
+            identitymap.put(this, new PropNodeDegreeAtMost((GraphVar) identitymap.get(g), orientation, degrees));
+        }
+    }
+}
@@ -0,0 +1,535 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateIntVector;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.BitSet;
+
+/**
+ * Knapsack propagator based on dynamic programming (M. Trick, "A Dynamic Programming Approach for Consistency
+ * and Propagation for Knapsack Constraints", 2003).
+ * <br/>
+ * A layered graph is built over the partial weights: node (i, s) states that the items 0..i-1 weigh s.
+ * An arc, labelled by a value v of OCCURRENCES[i], links (i, s) to (i+1, s + WEIGHT[i] * v).
+ * The paths from (0, 0) to a node (n, t), where t is a value of TOTAL_WEIGHT, are the solutions of the weight equation,
+ * so keeping the values supported by an arc of such a path achieves arc-consistency on it.
+ * <br/>
+ * The graph is reversible: the in- and out-degrees of the nodes and the number of arcs labelled by each value are
+ * stored in reversible vectors and maintained incrementally on value removals.
+ * In addition, longest and shortest paths with respect to ENERGY bound TOTAL_ENERGY and remove the arcs
+ * which cannot lead to an energy in its domain.
+ * <br/>
+ * The graph is made of (n+1) * (TOTAL_WEIGHT.getUB()+1) nodes, so this propagator is dedicated to small capacities;
+ * see {@link #isAffordable(IntVar[], IntVar, int[])}. Otherwise, {@link PropKnapsack} should be used.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropKnapsackDP extends Propagator<IntVar> {
+
+    /**
+     * Maximum number of nodes of the graph
+     */
+    public static final int MAX_NODES = 1 << 18;
+
+    /**
+     * Maximum number of arcs of the graph
+     */
+    public static final long MAX_ARCS = 1L << 23;
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n, cap, width;
+    private final int[] weight, energy;
+    private final IntVar capacity, power;
+    // alive nodes, per layer
+    private final IStateBitSet[] alive;
+    // in-degree and out-degree of the nodes
+    private final IStateIntVector in, out;
+    // number of arcs labelled by each value of each item
+    private final IStateIntVector supports;
+    private final int[] lo, base;
+    private final IIntDeltaMonitor[] idms;
+    private final IntProcedure remProc, capProc;
+    private final int[] stack;
+    private int top;
+    private int layer;
+    private long[] fmin, fmax, bmin, bmax;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Knapsack propagator, based on a reversible dynamic programming graph
+     *
+     * @param itemOccurence number of occurrences of each item, non-negative
+     * @param capacity      total weight
+     * @param power         total energy
+     * @param weight        weight of each item, non-negative
+     * @param energy        energy of each item
+     */
+    public PropKnapsackDP(IntVar[] itemOccurence, IntVar capacity, IntVar power, int[] weight, int[] energy) {
+        super(ArrayUtils.append(itemOccurence, new IntVar[]{capacity, power}), PropagatorPriority.QUADRATIC, true);
+        this.n = itemOccurence.length;
+        this.weight = weight.clone();
+        this.energy = energy.clone();
+        this.capacity = vars[n];
+        this.power = vars[n + 1];
+        this.cap = Math.max(capacity.getUB(), 0);
+        this.width = cap + 1;
+        IEnvironment environment = solver.getEnvironment();
+        this.alive = new IStateBitSet[n + 1];
+        for (int i = 0; i <= n; i++) {
+            alive[i] = environment.makeBitSet(width);
+        }
+        this.in = environment.makeIntVector((n + 1) * width, 0);
+        this.out = environment.makeIntVector((n + 1) * width, 0);
+        this.lo = new int[n];
+        this.base = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            lo[i] = vars[i].getLB();
+            base[i + 1] = base[i] + vars[i].getUB() - lo[i] + 1;
+        }
+        this.supports = environment.makeIntVector(base[n], 0);
+        this.idms = new IIntDeltaMonitor[n + 1];
+        for (int i = 0; i <= n; i++) {
+            idms[i] = vars[i].monitorDelta(this);
+        }
+        this.remProc = v -> removeArcs(layer, v);
+        this.capProc = t -> {
+            if (t >= 0 && t <= cap) {
+                kill(n, t);
+            }
+        };
+        this.stack = new int[(n + 1) * width];
+    }
+
+    /**
+     * Indicate whether the graph built by this propagator would be of reasonable size.
+     *
+     * @param itemOccurence number of occurrences of each item
+     * @param capacity      total weight
+     * @param weight        weight of each item
+     * @return <tt>true</tt> if the weights and the occurrences are non-negative and the graph is small enough
+     */
+    public static boolean isAffordable(IntVar[] itemOccurence, IntVar capacity, int[] weight) {
+        long width = (long) capacity.getUB() + 1;
+        if (width <= 0 || width * (itemOccurence.length + 1) > MAX_NODES) {
+            return false;
+        }
+        long arcs = 0;
+        for (int i = 0; i < itemOccurence.length; i++) {
+            if (weight[i] < 0 || itemOccurence[i].getLB() < 0) {
+                return false;
+            }
+            long size = itemOccurence[i].getDomainSize();
+            if (weight[i] > 0) {
+                size = Math.min(size, capacity.getUB() / weight[i] + 1);
+            }
+            arcs += size * width;
+        }
+        return arcs <= MAX_ARCS;
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return vIdx <= n ? IntEventType.all() : IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        top = 0; // nodes left pending by a previous failure
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            build();
+        }
+        filterCapacity();
+        filterEnergy();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        top = 0; // nodes left pending by a previous failure
+        if (idxVarInProp < n) {
+            layer = idxVarInProp;
+            idms[layer].freeze();
+            idms[layer].forEachRemVal(remProc);
+            idms[layer].unfreeze();
+            processKills();
+        } else if (idxVarInProp == n) {
+            idms[n].freeze();
+            idms[n].forEachRemVal(capProc);
+            idms[n].unfreeze();
+            processKills();
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    /**
+     * Build the graph from scratch: forward reachability from the source, then backward reachability from the sinks.
+     */
+    private void build() throws ContradictionException {
+        for (int i = 0; i < n; i++) {
+            vars[i].updateLowerBound(0, aCause);
+        }
+        capacity.updateLowerBound(0, aCause);
+        BitSet[] reach = new BitSet[n + 1];
+        reach[0] = new BitSet(width);
+        reach[0].set(0);
+        for (int i = 0; i < n; i++) {
+            reach[i + 1] = new BitSet(width);
+            for (int s = reach[i].nextSetBit(0); s > -1; s = reach[i].nextSetBit(s + 1)) {
+                int ub = vars[i].getUB();
+                for (int v = vars[i].getLB(); v <= ub && s + (long) weight[i] * v <= cap; v = vars[i].nextValue(v)) {
+                    reach[i + 1].set(s + weight[i] * v);
+                }
+            }
+        }
+        for (int t = reach[n].nextSetBit(0); t > -1; t = reach[n].nextSetBit(t + 1)) {
+            if (!capacity.contains(t)) {
+                reach[n].clear(t);
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            for (int s = reach[i].nextSetBit(0); s > -1; s = reach[i].nextSetBit(s + 1)) {
+                boolean support = false;
+                int ub = vars[i].getUB();
+                for (int v = vars[i].getLB(); v <= ub && !support && s + (long) weight[i] * v <= cap; v = vars[i].nextValue(v)) {
+                    support = reach[i + 1].get(s + weight[i] * v);
+                }
+                if (!support) {
+                    reach[i].clear(s);
+                }
+            }
+        }
+        if (!reach[0].get(0)) {
+            contradiction(capacity, "no combination of items reaches the capacity");
+        }
+        for (int i = 0; i <= n; i++) {
+            alive[i].clear();
+            for (int s = reach[i].nextSetBit(0); s > -1; s = reach[i].nextSetBit(s + 1)) {
+                alive[i].set(s);
+                in.quickSet(i * width + s, 0);
+                out.quickSet(i * width + s, 0);
+            }
+        }
+        for (int k = base[n] - 1; k >= 0; k--) {
+            supports.quickSet(k, 0);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int s = reach[i].nextSetBit(0); s > -1; s = reach[i].nextSetBit(s + 1)) {
+                int ub = vars[i].getUB();
+                for (int v = vars[i].getLB(); v <= ub && s + (long) weight[i] * v <= cap; v = vars[i].nextValue(v)) {
+                    int t = s + weight[i] * v;
+                    if (reach[i + 1].get(t)) {
+                        inc(out, i * width + s);
+                        inc(in, (i + 1) * width + t);
+                        inc(supports, base[i] + v - lo[i]);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int ub = vars[i].getUB();
+            for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
+                if (supports.quickGet(base[i] + v - lo[i]) == 0) {
+                    vars[i].removeValue(v, aCause);
+                }
+            }
+            pruneBounds(i);
+            idms[i].unfreeze();
+        }
+        idms[n].unfreeze();
+    }
+
+    private static void inc(IStateIntVector vector, int k) {
+        vector.quickSet(k, vector.quickGet(k) + 1);
+    }
+
+    private static int dec(IStateIntVector vector, int k) {
+        int value = vector.quickGet(k) - 1;
+        vector.quickSet(k, value);
+        return value;
+    }
+
+    /**
+     * Remove the arcs labelled by <code>v</code> between layers <code>i</code> and <code>i+1</code>.
+     */
+    private void removeArcs(int i, int v) {
+        if (v < lo[i] || v > lo[i] + base[i + 1] - base[i] - 1) {
+            return;
+        }
+        for (int s = alive[i].nextSetBit(0); s > -1 && s + (long) weight[i] * v <= cap; s = alive[i].nextSetBit(s + 1)) {
+            int t = s + weight[i] * v;
+            if (alive[i + 1].get(t)) {
+                if (dec(out, i * width + s) == 0) {
+                    push(i, s);
+                }
+                if (dec(in, (i + 1) * width + t) == 0) {
+                    push(i + 1, t);
+                }
+            }
+        }
+        supports.quickSet(base[i] + v - lo[i], 0);
+    }
+
+    private void kill(int i, int s) {
+        if (alive[i].get(s)) {
+            push(i, s);
+        }
+    }
+
+    private void push(int i, int s) {
+        stack[top++] = i * width + s;
+    }
+
+    /**
+     * Remove the pending nodes, and their arcs, from the graph.
+     * A value which does not label an arc anymore is removed from its variable.
+     */
+    private void processKills() throws ContradictionException {
+        while (top > 0) {
+            int node = stack[--top];
+            int i = node / width, s = node % width;
+            if (!alive[i].get(s)) {
+                continue;
+            }
+            alive[i].clear(s);
+            if (i < n) {
+                IntVar var = vars[i];
+                int ub = var.getUB();
+                for (int v = var.getLB(); v <= ub && s + (long) weight[i] * v <= cap; v = var.nextValue(v)) {
+                    int t = s + weight[i] * v;
+                    if (alive[i + 1].get(t)) {
+                        if (dec(in, (i + 1) * width + t) == 0) {
+                            push(i + 1, t);
+                        }
+                        if (dec(supports, base[i] + v - lo[i]) == 0) {
+                            var.removeValue(v, aCause);
+                        }
+                    }
+                }
+            }
+            if (i > 0) {
+                IntVar var = vars[i - 1];
+                int ub = var.getUB();
+                for (int u = var.getLB(); u <= ub && s - (long) weight[i - 1] * u >= 0; u = var.nextValue(u)) {
+                    int p = s - weight[i - 1] * u;
+                    if (alive[i - 1].get(p)) {
+                        if (dec(out, (i - 1) * width + p) == 0) {
+                            push(i - 1, p);
+                        }
+                        if (dec(supports, base[i - 1] + u - lo[i - 1]) == 0) {
+                            var.removeValue(u, aCause);
+                        }
+                    }
+                }
+            }
+        }
+        if (!alive[0].get(0)) {
+            contradiction(capacity, "no combination of items reaches the capacity");
+        }
+        for (int i = 0; i < n; i++) {
+            if (!vars[i].hasEnumeratedDomain()) {
+                pruneBounds(i);
+            }
+        }
+    }
+
+    /**
+     * Move the bounds of OCCURRENCES[i] to values labelling an arc,
+     * since the values inside a bounded domain cannot be removed.
+     */
+    private void pruneBounds(int i) throws ContradictionException {
+        IntVar var = vars[i];
+        int lb = var.getLB(), ub = var.getUB();
+        while (lb <= ub && supports.quickGet(base[i] + lb - lo[i]) == 0) {
+            lb++;
+        }
+        while (ub >= lb && supports.quickGet(base[i] + ub - lo[i]) == 0) {
+            ub--;
+        }
+        var.updateLowerBound(lb, aCause);
+        var.updateUpperBound(ub, aCause);
+    }
+
+    /**
+     * Remove from TOTAL_WEIGHT the values which do not match an alive sink.
+     */
+    private void filterCapacity() throws ContradictionException {
+        if (capacity.hasEnumeratedDomain()) {
+            int ub = capacity.getUB();
+            for (int t = capacity.getLB(); t <= ub; t = capacity.nextValue(t)) {
+                if (t > cap || !alive[n].get(t)) {
+                    capacity.removeValue(t, aCause);
+                }
+            }
+        } else {
+            capacity.updateLowerBound(alive[n].nextSetBit(0), aCause);
+            capacity.updateUpperBound(alive[n].prevSetBit(cap), aCause);
+        }
+    }
+
+    /**
+     * Compute the shortest and longest paths with respect to energy, update TOTAL_ENERGY bounds accordingly,
+     * then remove the values whose arcs all lead to an energy out of TOTAL_ENERGY bounds.
+     */
+    private void filterEnergy() throws ContradictionException {
+        if (fmin == null) {
+            int size = (n + 1) * width;
+            fmin = new long[size];
+            fmax = new long[size];
+            bmin = new long[size];
+            bmax = new long[size];
+        }
+        fmin[0] = fmax[0] = 0;
+        for (int i = 0; i < n; i++) {
+            for (int t = alive[i + 1].nextSetBit(0); t > -1; t = alive[i + 1].nextSetBit(t + 1)) {
+                fmin[(i + 1) * width + t] = Long.MAX_VALUE;
+                fmax[(i + 1) * width + t] = Long.MIN_VALUE;
+            }
+            IntVar var = vars[i];
+            int ub = var.getUB();
+            for (int s = alive[i].nextSetBit(0); s > -1; s = alive[i].nextSetBit(s + 1)) {
+                int k = i * width + s;
+                for (int v = var.getLB(); v <= ub && s + (long) weight[i] * v <= cap; v = var.nextValue(v)) {
+                    int t = s + weight[i] * v;
+                    if (alive[i + 1].get(t)) {
+                        int l = (i + 1) * width + t;
+                        long e = (long) energy[i] * v;
+                        fmin[l] = Math.min(fmin[l], fmin[k] + e);
+                        fmax[l] = Math.max(fmax[l], fmax[k] + e);
+                    }
+                }
+            }
+        }
+        for (int t = alive[n].nextSetBit(0); t > -1; t = alive[n].nextSetBit(t + 1)) {
+            bmin[n * width + t] = bmax[n * width + t] = 0;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            IntVar var = vars[i];
+            int ub = var.getUB();
+            for (int s = alive[i].nextSetBit(0); s > -1; s = alive[i].nextSetBit(s + 1)) {
+                int k = i * width + s;
+                bmin[k] = Long.MAX_VALUE;
+                bmax[k] = Long.MIN_VALUE;
+                for (int v = var.getLB(); v <= ub && s + (long) weight[i] * v <= cap; v = var.nextValue(v)) {
+                    int t = s + weight[i] * v;
+                    if (alive[i + 1].get(t)) {
+                        int l = (i + 1) * width + t;
+                        long e = (long) energy[i] * v;
+                        bmin[k] = Math.min(bmin[k], bmin[l] + e);
+                        bmax[k] = Math.max(bmax[k], bmax[l] + e);
+                    }
+                }
+            }
+        }
+        power.updateLowerBound((int) bmin[0], aCause);
+        power.updateUpperBound((int) bmax[0], aCause);
+        long elb = power.getLB(), eub = power.getUB();
+        for (int i = 0; i < n; i++) {
+            IntVar var = vars[i];
+            int ub = var.getUB();
+            for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+                boolean support = false;
+                long e = (long) energy[i] * v;
+                for (int s = alive[i].nextSetBit(0); s > -1 && !support && s + (long) weight[i] * v <= cap;
+                     s = alive[i].nextSetBit(s + 1)) {
+                    int t = s + weight[i] * v;
+                    if (alive[i + 1].get(t)) {
+                        int k = i * width + s, l = (i + 1) * width + t;
+                        support = fmax[k] + e + bmax[l] >= elb && fmin[k] + e + bmin[l] <= eub;
+                    }
+                }
+                // a value inside a bounded domain cannot be removed, so its arcs are kept
+                if (!support && var.removeValue(v, aCause)) {
+                    removeArcs(i, v);
+                }
+            }
+        }
+        processKills();
+        filterCapacity();
+    }
+
+    @Override
+    public ESat isEntailed() {
+        long wmin = 0, wmax = 0, emin = 0, emax = 0;
+        for (int i = 0; i < n; i++) {
+            wmin += (long) weight[i] * vars[i].getLB();
+            wmax += (long) weight[i] * vars[i].getUB();
+            long e1 = (long) energy[i] * vars[i].getLB(), e2 = (long) energy[i] * vars[i].getUB();
+            emin += Math.min(e1, e2);
+            emax += Math.max(e1, e2);
+        }
+        if (wmin > capacity.getUB() || wmax < capacity.getLB() || emin > power.getUB() || emax < power.getLB()) {
+            return ESat.FALSE;
+        }
+        if (isCompletelyInstantiated()) {
+            return ESat.eval(wmin == capacity.getValue() && emin == power.getValue());
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            IntVar[] aVars = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                vars[i].duplicate(solver, identitymap);
+                aVars[i] = (IntVar) identitymap.get(vars[i]);
+            }
+            capacity.duplicate(solver, identitymap);
+            IntVar aCapacity = (IntVar) identitymap.get(capacity);
+            power.duplicate(solver, identitymap);
+            IntVar aPower = (IntVar) identitymap.get(power);
+            identitymap.put(this, new PropKnapsackDP(aVars, aCapacity, aPower, weight, energy));
+        }
+    }
+}
@@ -31,6 +31,7 @@ package org.chocosolver.solver.constraints.nary.alldifferent.algo;
 import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.limits.CancellationToken;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.graphOperations.connectivity.StrongConnectivityFinder;
 import org.chocosolver.util.objects.graphs.DirectedGraph;
@@ -61,6 +62,7 @@ public class AlgoAllDiffAC {
     int[] fifo;
 	IntVar[] vars;
 	ICause aCause;
+    private CancellationToken token;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -70,6 +72,7 @@ public class AlgoAllDiffAC {
         this.vars = variables;
 		aCause = cause;
         n = vars.length;
+        token = n > 0 ? vars[0].getSolver().getCancellationToken() : null;
         matching = new int[n];
         for (int i = 0; i < n; i++) {
             matching[i] = -1;
@@ -135,6 +138,9 @@ public class AlgoAllDiffAC {
             }
         }
         for (int i = free.nextSetBit(0); i >= 0 && i < n; i = free.nextSetBit(i + 1)) {
+            if (token.isCancelled()) {
+                vars[0].getSolver().getEngine().fails(token, null, CancellationToken.MSG_CANCELLED);
+            }
             tryToMatch(i);
         }
         int p;
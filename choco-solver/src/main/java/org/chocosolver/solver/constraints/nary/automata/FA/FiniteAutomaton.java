@@ -30,7 +30,6 @@ package org.chocosolver.solver.constraints.nary.automata.FA;
 
 import dk.brics.automaton.*;
 import gnu.trove.iterator.TIntIterator;
-import gnu.trove.map.hash.TIntIntHashMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import gnu.trove.set.hash.TIntHashSet;
 import org.chocosolver.solver.exception.SolverException;
@@ -52,29 +51,30 @@ public class FiniteAutomaton implements IAutomaton {
 
     protected int min = Character.MIN_VALUE, max = Character.MAX_VALUE;
 
-    protected final static TIntIntHashMap charFromIntMap = new TIntIntHashMap(16, .5f, -1, -1);
-    protected final static TIntIntHashMap intFromCharMap = new TIntIntHashMap(16, .5f, -1, -1);
-
-    static {
-        int delta = 0;
-        for (int i = Character.MIN_VALUE; i <= Character.MAX_VALUE; i++) {
-            while ((char) (i + delta) == '"' || (char) (i + delta) == '{' || (char) (i + delta) == '}' || (char) (i + delta) == '<' ||
-                    (char) (i + delta) == '>' || (char) (i + delta) == '[' || (char) (i + delta) == ']' ||
-                    (char) (i + delta) == '(' || (char) (i + delta) == ')') delta++;
-            charFromIntMap.put(i, i + delta);
-            intFromCharMap.put(i + delta, i);
-        }
-
-    }
+    /**
+     * Characters reserved by the regular expression syntax, in increasing order.
+     * Integers are mapped onto the other characters, the mapping is computed on the fly.
+     */
+    private final static char[] RESERVED = {'"', '(', ')', '<', '>', '[', ']', '{', '}'};
 
     public static int getIntFromChar(char c) {
-        return intFromCharMap.get(c);
+        int i = c;
+        for (int k = 0; k < RESERVED.length && RESERVED[k] <= c; k++) {
+            if (RESERVED[k] == c) {
+                return -1;
+            }
+            i--;
+        }
+        return i;
     }
 
     public static char getCharFromInt(int i) {
-        int c = charFromIntMap.get(i);
-        if (c > -1) {
-            return (char) charFromIntMap.get(i);
+        if (i >= Character.MIN_VALUE && i <= Character.MAX_VALUE) {
+            int c = i;
+            for (int k = 0; k < RESERVED.length && RESERVED[k] <= c; k++) {
+                c++;
+            }
+            return (char) c;
         } else {
             throw new SolverException("Unknwon value \"" + i + "\". Note that only integers in [" +
                     (int) Character.MIN_VALUE + "," + (int) (Character.MAX_VALUE) + "] are allowed by FiniteAutomaton.");
@@ -89,6 +89,12 @@ public class FiniteAutomaton implements IAutomaton {
     protected TIntHashSet alphabet;
     protected int nbStates;
 
+    /**
+     * Identifies the transition structure of this automaton: it is shared by exact copies and renewed on each
+     * modification, so that structures compiled from an automaton can be reused safely.
+     */
+    private Object fingerprint = new Object();
+
 
     public FiniteAutomaton() {
         this.representedBy = new Automaton();
@@ -153,7 +159,9 @@ public class FiniteAutomaton implements IAutomaton {
         for (int[] t : transitions) {
             this.addTransition(t[0], t[1], t[2]);
         }
-
+        if (other.isFullRange()) {
+            this.fingerprint = other.fingerprint;
+        }
     }
 
     private FiniteAutomaton(Automaton a, TIntHashSet alphabet) {
@@ -229,6 +237,7 @@ public class FiniteAutomaton implements IAutomaton {
     }
 
     public int addState() {
+        modified();
         int idx = states.size();
         State s = new State();
         states.add(s);
@@ -260,6 +269,7 @@ public class FiniteAutomaton implements IAutomaton {
     }
 
     public void addTransition(int source, int destination, int... symbols) {
+        modified();
         for (int symbol : symbols) {
             try {
                 checkState(source, destination);
@@ -274,6 +284,7 @@ public class FiniteAutomaton implements IAutomaton {
     }
 
     public void deleteTransition(int source, int destination, int symbol) {
+        modified();
         try {
             checkState(source, destination);
         } catch (StateNotInAutomatonException e) {
@@ -413,6 +424,7 @@ public class FiniteAutomaton implements IAutomaton {
         } catch (StateNotInAutomatonException e) {
 //            LOGGER.warn("Unable to set initial state, state is not in automaton : " + e);
         }
+        modified();
         representedBy.setInitialState(states.get(state));
     }
 
@@ -422,6 +434,7 @@ public class FiniteAutomaton implements IAutomaton {
         } catch (StateNotInAutomatonException e) {
 //            LOGGER.warn("Unable to set final state, state is not in automaton : " + e);
         }
+        modified();
         states.get(state).setAccept(true);
     }
 
@@ -435,6 +448,7 @@ public class FiniteAutomaton implements IAutomaton {
         } catch (StateNotInAutomatonException e) {
 //            LOGGER.warn("Unable to set non final state, state is not in automaton : " + e);
         }
+        modified();
         states.get(state).setAccept(false);
     }
 
@@ -473,6 +487,7 @@ public class FiniteAutomaton implements IAutomaton {
     }
 
     private void syncStates() {
+        modified();
         this.alphabet.clear();
         this.states.clear();
         this.stateToIndex.clear();
@@ -548,6 +563,7 @@ public class FiniteAutomaton implements IAutomaton {
         State d = states.get(destination);
 
 
+        modified();
         ArrayList<StatePair> pairs = new ArrayList<>();
         pairs.add(new StatePair(s, d));
         this.representedBy.addEpsilons(pairs);
@@ -622,6 +638,28 @@ public class FiniteAutomaton implements IAutomaton {
         b.append("\"]\n");
     }
 
+    /**
+     * Return an object identifying the transition structure of this automaton.
+     * Two automata with the same fingerprint have the same states and transitions;
+     * any modification of the automaton gives it a new fingerprint.
+     *
+     * @return the fingerprint of this automaton
+     */
+    public Object getFingerprint() {
+        return fingerprint;
+    }
+
+    private void modified() {
+        fingerprint = new Object();
+    }
+
+    /**
+     * Copies only keep the transitions in [min,max], they are exact when no restriction is declared.
+     */
+    private boolean isFullRange() {
+        return min == Character.MIN_VALUE && max == Character.MAX_VALUE;
+    }
+
     public TIntHashSet getAlphabet() {
         return alphabet;
     }
@@ -722,6 +760,9 @@ public class FiniteAutomaton implements IAutomaton {
         for (int[] t : transitions) {
             auto.addTransition(t[0], t[1], t[2]);
         }
+        if (isFullRange()) {
+            auto.fingerprint = this.fingerprint;
+        }
         return auto;
     }
 
@@ -28,7 +28,6 @@
  */
 package org.chocosolver.solver.constraints.nary.automata;
 
-import gnu.trove.iterator.TIntIterator;
 import gnu.trove.map.hash.THashMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import gnu.trove.set.hash.TIntHashSet;
@@ -41,8 +40,8 @@ import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.Bounds;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.ICounter;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
-import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.Arc;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraphCache;
 import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.FastPathFinder;
 import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.StoredDirectedMultiGraph;
 import org.chocosolver.solver.exception.ContradictionException;
@@ -55,7 +54,6 @@ import org.chocosolver.util.iterators.DisposableIntIterator;
 import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
 import org.chocosolver.util.procedure.UnaryIntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
-import org.jgrapht.graph.DirectedMultigraph;
 
 import java.util.*;
 
@@ -309,176 +307,10 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     private void initGraph() {
-        int aid = 0;
-        int nid = 0;
-
-
-        int[] offsets = new int[offset];
-        int[] sizes = new int[offset];
-        int[] starts = new int[offset];
-
-        int totalSizes = 0;
-
-        starts[0] = 0;
-        for (int i = 0; i < offset; i++) {
-            offsets[i] = vs[i].getLB();
-            sizes[i] = vs[i].getUB() - vs[i].getLB() + 1;
-            if (i > 0) starts[i] = sizes[i - 1] + starts[i - 1];
-            totalSizes += sizes[i];
-        }
-
-
-        DirectedMultigraph<Node, Arc> graph;
-
-        int n = offset;
-        graph = new DirectedMultigraph<>(new Arc.ArcFactory());
-        ArrayList<HashSet<Arc>> tmp = new ArrayList<>(totalSizes);
-        for (int i = 0; i < totalSizes; i++) {
-            tmp.add(new HashSet<>());
-        }
-
-        int i, j, k;
-        TIntIterator layerIter;
-        TIntIterator qijIter;
-
-        ArrayList<TIntHashSet> layer = new ArrayList<>();
-        TIntHashSet[] tmpQ = new TIntHashSet[totalSizes];
-        // DLList[vars.length+1];
-
-        for (i = 0; i <= n; i++) {
-            layer.add(new TIntHashSet());// = new DLList(nbNodes);
-        }
-
-        //forward pass, construct all paths described by the automaton for word of length nbVars.
-        layer.get(0).add(pi.getInitialState());
-        TIntHashSet nexts = new TIntHashSet();
-
-        for (i = 0; i < n; i++) {
-            int UB = vs[i].getUB();
-            for (j = vs[i].getLB(); j <= UB; j = vs[i].nextValue(j)) {
-                layerIter = layer.get(i).iterator();//getIterator();
-                while (layerIter.hasNext()) {
-                    k = layerIter.next();
-                    nexts.clear();
-                    pi.delta(k, j, nexts);
-                    TIntIterator it = nexts.iterator();
-                    for (; it.hasNext(); ) {
-                        int succ = it.next();
-                        layer.get(i + 1).add(succ);
-                    }
-                    if (!nexts.isEmpty()) {
-                        int idx = starts[i] + j - offsets[i];
-                        if (tmpQ[idx] == null)
-                            tmpQ[idx] = new TIntHashSet();
-
-                        tmpQ[idx].add(k);
-
-                    }
-                }
-            }
-        }
-
-        //removing reachable non accepting states
-        layerIter = layer.get(n).iterator();
-        while (layerIter.hasNext()) {
-            k = layerIter.next();
-            if (!pi.isFinal(k)) {
-                layerIter.remove();
-            }
-
-        }
-
-        //backward pass, removing arcs that does not lead to an accepting state
-        int nbNodes = pi.getNbStates();
-        BitSet mark = new BitSet(nbNodes);
-
-        Node[] in = new Node[pi.getNbStates() * (n + 1)];
-        Node tink = new Node(pi.getNbStates() + 1, n + 1, nid++);
-        graph.addVertex(tink);
-
-        for (i = n - 1; i >= 0; i--) {
-            mark.clear(0, nbNodes);
-            int UB = vs[i].getUB();
-            for (j = vs[i].getLB(); j <= UB; j = vs[i].nextValue(j)) {
-                int idx = starts[i] + j - offsets[i];
-                TIntHashSet l = tmpQ[idx];
-                if (l != null) {
-                    qijIter = l.iterator();
-                    while (qijIter.hasNext()) {
-                        k = qijIter.next();
-                        nexts.clear();
-                        pi.delta(k, j, nexts);
-                        if (nexts.size() > 1)
-                            System.err.println("STOP");
-                        boolean added = false;
-                        for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
-                            int qn = it.next();
-
-                            if (layer.get(i + 1).contains(qn)) {
-                                added = true;
-                                Node a = in[i * pi.getNbStates() + k];
-                                if (a == null) {
-                                    a = new Node(k, i, nid++);
-                                    in[i * pi.getNbStates() + k] = a;
-                                    graph.addVertex(a);
-                                }
-
-                                Node b = in[(i + 1) * pi.getNbStates() + qn];
-                                if (b == null) {
-                                    b = new Node(qn, i + 1, nid++);
-                                    in[(i + 1) * pi.getNbStates() + qn] = b;
-                                    graph.addVertex(b);
-                                }
-
-
-                                Arc arc = new Arc(a, b, j, aid++);
-                                graph.addEdge(a, b, arc);
-                                tmp.get(idx).add(arc);
-
-                                mark.set(k);
-                            }
-                        }
-                        if (!added)
-                            qijIter.remove();
-                    }
-                }
-            }
-            layerIter = layer.get(i).iterator();
-
-            // If no more arcs go out of a given state in the layer, then we remove the state from that layer
-            while (layerIter.hasNext())
-                if (!mark.get(layerIter.next()))
-                    layerIter.remove();
-        }
-
-        TIntHashSet th = new TIntHashSet();
-        int[][] intLayer = new int[n + 2][];
-        for (k = 0; k < pi.getNbStates(); k++) {
-            Node o = in[n * pi.getNbStates() + k];
-            {
-                if (o != null) {
-                    Arc a = new Arc(o, tink, 0, aid++);
-                    graph.addEdge(o, tink, a);
-                }
-            }
-        }
-
-
-        for (i = 0; i <= n; i++) {
-            th.clear();
-            for (k = 0; k < pi.getNbStates(); k++) {
-                Node o = in[i * pi.getNbStates() + k];
-                if (o != null) {
-                    th.add(o.id);
-                }
-            }
-            intLayer[i] = th.toArray();
-        }
-        intLayer[n + 1] = new int[]{tink.id};
-
-        if (intLayer[0].length > 0) {
+        LayeredGraph lgraph = LayeredGraphCache.get(vs, pi, true);
+        if (lgraph.layers[0].length > 0) {
             IEnvironment environment = solver.getEnvironment();
-            this.graph = new StoredDirectedMultiGraph(environment, graph, intLayer, starts, offsets, totalSizes, pi, z);
+            this.graph = new StoredDirectedMultiGraph(environment, lgraph, pi, z);
             this.graph.makePathFinder();
         }
     }
@@ -517,6 +349,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
         double bestVal = Double.POSITIVE_INFINITY;
         //   Arrays.fill(uUb,0.0);
         do {
+            checkCancellation();
             coeff = 0.0;
             for (int i = 0; i < nbR; i++) {
                 coeff += (uUb[i] * z[i + 1].getUB());
@@ -603,6 +436,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
         //  Arrays.fill(uLb,0.0);
         int[] bestPath = new int[offset + 1];
         do {
+            checkCancellation();
             coeff = 0.0;
             for (int i = 0; i < nbR; i++) {
                 coeff += (uLb[i] * z[i + 1].getUB());
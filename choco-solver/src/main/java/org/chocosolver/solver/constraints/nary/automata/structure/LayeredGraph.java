@@ -0,0 +1,346 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.automata.structure;
+
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * An immutable layered graph which unfolds an automaton over the domains of a sequence of variables.
+ * <br/>
+ * Nodes of layer <i>i</i> are the states reachable after reading <i>i</i> symbols, and from which a final state
+ * can be reached by reading the remaining ones. An arc from layer <i>i</i> to layer <i>i+1</i> stands for a value
+ * of the <i>i</i><sup>th</sup> variable.
+ * <br/>
+ * The graph is stored in a compact, CSR-like, way: nodes and arcs are indices, their attributes are primitive arrays,
+ * and the outgoing arcs, the incoming arcs and the supports (arcs labelled with a given value of a given variable)
+ * are ranges of flat arrays of arc indices.
+ * It is built directly from the automaton, without any intermediate object graph, and does not contain any backtrackable
+ * data: the reversible state is maintained aside, by each structure relying on it.
+ * <br/>
+ * When required, an additional sink node is added in a last layer, and each node of the layer <i>n</i> is
+ * connected to it by an arc labelled with 0 (such arcs do not support any value).
+ *
+ * @author Charles Prud'homme
+ * @since 24/06/2015
+ */
+public final class LayeredGraph {
+
+    /**
+     * Number of variables
+     */
+    public final int nbVars;
+    /**
+     * For each variable, the index of its first value in the supports
+     */
+    public final int[] starts;
+    /**
+     * For each variable, its lower bound at construction
+     */
+    public final int[] offsets;
+    /**
+     * Number of (variable, value) pairs
+     */
+    public final int supportLength;
+    /**
+     * For each layer, the indices of its nodes
+     */
+    public final int[][] layers;
+    /**
+     * State of the automaton a node stands for
+     */
+    public final int[] states;
+    /**
+     * Layer of a node
+     */
+    public final int[] nodeLayers;
+    /**
+     * Value, origin and destination of an arc
+     */
+    public final int[] values, origs, dests;
+    /**
+     * The outgoing arcs of node <i>n</i> are <code>outArcs[outStarts[n]..outStarts[n+1]-1]</code>
+     */
+    public final int[] outStarts, outArcs;
+    /**
+     * The incoming arcs of node <i>n</i> are <code>inArcs[inStarts[n]..inStarts[n+1]-1]</code>
+     */
+    public final int[] inStarts, inArcs;
+    /**
+     * The arcs supporting the support <i>s</i> are <code>supArcs[supStarts[s]..supStarts[s+1]-1]</code>
+     */
+    public final int[] supStarts, supArcs;
+
+    private LayeredGraph(int nbVars, int[] starts, int[] offsets, int supportLength, int[][] layers,
+                         int[] states, int[] nodeLayers, int[] values, int[] origs, int[] dests) {
+        this.nbVars = nbVars;
+        this.starts = starts;
+        this.offsets = offsets;
+        this.supportLength = supportLength;
+        this.layers = layers;
+        this.states = states;
+        this.nodeLayers = nodeLayers;
+        this.values = values;
+        this.origs = origs;
+        this.dests = dests;
+        int nbNodes = states.length;
+        this.outStarts = new int[nbNodes + 1];
+        this.outArcs = new int[values.length];
+        this.inStarts = new int[nbNodes + 1];
+        this.inArcs = new int[values.length];
+        this.supStarts = new int[supportLength + 1];
+        int nbSup = 0;
+        for (int a = 0; a < values.length; a++) {
+            outStarts[origs[a] + 1]++;
+            inStarts[dests[a] + 1]++;
+            int s = getSupportIndex(a);
+            if (s > -1) {
+                supStarts[s + 1]++;
+                nbSup++;
+            }
+        }
+        for (int n = 0; n < nbNodes; n++) {
+            outStarts[n + 1] += outStarts[n];
+            inStarts[n + 1] += inStarts[n];
+        }
+        for (int s = 0; s < supportLength; s++) {
+            supStarts[s + 1] += supStarts[s];
+        }
+        this.supArcs = new int[nbSup];
+        int[] o = new int[nbNodes], i = new int[nbNodes], p = new int[supportLength];
+        for (int a = 0; a < values.length; a++) {
+            outArcs[outStarts[origs[a]] + o[origs[a]]++] = a;
+            inArcs[inStarts[dests[a]] + i[dests[a]]++] = a;
+            int s = getSupportIndex(a);
+            if (s > -1) {
+                supArcs[supStarts[s] + p[s]++] = a;
+            }
+        }
+    }
+
+    /**
+     * @return the number of nodes
+     */
+    public int getNbNodes() {
+        return states.length;
+    }
+
+    /**
+     * @return the number of arcs
+     */
+    public int getNbArcs() {
+        return values.length;
+    }
+
+    /**
+     * Return the index of the support made of variable <i>i</i> and value <i>j</i>,
+     * or -1 if <i>j</i> was not in the domain of <i>i</i> at construction.
+     */
+    public int getSupportIndex(int i, int j) {
+        if (i < nbVars) {
+            int s = starts[i] + j - offsets[i];
+            if (s >= starts[i] && s < (i + 1 < nbVars ? starts[i + 1] : supportLength)) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the index of the support arc <i>a</i> belongs to, -1 for an arc to the sink.
+     */
+    public int getSupportIndex(int a) {
+        return getSupportIndex(nodeLayers[origs[a]], values[a]);
+    }
+
+    /**
+     * @return a copy of the outgoing arcs of node <i>n</i>
+     */
+    public int[] copyOutArcs(int n) {
+        return copy(outArcs, outStarts[n], outStarts[n + 1]);
+    }
+
+    /**
+     * @return a copy of the incoming arcs of node <i>n</i>
+     */
+    public int[] copyInArcs(int n) {
+        return copy(inArcs, inStarts[n], inStarts[n + 1]);
+    }
+
+    /**
+     * @return a copy of the arcs of the support <i>s</i>
+     */
+    public int[] copySupport(int s) {
+        return copy(supArcs, supStarts[s], supStarts[s + 1]);
+    }
+
+    private static int[] copy(int[] src, int from, int to) {
+        int[] dst = new int[to - from];
+        System.arraycopy(src, from, dst, 0, dst.length);
+        return dst;
+    }
+
+    /**
+     * Unfold <i>automaton</i> over the current domains of <i>vars</i>.
+     *
+     * @param vars      a sequence of variables
+     * @param automaton an automaton
+     * @param sink      set to <code>true</code> to add a sink node after the last layer
+     * @return a layered graph, with no node at all if no word of <i>automaton</i> fits the domains
+     */
+    public static LayeredGraph make(IntVar[] vars, IAutomaton automaton, boolean sink) {
+        int n = vars.length;
+        int[] offsets = new int[n];
+        int[] starts = new int[n];
+        int totalSizes = 0;
+        for (int i = 0; i < n; i++) {
+            offsets[i] = vars[i].getLB();
+            starts[i] = totalSizes;
+            totalSizes += vars[i].getUB() - vars[i].getLB() + 1;
+        }
+        int nbStates = automaton.getNbStates();
+        // forward pass, record every transition reachable from the initial state
+        boolean[] reached = new boolean[(n + 1) * nbStates];
+        int[] front = new int[nbStates], next = new int[nbStates];
+        int fsize = 1, nsize;
+        front[0] = automaton.getInitialState();
+        reached[front[0]] = true;
+        TIntArrayList tOrig = new TIntArrayList(), tVal = new TIntArrayList(), tDest = new TIntArrayList();
+        int[] tStarts = new int[n + 1];
+        TIntHashSet succs = new TIntHashSet();
+        for (int i = 0; i < n; i++) {
+            tStarts[i] = tOrig.size();
+            nsize = 0;
+            int ub = vars[i].getUB();
+            for (int j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
+                for (int f = 0; f < fsize; f++) {
+                    int k = front[f];
+                    succs.clear();
+                    automaton.delta(k, j, succs);
+                    for (TIntIterator it = succs.iterator(); it.hasNext(); ) {
+                        int q = it.next();
+                        tOrig.add(k);
+                        tVal.add(j);
+                        tDest.add(q);
+                        if (!reached[(i + 1) * nbStates + q]) {
+                            reached[(i + 1) * nbStates + q] = true;
+                            next[nsize++] = q;
+                        }
+                    }
+                }
+            }
+            int[] tmp = front;
+            front = next;
+            next = tmp;
+            fsize = nsize;
+        }
+        tStarts[n] = tOrig.size();
+        // backward pass, keep the transitions leading to a final state
+        boolean[] alive = new boolean[(n + 1) * nbStates];
+        for (int f = 0; f < fsize; f++) {
+            alive[n * nbStates + front[f]] = automaton.isFinal(front[f]);
+        }
+        boolean[] kept = new boolean[tOrig.size()];
+        int nbArcs = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            for (int t = tStarts[i]; t < tStarts[i + 1]; t++) {
+                if (alive[(i + 1) * nbStates + tDest.getQuick(t)]) {
+                    kept[t] = true;
+                    alive[i * nbStates + tOrig.getQuick(t)] = true;
+                    nbArcs++;
+                }
+            }
+        }
+        // number the nodes, layer by layer
+        int[] nid = new int[(n + 1) * nbStates];
+        int nbNodes = 0;
+        int[][] layers = new int[sink ? n + 2 : n + 1][];
+        TIntArrayList lstates = new TIntArrayList(), llayers = new TIntArrayList();
+        for (int i = 0; i <= n; i++) {
+            int first = nbNodes;
+            for (int k = 0; k < nbStates; k++) {
+                // nodes of layer 0 but the initial one, if any, are not connected to the others
+                if (alive[i * nbStates + k] && (i > 0 || k == automaton.getInitialState())) {
+                    nid[i * nbStates + k] = nbNodes++;
+                    lstates.add(k);
+                    llayers.add(i);
+                } else {
+                    nid[i * nbStates + k] = -1;
+                }
+            }
+            layers[i] = new int[nbNodes - first];
+            for (int l = 0; l < layers[i].length; l++) {
+                layers[i][l] = first + l;
+            }
+        }
+        int sid = -1;
+        if (sink) {
+            sid = nbNodes++;
+            lstates.add(nbStates + 1);
+            llayers.add(n + 1);
+            layers[n + 1] = new int[]{sid};
+            nbArcs += layers[n].length;
+        }
+        if (layers[0].length == 0) { // no word fits the domains
+            nbNodes = 0;
+            nbArcs = 0;
+            for (int i = 0; i < layers.length; i++) {
+                layers[i] = new int[0];
+            }
+            lstates.clear();
+            llayers.clear();
+        }
+        int[] values = new int[nbArcs], origs = new int[nbArcs], dests = new int[nbArcs];
+        int a = 0;
+        if (nbNodes > 0) {
+            for (int i = 0; i < n; i++) {
+                for (int t = tStarts[i]; t < tStarts[i + 1]; t++) {
+                    if (kept[t]) {
+                        values[a] = tVal.getQuick(t);
+                        origs[a] = nid[i * nbStates + tOrig.getQuick(t)];
+                        dests[a] = nid[(i + 1) * nbStates + tDest.getQuick(t)];
+                        a++;
+                    }
+                }
+            }
+            if (sink) {
+                for (int o : layers[n]) {
+                    origs[a] = o;
+                    dests[a] = sid;
+                    a++;
+                }
+            }
+        }
+        return new LayeredGraph(n, starts, offsets, totalSizes, layers, lstates.toArray(), llayers.toArray(),
+                values, origs, dests);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.automata.structure;
+
+import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
+import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A cache of layered graphs, shared by all constraints and all solvers.
+ * <br/>
+ * Unfolding an automaton is achieved once per (automaton, domains) pair: constraints posted on the same automaton
+ * (or on an exact copy of it, such as the one made when a solver is duplicated) and on variables with the same
+ * domains share the same immutable {@link LayeredGraph}, only the reversible structure is built per constraint.
+ * <br/>
+ * Automata are identified by their {@link FiniteAutomaton#getFingerprint() fingerprint}, which changes on each
+ * modification, so a modified automaton is unfolded again.
+ * Entries are released once the automaton and all its copies are garbage collected.
+ * Other implementations of {@link IAutomaton} are not cached.
+ *
+ * @author Charles Prud'homme
+ * @since 24/06/2015
+ */
+public final class LayeredGraphCache {
+
+    private static final Map<Object, Map<Signature, LayeredGraph>> CACHE = new WeakHashMap<>();
+
+    private LayeredGraphCache() {
+    }
+
+    /**
+     * Return the layered graph of <i>automaton</i> over the current domains of <i>vars</i>,
+     * building it only if no such graph is available.
+     *
+     * @param vars      a sequence of variables
+     * @param automaton an automaton
+     * @param sink      set to <code>true</code> to add a sink node after the last layer
+     * @return a layered graph, possibly shared
+     * @see LayeredGraph#make(IntVar[], IAutomaton, boolean)
+     */
+    public static LayeredGraph get(IntVar[] vars, IAutomaton automaton, boolean sink) {
+        if (!(automaton instanceof FiniteAutomaton)) {
+            return LayeredGraph.make(vars, automaton, sink);
+        }
+        Object fingerprint = ((FiniteAutomaton) automaton).getFingerprint();
+        Signature signature = new Signature(vars, sink);
+        synchronized (CACHE) {
+            Map<Signature, LayeredGraph> graphs = CACHE.get(fingerprint);
+            if (graphs == null) {
+                graphs = new HashMap<>();
+                CACHE.put(fingerprint, graphs);
+            }
+            LayeredGraph graph = graphs.get(signature);
+            if (graph == null) {
+                graph = LayeredGraph.make(vars, automaton, sink);
+                graphs.put(signature, graph);
+            }
+            return graph;
+        }
+    }
+
+    /**
+     * Release all the layered graphs cached so far.
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Domains of a sequence of variables: for each variable, its size followed by its values.
+     */
+    private static final class Signature {
+        private final int[] domains;
+        private final int hash;
+
+        Signature(IntVar[] vars, boolean sink) {
+            int size = 1;
+            for (int i = 0; i < vars.length; i++) {
+                size += vars[i].getDomainSize() + 1;
+            }
+            domains = new int[size];
+            int k = 0;
+            domains[k++] = sink ? 1 : 0;
+            for (int i = 0; i < vars.length; i++) {
+                domains[k++] = vars[i].getDomainSize();
+                int ub = vars[i].getUB();
+                for (int j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
+                    domains[k++] = j;
+                }
+            }
+            hash = Arrays.hashCode(domains);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Signature && hash == ((Signature) o).hash
+                    && Arrays.equals(domains, ((Signature) o).domains);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
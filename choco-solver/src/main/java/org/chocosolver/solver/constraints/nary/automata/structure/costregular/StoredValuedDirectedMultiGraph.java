@@ -28,7 +28,6 @@
  */
 package org.chocosolver.solver.constraints.nary.automata.structure.costregular;
 
-import gnu.trove.set.hash.TIntHashSet;
 import gnu.trove.stack.TIntStack;
 import gnu.trove.stack.array.TIntArrayStack;
 import org.chocosolver.memory.IEnvironment;
@@ -37,16 +36,14 @@ import org.chocosolver.memory.IStateIntVector;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Propagator;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.iterators.DisposableIntIterator;
 import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
 import org.chocosolver.util.objects.StoredIndexedBipartiteSetWithOffset;
-import org.jgrapht.graph.DirectedMultigraph;
 
 import java.util.BitSet;
-import java.util.Set;
 
 /**
  * Created by IntelliJ IDEA.
@@ -106,12 +103,17 @@ public class StoredValuedDirectedMultiGraph {
     private StoredValuedDirectedMultiGraph() {
     }
 
-    public StoredValuedDirectedMultiGraph(IEnvironment environment,
-                                          DirectedMultigraph<Node, Arc> graph, int[][] layers, int[] starts,
-                                          int[] offsets, int supportLength) {
-        this.starts = starts;
-        this.offsets = offsets;
-        this.layers = layers;
+    /**
+     * Build the reversible graph upon the layered graph <i>graph</i>, which has to be terminated by a sink node.
+     *
+     * @param environment the backtracking environment
+     * @param graph       a layered graph with a sink
+     * @param costs       cost of each arc of <i>graph</i>
+     */
+    public StoredValuedDirectedMultiGraph(IEnvironment environment, LayeredGraph graph, double[] costs) {
+        this.starts = graph.starts;
+        this.offsets = graph.offsets;
+        this.layers = graph.layers;
         this.sourceIndex = layers[0][0];
         this.tinkIndex = layers[layers.length - 1][0];
         this.toUpdateLeft = new TIntArrayStack();
@@ -120,94 +122,52 @@ public class StoredValuedDirectedMultiGraph {
         this.GNodes = new Nodes();
         this.GArcs = new Arcs();
 
-        TIntHashSet[] sups = new TIntHashSet[supportLength];
-        this.supports = new StoredIndexedBipartiteSetWithOffset[supportLength];
-
-
-        Set<Arc> arcs = graph.edgeSet();
-
-        this.inStack = new BitSet(arcs.size());//constraint.getSolver().getEnvironment().makeBitSet(arcs.size());
+        int nbArcs = graph.getNbArcs();
+        this.inStack = new BitSet(nbArcs);
 
-        GArcs.values = new int[arcs.size()];
-        GArcs.dests = new int[arcs.size()];
-        GArcs.origs = new int[arcs.size()];
-        GArcs.costs = new double[arcs.size()];
-
-
-        int[] inginit = new int[arcs.size()];
-        int tmp = 0;
-        for (Arc a : arcs) {
-            inginit[tmp++] = a.id;
-            GArcs.values[a.id] = a.value;
-            GArcs.dests[a.id] = a.dest.id;
-            GArcs.origs[a.id] = a.orig.id;
-            GArcs.costs[a.id] = a.cost;
-
-            if (a.orig.layer < starts.length) {
-                int idx = starts[a.orig.layer] + a.value - offsets[a.orig.layer];
-                if (sups[idx] == null)
-                    sups[idx] = new TIntHashSet();
-                sups[idx].add(a.id);
-            }
+        GArcs.values = graph.values;
+        GArcs.dests = graph.dests;
+        GArcs.origs = graph.origs;
+        GArcs.costs = costs;
 
+        int[] inginit = new int[nbArcs];
+        for (int a = 0; a < nbArcs; a++) {
+            inginit[a] = a;
         }
-
         this.inGraph = new StoredIndexedBipartiteSet(environment, inginit);
-        // this.inGraph = constraint.getSolver().getEnvironment().makeBitSet(arcs.size());
-//        this.inGraph.set(0,arcs.size());
-        // System.out.println(this.inGraph.size());
-        for (int i = 0; i < sups.length; i++) {
-            if (sups[i] != null)
-                supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, sups[i].toArray());
-        }
 
-        Set<Node> nodes = graph.vertexSet();
-        GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-        GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-        GNodes.layers = new int[nodes.size()];
-        GNodes.states = new int[nodes.size()];
-
-        GNodes.prevLP = environment.makeIntVector(nodes.size(), Integer.MIN_VALUE);
-        GNodes.nextLP = environment.makeIntVector(nodes.size(), Integer.MIN_VALUE);
-        GNodes.prevSP = environment.makeIntVector(nodes.size(), Integer.MIN_VALUE);
-        GNodes.nextSP = environment.makeIntVector(nodes.size(), Integer.MIN_VALUE);
-
-
-        GNodes.lpfs = environment.makeDoubleVector(nodes.size(), Double.NEGATIVE_INFINITY);
-        GNodes.lpft = environment.makeDoubleVector(nodes.size(), Double.NEGATIVE_INFINITY);
-        GNodes.spfs = environment.makeDoubleVector(nodes.size(), Double.POSITIVE_INFINITY);
-        GNodes.spft = environment.makeDoubleVector(nodes.size(), Double.POSITIVE_INFINITY);
-
-
-        for (Node n : nodes) {
-            GNodes.layers[n.id] = n.layer;
-            GNodes.states[n.id] = n.state;
+        this.supports = new StoredIndexedBipartiteSetWithOffset[graph.supportLength];
+        for (int i = 0; i < supports.length; i++) {
+            if (graph.supStarts[i + 1] > graph.supStarts[i])
+                supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, graph.copySupport(i));
+        }
 
-            int i;
-            Set<Arc> outarc = graph.outgoingEdgesOf(n);
-            if (!outarc.isEmpty()) {
-                int[] out = new int[outarc.size()];
-                i = 0;
-                for (Arc a : outarc) {
-                    out[i++] = a.id;
-                }
-                GNodes.outArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, out);
+        int nbNodes = graph.getNbNodes();
+        GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nbNodes];
+        GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nbNodes];
+        GNodes.layers = graph.nodeLayers;
+        GNodes.states = graph.states;
+
+        GNodes.prevLP = environment.makeIntVector(nbNodes, Integer.MIN_VALUE);
+        GNodes.nextLP = environment.makeIntVector(nbNodes, Integer.MIN_VALUE);
+        GNodes.prevSP = environment.makeIntVector(nbNodes, Integer.MIN_VALUE);
+        GNodes.nextSP = environment.makeIntVector(nbNodes, Integer.MIN_VALUE);
+
+        GNodes.lpfs = environment.makeDoubleVector(nbNodes, Double.NEGATIVE_INFINITY);
+        GNodes.lpft = environment.makeDoubleVector(nbNodes, Double.NEGATIVE_INFINITY);
+        GNodes.spfs = environment.makeDoubleVector(nbNodes, Double.POSITIVE_INFINITY);
+        GNodes.spft = environment.makeDoubleVector(nbNodes, Double.POSITIVE_INFINITY);
+
+        for (int n = 0; n < nbNodes; n++) {
+            if (graph.outStarts[n + 1] > graph.outStarts[n]) {
+                GNodes.outArcs[n] = new StoredIndexedBipartiteSetWithOffset(environment, graph.copyOutArcs(n));
             }
-
-            Set<Arc> inarc = graph.incomingEdgesOf(n);
-            if (!inarc.isEmpty()) {
-                int[] in = new int[inarc.size()];
-                i = 0;
-                for (Arc a : inarc) {
-                    in[i++] = a.id;
-                }
-                GNodes.inArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, in);
+            if (graph.inStarts[n + 1] > graph.inStarts[n]) {
+                GNodes.inArcs[n] = new StoredIndexedBipartiteSetWithOffset(environment, graph.copyInArcs(n));
             }
         }
 
-
         initPathInfo();
-
     }
 
     public void initPathInfo() {
@@ -671,7 +631,8 @@ public class StoredValuedDirectedMultiGraph {
         graph.inGraph = inGraph.duplicate(solver);
 
         for (int i = 0; i < this.supports.length; i++) {
-            graph.supports[i] = this.supports[i].duplicate(solver);
+            if (this.supports[i] != null)
+                graph.supports[i] = this.supports[i].duplicate(solver);
         }
 
         int nsize = this.GNodes.outArcs.length;
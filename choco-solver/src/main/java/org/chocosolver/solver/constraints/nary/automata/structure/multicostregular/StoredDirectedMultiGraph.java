@@ -28,21 +28,18 @@
  */
 package org.chocosolver.solver.constraints.nary.automata.structure.multicostregular;
 
-import gnu.trove.set.hash.TIntHashSet;
 import gnu.trove.stack.TIntStack;
 import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.iterators.DisposableIntIterator;
 import org.chocosolver.util.objects.StoredIndexedBipartiteSetWithOffset;
-import org.jgrapht.graph.DirectedMultigraph;
 
 import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Set;
 
 /**
  * Created by IntelliJ IDEA.
@@ -138,16 +135,23 @@ public class StoredDirectedMultiGraph {
     public Arcs GArcs;
 
 
-    public StoredDirectedMultiGraph(IEnvironment environment,
-                                    DirectedMultigraph<Node, Arc> graph, int[][] layers, int[] starts, int[] offsets,
-                                    int supportLength, ICostAutomaton pi, IntVar[] z) {
+    /**
+     * Build the reversible graph upon the layered graph <i>graph</i>, which has to be terminated by a sink node.
+     *
+     * @param environment the backtracking environment
+     * @param graph       a layered graph with a sink
+     * @param pi          the cost automaton the graph was built from
+     * @param z           the cost variables
+     */
+    public StoredDirectedMultiGraph(IEnvironment environment, LayeredGraph graph, ICostAutomaton pi, IntVar[] z) {
         this.nbR = pi.getNbResources();
         this.z = z;
-        this.starts = starts;
-        this.offsets = offsets;
+        this.starts = graph.starts;
+        this.offsets = graph.offsets;
+        int[][] layers = graph.layers;
         this.layers = new StoredIndexedBipartiteSetWithOffset[layers.length];
         for (int i = 0; i < layers.length; i++) {
-            this.layers[i] = new StoredIndexedBipartiteSetWithOffset(environment, layers[i]);
+            this.layers[i] = new StoredIndexedBipartiteSetWithOffset(environment, layers[i].clone());
         }
         this.sourceIndex = layers[0][0];
         this.tinIndex = layers[layers.length - 1][0];
@@ -155,78 +159,60 @@ public class StoredDirectedMultiGraph {
         this.GNodes = new Nodes();
         this.GArcs = new Arcs();
 
-        TIntHashSet[] sups = new TIntHashSet[supportLength];
-        this.supports = new StoredIndexedBipartiteSetWithOffset[supportLength];
-
-
-        Set<Arc> arcs = graph.edgeSet();
-
-        this.inStack = new BitSet(arcs.size());//environment.makeBitSet(arcs.size());
-
-        GArcs.values = new int[arcs.size()];
-        GArcs.dests = new int[arcs.size()];
-        GArcs.origs = new int[arcs.size()];
-        GArcs.originalCost = new double[arcs.size()][nbR];
-        GArcs.temporaryCost = new double[arcs.size()];
-
-
-        for (Arc a : arcs) {
-
-            GArcs.values[a.id] = a.value;
-            GArcs.dests[a.id] = a.dest.id;
-            GArcs.origs[a.id] = a.orig.id;
-            int state = a.orig.state;
-            int layer = a.orig.layer;
-            for (int r = 0; r < nbR; r++) {
-                GArcs.originalCost[a.id][r] = layer < layers.length - 2 ? pi.getCostByResourceAndState(layer, a.value, r, state) : 0.0;
-            }
-
-
-            if (a.orig.layer < starts.length) {
-                int idx = starts[a.orig.layer] + a.value - offsets[a.orig.layer];
-                if (sups[idx] == null)
-                    sups[idx] = new TIntHashSet();
-                sups[idx].add(a.id);
+        int nbArcs = graph.getNbArcs();
+        this.inStack = new BitSet(nbArcs);
+
+        GArcs.values = graph.values;
+        GArcs.dests = graph.dests;
+        GArcs.origs = graph.origs;
+        GArcs.originalCost = new double[nbArcs][nbR];
+        GArcs.temporaryCost = new double[nbArcs];
+
+        for (int a = 0; a < nbArcs; a++) {
+            int state = graph.states[graph.origs[a]];
+            int layer = graph.nodeLayers[graph.origs[a]];
+            if (layer < graph.nbVars) {
+                for (int r = 0; r < nbR; r++) {
+                    GArcs.originalCost[a][r] = pi.getCostByResourceAndState(layer, graph.values[a], r, state);
+                }
             }
-
         }
 
-        for (int i = 0; i < sups.length; i++) {
-            if (sups[i] != null)
-                supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, sups[i].toArray());
+        this.supports = new StoredIndexedBipartiteSetWithOffset[graph.supportLength];
+        for (int i = 0; i < supports.length; i++) {
+            if (graph.supStarts[i + 1] > graph.supStarts[i])
+                supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, graph.copySupport(i));
         }
 
-        Set<Node> nodes = graph.vertexSet();
-        GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-        GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-        GNodes.layers = new int[nodes.size()];
-        GNodes.states = new int[nodes.size()];
+        int nbNodes = graph.getNbNodes();
+        GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nbNodes];
+        GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nbNodes];
+        GNodes.layers = graph.nodeLayers;
+        GNodes.states = graph.states;
 
-        GNodes.prevLP = new int[nodes.size()];
+        GNodes.prevLP = new int[nbNodes];
         Arrays.fill(GNodes.prevLP, Integer.MIN_VALUE);
-        GNodes.nextLP = new int[nodes.size()];
+        GNodes.nextLP = new int[nbNodes];
         Arrays.fill(GNodes.nextLP, Integer.MIN_VALUE);
-        GNodes.prevSP = new int[nodes.size()];
+        GNodes.prevSP = new int[nbNodes];
         Arrays.fill(GNodes.prevSP, Integer.MIN_VALUE);
-        GNodes.nextSP = new int[nodes.size()];
+        GNodes.nextSP = new int[nbNodes];
         Arrays.fill(GNodes.nextSP, Integer.MIN_VALUE);
 
+        GNodes.lpfs = new double[nbNodes];
+        GNodes.lpft = new double[nbNodes];
+        GNodes.spfs = new double[nbNodes];
+        GNodes.spft = new double[nbNodes];
 
-        GNodes.lpfs = new double[nodes.size()];
-        GNodes.lpft = new double[nodes.size()];
-        GNodes.spfs = new double[nodes.size()];
-        GNodes.spft = new double[nodes.size()];
+        GNodes.lpfsI = new double[nbNodes][nbR];
+        GNodes.lpftI = new double[nbNodes][nbR];
+        GNodes.spfsI = new double[nbNodes][nbR];
+        GNodes.spftI = new double[nbNodes][nbR];
 
-
-        GNodes.lpfsI = new double[nodes.size()][nbR];
-        GNodes.lpftI = new double[nodes.size()][nbR];
-        GNodes.spfsI = new double[nodes.size()][nbR];
-        GNodes.spftI = new double[nodes.size()][nbR];
-
-        GNodes.prevLPI = new int[nodes.size()][nbR];
-        GNodes.nextLPI = new int[nodes.size()][nbR];
-        GNodes.prevSPI = new int[nodes.size()][nbR];
-        GNodes.nextSPI = new int[nodes.size()][nbR];
+        GNodes.prevLPI = new int[nbNodes][nbR];
+        GNodes.nextLPI = new int[nbNodes][nbR];
+        GNodes.prevSPI = new int[nbNodes][nbR];
+        GNodes.nextSPI = new int[nbNodes][nbR];
         for (int k = 0; k < nbR; k++) {
             Arrays.fill(GNodes.prevLPI[k], Integer.MIN_VALUE);
             Arrays.fill(GNodes.nextLPI[k], Integer.MIN_VALUE);
@@ -234,33 +220,14 @@ public class StoredDirectedMultiGraph {
             Arrays.fill(GNodes.nextSPI[k], Integer.MIN_VALUE);
         }
 
-
-        for (Node n : nodes) {
-            GNodes.layers[n.id] = n.layer;
-            GNodes.states[n.id] = n.state;
-            int i;
-            Set<Arc> outarc = graph.outgoingEdgesOf(n);
-            if (!outarc.isEmpty()) {
-                int[] out = new int[outarc.size()];
-                i = 0;
-                for (Arc a : outarc) {
-                    out[i++] = a.id;
-                }
-                GNodes.outArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, out);
+        for (int n = 0; n < nbNodes; n++) {
+            if (graph.outStarts[n + 1] > graph.outStarts[n]) {
+                GNodes.outArcs[n] = new StoredIndexedBipartiteSetWithOffset(environment, graph.copyOutArcs(n));
             }
-
-            Set<Arc> inarc = graph.incomingEdgesOf(n);
-            if (!inarc.isEmpty()) {
-                int[] in = new int[inarc.size()];
-                i = 0;
-                for (Arc a : inarc) {
-                    in[i++] = a.id;
-                }
-                GNodes.inArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, in);
+            if (graph.inStarts[n + 1] > graph.inStarts[n]) {
+                GNodes.inArcs[n] = new StoredIndexedBipartiteSetWithOffset(environment, graph.copyInArcs(n));
             }
         }
-
-
     }
 
     public final void makePathFinder() {
@@ -28,22 +28,23 @@
  */
 package org.chocosolver.solver.constraints.nary.automata.structure.regular;
 
-import gnu.trove.set.hash.TIntHashSet;
 import gnu.trove.stack.TIntStack;
 import gnu.trove.stack.array.TIntArrayStack;
 import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateIntVector;
 import org.chocosolver.solver.constraints.Propagator;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
-import org.chocosolver.util.iterators.DisposableIntIterator;
-import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
-import org.chocosolver.util.objects.StoredIndexedBipartiteSetWithOffset;
-import org.jgrapht.graph.DirectedMultigraph;
-
-import java.util.Set;
 
 /**
+ * The reversible part of the layered graph of a regular constraint.
+ * <br/>
+ * The shape of the graph is given by an immutable {@link LayeredGraph}, only the set of alive arcs and,
+ * per node and per support, the number of alive arcs are backtrackable.
+ * Removing an arc is then a constant time operation, which does not depend on the size of the automaton.
+ * <p/>
  * Created by IntelliJ IDEA.
  * User: julien
  * Mail: julien.menana{at}emn.fr
@@ -52,92 +53,29 @@ import java.util.Set;
  */
 public class StoredDirectedMultiGraph {
 
-	int[] starts;
-	int[] offsets;
+	final LayeredGraph graph;
 	TIntStack stack = new TIntArrayStack();
-	StoredIndexedBipartiteSetWithOffset[] supports;
-
-	class Nodes {
-		int[] states;
-		int[] layers;
-		StoredIndexedBipartiteSetWithOffset[] outArcs;
-		StoredIndexedBipartiteSetWithOffset[] inArcs;
-	}
-
-	public class Arcs {
-		int[] values;
-		int[] dests;
-		int[] origs;
-	}
-
-	public Nodes GNodes;
-	public Arcs GArcs;
-
-	public StoredDirectedMultiGraph(IEnvironment environment, DirectedMultigraph<Node, Arc> graph,
-									int[] starts, int[] offsets, int supportLength) {
-		this.starts = starts;
-		this.offsets = offsets;
-
-		this.GNodes = new Nodes();
-		this.GArcs = new Arcs();
-
-		TIntHashSet[] sups = new TIntHashSet[supportLength];
-		this.supports = new StoredIndexedBipartiteSetWithOffset[supportLength];
-
-
-		Set<Arc> arcs = graph.edgeSet();
-
-		GArcs.values = new int[arcs.size()];
-		GArcs.dests = new int[arcs.size()];
-		GArcs.origs = new int[arcs.size()];
-
-		for (Arc a : arcs) {
-			GArcs.values[a.id] = a.value;
-			GArcs.dests[a.id] = a.dest.id;
-			GArcs.origs[a.id] = a.orig.id;
-
-			int idx = starts[a.orig.layer] + a.value - offsets[a.orig.layer];
-			if (sups[idx] == null)
-				sups[idx] = new TIntHashSet();
-			sups[idx].add(a.id);
-
+	// alive arcs
+	final IStateBitSet arcs;
+	// number of alive outgoing arcs and incoming arcs, per node
+	final IStateIntVector outDeg, inDeg;
+	// number of alive arcs, per support
+	final IStateIntVector supCount;
+
+	public StoredDirectedMultiGraph(IEnvironment environment, LayeredGraph graph) {
+		this.graph = graph;
+		int nbNodes = graph.getNbNodes();
+		this.arcs = environment.makeBitSet(graph.getNbArcs());
+		this.arcs.set(0, graph.getNbArcs());
+		this.outDeg = environment.makeIntVector(nbNodes, 0);
+		this.inDeg = environment.makeIntVector(nbNodes, 0);
+		for (int n = 0; n < nbNodes; n++) {
+			outDeg.quickSet(n, graph.outStarts[n + 1] - graph.outStarts[n]);
+			inDeg.quickSet(n, graph.inStarts[n + 1] - graph.inStarts[n]);
 		}
-
-		for (int i = 0; i < sups.length; i++) {
-			if (sups[i] != null)
-				supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, sups[i].toArray());
-		}
-
-		Set<Node> nodes = graph.vertexSet();
-		GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-		GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-		GNodes.layers = new int[nodes.size()];
-		GNodes.states = new int[nodes.size()];
-
-
-		for (Node n : nodes) {
-			GNodes.layers[n.id] = n.layer;
-			GNodes.states[n.id] = n.state;
-			int i;
-			Set<Arc> outarc = graph.outgoingEdgesOf(n);
-			if (!outarc.isEmpty()) {
-				int[] out = new int[outarc.size()];
-				i = 0;
-				for (Arc a : outarc) {
-					out[i++] = a.id;
-				}
-				GNodes.outArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, out);
-			}
-
-			Set<Arc> inarc = graph.incomingEdgesOf(n);
-			if (!inarc.isEmpty()) {
-				int[] in = new int[inarc.size()];
-				i = 0;
-				for (Arc a : inarc) {
-					in[i++] = a.id;
-				}
-				GNodes.inArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, in);
-			}
+		this.supCount = environment.makeIntVector(graph.supportLength, 0);
+		for (int s = 0; s < graph.supportLength; s++) {
+			supCount.quickSet(s, graph.supStarts[s + 1] - graph.supStarts[s]);
 		}
 	}
 
@@ -146,40 +84,43 @@ public class StoredDirectedMultiGraph {
 	//***********************************************************************************
 
 	public boolean hasSupport(int i, int j) {
-		StoredIndexedBipartiteSetWithOffset sup = getSupport(i,j);
-		return sup != null && !sup.isEmpty();
+		int s = graph.getSupportIndex(i, j);
+		return s > -1 && supCount.quickGet(s) > 0;
 	}
 
-	public void clearSupports(int idxVar, int val, Propagator p) throws ContradictionException {
-		clearSupports(getSupport(idxVar, val), p);
+	public void clearSupports(int idxVar, int val, Propagator<IntVar> p) throws ContradictionException {
+		int s = graph.getSupportIndex(idxVar, val);
+		if (s > -1 && supCount.quickGet(s) > 0) {
+			for (int k = graph.supStarts[s]; k < graph.supStarts[s + 1]; k++) {
+				if (arcs.get(graph.supArcs[k])) {
+					stack.push(graph.supArcs[k]);
+				}
+			}
+			removeArc(p);
+		}
 	}
 
 	//***********************************************************************************
 	// INTERNAL METHODS
 	//***********************************************************************************
 
-	private int getIdx(int i, int j) {
-		return starts[i] + j - offsets[i];
-	}
-
-	protected final StoredIndexedBipartiteSetWithOffset getSupport(int i, int j) {
-		return supports[getIdx(i, j)];
-	}
-
 	protected void removeArc(Propagator<IntVar> propagator) throws ContradictionException {
 		while (stack.size() > 0) {
 			int arcId = stack.pop();
+			if (!arcs.get(arcId)) {
+				continue;
+			}
+			arcs.clear(arcId);
 
-			int orig = GArcs.origs[arcId];
-			int dest = GArcs.dests[arcId];
-
-			int layer = GNodes.layers[orig];
-			int value = GArcs.values[arcId];
+			int orig = graph.origs[arcId];
+			int dest = graph.dests[arcId];
 
-			StoredIndexedBipartiteSetWithOffset support = getSupport(layer, value);
-			support.remove(arcId);
+			int layer = graph.nodeLayers[orig];
+			int value = graph.values[arcId];
 
-			if (support.isEmpty()) {
+			int s = graph.getSupportIndex(layer, value);
+			supCount.quickSet(s, supCount.quickGet(s) - 1);
+			if (supCount.quickGet(s) == 0) {
 				IntVar var = propagator.getVar(layer);
 				try {
 					var.removeValue(value, propagator);
@@ -189,74 +130,44 @@ public class StoredDirectedMultiGraph {
 				}
 			}
 
-			DisposableIntIterator it;
-			StoredIndexedBipartiteSetWithOffset out = GNodes.outArcs[orig];
-			StoredIndexedBipartiteSetWithOffset in;
-
-			out.remove(arcId);
-
-			if (GNodes.layers[orig] > 0 && out.isEmpty()) {
-				in = GNodes.inArcs[orig];
-				if (in != null) {
-					it = in.getIterator();
-					while (it.hasNext()) {
-						int id = it.next();
-						stack.push(id);
-					}
-					it.dispose();
-				}
+			outDeg.quickSet(orig, outDeg.quickGet(orig) - 1);
+			if (layer > 0 && outDeg.quickGet(orig) == 0) {
+				pushAlive(graph.inArcs, graph.inStarts[orig], graph.inStarts[orig + 1]);
 			}
 
-			in = GNodes.inArcs[dest];
-			in.remove(arcId);
-
-			if (GNodes.layers[dest] < propagator.getNbVars() && in.isEmpty()) {
-				out = GNodes.outArcs[dest];
-				if (out != null) {
-					it = out.getIterator();
-					while (it.hasNext()) {
-						int id = it.next();
-						stack.push(id);
-					}
-					it.dispose();
-				}
-
+			inDeg.quickSet(dest, inDeg.quickGet(dest) - 1);
+			if (graph.nodeLayers[dest] < graph.nbVars && inDeg.quickGet(dest) == 0) {
+				pushAlive(graph.outArcs, graph.outStarts[dest], graph.outStarts[dest + 1]);
 			}
 		}
 	}
 
-	protected void clearSupports(StoredIndexedBipartiteSet supports, Propagator p) throws ContradictionException {
-		if (supports != null) {
-			DisposableIntIterator it = supports.getIterator();
-			while (it.hasNext()) {
-				int arcId = it.next();
-				stack.push(arcId);
+	private void pushAlive(int[] arcIds, int from, int to) {
+		for (int k = from; k < to; k++) {
+			if (arcs.get(arcIds[k])) {
+				stack.push(arcIds[k]);
 			}
-			it.dispose();
-			removeArc(p);
 		}
 	}
 
 	@Override
 	public String toString() {
-
 		StringBuilder st = new StringBuilder();
 		int nb = 0;
-		for (int i = 0; i < supports.length; i++) {
-			if (supports[i] != null && !supports[i].isEmpty()) {
+		for (int s = 0; s < graph.supportLength; s++) {
+			if (supCount.quickGet(s) > 0) {
 				nb++;
 			}
 		}
 		st.append("nb: ").append(nb).append("\n");
 
-		for (int i = 0; i < supports.length; i++) {
-			if (supports[i] != null && !supports[i].isEmpty()) {
-				DisposableIntIterator it = supports[i].getIterator();
-				while (it.hasNext()) {
-					int arcId = it.next();
-					st.append(arcId).append(",");
+		for (int s = 0; s < graph.supportLength; s++) {
+			if (supCount.quickGet(s) > 0) {
+				for (int k = graph.supStarts[s]; k < graph.supStarts[s + 1]; k++) {
+					if (arcs.get(graph.supArcs[k])) {
+						st.append(graph.supArcs[k]).append(",");
+					}
 				}
-				it.dispose();
 				st.append("\n");
 			}
 		}
@@ -0,0 +1,481 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.binpacking;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Propagator for the Bin Packing constraint, working directly on item-to-bin assignment variables
+ * and bin load variables (P. Shaw, "A Constraint for Bin Packing", CP 2004):
+ * <br/>
+ * BIN_LOAD[b] = sum(ITEM_SIZE[i] | ITEM_BIN[i] = b + OFFSET)
+ * <br/>
+ * The required load (sum of the sizes of the items packed in a bin) and the possible load
+ * (required load plus sum of the sizes of the candidate items) of each bin are maintained incrementally.
+ * The filtering is made of:
+ * <ul>
+ * <li>load maintenance, with respect to the required and possible loads and to the total size of the items,</li>
+ * <li>elimination and commitment of candidate items,</li>
+ * <li>knapsack reasoning on each bin: detection of load bounds which no subset of candidate items can reach,</li>
+ * <li>a failure test based on the L2 lower bound of Martello and Toth on the number of bins.</li>
+ * </ul>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropBinPacking extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n, m, offset;
+    private final int[] sizes;
+    private final int sumSizes;
+    private final int maxSize;
+    private final int[] order; // items sorted by non-increasing size
+    private final IStateInt[] required, possible;
+    private final IIntDeltaMonitor[] idms;
+    private final IntProcedure remProc;
+    private final BitSet dirty;
+    private final int[] candidates;
+    private int[] packing;
+    private long[] prefix;
+    private int item;
+    private int alpha, beta; // outputs of noSum
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Bin Packing propagator
+     *
+     * @param itemBin  bin of each item
+     * @param itemSize size of each item, should be non-negative
+     * @param binLoad  load of each bin
+     * @param offset   index of the first bin
+     */
+    public PropBinPacking(IntVar[] itemBin, int[] itemSize, IntVar[] binLoad, int offset) {
+        super(ArrayUtils.append(itemBin, binLoad), PropagatorPriority.QUADRATIC, true);
+        this.n = itemBin.length;
+        this.m = binLoad.length;
+        this.offset = offset;
+        this.sizes = itemSize.clone();
+        int sum = 0;
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            assert sizes[i] >= 0;
+            sum += sizes[i];
+            sorted[i] = i;
+        }
+        this.sumSizes = sum;
+        Arrays.sort(sorted, (i1, i2) -> sizes[i2] - sizes[i1]);
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = sorted[i];
+        }
+        this.maxSize = n > 0 ? sizes[order[0]] : 0;
+        this.required = new IStateInt[m];
+        this.possible = new IStateInt[m];
+        for (int b = 0; b < m; b++) {
+            required[b] = solver.getEnvironment().makeInt();
+            possible[b] = solver.getEnvironment().makeInt();
+        }
+        this.idms = new IIntDeltaMonitor[n];
+        for (int i = 0; i < n; i++) {
+            idms[i] = vars[i].monitorDelta(this);
+        }
+        this.dirty = new BitSet(m);
+        this.remProc = v -> {
+            int b = v - this.offset;
+            if (b >= 0 && b < m) {
+                decPossible(b, sizes[item]);
+            }
+        };
+        this.candidates = new int[n];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return vIdx < n ? IntEventType.all() : IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < n; i++) {
+                vars[i].updateLowerBound(offset, aCause);
+                vars[i].updateUpperBound(m - 1 + offset, aCause);
+            }
+            for (int b = 0; b < m; b++) {
+                required[b].set(0);
+                possible[b].set(0);
+            }
+            for (int i = 0; i < n; i++) {
+                IntVar var = vars[i];
+                if (var.isInstantiated()) {
+                    required[var.getValue() - offset].add(sizes[i]);
+                }
+                int ub = var.getUB();
+                for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+                    possible[v - offset].add(sizes[i]);
+                }
+                idms[i].unfreeze();
+            }
+            dirty.set(0, m);
+        }
+        filter();
+        checkL2();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (idxVarInProp < n) {
+            item = idxVarInProp;
+            idms[item].freeze();
+            idms[item].forEachRemVal(remProc);
+            idms[item].unfreeze();
+            if (IntEventType.isInstantiate(mask)) {
+                int b = vars[item].getValue() - offset;
+                required[b].add(sizes[item]);
+                dirty.set(b);
+            }
+        } else {
+            dirty.set(idxVarInProp - n);
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    /**
+     * Apply load maintenance and bin filtering up to a fix point.
+     */
+    private void filter() throws ContradictionException {
+        while (true) {
+            loadMaintenance();
+            if (dirty.isEmpty()) {
+                return;
+            }
+            for (int b = dirty.nextSetBit(0); b > -1; b = dirty.nextSetBit(b + 1)) {
+                dirty.clear(b);
+                filterBin(b);
+            }
+        }
+    }
+
+    /**
+     * Each load is at least the total size minus what the other bins can hold,
+     * and at most the total size minus what the other bins have to hold.
+     */
+    private void loadMaintenance() throws ContradictionException {
+        // sums over the loads may exceed the int range, the derived bounds are clamped back to it
+        long sumLB = 0, sumUB = 0;
+        for (int b = 0; b < m; b++) {
+            sumLB += vars[n + b].getLB();
+            sumUB += vars[n + b].getUB();
+        }
+        for (int b = 0; b < m; b++) {
+            IntVar load = vars[n + b];
+            int lb = load.getLB(), ub = load.getUB();
+            int nlb = (int) Math.min(Integer.MAX_VALUE, Math.max(required[b].get(), sumSizes - (sumUB - ub)));
+            int nub = (int) Math.max(Integer.MIN_VALUE, Math.min(possible[b].get(), sumSizes - (sumLB - lb)));
+            if (load.updateLowerBound(nlb, aCause) | load.updateUpperBound(nub, aCause)) {
+                sumLB += load.getLB() - lb;
+                sumUB += load.getUB() - ub;
+                dirty.set(b);
+            }
+        }
+    }
+
+    private void filterBin(int b) throws ContradictionException {
+        IntVar load = vars[n + b];
+        int r = required[b].get();
+        int p = possible[b].get();
+        load.updateLowerBound(r, aCause);
+        load.updateUpperBound(p, aCause);
+        int lb = load.getLB(), ub = load.getUB();
+        int k = 0;
+        boolean modified = false;
+        // when no knapsack reasoning applies, only the items large enough to be eliminated or committed are scanned
+        boolean knapsack = lb > r || ub < p;
+        int threshold = Math.min(ub - r, p - lb);
+        for (int j = 0; j < n && (knapsack || sizes[order[j]] > threshold); j++) {
+            int i = order[j];
+            if (!vars[i].isInstantiated() && vars[i].contains(b + offset)) {
+                if (r + sizes[i] > ub) {
+                    remove(i, b);
+                    modified = true;
+                } else if (p - sizes[i] < lb) {
+                    assign(i, b);
+                    modified = true;
+                } else {
+                    candidates[k++] = sizes[i];
+                }
+            }
+        }
+        if (knapsack && !modified) {
+            // knapsack reasoning on the candidate items
+            if (noSum(k, lb - r, ub - r)) {
+                contradiction(load, "no subset of candidate items fits");
+            }
+            if (noSum(k, lb - r, lb - r) && load.updateLowerBound(r + beta, aCause)) {
+                dirty.set(b);
+            }
+            if (noSum(k, ub - r, ub - r) && load.updateUpperBound(r + alpha, aCause)) {
+                dirty.set(b);
+            }
+        }
+    }
+
+    private void remove(int i, int b) throws ContradictionException {
+        if (vars[i].removeValue(b + offset, aCause)) {
+            decPossible(b, sizes[i]);
+            if (vars[i].isInstantiated()) {
+                int c = vars[i].getValue() - offset;
+                required[c].add(sizes[i]);
+                dirty.set(c);
+            }
+        }
+    }
+
+    private void assign(int i, int b) throws ContradictionException {
+        IntVar var = vars[i];
+        int ub = var.getUB();
+        for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+            if (v != b + offset) {
+                decPossible(v - offset, sizes[i]);
+            }
+        }
+        var.instantiateTo(b + offset, aCause);
+        required[b].add(sizes[i]);
+        dirty.set(b);
+    }
+
+    /**
+     * Decrease the possible load of bin <code>b</code>. The bin is scheduled for filtering only when its possible load
+     * gets close to its load upper bound or when its load lower bound is not reached yet,
+     * otherwise no rule can apply.
+     */
+    private void decPossible(int b, int size) {
+        int p = possible[b].add(-size);
+        IntVar load = vars[n + b];
+        if (p < load.getUB() + maxSize || load.getLB() > required[b].get()) {
+            dirty.set(b);
+        }
+    }
+
+    /**
+     * Detect whether no subset of the <code>k</code> first candidate sizes sums into [<code>a</code>, <code>b</code>].
+     * If so, <code>alpha</code> and <code>beta</code> are set to the greatest reachable sum smaller than
+     * <code>a</code> and the smallest reachable sum greater than <code>b</code>, as estimated by P. Shaw.
+     */
+    private boolean noSum(int k, int a, int b) {
+        if (a <= 0) {
+            return false;
+        }
+        int sum = 0;
+        for (int j = 0; j < k; j++) {
+            sum += candidates[j];
+        }
+        if (b >= sum) {
+            return false;
+        }
+        // candidates[0..k-1] are sorted by non-increasing size, X[j] = candidates[j-1]
+        int sA = 0, sB = 0, sC = 0;
+        int kA = 0, kC = 0;
+        while (sC + candidates[k - 1 - kC] < a) {
+            sC += candidates[k - 1 - kC];
+            kC++;
+        }
+        sB = candidates[k - 1 - kC];
+        while (sA < a && sB <= b) {
+            kA++;
+            sA += candidates[kA - 1];
+            if (sA < a) {
+                kC--;
+                sB += candidates[k - 1 - kC];
+                sC -= candidates[k - 1 - kC];
+                while (sA + sC >= a) {
+                    kC--;
+                    sC -= candidates[k - 1 - kC];
+                    sB += candidates[k - 1 - kC] - candidates[k - 1 - kC - kA - 1];
+                }
+            }
+        }
+        alpha = sA + sC;
+        beta = sB;
+        return sA < a;
+    }
+
+    /**
+     * Fail if the L2 lower bound on the number of bins, computed on a reduced problem, exceeds the number of bins.
+     * All bins are given the greatest load upper bound as capacity; each one is filled with a virtual item
+     * made of its required load and its unusable capacity.
+     */
+    private void checkL2() throws ContradictionException {
+        int cap = 0;
+        for (int b = 0; b < m; b++) {
+            cap = Math.max(cap, vars[n + b].getUB());
+        }
+        if (cap == 0) {
+            return;
+        }
+        if (packing == null) {
+            packing = new int[n + m];
+            prefix = new long[n + m + 1];
+        }
+        int q = 0;
+        for (int i = 0; i < n; i++) {
+            if (!vars[i].isInstantiated() && sizes[i] > 0) {
+                packing[q++] = sizes[i];
+            }
+        }
+        for (int b = 0; b < m; b++) {
+            int s = required[b].get() + cap - vars[n + b].getUB();
+            if (s > 0) {
+                packing[q++] = s;
+            }
+        }
+        Arrays.sort(packing, 0, q);
+        for (int j = 0; j < q; j++) {
+            prefix[j + 1] = prefix[j] + packing[j];
+        }
+        int half = cap / 2;
+        long lb = (prefix[q] + cap - 1) / cap;
+        int k = 0;
+        int j = 0;
+        do {
+            int lek = countLE(q, k - 1);
+            int lec = countLE(q, cap - k);
+            int leh = countLE(q, half);
+            long n1 = q - lec;
+            long n2 = lec - leh;
+            long s2 = prefix[lec] - prefix[leh];
+            long s3 = prefix[leh] - prefix[lek];
+            long free = s3 - (n2 * cap - s2);
+            long l = n1 + n2 + (free > 0 ? (free + cap - 1) / cap : 0);
+            lb = Math.max(lb, l);
+            // next distinct size not greater than half
+            while (j < q && packing[j] <= k) {
+                j++;
+            }
+            k = j < q ? packing[j] : half + 1;
+        } while (k <= half);
+        if (lb > m) {
+            contradiction(vars[n], "L2 exceeds the number of bins");
+        }
+    }
+
+    /**
+     * @return number of sizes in packing[0..q-1] not greater than <code>x</code>
+     */
+    private int countLE(int q, int x) {
+        int lo = 0, hi = q;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (packing[mid] <= x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        int[] r = new int[m];
+        int[] p = new int[m];
+        boolean all = true;
+        for (int i = 0; i < n; i++) {
+            IntVar var = vars[i];
+            if (var.getLB() > m - 1 + offset || var.getUB() < offset) {
+                return ESat.FALSE;
+            }
+            if (var.isInstantiated()) {
+                r[var.getValue() - offset] += sizes[i];
+            } else {
+                all = false;
+            }
+            int ub = Math.min(var.getUB(), m - 1 + offset);
+            for (int v = var.nextValue(offset - 1); v <= ub; v = var.nextValue(v)) {
+                p[v - offset] += sizes[i];
+            }
+        }
+        for (int b = 0; b < m; b++) {
+            IntVar load = vars[n + b];
+            if (r[b] > load.getUB() || p[b] < load.getLB()) {
+                return ESat.FALSE;
+            }
+            all &= load.isInstantiated();
+        }
+        return all ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    @Override
+    public String toString() {
+        return "PropBinPacking(" + n + " items, " + m + " bins)";
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            IntVar[] items = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                vars[i].duplicate(solver, identitymap);
+                items[i] = (IntVar) identitymap.get(vars[i]);
+            }
+            IntVar[] loads = new IntVar[m];
+            for (int b = 0; b < m; b++) {
+                vars[n + b].duplicate(solver, identitymap);
+                loads[b] = (IntVar) identitymap.get(vars[n + b]);
+            }
+            identitymap.put(this, new PropBinPacking(items, sizes, loads, offset));
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.circuit;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Lower bound and reduced-cost filtering of the cost of a circuit, based on the Held-Karp relaxation:
+ * the Lagrangian relaxation of the degree constraints of the 1-tree bound
+ * (Held and Karp, "The traveling-salesman problem and minimum spanning trees", 1970),
+ * as in Benchimol et al. (Constraints 2012).
+ * <br/>
+ * The circuit is seen as an undirected Hamiltonian cycle, where edge {i,j} is available if j is a possible successor
+ * of i or i a possible successor of j, and costs the cheapest of these arcs; this is a valid relaxation of
+ * asymmetric cost matrices too. A 1-tree is a spanning tree of the nodes 1..n-1 plus two edges incident to node 0.
+ * <br/>
+ * Node penalties are optimized with a subgradient method, warm-started from the previous call.
+ * The bound updates the lower bound of COST, then an edge is removed when forcing it in the 1-tree
+ * would make the bound exceed the upper bound of COST.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropCircuitHeldKarp extends Propagator<IntVar> {
+
+    private static final double EPS = 1e-6;
+    private static final double BIG = 1e12;
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n, offset;
+    private final int[][] costs;
+    private final IntVar cost;
+    private final int nbRootIterations, nbIterations;
+    // cost and status of undirected edges
+    private final int[][] w;
+    private final boolean[][] mandatory;
+    // Lagrangian penalties
+    private final double[] pi, bestPi;
+    // 1-tree
+    private final int[] parent, deg;
+    private final int[] zero;
+    private final double[] key;
+    private final boolean[] inTree;
+    private final double[] maxOnPath;
+    private final int[] stack;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Held-Karp based propagator for the cost of a circuit
+     *
+     * @param succs  successor variables, defining a circuit
+     * @param offset index of the first node
+     * @param costs  cost matrix, costs[i][j] is the cost of arc (i,j)
+     * @param cost   upper bound of the cost of the circuit
+     */
+    public PropCircuitHeldKarp(IntVar[] succs, int offset, int[][] costs, IntVar cost) {
+        super(ArrayUtils.append(succs, new IntVar[]{cost}), PropagatorPriority.CUBIC, false);
+        this.n = succs.length;
+        this.offset = offset;
+        this.costs = costs;
+        this.cost = vars[n];
+        this.nbRootIterations = 100;
+        this.nbIterations = 20;
+        this.w = new int[n][n];
+        this.mandatory = new boolean[n][n];
+        this.pi = new double[n];
+        this.bestPi = new double[n];
+        this.parent = new int[n];
+        this.deg = new int[n];
+        this.zero = new int[2];
+        this.key = new double[n];
+        this.inTree = new boolean[n];
+        this.maxOnPath = new double[n];
+        this.stack = new int[n];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return vIdx < n ? IntEventType.all() : IntEventType.DECUPP.getMask() + IntEventType.INSTANTIATE.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (n < 3) {
+            return;
+        }
+        boolean full = PropagatorEventType.isFullPropagation(evtmask);
+        if (full) {
+            for (int i = 0; i < n; i++) {
+                vars[i].updateLowerBound(offset, aCause);
+                vars[i].updateUpperBound(n - 1 + offset, aCause);
+                vars[i].removeValue(i + offset, aCause);
+            }
+        }
+        buildEdges();
+        double ub = cost.getUB();
+        double best = Double.NEGATIVE_INFINITY;
+        double mu = 2.;
+        int nbIt = full ? nbRootIterations : nbIterations;
+        for (int it = 0; it < nbIt; it++) {
+            double lb = oneTree(pi);
+            if (lb > best + EPS) {
+                best = lb;
+                System.arraycopy(pi, 0, bestPi, 0, n);
+            }
+            if (Math.ceil(best - EPS) > ub) {
+                contradiction(cost, "Held-Karp bound exceeds the upper bound");
+            }
+            double norm = 0;
+            for (int i = 0; i < n; i++) {
+                norm += (deg[i] - 2) * (deg[i] - 2);
+            }
+            if (norm == 0) {
+                break; // the 1-tree is a tour, the bound cannot be improved
+            }
+            double target = Math.min(ub, lb + Math.abs(lb) * .1 + 1);
+            double step = mu * (target - lb) / norm;
+            for (int i = 0; i < n; i++) {
+                pi[i] += step * (deg[i] - 2);
+            }
+            mu *= .95;
+        }
+        System.arraycopy(bestPi, 0, pi, 0, n);
+        best = oneTree(pi);
+        cost.updateLowerBound((int) Math.ceil(best - EPS), aCause);
+        filter(best, cost.getUB());
+    }
+
+    /**
+     * Compute the cost and the status of the available edges
+     */
+    private void buildEdges() throws ContradictionException {
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(w[i], Integer.MAX_VALUE);
+            Arrays.fill(mandatory[i], false);
+        }
+        for (int i = 0; i < n; i++) {
+            IntVar succ = vars[i];
+            int ub = succ.getUB();
+            for (int v = succ.getLB(); v <= ub; v = succ.nextValue(v)) {
+                int j = v - offset;
+                if (j != i) {
+                    int c = Math.min(w[i][j], costs[i][j]);
+                    w[i][j] = w[j][i] = c;
+                }
+            }
+            if (succ.isInstantiated()) {
+                int j = succ.getValue() - offset;
+                mandatory[i][j] = mandatory[j][i] = true;
+                w[i][j] = w[j][i] = costs[i][j];
+            }
+        }
+    }
+
+    private double weight(int i, int j, double[] p) {
+        return w[i][j] + p[i] + p[j];
+    }
+
+    /**
+     * Compute a minimum 1-tree with respect to penalties <code>p</code>, containing the mandatory edges.
+     * Node 0 is linked to its two cheapest edges, nodes 1..n-1 are spanned by a tree computed with Prim's algorithm.
+     *
+     * @return the Lagrangian bound
+     */
+    private double oneTree(double[] p) throws ContradictionException {
+        Arrays.fill(deg, 0);
+        Arrays.fill(inTree, false);
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        double bound = 0;
+        // spanning tree of nodes 1..n-1
+        key[1] = 0;
+        parent[1] = -1;
+        for (int k = 1; k < n; k++) {
+            int u = -1;
+            for (int i = 1; i < n; i++) {
+                if (!inTree[i] && (u == -1 || key[i] < key[u])) {
+                    u = i;
+                }
+            }
+            if (key[u] == Double.POSITIVE_INFINITY) {
+                contradiction(vars[u], "the graph is not connected");
+            }
+            inTree[u] = true;
+            if (parent[u] > -1) {
+                bound += weight(u, parent[u], p);
+                deg[u]++;
+                deg[parent[u]]++;
+            }
+            for (int i = 1; i < n; i++) {
+                if (!inTree[i] && w[u][i] != Integer.MAX_VALUE) {
+                    double k2 = weight(u, i, p) - (mandatory[u][i] ? BIG : 0);
+                    if (k2 < key[i]) {
+                        key[i] = k2;
+                        parent[i] = u;
+                    }
+                }
+            }
+        }
+        // two cheapest edges incident to node 0
+        zero[0] = zero[1] = -1;
+        double k0 = Double.POSITIVE_INFINITY, k1 = Double.POSITIVE_INFINITY;
+        for (int i = 1; i < n; i++) {
+            if (w[0][i] != Integer.MAX_VALUE) {
+                double k2 = weight(0, i, p) - (mandatory[0][i] ? BIG : 0);
+                if (k2 < k0) {
+                    k1 = k0;
+                    zero[1] = zero[0];
+                    k0 = k2;
+                    zero[0] = i;
+                } else if (k2 < k1) {
+                    k1 = k2;
+                    zero[1] = i;
+                }
+            }
+        }
+        if (zero[1] == -1) {
+            contradiction(vars[0], "node 0 has less than two neighbors");
+        }
+        for (int z : zero) {
+            bound += weight(0, z, p);
+            deg[0]++;
+            deg[z]++;
+        }
+        for (int i = 0; i < n; i++) {
+            bound -= 2 * p[i];
+        }
+        return bound;
+    }
+
+    /**
+     * Remove the edges which cannot belong to a 1-tree of cost smaller than <code>ub</code>.
+     * The 1-tree of the current penalties is supposed to be up to date.
+     */
+    private void filter(double lb, double ub) throws ContradictionException {
+        for (int i = 1; i < n; i++) {
+            pathMaxima(i);
+            for (int j = i + 1; j < n; j++) {
+                if (w[i][j] != Integer.MAX_VALUE && parent[j] != i && parent[i] != j
+                        && maxOnPath[j] > Double.NEGATIVE_INFINITY
+                        && lb + weight(i, j, pi) - maxOnPath[j] > ub + EPS) {
+                    removeEdge(i, j);
+                }
+            }
+        }
+        // edges incident to node 0 replace the most expensive removable one of its two edges
+        double rep = Double.NEGATIVE_INFINITY;
+        for (int z : zero) {
+            if (!mandatory[0][z]) {
+                rep = Math.max(rep, weight(0, z, pi));
+            }
+        }
+        if (rep > Double.NEGATIVE_INFINITY) {
+            for (int i = 1; i < n; i++) {
+                if (w[0][i] != Integer.MAX_VALUE && i != zero[0] && i != zero[1]
+                        && lb + weight(0, i, pi) - rep > ub + EPS) {
+                    removeEdge(0, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute, for each node j, the maximum weight of a non-mandatory edge on the tree path from i to j.
+     */
+    private void pathMaxima(int i) {
+        Arrays.fill(maxOnPath, Double.NaN);
+        int top = 0;
+        stack[top++] = i;
+        maxOnPath[i] = Double.NEGATIVE_INFINITY;
+        while (top > 0) {
+            int u = stack[--top];
+            for (int v = 1; v < n; v++) {
+                if (Double.isNaN(maxOnPath[v]) && (parent[v] == u || parent[u] == v)) {
+                    maxOnPath[v] = mandatory[u][v] ? maxOnPath[u] : Math.max(maxOnPath[u], weight(u, v, pi));
+                    stack[top++] = v;
+                }
+            }
+        }
+    }
+
+    private void removeEdge(int i, int j) throws ContradictionException {
+        vars[i].removeValue(j + offset, aCause);
+        vars[j].removeValue(i + offset, aCause);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (isCompletelyInstantiated()) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                int j = vars[i].getValue() - offset;
+                if (j < 0 || j >= n) {
+                    return ESat.FALSE;
+                }
+                sum += costs[i][j];
+            }
+            return ESat.eval(sum <= cost.getValue());
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            IntVar[] succs = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                vars[i].duplicate(solver, identitymap);
+                succs[i] = (IntVar) identitymap.get(vars[i]);
+            }
+            cost.duplicate(solver, identitymap);
+            identitymap.put(this, new PropCircuitHeldKarp(succs, offset, costs, (IntVar) identitymap.get(cost)));
+        }
+    }
+}
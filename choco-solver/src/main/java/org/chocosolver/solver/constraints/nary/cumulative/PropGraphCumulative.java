@@ -35,6 +35,7 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.objects.graphs.UndirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.SetType;
 import org.chocosolver.util.sort.ArraySort;
@@ -60,6 +61,9 @@ public class PropGraphCumulative extends PropFullCumulative {
 
     protected final UndirectedGraph g;
     protected ISet tasks, toCompute;
+    // cursor over toCompute, and buffer for neighbourhoods, so that iterations can be nested
+    protected final ISetIterator toComputeIter;
+    protected final int[] neighbours;
     protected long timestamp;
     // optim (fast mode)
     protected final Random rd = new Random(0);
@@ -87,6 +91,8 @@ public class PropGraphCumulative extends PropFullCumulative {
         this.g = new UndirectedGraph(n, SetType.BITSET, true);
         this.tasks = SetFactory.makeSwap(n, false);
         this.toCompute = SetFactory.makeSwap(n, false);
+        this.toComputeIter = toCompute.newIterator();
+        this.neighbours = new int[n];
     }
 
     //***********************************************************************************
@@ -104,14 +110,16 @@ public class PropGraphCumulative extends PropFullCumulative {
             sweepBasedGraphComputation();
         } else {
             int count = 0;
-            for (int i = toCompute.getFirstElement(); i >= 0; i = toCompute.getNextElement()) {
-                count += g.getNeighOf(i).getSize();
+            toComputeIter.reset();
+            while (toComputeIter.hasNext()) {
+                count += g.getNeighOf(toComputeIter.nextInt()).getSize();
             }
             if (count >= 2 * n) {
                 filter(allTasks);
             } else {
-                for (int i = toCompute.getFirstElement(); i >= 0; i = toCompute.getNextElement()) {
-                    filterAround(i);
+                toComputeIter.reset();
+                while (toComputeIter.hasNext()) {
+                    filterAround(toComputeIter.nextInt());
                 }
             }
         }
@@ -144,10 +152,9 @@ public class PropGraphCumulative extends PropFullCumulative {
     protected void filterAround(int taskIndex) throws ContradictionException {
         tasks.clear();
         tasks.add(taskIndex);
-        ISet env = g.getNeighOf(taskIndex);
-        for (int i = env.getFirstElement(); i >= 0; i = env.getNextElement()) {
-            if (!disjoint(taskIndex, i)) {
-                tasks.add(i);
+        for (int i = 0, k = g.getNeighOf(taskIndex).toArray(neighbours); i < k; i++) {
+            if (!disjoint(taskIndex, neighbours[i])) {
+                tasks.add(neighbours[i]);
             }
         }
         filter(tasks);
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.element;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.RuleStore;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+/**
+ * VALUE = TABLE[INDEX-OFFSET], where TABLE is an array of variables
+ * <br/>
+ * Removes from INDEX the positions whose variable cannot be equal to VALUE,
+ * bounds VALUE by the variables of TABLE which can be selected, and, when INDEX is instantiated,
+ * enforces the equality between VALUE and the selected variable.
+ * <br/>
+ * Supports are maintained incrementally:
+ * each position keeps a value shared by VALUE and its variable (a residue),
+ * and the bounds of VALUE keep the positions which provided them.
+ * A modification of a variable of TABLE which cannot be selected is ignored,
+ * and the domain of INDEX is only scanned when VALUE is modified.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropElementV_support extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final IntVar var, index;
+    private final int offset;
+    // a value shared by VALUE and each variable of TABLE
+    private final int[] residues;
+    // positions of the variables of TABLE which provide the bounds of VALUE
+    private int minIdx, maxIdx;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    public PropElementV_support(IntVar value, IntVar[] values, IntVar index, int offset) {
+        super(ArrayUtils.append(new IntVar[]{value, index}, values), PropagatorPriority.LINEAR, true);
+        this.var = vars[0];
+        this.index = vars[1];
+        this.offset = offset;
+        this.residues = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            residues[i] = values[i].getLB();
+        }
+        this.minIdx = this.maxIdx = Integer.MIN_VALUE;
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            index.updateLowerBound(offset, aCause);
+            index.updateUpperBound(vars.length + offset - 3, aCause);
+        }
+        filter(true);
+    }
+
+    @Override
+    public void propagate(int varIdx, int mask) throws ContradictionException {
+        if (varIdx >= 2) {
+            int i = varIdx - 2 + offset;
+            if (!index.contains(i)) {
+                return;
+            }
+            if (!intersect(varIdx)) {
+                index.removeValue(i, aCause);
+            }
+        }
+        filter(varIdx == 0);
+    }
+
+    /**
+     * Filters INDEX (when VALUE has been modified) and VALUE, until the fix point is reached
+     */
+    private void filter(boolean valueModified) throws ContradictionException {
+        boolean again = valueModified;
+        do {
+            if (again) {
+                int ub = index.getUB();
+                for (int i = index.getLB(); i <= ub; i = index.nextValue(i)) {
+                    if (!intersect(2 + i - offset)) {
+                        index.removeValue(i, aCause);
+                    }
+                }
+            }
+            again = updateBounds();
+            if (index.isInstantiated()) {
+                again |= equals(var, vars[2 + index.getValue() - offset]);
+            }
+        } while (again);
+        if (var.isInstantiated() && index.isInstantiated()) {
+            IntVar v = vars[2 + index.getValue() - offset];
+            if (v.isInstantiated() && v.getValue() == var.getValue()) {
+                setPassive();
+            }
+        }
+    }
+
+    /**
+     * @return true iff VALUE and vars[j] share a value
+     */
+    private boolean intersect(int j) {
+        IntVar b = vars[j];
+        int r = residues[j - 2];
+        if (var.contains(r) && b.contains(r)) {
+            return true;
+        }
+        int lb = Math.max(var.getLB(), b.getLB());
+        int ub = Math.min(var.getUB(), b.getUB());
+        if (lb > ub) {
+            return false;
+        }
+        if (!var.hasEnumeratedDomain() && !b.hasEnumeratedDomain()) {
+            residues[j - 2] = lb;
+            return true;
+        }
+        // iterate over the enumerated domain with the fewest values
+        IntVar a = !b.hasEnumeratedDomain() || (var.hasEnumeratedDomain() && var.getDomainSize() < b.getDomainSize()) ? var : b;
+        IntVar o = a == var ? b : var;
+        for (int v = a.nextValue(lb - 1); v <= ub; v = a.nextValue(v)) {
+            if (o.contains(v)) {
+                residues[j - 2] = v;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bounds VALUE by the variables which can be selected
+     *
+     * @return true iff VALUE has been modified
+     */
+    private boolean updateBounds() throws ContradictionException {
+        boolean modified = false;
+        if (!index.contains(minIdx) || vars[2 + minIdx - offset].getLB() > var.getLB()) {
+            int min = Integer.MAX_VALUE;
+            int ub = index.getUB();
+            for (int i = index.getLB(); i <= ub; i = index.nextValue(i)) {
+                if (vars[2 + i - offset].getLB() < min) {
+                    min = vars[2 + i - offset].getLB();
+                    minIdx = i;
+                }
+            }
+            modified = var.updateLowerBound(min, aCause);
+        }
+        if (!index.contains(maxIdx) || vars[2 + maxIdx - offset].getUB() < var.getUB()) {
+            int max = Integer.MIN_VALUE;
+            int ub = index.getUB();
+            for (int i = index.getLB(); i <= ub; i = index.nextValue(i)) {
+                if (vars[2 + i - offset].getUB() > max) {
+                    max = vars[2 + i - offset].getUB();
+                    maxIdx = i;
+                }
+            }
+            modified |= var.updateUpperBound(max, aCause);
+        }
+        return modified;
+    }
+
+    /**
+     * Enforces a = b
+     *
+     * @return true iff a has been modified
+     */
+    private boolean equals(IntVar a, IntVar b) throws ContradictionException {
+        boolean modified = false;
+        int s;
+        do {
+            s = a.getDomainSize() + b.getDomainSize();
+            modified |= a.updateLowerBound(b.getLB(), aCause);
+            modified |= a.updateUpperBound(b.getUB(), aCause);
+            b.updateLowerBound(a.getLB(), aCause);
+            b.updateUpperBound(a.getUB(), aCause);
+            if (a.hasEnumeratedDomain()) {
+                int ub = a.getUB();
+                for (int v = a.getLB(); v <= ub; v = a.nextValue(v)) {
+                    if (!b.contains(v)) {
+                        modified |= a.removeValue(v, aCause);
+                    }
+                }
+            }
+            if (b.hasEnumeratedDomain()) {
+                int ub = b.getUB();
+                for (int v = b.getLB(); v <= ub; v = b.nextValue(v)) {
+                    if (!a.contains(v)) {
+                        b.removeValue(v, aCause);
+                    }
+                }
+            }
+        } while (a.getDomainSize() + b.getDomainSize() != s);
+        return modified;
+    }
+
+    //***********************************************************************************
+    // INFO
+    //***********************************************************************************
+
+    @Override
+    public ESat isEntailed() {
+        int lb = index.getLB();
+        int ub = index.getUB();
+        int min = Integer.MAX_VALUE / 2;
+        int max = Integer.MIN_VALUE / 2;
+        int val = var.getLB();
+        boolean exists = false;
+        for (int i = lb; i <= ub; i = index.nextValue(i)) {
+            int j = 2 + i - offset;
+            if (j >= 2 && j < vars.length) {
+                min = Math.min(min, vars[j].getLB());
+                max = Math.max(max, vars[j].getUB());
+                exists |= vars[j].contains(val);
+            }
+        }
+        if (min > var.getUB() || max < var.getLB()) {
+            return ESat.FALSE;
+        }
+        if (var.isInstantiated() && !exists) {
+            return ESat.FALSE;
+        }
+        if (var.isInstantiated() && min == max) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            int size = this.vars.length - 2;
+            IntVar[] X = new IntVar[size];
+            for (int i = 0; i < size; i++) {
+                this.vars[i + 2].duplicate(solver, identitymap);
+                X[i] = (IntVar) identitymap.get(this.vars[i + 2]);
+            }
+            this.vars[0].duplicate(solver, identitymap);
+            IntVar V = (IntVar) identitymap.get(this.vars[0]);
+
+            this.vars[1].duplicate(solver, identitymap);
+            IntVar I = (IntVar) identitymap.get(this.vars[1]);
+
+            identitymap.put(this, new PropElementV_support(V, X, I, this.offset));
+        }
+    }
+
+    @Override
+    public boolean why(RuleStore ruleStore, IntVar var, IEventType evt, int value) {
+        boolean nrule = ruleStore.addPropagatorActivationRule(this);
+        for (int i = 0; i < vars.length; i++) {
+            if (var != vars[i]) nrule |= ruleStore.addFullDomainRule(vars[i]);
+        }
+        return nrule;
+    }
+}
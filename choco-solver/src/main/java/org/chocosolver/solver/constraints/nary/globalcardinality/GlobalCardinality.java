@@ -43,16 +43,35 @@ import java.util.List;
 
 /**
  * Global Cardinality constraint
+ * The consistency level should be chosen among "AC" and "DEFAULT".
  *
  * @author Hadrien Cambazard, Charles Prud'homme, Jean-Guillaume Fages
  * @since 16/06/11
  */
 public class GlobalCardinality extends Constraint {
 
+	public static enum Type {
+		AC, DEFAULT
+	}
+
     public GlobalCardinality(IntVar[] vars, int[] values, IntVar[] cards) {
-        super("GCC", createProp(vars, values, cards));
+        this(vars, values, cards, "DEFAULT");
+    }
+
+    public GlobalCardinality(IntVar[] vars, int[] values, IntVar[] cards, String type) {
+        super("GCC", createProps(vars, values, cards, type));
     }
 
+	private static Propagator[] createProps(IntVar[] vars, int[] values, IntVar[] cards, String consistency) {
+		switch (GlobalCardinality.Type.valueOf(consistency)) {
+			case AC:
+				return new Propagator[]{createProp(vars, values, cards), new PropGCC_AC(vars, values, cards)};
+			case DEFAULT:
+			default:
+				return new Propagator[]{createProp(vars, values, cards)};
+		}
+	}
+
 	private static Propagator createProp(IntVar[] vars, int[] values, IntVar[] cards) {
 		assert values.length == cards.length;
 		TIntIntHashMap map = new TIntIntHashMap();
@@ -0,0 +1,400 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.globalcardinality;
+
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.graphOperations.connectivity.StrongConnectivityFinder;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for Global Cardinality Constraint (GCC) for integer variables
+ * <p/>
+ * Uses Regin algorithm: a feasible flow, where each variable sends one unit to its value
+ * and each value receives a flow within the bounds of its cardinality variable, is maintained.
+ * The flow of the previous call is repaired incrementally, through augmenting paths.
+ * Values which do not belong to any feasible flow are removed thanks to the strongly connected components
+ * of the residual graph (arc consistency on the decision variables),
+ * and cardinality variables are bounded by the minimum and maximum flow of their value (bound consistency).
+ * <p/>
+ * Values which are not constrained by a cardinality variable may be taken by any number of variables.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropGCC_AC extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n, m, nv;
+    private final int[] values;
+    // value -> value node, the m first value nodes are the constrained values
+    private final TIntIntHashMap map;
+    // value of each value node
+    private final int[] valueOf;
+    // value node assigned to each variable, and flow going through each value node
+    private final int[] match, flow;
+    // breadth-first search structures
+    private final int[] fifo, parentVar, parentVal;
+    private final boolean[] visited;
+    // residual graph: variables, then values, then the sink
+    private final DirectedGraph digraph;
+    private final StrongConnectivityFinder SCCfinder;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Propagator for Global Cardinality Constraint (GCC) for integer variables,
+     * ensuring arc consistency on the decision variables and bound consistency on the cardinality variables
+     *
+     * @param decvars            array of integer variables
+     * @param restrictedValues   array of int
+     * @param valueCardinalities array of integer variables
+     */
+    public PropGCC_AC(IntVar[] decvars, int[] restrictedValues, IntVar[] valueCardinalities) {
+        super(ArrayUtils.append(decvars, valueCardinalities), PropagatorPriority.QUADRATIC, false);
+        if (restrictedValues.length != valueCardinalities.length) {
+            throw new UnsupportedOperationException();
+        }
+        this.values = restrictedValues;
+        this.n = decvars.length;
+        this.m = values.length;
+        this.map = new TIntIntHashMap();
+        for (int j = 0; j < m; j++) {
+            if (map.containsKey(values[j])) {
+                throw new UnsupportedOperationException("ERROR: multiple occurrences of value: " + values[j]);
+            }
+            map.put(values[j], j);
+        }
+        int idx = m;
+        for (int i = 0; i < n; i++) {
+            IntVar v = decvars[i];
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                if (!map.containsKey(k)) {
+                    map.put(k, idx++);
+                }
+            }
+        }
+        this.nv = idx;
+        this.valueOf = new int[nv];
+        map.forEachEntry((k, j) -> {
+            valueOf[j] = k;
+            return true;
+        });
+        this.match = new int[n];
+        Arrays.fill(match, -1);
+        this.flow = new int[nv];
+        this.fifo = new int[Math.max(n, nv)];
+        this.parentVar = new int[Math.max(n, nv)];
+        this.parentVal = new int[Math.max(n, nv)];
+        this.visited = new boolean[Math.max(n, nv)];
+        this.digraph = new DirectedGraph(n + nv + 1, SetType.BITSET, true);
+        this.SCCfinder = new StrongConnectivityFinder(digraph);
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx >= n) {// cardinality variables
+            return IntEventType.boundAndInst();
+        }
+        return IntEventType.all();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        // bounding a cardinality variable may skip a hole of its domain, and thus shrink the feasible flows
+        do {
+            repairFlow();
+            filterVariables();
+        } while (filterCardinalities());
+    }
+
+    private int low(int j) {
+        return j < m ? vars[n + j].getLB() : 0;
+    }
+
+    private int up(int j) {
+        return j < m ? vars[n + j].getUB() : n;
+    }
+
+    /**
+     * Turns the flow of the previous call into a feasible flow for the current domains
+     */
+    private void repairFlow() throws ContradictionException {
+        Arrays.fill(flow, 0);
+        for (int i = 0; i < n; i++) {
+            if (match[i] >= 0 && vars[i].contains(valueOf[match[i]])) {
+                flow[match[i]]++;
+            } else {
+                match[i] = -1;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (match[i] >= 0 && flow[match[i]] > up(match[i])) {
+                flow[match[i]]--;
+                match[i] = -1;
+            }
+        }
+        // upper bounds: every variable must be assigned
+        for (int i = 0; i < n; i++) {
+            if (match[i] == -1 && !assign(i)) {
+                contradiction(vars[i], "no feasible flow");
+            }
+        }
+        // lower bounds: move variables towards the values in deficit
+        for (int j = 0; j < m; j++) {
+            while (flow[j] < low(j)) {
+                if (!shift(j, true)) {
+                    contradiction(vars[n + j], "no feasible flow");
+                }
+            }
+        }
+    }
+
+    /**
+     * Breadth-first search from an unassigned variable to a value that can receive one more unit of flow
+     *
+     * @return true iff the variable has been assigned
+     */
+    private boolean assign(int root) {
+        Arrays.fill(visited, 0, nv, false);
+        int first = 0, last = 0;
+        fifo[last++] = root;
+        parentVar[root] = -1;
+        while (first < last) {
+            int x = fifo[first++];
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                int j = map.get(k);
+                if (j == match[x] || visited[j]) {
+                    continue;
+                }
+                visited[j] = true;
+                if (flow[j] < up(j)) {
+                    // reroute the variables along the path
+                    flow[j]++;
+                    int y = x, w = j;
+                    while (y != -1) {
+                        int old = match[y];
+                        match[y] = w;
+                        w = old;
+                        y = parentVar[y];
+                    }
+                    return true;
+                }
+                for (int y = 0; y < n; y++) {
+                    if (match[y] == j && y != root) {
+                        parentVar[y] = x;
+                        fifo[last++] = y;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Breadth-first search, over value nodes, for a path which increases (<i>raise</i> is true)
+     * or decreases the flow going through <i>target</i> by one unit, without violating any other bound
+     *
+     * @return true iff the flow has been modified
+     */
+    private boolean shift(int target, boolean raise) {
+        Arrays.fill(visited, 0, nv, false);
+        int first = 0, last = 0;
+        fifo[last++] = target;
+        visited[target] = true;
+        while (first < last) {
+            int j = fifo[first++];
+            for (int i = 0; i < n; i++) {
+                // raise: a variable leaves its value w for j; lower: a variable leaves j for a value w
+                if (raise ? match[i] == j || !vars[i].contains(valueOf[j]) : match[i] != j) {
+                    continue;
+                }
+                if (raise) {
+                    int w = match[i];
+                    if (!visited[w] && visit(w, i, j, target, true)) {
+                        return true;
+                    }
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        fifo[last++] = w;
+                    }
+                } else {
+                    IntVar v = vars[i];
+                    int ub = v.getUB();
+                    for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                        int w = map.get(k);
+                        if (!visited[w]) {
+                            if (visit(w, i, j, target, false)) {
+                                return true;
+                            }
+                            visited[w] = true;
+                            fifo[last++] = w;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records how value node w is reached from j through variable i,
+     * and reroutes the flow if w can give (<i>raise</i> is true) or receive one unit
+     */
+    private boolean visit(int w, int i, int j, int target, boolean raise) {
+        parentVar[w] = i;
+        parentVal[w] = j;
+        if (raise ? flow[w] > low(w) : flow[w] < up(w)) {
+            flow[w] += raise ? -1 : 1;
+            flow[target] += raise ? 1 : -1;
+            for (int c = w; c != target; c = parentVal[c]) {
+                match[parentVar[c]] = raise ? parentVal[c] : c;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes values which do not belong to any feasible flow,
+     * that is, arcs out of the matching joining two distinct strongly connected components of the residual graph
+     */
+    private void filterVariables() throws ContradictionException {
+        int t = n + nv;
+        for (int x = 0; x <= t; x++) {
+            digraph.getSuccOf(x).clear();
+            digraph.getPredOf(x).clear();
+        }
+        for (int i = 0; i < n; i++) {
+            IntVar v = vars[i];
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                int j = map.get(k);
+                if (match[i] == j) {
+                    digraph.addArc(n + j, i);
+                } else {
+                    digraph.addArc(i, n + j);
+                }
+            }
+        }
+        for (int j = 0; j < nv; j++) {
+            if (flow[j] < up(j)) {
+                digraph.addArc(n + j, t);
+            }
+            if (flow[j] > low(j)) {
+                digraph.addArc(t, n + j);
+            }
+        }
+        SCCfinder.findAllSCC();
+        int[] nodeSCC = SCCfinder.getNodesSCC();
+        for (int i = 0; i < n; i++) {
+            IntVar v = vars[i];
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                int j = map.get(k);
+                if (match[i] != j && nodeSCC[i] != nodeSCC[n + j]) {
+                    v.removeValue(k, aCause);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bounds each cardinality variable by the minimum and the maximum flow its value can receive
+     *
+     * @return true iff a cardinality variable skipped a hole of its domain
+     */
+    private boolean filterCardinalities() throws ContradictionException {
+        boolean again = false;
+        for (int j = 0; j < m; j++) {
+            IntVar card = vars[n + j];
+            if (!card.isInstantiated()) {
+                while (flow[j] < up(j) && shift(j, true)) {
+                }
+                int max = flow[j];
+                while (flow[j] > low(j) && shift(j, false)) {
+                }
+                int min = flow[j];
+                card.updateLowerBound(min, aCause);
+                card.updateUpperBound(max, aCause);
+                again |= card.getLB() != min || card.getUB() != max;
+            }
+        }
+        return again;
+    }
+
+    //***********************************************************************************
+    // INFO
+    //***********************************************************************************
+
+    @Override
+    public ESat isEntailed() {
+        return ESat.TRUE; // redundant propagator (used with PropFastGCC)
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            IntVar[] X = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                this.vars[i].duplicate(solver, identitymap);
+                X[i] = (IntVar) identitymap.get(this.vars[i]);
+            }
+            IntVar[] Y = new IntVar[m];
+            for (int i = 0; i < m; i++) {
+                this.vars[i + n].duplicate(solver, identitymap);
+                Y[i] = (IntVar) identitymap.get(this.vars[i + n]);
+            }
+            identitymap.put(this, new PropGCC_AC(X, this.values.clone(), Y));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BitsetSetVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.events.SetEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * Ensures that all non-empty sets are disjoint, filtered 64 elements at a time.
+ * In order to forbid multiple empty set, use propagator PropAtMost1Empty in addition
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropBitsetAllDisjoint extends Propagator<SetVar> {
+
+    private final BitsetSetVar[] sets;
+    private final int firstWord, lastWord;
+
+    /**
+     * Ensures that all non-empty sets are disjoint
+     *
+     * @param sets array of set variables
+     */
+    public PropBitsetAllDisjoint(BitsetSetVar[] sets) {
+        super(sets, PropagatorPriority.LINEAR, false);
+        this.sets = sets.clone();
+        int f = Integer.MAX_VALUE, l = Integer.MIN_VALUE;
+        for (BitsetSetVar s : sets) {
+            f = Math.min(f, s.getFirstWord());
+            l = Math.max(l, s.getLastWord());
+        }
+        this.firstWord = f;
+        this.lastWord = l;
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return SetEventType.ADD_TO_KER.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        for (int w = firstWord; w <= lastWord; w++) {
+            long once = 0, twice = 0;
+            for (int i = 0; i < sets.length; i++) {
+                long ker = sets[i].getKernelWord(w);
+                twice |= once & ker;
+                once |= ker;
+            }
+            if (twice != 0) {
+                contradiction(sets[0], "");
+            }
+            if (once != 0) {
+                for (int i = 0; i < sets.length; i++) {
+                    sets[i].removeWordFromEnvelope(w, once & ~sets[i].getKernelWord(w), aCause);
+                }
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        boolean entailed = true;
+        for (int w = firstWord; w <= lastWord; w++) {
+            long onceK = 0, twiceK = 0, onceE = 0, twiceE = 0;
+            for (int i = 0; i < sets.length; i++) {
+                long ker = sets[i].getKernelWord(w);
+                twiceK |= onceK & ker;
+                onceK |= ker;
+                long env = sets[i].getEnvelopeWord(w);
+                twiceE |= onceE & env;
+                onceE |= env;
+            }
+            if (twiceK != 0) {
+                return ESat.FALSE;
+            }
+            entailed &= twiceE == 0;
+        }
+        return entailed ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            BitsetSetVar[] aSets = new BitsetSetVar[sets.length];
+            for (int i = 0; i < sets.length; i++) {
+                sets[i].duplicate(solver, identitymap);
+                aSets[i] = (BitsetSetVar) identitymap.get(sets[i]);
+            }
+            identitymap.put(this, new PropBitsetAllDisjoint(aSets));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BitsetSetVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+/**
+ * The intersection of sets is equal to intersection, filtered 64 elements at a time.
+ * <br/>
+ * Same filtering as {@link PropIntersection}: an element out of the intersection that belongs to every set envelope
+ * is removed from the only set, if any, which does not have it in its kernel.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropBitsetIntersection extends Propagator<SetVar> {
+
+    private final BitsetSetVar[] sets;
+    private final BitsetSetVar intersection;
+    private final int firstWord, lastWord;
+
+    /**
+     * The intersection of sets is equal to intersection
+     *
+     * @param sets         at least one set variable
+     * @param intersection resulting set variable
+     */
+    public PropBitsetIntersection(BitsetSetVar[] sets, BitsetSetVar intersection) {
+        super(ArrayUtils.append(sets, new SetVar[]{intersection}), PropagatorPriority.LINEAR, false);
+        assert sets.length > 0;
+        this.sets = sets.clone();
+        this.intersection = intersection;
+        int f = intersection.getFirstWord(), l = intersection.getLastWord();
+        for (BitsetSetVar s : sets) {
+            f = Math.min(f, s.getFirstWord());
+            l = Math.max(l, s.getLastWord());
+        }
+        this.firstWord = f;
+        this.lastWord = l;
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        for (int w = firstWord; w <= lastWord; w++) {
+            long kers = -1L, envs = -1L;
+            for (int i = 0; i < sets.length; i++) {
+                kers &= sets[i].getKernelWord(w);
+                envs &= sets[i].getEnvelopeWord(w);
+            }
+            intersection.addWordToKernel(w, kers, aCause);
+            intersection.removeWordFromEnvelope(w, ~envs, aCause);
+            long iker = intersection.getKernelWord(w);
+            for (int i = 0; i < sets.length; i++) {
+                sets[i].addWordToKernel(w, iker, aCause);
+            }
+            // elements excluded from the intersection and not yet excluded from the sets
+            long out = envs & ~intersection.getEnvelopeWord(w);
+            if (out != 0) {
+                long once = 0, twice = 0;
+                for (int i = 0; i < sets.length; i++) {
+                    long undecided = out & ~sets[i].getKernelWord(w);
+                    twice |= once & undecided;
+                    once |= undecided;
+                }
+                long single = once & ~twice;
+                if (single != 0) {
+                    for (int i = 0; i < sets.length; i++) {
+                        sets[i].removeWordFromEnvelope(w, single & ~sets[i].getKernelWord(w), aCause);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        boolean instantiated = isCompletelyInstantiated();
+        for (int w = firstWord; w <= lastWord; w++) {
+            long kers = -1L, envs = -1L;
+            for (int i = 0; i < sets.length; i++) {
+                kers &= sets[i].getKernelWord(w);
+                envs &= sets[i].getEnvelopeWord(w);
+            }
+            if ((kers & ~intersection.getEnvelopeWord(w)) != 0 || (intersection.getKernelWord(w) & ~envs) != 0) {
+                return ESat.FALSE;
+            }
+            if (instantiated && kers != intersection.getKernelWord(w)) {
+                return ESat.FALSE;
+            }
+        }
+        return instantiated ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            BitsetSetVar[] aSets = new BitsetSetVar[sets.length];
+            for (int i = 0; i < sets.length; i++) {
+                sets[i].duplicate(solver, identitymap);
+                aSets[i] = (BitsetSetVar) identitymap.get(sets[i]);
+            }
+            intersection.duplicate(solver, identitymap);
+            identitymap.put(this, new PropBitsetIntersection(aSets, (BitsetSetVar) identitymap.get(intersection)));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BitsetSetVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.events.SetEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * Ensures that X subseteq Y, filtered 64 elements at a time.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropBitsetSubsetEq extends Propagator<SetVar> {
+
+    private final BitsetSetVar x, y;
+
+    /**
+     * Ensures that X subseteq Y
+     *
+     * @param X a set variable
+     * @param Y a set variable
+     */
+    public PropBitsetSubsetEq(BitsetSetVar X, BitsetSetVar Y) {
+        super(new SetVar[]{X, Y}, PropagatorPriority.BINARY, false);
+        this.x = X;
+        this.y = Y;
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx == 0)
+            return SetEventType.ADD_TO_KER.getMask();
+        else
+            return SetEventType.REMOVE_FROM_ENVELOPE.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        for (int w = x.getFirstWord(); w <= x.getLastWord(); w++) {
+            y.addWordToKernel(w, x.getKernelWord(w), aCause);
+            x.removeWordFromEnvelope(w, ~y.getEnvelopeWord(w), aCause);
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        boolean entailed = true;
+        for (int w = x.getFirstWord(); w <= x.getLastWord(); w++) {
+            if ((x.getKernelWord(w) & ~y.getEnvelopeWord(w)) != 0) {
+                return ESat.FALSE;
+            }
+            entailed &= (x.getEnvelopeWord(w) & ~y.getKernelWord(w)) == 0;
+        }
+        return entailed ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            x.duplicate(solver, identitymap);
+            y.duplicate(solver, identitymap);
+            identitymap.put(this, new PropBitsetSubsetEq((BitsetSetVar) identitymap.get(x), (BitsetSetVar) identitymap.get(y)));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BitsetSetVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+/**
+ * The union of sets is equal to union, filtered 64 elements at a time.
+ * <br/>
+ * Same filtering as {@link PropUnion}: each word is brought to its fixpoint in a single pass,
+ * elements of the union kernel supported by a single set envelope being detected with two accumulators
+ * (elements seen at least once, elements seen at least twice).
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropBitsetUnion extends Propagator<SetVar> {
+
+    private final BitsetSetVar[] sets;
+    private final BitsetSetVar union;
+    private final int firstWord, lastWord;
+
+    /**
+     * The union of sets is equal to union
+     *
+     * @param sets  set variables to unify
+     * @param union resulting set variable
+     */
+    public PropBitsetUnion(BitsetSetVar[] sets, BitsetSetVar union) {
+        super(ArrayUtils.append(sets, new SetVar[]{union}), PropagatorPriority.LINEAR, false);
+        this.sets = sets.clone();
+        this.union = union;
+        int f = union.getFirstWord(), l = union.getLastWord();
+        for (BitsetSetVar s : sets) {
+            f = Math.min(f, s.getFirstWord());
+            l = Math.max(l, s.getLastWord());
+        }
+        this.firstWord = f;
+        this.lastWord = l;
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        for (int w = firstWord; w <= lastWord; w++) {
+            long kers = 0, once = 0, twice = 0;
+            for (int i = 0; i < sets.length; i++) {
+                kers |= sets[i].getKernelWord(w);
+            }
+            union.addWordToKernel(w, kers, aCause);
+            long uenv = union.getEnvelopeWord(w);
+            for (int i = 0; i < sets.length; i++) {
+                sets[i].removeWordFromEnvelope(w, ~uenv, aCause);
+                long env = sets[i].getEnvelopeWord(w);
+                twice |= once & env;
+                once |= env;
+            }
+            union.removeWordFromEnvelope(w, ~once, aCause);
+            long single = union.getKernelWord(w) & once & ~twice;
+            if (single != 0) {
+                for (int i = 0; i < sets.length; i++) {
+                    sets[i].addWordToKernel(w, single & sets[i].getEnvelopeWord(w), aCause);
+                }
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        boolean instantiated = isCompletelyInstantiated();
+        for (int w = firstWord; w <= lastWord; w++) {
+            long kers = 0, envs = 0;
+            for (int i = 0; i < sets.length; i++) {
+                kers |= sets[i].getKernelWord(w);
+                envs |= sets[i].getEnvelopeWord(w);
+            }
+            if ((kers & ~union.getEnvelopeWord(w)) != 0 || (union.getKernelWord(w) & ~envs) != 0) {
+                return ESat.FALSE;
+            }
+            if (instantiated && kers != union.getKernelWord(w)) {
+                return ESat.FALSE;
+            }
+        }
+        return instantiated ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            BitsetSetVar[] aSets = new BitsetSetVar[sets.length];
+            for (int i = 0; i < sets.length; i++) {
+                sets[i].duplicate(solver, identitymap);
+                aSets[i] = (BitsetSetVar) identitymap.get(sets[i]);
+            }
+            union.duplicate(solver, identitymap);
+            identitymap.put(this, new PropBitsetUnion(aSets, (BitsetSetVar) identitymap.get(union)));
+        }
+    }
+}
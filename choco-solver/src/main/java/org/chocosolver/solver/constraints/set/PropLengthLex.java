@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.LengthLexSetVar;
+import org.chocosolver.util.ESat;
+
+import java.util.Arrays;
+
+/**
+ * Channels the length-lex bounds of a set variable with its kernel and envelope.
+ * <br/>
+ * Bounds are first moved to the closest sets consistent with the kernel and the envelope.
+ * Then, when both bounds have the same cardinality, every set in between starts with their common prefix,
+ * which is added to the kernel, and cannot contain an element lower than the next element of the lower bound,
+ * which are removed from the envelope.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropLengthLex extends Propagator<LengthLexSetVar> {
+
+    /**
+     * Channels the length-lex bounds of set with its kernel and envelope
+     *
+     * @param set a set variable
+     */
+    public PropLengthLex(LengthLexSetVar set) {
+        super(new LengthLexSetVar[]{set}, PropagatorPriority.LINEAR, false);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        LengthLexSetVar set = vars[0];
+        boolean change;
+        do {
+            change = false;
+            set.updateLengthLexLB(set.getLengthLexLB(), false, aCause);
+            set.updateLengthLexUB(set.getLengthLexUB(), false, aCause);
+            int[] lb = set.getLengthLexLB();
+            int[] ub = set.getLengthLexUB();
+            if (lb.length == ub.length) {
+                int k = 0;
+                while (k < lb.length && lb[k] == ub[k]) {
+                    change |= set.addToKernel(lb[k++], aCause);
+                }
+                int limit = k == lb.length ? Integer.MAX_VALUE : lb[k];
+                int[] env = new int[set.getEnvelopeSize()];
+                int size = 0;
+                for (int e = set.getEnvelopeFirst(); e != LengthLexSetVar.END; e = set.getEnvelopeNext()) {
+                    if (e < limit && !set.kernelContains(e)) {
+                        env[size++] = e;
+                    }
+                }
+                for (int i = 0; i < size; i++) {
+                    change |= set.removeFromEnvelope(env[i], aCause);
+                }
+            }
+        } while (change);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        LengthLexSetVar set = vars[0];
+        if (set.isInstantiated()) {
+            int[] value = set.getValues();
+            Arrays.sort(value);
+            return ESat.eval(LengthLexSetVar.compare(set.getLengthLexLB(), value) <= 0
+                    && LengthLexSetVar.compare(value, set.getLengthLexUB()) <= 0);
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            vars[0].duplicate(solver, identitymap);
+            identitymap.put(this, new PropLengthLex((LengthLexSetVar) identitymap.get(vars[0])));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.LengthLexSetVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.events.SetEventType;
+import org.chocosolver.util.ESat;
+
+import java.util.BitSet;
+
+/**
+ * Cardinality reasoning for disjoint sets: the sum of the cardinalities of the sets
+ * cannot exceed the number of elements of the union of their envelopes.
+ * It is meant to be used together with an element based propagator, such as {@link PropAllDisjoint}.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropLengthLexAllDisjoint extends Propagator<LengthLexSetVar> {
+
+    private final int offset;
+    private final BitSet union;
+
+    /**
+     * Cardinality reasoning for disjoint sets
+     *
+     * @param sets array of set variables
+     */
+    public PropLengthLexAllDisjoint(LengthLexSetVar[] sets) {
+        super(sets, PropagatorPriority.LINEAR, false);
+        int min = Integer.MAX_VALUE;
+        for (LengthLexSetVar s : sets) {
+            for (int e = s.getEnvelopeFirst(); e != SetVar.END; e = s.getEnvelopeNext()) {
+                min = Math.min(min, e);
+            }
+        }
+        this.offset = min;
+        this.union = new BitSet();
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return SetEventType.LENGTH_LEX_BOUND.getMask() + SetEventType.REMOVE_FROM_ENVELOPE.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        union.clear();
+        int sum = 0;
+        for (int i = 0; i < vars.length; i++) {
+            for (int e = vars[i].getEnvelopeFirst(); e != SetVar.END; e = vars[i].getEnvelopeNext()) {
+                union.set(e - offset);
+            }
+            sum += vars[i].getMinCard();
+        }
+        int size = union.cardinality();
+        if (sum > size) {
+            contradiction(vars[0], "");
+        }
+        for (int i = 0; i < vars.length; i++) {
+            vars[i].updateCardinality(0, size - sum + vars[i].getMinCard(), aCause);
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        union.clear();
+        int sum = 0;
+        for (int i = 0; i < vars.length; i++) {
+            for (int e = vars[i].getEnvelopeFirst(); e != SetVar.END; e = vars[i].getEnvelopeNext()) {
+                union.set(e - offset);
+            }
+            sum += vars[i].getMinCard();
+        }
+        if (sum > union.cardinality()) {
+            return ESat.FALSE;
+        }
+        return isCompletelyInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            LengthLexSetVar[] aVars = new LengthLexSetVar[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                vars[i].duplicate(solver, identitymap);
+                aVars[i] = (LengthLexSetVar) identitymap.get(vars[i]);
+            }
+            identitymap.put(this, new PropLengthLexAllDisjoint(aVars));
+        }
+    }
+}
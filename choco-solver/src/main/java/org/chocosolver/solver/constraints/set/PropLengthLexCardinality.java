@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.LengthLexSetVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.SetEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * A propagator ensuring that |set| = card, where the cardinality of set is read from its length-lex bounds
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropLengthLexCardinality extends Propagator<Variable> {
+
+    private final LengthLexSetVar set;
+    private final IntVar card;
+
+    /**
+     * Propagator ensuring that |setVar| = cardinality
+     *
+     * @param setVar      a set variables
+     * @param cardinality an integer variable
+     */
+    public PropLengthLexCardinality(LengthLexSetVar setVar, IntVar cardinality) {
+        super(new Variable[]{setVar, cardinality}, PropagatorPriority.BINARY, false);
+        this.set = setVar;
+        this.card = cardinality;
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx == 0) return SetEventType.LENGTH_LEX_BOUND.getMask();
+        else return IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        do {
+            card.updateLowerBound(set.getMinCard(), aCause);
+            card.updateUpperBound(set.getMaxCard(), aCause);
+        } while (set.updateCardinality(card.getLB(), card.getUB(), aCause));
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (set.getMinCard() > card.getUB() || set.getMaxCard() < card.getLB()) {
+            return ESat.FALSE;
+        }
+        if (isCompletelyInstantiated()) {
+            return ESat.eval(set.getKernelSize() == card.getValue());
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            set.duplicate(solver, identitymap);
+            card.duplicate(solver, identitymap);
+            identitymap.put(this, new PropLengthLexCardinality((LengthLexSetVar) identitymap.get(set),
+                    (IntVar) identitymap.get(card)));
+        }
+    }
+}
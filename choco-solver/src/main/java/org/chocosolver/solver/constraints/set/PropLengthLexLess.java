@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.LengthLexSetVar;
+import org.chocosolver.solver.variables.events.SetEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * Ensures that X is lower than (or equal to) Y in the length-lex ordering
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropLengthLexLess extends Propagator<LengthLexSetVar> {
+
+    private final boolean strict;
+
+    /**
+     * Ensures that X is lower than (or equal to, when not strict) Y in the length-lex ordering
+     *
+     * @param X      a set variable
+     * @param Y      a set variable
+     * @param strict set to true to forbid X = Y
+     */
+    public PropLengthLexLess(LengthLexSetVar X, LengthLexSetVar Y, boolean strict) {
+        super(new LengthLexSetVar[]{X, Y}, PropagatorPriority.BINARY, false);
+        this.strict = strict;
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return SetEventType.LENGTH_LEX_BOUND.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        vars[0].updateLengthLexUB(vars[1].getLengthLexUB(), strict, aCause);
+        vars[1].updateLengthLexLB(vars[0].getLengthLexLB(), strict, aCause);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        int lower = LengthLexSetVar.compare(vars[0].getLengthLexLB(), vars[1].getLengthLexUB());
+        if (lower > 0 || (strict && lower == 0)) {
+            return ESat.FALSE;
+        }
+        int upper = LengthLexSetVar.compare(vars[0].getLengthLexUB(), vars[1].getLengthLexLB());
+        if (upper < 0 || (!strict && upper == 0)) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            vars[0].duplicate(solver, identitymap);
+            vars[1].duplicate(solver, identitymap);
+            identitymap.put(this, new PropLengthLexLess((LengthLexSetVar) identitymap.get(vars[0]),
+                    (LengthLexSetVar) identitymap.get(vars[1]), strict));
+        }
+    }
+}
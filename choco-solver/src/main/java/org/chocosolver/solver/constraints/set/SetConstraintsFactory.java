@@ -58,6 +58,9 @@ public class SetConstraintsFactory {
      * @return A constraint ensuring that the union of SET_VARS is equal to SET_UNION
      */
     public static Constraint union(SetVar[] SETS, SetVar UNION) {
+        if (bitsets(SETS) && UNION instanceof BitsetSetVar) {
+            return new Constraint("SetUnion", new PropBitsetUnion(toBitsets(SETS), (BitsetSetVar) UNION));
+        }
         return new Constraint("SetUnion", new PropUnion(SETS, UNION), new PropUnion(SETS, UNION));
     }
 
@@ -69,6 +72,9 @@ public class SetConstraintsFactory {
      * @return A constraint ensuring that the intersection of sets is equal to set intersection
      */
     public static Constraint intersection(SetVar[] SETS, SetVar INTERSECTION) {
+        if (bitsets(SETS) && INTERSECTION instanceof BitsetSetVar) {
+            return new Constraint("SetIntersection", new PropBitsetIntersection(toBitsets(SETS), (BitsetSetVar) INTERSECTION));
+        }
         return new Constraint("SetIntersection", new PropIntersection(SETS, INTERSECTION), new PropIntersection(SETS, INTERSECTION));
     }
 
@@ -81,7 +87,11 @@ public class SetConstraintsFactory {
     public static Constraint subsetEq(SetVar[] SETS) {
         Propagator[] props = new Propagator[SETS.length - 1];
         for (int i = 0; i < SETS.length - 1; i++) {
-            props[i] = new PropSubsetEq(SETS[i], SETS[i + 1]);
+            if (SETS[i] instanceof BitsetSetVar && SETS[i + 1] instanceof BitsetSetVar) {
+                props[i] = new PropBitsetSubsetEq((BitsetSetVar) SETS[i], (BitsetSetVar) SETS[i + 1]);
+            } else {
+                props[i] = new PropSubsetEq(SETS[i], SETS[i + 1]);
+            }
         }
         return new Constraint("SetSubsetEq", props);
     }
@@ -95,6 +105,12 @@ public class SetConstraintsFactory {
      * @return A constraint ensuring that |SET_VAR| = CARD
      */
     public static Constraint cardinality(SetVar SET, IntVar CARD) {
+        if (SET instanceof LengthLexSetVar) {
+            return new Constraint("SetCard", new PropLengthLexCardinality((LengthLexSetVar) SET, CARD));
+        }
+        if (SET instanceof BitsetSetVar) {
+            return new Constraint("SetCard", new PropBitsetCardinality((BitsetSetVar) SET, CARD));
+        }
         return new Constraint("SetCard", new PropCardinality(SET, CARD));
     }
 
@@ -324,6 +340,16 @@ public class SetConstraintsFactory {
      * @return a constraint ensuring that non-empty sets are all disjoint
      */
     public static Constraint all_disjoint(SetVar[] SETS) {
+        if (lengthLex(SETS)) {
+            LengthLexSetVar[] sets = new LengthLexSetVar[SETS.length];
+            for (int i = 0; i < SETS.length; i++) {
+                sets[i] = (LengthLexSetVar) SETS[i];
+            }
+            return new Constraint("SetAllDisjoint", new PropBitsetAllDisjoint(toBitsets(SETS)), new PropLengthLexAllDisjoint(sets));
+        }
+        if (bitsets(SETS)) {
+            return new Constraint("SetAllDisjoint", new PropBitsetAllDisjoint(toBitsets(SETS)));
+        }
         return new Constraint("SetAllDisjoint", new PropAllDisjoint(SETS));
     }
 
@@ -350,6 +376,39 @@ public class SetConstraintsFactory {
         return new Constraint("SetAllEqual", new PropAllEqual(SETS));
     }
 
+    /**
+     * Sets in SETS are strictly increasing in the length-lex ordering, that is,
+     * SETS[i] has fewer elements than SETS[i+1] or the same number of elements
+     * and a lexicographically smaller sorted sequence of elements.
+     * Useful to break symmetries among interchangeable sets.
+     *
+     * @param SETS set variables with length-lex bounds
+     * @return a constraint ensuring that SETS[0] &lt; SETS[1] &lt; ... in the length-lex ordering
+     */
+    public static Constraint lex_chain_less(LengthLexSetVar[] SETS) {
+        Propagator[] props = new Propagator[SETS.length - 1];
+        for (int i = 0; i < SETS.length - 1; i++) {
+            props[i] = new PropLengthLexLess(SETS[i], SETS[i + 1], true);
+        }
+        return new Constraint("SetLexChainLess", props);
+    }
+
+    /**
+     * Sets in SETS are increasing in the length-lex ordering, that is,
+     * SETS[i] has fewer elements than SETS[i+1] or the same number of elements
+     * and a lexicographically smaller or equal sorted sequence of elements.
+     *
+     * @param SETS set variables with length-lex bounds
+     * @return a constraint ensuring that SETS[0] &le; SETS[1] &le; ... in the length-lex ordering
+     */
+    public static Constraint lex_chain_less_eq(LengthLexSetVar[] SETS) {
+        Propagator[] props = new Propagator[SETS.length - 1];
+        for (int i = 0; i < SETS.length - 1; i++) {
+            props[i] = new PropLengthLexLess(SETS[i], SETS[i + 1], false);
+        }
+        return new Constraint("SetLexChainLessEq", props);
+    }
+
     /**
      * Partitions UNIVERSE into disjoint sets, SETS
      *
@@ -360,7 +419,7 @@ public class SetConstraintsFactory {
     public static Constraint partition(SetVar[] SETS, SetVar UNIVERSE) {
         return new Constraint("SetPartition", ArrayUtils.append(
                 all_disjoint(SETS).getPropagators(),
-                new Propagator[]{new PropUnion(SETS, UNIVERSE), new PropUnion(SETS, UNIVERSE)}
+                union(SETS, UNIVERSE).getPropagators()
         ));
     }
 
@@ -469,4 +528,41 @@ public class SetConstraintsFactory {
             }
         };
     }
+
+    //***********************************************************************************
+    // UTILS
+    //***********************************************************************************
+
+    /**
+     * @return true iff SETS is not empty and only contains {@link BitsetSetVar},
+     * which can be filtered 64 elements at a time
+     */
+    private static boolean bitsets(SetVar[] SETS) {
+        for (SetVar s : SETS) {
+            if (!(s instanceof BitsetSetVar)) {
+                return false;
+            }
+        }
+        return SETS.length > 0;
+    }
+
+    /**
+     * @return true iff SETS is not empty and only contains {@link LengthLexSetVar}
+     */
+    private static boolean lengthLex(SetVar[] SETS) {
+        for (SetVar s : SETS) {
+            if (!(s instanceof LengthLexSetVar)) {
+                return false;
+            }
+        }
+        return SETS.length > 0;
+    }
+
+    private static BitsetSetVar[] toBitsets(SetVar[] SETS) {
+        BitsetSetVar[] bitsets = new BitsetSetVar[SETS.length];
+        for (int i = 0; i < SETS.length; i++) {
+            bitsets[i] = (BitsetSetVar) SETS[i];
+        }
+        return bitsets;
+    }
 }
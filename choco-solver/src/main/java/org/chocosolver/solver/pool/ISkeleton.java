@@ -26,38 +26,23 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.chocosolver.solver.constraints.nary.automata.structure;
+package org.chocosolver.solver.pool;
+
+import org.chocosolver.solver.Solver;
 
 /**
- * Created by IntelliJ IDEA.
- * User: julien
- * Date: Oct 30, 2009
- * Time: 3:46:54 PM
+ * A model skeleton: a solver whose variables and constraints are built once, and which is solved many times
+ * with different data, given through a {@link Parametrization}.
+ * <br/>
+ * Implementations typically keep references on the variables that are parametrized.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
  */
-public class Node implements Cloneable {
-
-
-    public int id;
-    public int state;
-    public int layer;
-
-    public Node(int state, int layer, int id) {
-        this.id = id;
-        this.state = state;
-        this.layer = layer;
-    }
-
-    public boolean equals(Object n) {
-        return n instanceof Node && ((Node) n).state == state && ((Node) n).layer == layer;
-
-    }
+public interface ISkeleton {
 
-    @Override
-    public Node clone() throws CloneNotSupportedException {
-        Node node = (Node) super.clone();
-        node.id = id;
-        node.state = state;
-        node.layer = layer;
-        return node;
-    }
+    /**
+     * @return the solver this skeleton is built in
+     */
+    Solver getSolver();
 }
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.pool;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * The data of one resolution of a model skeleton, as a list of domain reductions: bounds tightening, fixed values,
+ * removed values and objective cut.
+ * <br/>
+ * The reductions are applied during the initial propagation, in a world which is backtracked when the search loop
+ * is reset. So they do not survive the resolution, and the constraint can be filled again with the data of the next
+ * resolution, without posting or unposting anything.
+ * <pre>
+ *     Parametrization p = new Parametrization(solver);
+ *     solver.post(p);
+ *     p.lowerBound(x, 3).instantiate(y, 2);
+ *     solver.findSolution();
+ *     solver.getSearchLoop().reset();
+ *     p.clear();
+ *     p.upperBound(x, 5);
+ *     solver.findSolution();
+ * </pre>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class Parametrization extends Constraint {
+
+    public Parametrization(Solver solver) {
+        super("Parametrization", new PropParametrization(solver));
+    }
+
+    private PropParametrization prop() {
+        return (PropParametrization) propagators[0];
+    }
+
+    /**
+     * Removes every reduction declared so far.
+     */
+    public Parametrization clear() {
+        prop().clear();
+        return this;
+    }
+
+    /**
+     * @return the number of reductions declared so far
+     */
+    public int size() {
+        return prop().size();
+    }
+
+    /**
+     * Declares <code>var</code> &ge; <code>value</code>.
+     */
+    public Parametrization lowerBound(IntVar var, int value) {
+        prop().add(PropParametrization.LB, var, value);
+        return this;
+    }
+
+    /**
+     * Declares <code>var</code> &le; <code>value</code>.
+     */
+    public Parametrization upperBound(IntVar var, int value) {
+        prop().add(PropParametrization.UB, var, value);
+        return this;
+    }
+
+    /**
+     * Declares <code>var</code> = <code>value</code>.
+     */
+    public Parametrization instantiate(IntVar var, int value) {
+        prop().add(PropParametrization.EQ, var, value);
+        return this;
+    }
+
+    /**
+     * Declares <code>var</code> &ne; <code>value</code>.
+     */
+    public Parametrization remove(IntVar var, int value) {
+        prop().add(PropParametrization.NEQ, var, value);
+        return this;
+    }
+
+    /**
+     * Only accepts solutions strictly better than <code>bound</code>, wrt the optimization <code>policy</code>.
+     *
+     * @param policy    optimization policy, among ResolutionPolicy.MINIMIZE and ResolutionPolicy.MAXIMIZE
+     * @param objective the variable to optimize
+     * @param bound     value of a known solution, for instance the one of the previous resolution
+     */
+    public Parametrization objectiveCut(ResolutionPolicy policy, IntVar objective, int bound) {
+        switch (policy) {
+            case MINIMIZE:
+                return upperBound(objective, bound - 1);
+            case MAXIMIZE:
+                return lowerBound(objective, bound + 1);
+            default:
+                throw new SolverException("An objective cut requires ResolutionPolicy.MINIMIZE or ResolutionPolicy.MAXIMIZE");
+        }
+    }
+}
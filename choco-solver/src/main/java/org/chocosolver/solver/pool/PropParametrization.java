@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.pool;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+
+import java.util.ArrayList;
+
+/**
+ * Propagator applying a list of domain reductions, on any variables, during the initial propagation.
+ * It does not react to any event: once the reductions are applied, it becomes passive.
+ * The list can be modified between two resolutions, not during a resolution.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class PropParametrization extends Propagator<IntVar> {
+
+    static final int LB = 0, UB = 1, EQ = 2, NEQ = 3;
+
+    private final ArrayList<IntVar> targets;
+    private final TIntArrayList kinds;
+    private final TIntArrayList values;
+
+    public PropParametrization(Solver solver) {
+        super(new IntVar[]{solver.ONE}, PropagatorPriority.UNARY, false);
+        this.targets = new ArrayList<>();
+        this.kinds = new TIntArrayList();
+        this.values = new TIntArrayList();
+    }
+
+    void add(int kind, IntVar var, int value) {
+        targets.add(var);
+        kinds.add(kind);
+        values.add(value);
+    }
+
+    void clear() {
+        targets.clear();
+        kinds.clear();
+        values.clear();
+    }
+
+    int size() {
+        return targets.size();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        for (int i = 0; i < targets.size(); i++) {
+            IntVar var = targets.get(i);
+            int value = values.getQuick(i);
+            switch (kinds.getQuick(i)) {
+                case LB:
+                    var.updateLowerBound(value, aCause);
+                    break;
+                case UB:
+                    var.updateUpperBound(value, aCause);
+                    break;
+                case EQ:
+                    var.instantiateTo(value, aCause);
+                    break;
+                case NEQ:
+                    var.removeValue(value, aCause);
+                    break;
+            }
+        }
+        setPassive();
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.VOID.getMask();
+    }
+
+    @Override
+    public ESat isEntailed() {
+        boolean all = true;
+        for (int i = 0; i < targets.size(); i++) {
+            IntVar var = targets.get(i);
+            int value = values.getQuick(i);
+            switch (kinds.getQuick(i)) {
+                case LB:
+                    if (var.getUB() < value) return ESat.FALSE;
+                    all &= var.getLB() >= value;
+                    break;
+                case UB:
+                    if (var.getLB() > value) return ESat.FALSE;
+                    all &= var.getUB() <= value;
+                    break;
+                case EQ:
+                    if (!var.contains(value)) return ESat.FALSE;
+                    all &= var.isInstantiated();
+                    break;
+                case NEQ:
+                    if (var.isInstantiatedTo(value)) return ESat.FALSE;
+                    all &= !var.contains(value);
+                    break;
+            }
+        }
+        return all ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("Parametrization(");
+        for (int i = 0; i < targets.size(); i++) {
+            if (i > 0) st.append(", ");
+            st.append(targets.get(i).getName()).append(new String[]{" >= ", " <= ", " = ", " != "}[kinds.getQuick(i)])
+                    .append(values.getQuick(i));
+        }
+        return st.append(')').toString();
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.pool;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pool of model skeletons, to solve the same model structure many times with different data
+ * without paying, for each resolution, the construction of the model and the initialization of the propagation engine.
+ * <br/>
+ * A skeleton is built by the factory when none is idle, it is reset when released, and kept for a later resolution
+ * as long as the pool holds less than <code>capacity</code> idle skeletons.
+ * The pool can be shared by several threads; a skeleton is used by one thread at a time.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class SolverPool<M extends ISkeleton> {
+
+    private final ISkeletonFactory<M> factory;
+
+    private final int capacity;
+
+    private final ArrayDeque<WarmSolver<M>> idle;
+
+    private int nbBuilt;
+
+    /**
+     * Creates a pool of skeletons
+     *
+     * @param factory  builds a new skeleton when no idle one is available
+     * @param capacity maximum number of idle skeletons kept
+     */
+    public SolverPool(ISkeletonFactory<M> factory, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be positive or null");
+        }
+        this.factory = factory;
+        this.capacity = capacity;
+        this.idle = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Lends an idle skeleton, or a new one if none is idle.
+     * The caller must give it back with {@link WarmSolver#release()} once the resolution is over.
+     *
+     * @return a skeleton ready to be parametrized and solved
+     */
+    public WarmSolver<M> acquire() {
+        WarmSolver<M> ws;
+        synchronized (this) {
+            ws = idle.pollFirst();
+            if (ws == null) {
+                nbBuilt++;
+            }
+        }
+        if (ws == null) {
+            ws = new WarmSolver<>(this, factory.make());
+        }
+        ws.lend();
+        return ws;
+    }
+
+    void release(WarmSolver<M> ws) {
+        ws.reset();
+        synchronized (this) {
+            if (idle.size() < capacity) {
+                idle.addFirst(ws);
+            }
+        }
+    }
+
+    /**
+     * @return the number of skeletons built by this pool so far
+     */
+    public synchronized int getNbBuilt() {
+        return nbBuilt;
+    }
+
+    /**
+     * @return the number of idle skeletons
+     */
+    public synchronized int getNbIdle() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.pool;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.search.loop.monitors.ISearchMonitor;
+import org.chocosolver.solver.search.solution.ISolutionRecorder;
+import org.chocosolver.solver.search.solution.LastSolutionRecorder;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.util.ESat;
+
+/**
+ * A model skeleton lent by a {@link SolverPool}, together with the {@link Parametrization} posted in its solver.
+ * <br/>
+ * Between two resolutions, the search loop is reset to the root node and the propagation engine keeps its internal
+ * structure, so neither the model nor the engine are built again.
+ * <pre>
+ *     WarmSolver&lt;Knapsack&gt; ws = pool.acquire();
+ *     ws.getParametrization().upperBound(ws.getModel().weight, capacity);
+ *     ws.getSolver().findOptimalSolution(ResolutionPolicy.MAXIMIZE, ws.getModel().profit);
+ *     // read the solution
+ *     ws.release();
+ * </pre>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public final class WarmSolver<M extends ISkeleton> {
+
+    private final SolverPool<M> pool;
+
+    private final M model;
+
+    private final Parametrization parametrization;
+
+    private int nbUses;
+
+    WarmSolver(SolverPool<M> pool, M model) {
+        this.pool = pool;
+        this.model = model;
+        this.parametrization = new Parametrization(model.getSolver());
+        model.getSolver().post(parametrization);
+    }
+
+    public M getModel() {
+        return model;
+    }
+
+    public Solver getSolver() {
+        return model.getSolver();
+    }
+
+    /**
+     * @return the reductions to apply on the next resolution
+     */
+    public Parametrization getParametrization() {
+        return parametrization;
+    }
+
+    /**
+     * @return the number of times this skeleton has been lent
+     */
+    public int getNbUses() {
+        return nbUses;
+    }
+
+    /**
+     * Makes the skeleton ready for a new resolution: backtracks to the root node, clears the parametrization and
+     * forgets the previous resolution (measures, objective, limit, feasibility and recorded solutions).
+     * Unlike {@link org.chocosolver.solver.search.loop.ISearchLoop#reset()}, the propagation engine is kept and
+     * re-armed.
+     * <p>
+     * The solution recorder, whether it was installed by the user or by a resolution method, is replaced by a fresh
+     * {@link LastSolutionRecorder}, as in a new solver, and unplugged if it is a search monitor. A specific recorder
+     * has to be set again after each {@link SolverPool#acquire()}.
+     */
+    public void reset() {
+        Solver solver = model.getSolver();
+        IPropagationEngine engine = solver.getEngine();
+        solver.getSearchLoop().reset();
+        solver.getSearchLoop().resetLimit();
+        solver.set(engine);
+        engine.reset();
+        solver.setFeasible(ESat.UNDEFINED);
+        ISolutionRecorder recorder = solver.getSolutionRecorder();
+        if (recorder instanceof ISearchMonitor) {
+            solver.unplugMonitor((ISearchMonitor) recorder);
+        }
+        solver.set(new LastSolutionRecorder(new Solution(), false, solver));
+        parametrization.clear();
+    }
+
+    /**
+     * Gives this skeleton back to its pool. It must not be used anymore by the caller.
+     */
+    public void release() {
+        pool.release(this);
+    }
+
+    void lend() {
+        nbUses++;
+    }
+}
@@ -112,6 +112,16 @@ public interface IPropagationEngine extends Serializable {
     default void clear() {
     }
 
+    /**
+     * Restore <code>this</code> in the state it was right after its initialization: pending events are removed and
+     * every propagator will be propagated again on the next call to {@link #propagate()}.
+     * Unlike {@link #clear()}, the internal structure may be kept, so no new initialisation is required.
+     * By default, it simply calls {@link #clear()}.
+     */
+    default void reset() {
+        clear();
+    }
+
     //********************************//
     //      SERVICES FOR UPDATING     //
     //********************************//
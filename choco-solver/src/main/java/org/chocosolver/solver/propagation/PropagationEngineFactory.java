@@ -29,6 +29,7 @@
 package org.chocosolver.solver.propagation;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.propagation.hardcoded.ClusteredPropagationEngine;
 import org.chocosolver.solver.propagation.hardcoded.SevenQueuesPropagatorEngine;
 import org.chocosolver.solver.propagation.hardcoded.TwoBucketPropagationEngine;
 
@@ -65,6 +66,17 @@ public enum PropagationEngineFactory {
         }
     },
 
+    /**
+     * Create a seven queue propagator-oriented propagation engine which partitions propagators into clusters,
+     * each cluster being propagated up to its own fix point.
+     */
+    PROPAGATORDRIVEN_CLUSTERED() {
+        @Override
+        public IPropagationEngine make(Solver solver) {
+            return new ClusteredPropagationEngine(solver);
+        }
+    },
+
     DEFAULT() {
         @Override
         public IPropagationEngine make(Solver solver) {
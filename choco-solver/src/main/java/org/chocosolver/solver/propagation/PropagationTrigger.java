@@ -33,6 +33,7 @@ import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.limits.CancellationToken;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.slf4j.LoggerFactory;
 
@@ -140,6 +141,9 @@ public class PropagationTrigger implements Serializable {
     public void propagate() throws ContradictionException {
         if (sta_propagators.size() > 0) {
             for (int p = 0; p < sta_propagators.size(); p++) {
+                if (solver.getCancellationToken().isCancelled()) {
+                    engine.fails(solver.getCancellationToken(), null, CancellationToken.MSG_CANCELLED);
+                }
                 execute(sta_propagators.get(p), engine);
             }
             size -= sta_propagators.size();
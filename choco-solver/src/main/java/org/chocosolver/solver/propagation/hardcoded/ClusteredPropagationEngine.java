@@ -0,0 +1,568 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.propagation.hardcoded;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.propagation.PropagationTrigger;
+import org.chocosolver.solver.propagation.hardcoded.util.IId2AbId;
+import org.chocosolver.solver.propagation.hardcoded.util.MId2AbId;
+import org.chocosolver.solver.search.limits.CancellationToken;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.objects.IntCircularQueue;
+import org.chocosolver.util.objects.queues.CircularQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A priority-driven propagator-oriented engine which partitions the constraint network into clusters.
+ * <br/>
+ * On a call to {@link #initialize()}, propagators are grouped into weakly-connected clusters:
+ * two propagators belong to the same cluster when they share a variable
+ * (variables watched by more than {@link Settings#getClusteringDegreeThreshold()} propagators are ignored,
+ * such hub variables are then shared by several clusters).
+ * Each cluster has its own seven priority queues and is propagated up to its local fix point before the next
+ * pending cluster is considered. An event on a shared variable schedules the clusters it impacts,
+ * and the propagation ends when no cluster is pending anymore.
+ * <br/>
+ * Clusters are independent units of work, but they are propagated one after the other:
+ * backtrackable objects and variable deltas are not thread-safe, so a cluster cannot be propagated concurrently with
+ * another one within the same search node.
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 22/06/2015
+ */
+public class ClusteredPropagationEngine implements IPropagationEngine {
+
+    final Logger LOGGER = LoggerFactory.getLogger(ClusteredPropagationEngine.class);
+
+    private static final int WORD_MASK = 0xffffffff;
+
+    protected final ContradictionException exception; // the exception in case of contradiction
+    private final Solver solver;
+    protected Propagator[] propagators;
+
+    protected CircularQueue<Propagator>[][] pro_queue; // for each cluster, the seven queues
+    protected int[] notEmpty; // for each cluster, point out the no empty queues
+    protected IntCircularQueue pending; // the clusters to propagate
+    protected boolean[] pendingC; // is a cluster pending?
+    protected int nbClusters;
+    protected int[] p2c; // map propagator absolute index to its cluster
+    protected Propagator lastProp;
+    protected IId2AbId p2i; // mapping between propagator ID and its absolute index
+    protected short[] scheduled; // also maintains the index of the queue!
+    protected IntCircularQueue[] eventsets;
+    private boolean init;
+    protected int[][] eventmasks;// the i^th event mask stores modification events on the i^th variable, since the last propagation
+
+    final PropagationTrigger trigger; // an object that starts the propagation
+
+    final Settings.Idem idemStrat;
+    final int maxDegree;
+    final CancellationToken token; // checked before each propagator execution
+
+    public ClusteredPropagationEngine(Solver solver) {
+        this.exception = new ContradictionException();
+        this.trigger = new PropagationTrigger(this, solver);
+        this.idemStrat = solver.getSettings().getIdempotencyStrategy();
+        this.maxDegree = solver.getSettings().getClusteringDegreeThreshold();
+        this.solver = solver;
+        this.token = solver.getCancellationToken();
+    }
+
+    @Override
+    public void fails(ICause cause, Variable variable, String message) throws ContradictionException {
+        throw exception.set(cause, variable, message);
+    }
+
+    @Override
+    public ContradictionException getContradictionException() {
+        return exception;
+    }
+
+    @Override
+    public void initialize() {
+        if (!init) {
+            List<Propagator> _propagators = new ArrayList<>();
+            Constraint[] constraints = solver.getCstrs();
+            int nbProp = 0;
+            int m = Integer.MAX_VALUE, M = 0;
+            for (int c = 0; c < constraints.length; c++) {
+                Propagator[] cprops = constraints[c].getPropagators();
+                for (int j = 0; j < cprops.length; j++, nbProp++) {
+                    _propagators.add(cprops[j]);
+                    int id = cprops[j].getId();
+                    m = Math.min(m, id);
+                    M = Math.max(M, id);
+                }
+            }
+            propagators = _propagators.toArray(new Propagator[_propagators.size()]);
+            trigger.addAll(propagators);
+
+            p2i = new MId2AbId(M - m + 1, -1);
+            for (int j = 0; j < propagators.length; j++) {
+                p2i.set(propagators[j].getId(), j);
+            }
+            partition();
+
+            scheduled = new short[nbProp];
+            eventsets = new IntCircularQueue[nbProp];
+            eventmasks = new int[nbProp][];
+            for (int i = 0; i < nbProp; i++) {
+                int nbv = propagators[i].getNbVars();
+                if (propagators[i].reactToFineEvent()) {
+                    eventsets[i] = new IntCircularQueue(nbv);
+                    eventmasks[i] = new int[nbv];
+                }
+            }
+            init = true;
+        }
+    }
+
+    /**
+     * Compute the clusters of propagators with a union-find over the propagator-variable graph.
+     */
+    @SuppressWarnings("unchecked")
+    private void partition() {
+        int n = propagators.length;
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < n; i++) {
+            Propagator prop = propagators[i];
+            for (int v = 0; v < prop.getNbVars(); v++) {
+                int j = representative(prop.getVar(v));
+                if (j > -1) {
+                    int ri = find(parent, i);
+                    int rj = find(parent, j);
+                    if (ri != rj) {
+                        parent[Math.max(ri, rj)] = Math.min(ri, rj);
+                    }
+                }
+            }
+        }
+        p2c = new int[n];
+        int[] r2c = new int[n];
+        Arrays.fill(r2c, -1);
+        nbClusters = 0;
+        for (int i = 0; i < n; i++) {
+            int r = find(parent, i);
+            if (r2c[r] == -1) {
+                r2c[r] = nbClusters++;
+            }
+            p2c[i] = r2c[r];
+        }
+        pro_queue = new CircularQueue[nbClusters][8];
+        notEmpty = new int[nbClusters];
+        pendingC = new boolean[nbClusters];
+        pending = new IntCircularQueue(nbClusters);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("{} propagators partitioned into {} clusters", n, nbClusters);
+        }
+    }
+
+    /**
+     * Return the absolute index of the first known propagator of <i>var</i>, or -1 if <i>var</i> is a hub variable
+     * (or is not watched by any known propagator).
+     */
+    private int representative(Variable var) {
+        int nbp = var.getNbProps();
+        if (nbp <= maxDegree) {
+            for (int p = 0; p < nbp; p++) {
+                int aid = p2i.get(var.getPropagator(p).getId());
+                if (aid > -1) {
+                    return aid;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return init;
+    }
+
+    /**
+     * @return the number of clusters the propagators are partitioned into.
+     */
+    public int getNbClusters() {
+        return nbClusters;
+    }
+
+    @Override
+    public void propagate() throws ContradictionException {
+        if (trigger.needToRun()) {
+            trigger.propagate();
+        }
+        while (!pending.isEmpty()) {
+            // the cluster remains pending until its fix point is reached, for flush() to clear it on failure
+            int c = pending.get(0);
+            propagate(c);
+            pending.pollFirst();
+            pendingC[c] = false;
+        }
+    }
+
+    /**
+     * Reach the local fix point of cluster <i>c</i>.
+     */
+    @SuppressWarnings({"NullableProblems"})
+    private void propagate(int c) throws ContradictionException {
+        int mask, aid;
+        IntCircularQueue evtset;
+        CircularQueue<Propagator>[] queues = pro_queue[c];
+        for (int i = nextNotEmpty(c); i > -1; i = nextNotEmpty(c)) {
+            while (!queues[i].isEmpty()) {
+                if (token.isCancelled()) {
+                    fails(token, null, CancellationToken.MSG_CANCELLED);
+                }
+                lastProp = queues[i].pollFirst();
+                // revision of the variable
+                aid = p2i.get(lastProp.getId());
+                scheduled[aid] = 0;
+                if (lastProp.reactToFineEvent()) {
+                    evtset = eventsets[aid];
+                    while (evtset.size() > 0) {
+                        int v = evtset.pollFirst();
+                        assert lastProp.isActive() : "propagator is not active:" + lastProp;
+                        if (LOGGER.isDebugEnabled()) {
+                            IPropagationEngine.Trace.printPropagation(lastProp.getVar(v), lastProp);
+                        }
+                        // clear event
+                        mask = eventmasks[aid][v];
+                        eventmasks[aid][v] = 0;
+                        lastProp.decNbPendingEvt();
+                        // run propagation on the specific event
+                        lastProp.propagate(v, mask);
+                    }
+                } else if (lastProp.isActive()) { // need to be checked due to views
+                    if (LOGGER.isDebugEnabled()) {
+                        IPropagationEngine.Trace.printPropagation(null, lastProp);
+                    }
+                    lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+                }
+                // This part is for debugging only!!
+                if (Settings.Idem.disabled != idemStrat) {
+                    FakeEngine.checkIdempotency(lastProp);
+                }
+            }
+            notEmpty[c] = notEmpty[c] & ~(1 << i);
+        }
+    }
+
+    private int nextNotEmpty(int c) {
+        int word = notEmpty[c] & WORD_MASK;
+        if (word != 0) {
+            return Integer.numberOfTrailingZeros(word);
+        } else {
+            return -1;
+        }
+    }
+
+    @Override
+    public void flush() {
+        int aid;
+        if (lastProp != null) {
+            aid = p2i.get(lastProp.getId());
+            if (aid > -1) {
+                clearEvents(lastProp, aid);
+            }
+        }
+        while (!pending.isEmpty()) {
+            int c = pending.pollFirst();
+            CircularQueue<Propagator>[] queues = pro_queue[c];
+            for (int i = nextNotEmpty(c); i > -1; i = nextNotEmpty(c)) {
+                while (!queues[i].isEmpty()) {
+                    lastProp = queues[i].pollFirst();
+                    clearEvents(lastProp, p2i.get(lastProp.getId()));
+                }
+                notEmpty[c] = notEmpty[c] & ~(1 << i);
+            }
+            pendingC[c] = false;
+        }
+    }
+
+    private void clearEvents(Propagator prop, int aid) {
+        if (prop.reactToFineEvent()) {
+            IntCircularQueue evtset = eventsets[aid];
+            while (evtset.size() > 0) {
+                int v = evtset.pollFirst();
+                eventmasks[aid][v] = 0;
+            }
+            evtset.clear();
+            prop.flushPendingEvt();
+        }
+        scheduled[aid] = 0;
+    }
+
+    @Override
+    public void onVariableUpdate(Variable variable, IEventType type, ICause cause) throws ContradictionException {
+        if (LOGGER.isDebugEnabled()) {
+            IPropagationEngine.Trace.printModification(variable, type, cause);
+        }
+        Propagator[] vpropagators = variable.getPropagators();
+        int nbp = vpropagators.length;
+        int[] vindices = variable.getPIndices();
+        Propagator prop;
+        int pindice;
+
+        for (int p = nbp - 1; p >= 0; p--) {
+            prop = vpropagators[p];
+            pindice = vindices[p];
+            if (cause != prop && prop.isActive() && prop.advise(pindice, type.getMask())) {
+                int aid = p2i.get(prop.getId());
+                if (prop.reactToFineEvent()) {
+                    boolean needSched = (eventmasks[aid][pindice] == 0);
+                    eventmasks[aid][pindice] |= type.getStrengthenedMask();
+                    if (needSched) {
+                        if (LOGGER.isDebugEnabled()) {
+                            IPropagationEngine.Trace.printSchedule(prop);
+                        }
+                        prop.incNbPendingEvt();
+                        eventsets[aid].addLast(pindice);
+                    } else if (LOGGER.isDebugEnabled()) {
+                        IPropagationEngine.Trace.printAlreadySchedule(prop);
+                    }
+                }
+                if (scheduled[aid] == 0) {
+                    int prio = prop.getPriority().priority;
+                    int c = p2c[aid];
+                    CircularQueue<Propagator> queue = pro_queue[c][prio];
+                    if (queue == null) {
+                        queue = pro_queue[c][prio] = new CircularQueue<>(4);
+                    }
+                    queue.addLast(prop);
+                    scheduled[aid] = (short) (prio + 1);
+                    notEmpty[c] = notEmpty[c] | (1 << prio);
+                    if (!pendingC[c]) {
+                        pending.addLast(c);
+                        pendingC[c] = true;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delayedPropagation(Propagator propagator, PropagatorEventType type) throws ContradictionException {
+        if (propagator.getNbPendingEvt() == 0) {
+            if (LOGGER.isDebugEnabled()) {
+                IPropagationEngine.Trace.printPropagation(null, propagator);
+            }
+            propagator.propagate(type.getStrengthenedMask());
+        }
+    }
+
+    @Override
+    public void onPropagatorExecution(Propagator propagator) {
+        desactivatePropagator(propagator);
+    }
+
+    @Override
+    public void desactivatePropagator(Propagator propagator) {
+        if (propagator.reactToFineEvent()) {
+            int aid = p2i.get(propagator.getId());
+            if (aid > -1) {
+                // we don't remove the element from its master to avoid costly operations
+                IntCircularQueue evtset = eventsets[aid];
+                while (evtset.size() > 0) {
+                    int v = evtset.pollFirst();
+                    eventmasks[aid][v] = 0;
+                }
+                evtset.clear();
+                propagator.flushPendingEvt();
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        if (init) {
+            flush();
+            trigger.clear();
+            trigger.addAll(propagators);
+        }
+    }
+
+    @Override
+    public void clear() {
+        propagators = null;
+        trigger.clear();
+        p2i = null;
+        p2c = null;
+        pro_queue = null;
+        notEmpty = null;
+        pending = null;
+        pendingC = null;
+        nbClusters = 0;
+        scheduled = null;
+        eventsets = null;
+        eventmasks = null;
+        init = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/>
+     * An added propagator joins the cluster of one of its variables, if any, otherwise it forms a new cluster.
+     * Existing clusters are not merged, which is safe since an event on a variable shared by several clusters
+     * schedules all of them.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void dynamicAddition(boolean permanent, Propagator... ps) {
+        int osize = propagators.length;
+        int nbp = ps.length;
+        int nsize = osize + nbp;
+        Propagator[] _propagators = propagators;
+        propagators = new Propagator[nsize];
+        System.arraycopy(_propagators, 0, propagators, 0, osize);
+        System.arraycopy(ps, 0, propagators, osize, nbp);
+        p2c = Arrays.copyOf(p2c, nsize);
+        int onbc = nbClusters;
+        for (int j = osize; j < nsize; j++) {
+            p2i.set(propagators[j].getId(), j);
+            trigger.dynAdd(propagators[j], permanent);
+        }
+        for (int j = osize; j < nsize; j++) {
+            int c = -1;
+            for (int v = 0; v < propagators[j].getNbVars() && c == -1; v++) {
+                int r = representative(propagators[j].getVar(v));
+                if (r > -1 && r < j) { // only propagators with a known cluster
+                    c = p2c[r];
+                }
+            }
+            p2c[j] = c > -1 ? c : nbClusters++;
+        }
+        if (nbClusters > onbc) {
+            CircularQueue<Propagator>[][] _pro_queue = pro_queue;
+            pro_queue = new CircularQueue[nbClusters][];
+            System.arraycopy(_pro_queue, 0, pro_queue, 0, onbc);
+            for (int c = onbc; c < nbClusters; c++) {
+                pro_queue[c] = new CircularQueue[8];
+            }
+            notEmpty = Arrays.copyOf(notEmpty, nbClusters);
+            pendingC = Arrays.copyOf(pendingC, nbClusters);
+        }
+
+        short[] _scheduled = scheduled;
+        scheduled = new short[nsize];
+        System.arraycopy(_scheduled, 0, scheduled, 0, osize);
+
+        IntCircularQueue[] _eventsets = eventsets;
+        eventsets = new IntCircularQueue[nsize];
+        System.arraycopy(_eventsets, 0, eventsets, 0, osize);
+
+        int[][] _eventmasks = eventmasks;
+        eventmasks = new int[nsize][];
+        System.arraycopy(_eventmasks, 0, eventmasks, 0, osize);
+        for (int i = osize; i < nsize; i++) {
+            if (propagators[i].reactToFineEvent()) {
+                int nbv = propagators[i].getNbVars();
+                eventsets[i] = new IntCircularQueue(nbv);
+                eventmasks[i] = new int[nbv];
+            }
+        }
+    }
+
+    @Override
+    public void updateInvolvedVariables(Propagator p) {
+        if (p.reactToFineEvent()) {
+            int i = p2i.get(p.getId());
+            assert scheduled[i] == 0 : "Try to update variable scope during propagation";
+            int nbv = p.getNbVars();
+            eventsets[i] = new IntCircularQueue(nbv);
+            eventmasks[i] = new int[nbv];
+        }
+        propagateOnBacktrack(p);
+    }
+
+    @Override
+    public void propagateOnBacktrack(Propagator p) {
+        trigger.dynAdd(p, true);
+    }
+
+    @Override
+    public void dynamicDeletion(Propagator... ps) {
+        for (Propagator toDelete : ps) {
+            int nsize = propagators.length - 1;
+            Propagator toMove = propagators[nsize];
+            int idtd = p2i.get(toDelete.getId());
+            int idtm = p2i.get(toMove.getId());
+
+            assert idtd <= idtm : "wrong id for prop to delete";
+            assert scheduled[idtd] == 0 : "try to delete a propagator which is scheduled (fine)";
+            assert !toDelete.reactToFineEvent() || eventsets[idtd].isEmpty() : "try to delete a propagator which has events to propagate (fine)";
+
+            short stm = scheduled[idtm];
+            IntCircularQueue estm = eventsets[idtm];
+            int[] emtm = eventmasks[idtm];
+            int ctm = p2c[idtm];
+
+            propagators = Arrays.copyOf(propagators, nsize);
+            scheduled = Arrays.copyOf(scheduled, nsize);
+            eventsets = Arrays.copyOf(eventsets, nsize);
+            eventmasks = Arrays.copyOf(eventmasks, nsize);
+            p2c = Arrays.copyOf(p2c, nsize);
+
+            if (idtd < nsize) {
+                propagators[idtd] = toMove;
+                p2i.set(toMove.getId(), idtd);
+                scheduled[idtd] = stm;
+                eventsets[idtd] = estm;
+                eventmasks[idtd] = emtm;
+                p2c[idtd] = ctm;
+            }
+            p2i.set(toDelete.getId(), -1);
+            trigger.remove(toDelete);
+        }
+    }
+}
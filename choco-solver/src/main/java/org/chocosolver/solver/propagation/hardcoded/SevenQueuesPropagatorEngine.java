@@ -39,6 +39,7 @@ import org.chocosolver.solver.propagation.IPropagationEngine;
 import org.chocosolver.solver.propagation.PropagationTrigger;
 import org.chocosolver.solver.propagation.hardcoded.util.IId2AbId;
 import org.chocosolver.solver.propagation.hardcoded.util.MId2AbId;
+import org.chocosolver.solver.search.limits.CancellationToken;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
@@ -84,6 +85,8 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
 
     final Settings.Idem idemStrat;
 
+    final CancellationToken token; // checked before each propagator execution
+
 
     public SevenQueuesPropagatorEngine(Solver solver) {
         this.exception = new ContradictionException();
@@ -91,6 +94,7 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
         this.trigger = new PropagationTrigger(this, solver);
         this.idemStrat = solver.getSettings().getIdempotencyStrategy();
         this.solver = solver;
+        this.token = solver.getCancellationToken();
         pro_queue = new CircularQueue[8];
 
     }
@@ -163,6 +167,9 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
         }
         for (int i = nextNotEmpty(0); i > -1; i = nextNotEmpty(0)) {
             while (!pro_queue[i].isEmpty()) {
+                if (token.isCancelled()) {
+                    fails(token, null, CancellationToken.MSG_CANCELLED);
+                }
                 lastProp = pro_queue[i].pollFirst();
                 // revision of the variable
                 aid = p2i.get(lastProp.getId());
@@ -318,6 +325,15 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
         }
     }
 
+    @Override
+    public void reset() {
+        if (init) {
+            flush();
+            trigger.clear();
+            trigger.addAll(propagators);
+        }
+    }
+
     @Override
     public void clear() {
         propagators = null;
@@ -41,6 +41,7 @@ import org.chocosolver.solver.propagation.IPropagationEngine;
 import org.chocosolver.solver.propagation.PropagationTrigger;
 import org.chocosolver.solver.propagation.hardcoded.util.IId2AbId;
 import org.chocosolver.solver.propagation.hardcoded.util.MId2AbId;
+import org.chocosolver.solver.search.limits.CancellationToken;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
@@ -109,6 +110,7 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
 
     final PropagationTrigger trigger; // an object that starts the propagation
     final Settings.Idem idemStrat;
+    final CancellationToken token; // checked before each propagator execution
 
     public TwoBucketPropagationEngine(Solver solver) {
         this.exception = new ContradictionException();
@@ -116,6 +118,7 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         this.trigger = new PropagationTrigger(this, solver);
         this.idemStrat = solver.getSettings().getIdempotencyStrategy();
         this.solver = solver;
+        this.token = solver.getCancellationToken();
 
         match_f = solver.getSettings().getFineEventPriority();
         match_c = solver.getSettings().getCoarseEventPriority();
@@ -242,6 +245,9 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
     }
 
     private void propagateFine(ArrayDeque<Propagator> pro_queue_f) throws ContradictionException {
+        if (token.isCancelled()) {
+            fails(token, null, CancellationToken.MSG_CANCELLED);
+        }
         lastProp = pro_queue_f.pollFirst();
         // revision of the variable
         int aid = p2i.get(lastProp.getId());
@@ -275,6 +281,9 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
     }
 
     private void propagateCoarse(ArrayDeque<Propagator> pro_queue_c) throws ContradictionException {
+        if (token.isCancelled()) {
+            fails(token, null, CancellationToken.MSG_CANCELLED);
+        }
         lastProp = pro_queue_c.pollFirst();
         // revision of the variable
         int aid = p2i.get(lastProp.getId());
@@ -394,6 +403,15 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         flushCoarse();
     }
 
+    @Override
+    public void reset() {
+        if (init) {
+            flush();
+            trigger.clear();
+            trigger.addAll(propagators);
+        }
+    }
+
     @Override
     public void clear() {
         propagators = null;
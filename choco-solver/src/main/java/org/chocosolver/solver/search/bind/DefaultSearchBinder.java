@@ -31,6 +31,7 @@ package org.chocosolver.solver.search.bind;
 import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.GSF;
 import org.chocosolver.solver.search.strategy.ISF;
 import org.chocosolver.solver.search.strategy.RSF;
 import org.chocosolver.solver.search.strategy.RealStrategyFactory;
@@ -65,16 +66,18 @@ public class DefaultSearchBinder implements ISearchBinder {
     }
 
     public AbstractStrategy[] getDefault(Solver solver) {
-        AbstractStrategy[] strats = new AbstractStrategy[4];
+        AbstractStrategy[] strats = new AbstractStrategy[5];
         int nb = 0;
 
-        // 1. retrieve variables, keeping the declaration order, and put them in four groups:
+        // 1. retrieve variables, keeping the declaration order, and put them in five groups:
         // a. integer and boolean variables
         List<IntVar> livars = new ArrayList<>();
         // b. set variables
         List<SetVar> lsvars = new ArrayList<>();
         // c. real variables.
         List<RealVar> lrvars = new ArrayList<>();
+        // d. graph variables
+        List<GraphVar> lgvars = new ArrayList<>();
         Variable[] variables = solver.getVars();
         Variable objective = null;
         int n = variables.length;
@@ -96,12 +99,15 @@ public class DefaultSearchBinder implements ISearchBinder {
                     case Variable.REAL:
                         lrvars.add((RealVar) var);
                         break;
+                    case Variable.GRAPH:
+                        lgvars.add((GraphVar) var);
+                        break;
                     default:
                         throw new SolverException("Unknown variable type '" + kind + "' while defining the default search strategy.");
                 }
             }
         }
-        // d. extract the objective variable if any
+        // e. extract the objective variable if any
         if (solver.getSearchLoop().getObjectiveManager().isOptimization()) {
             objective = solver.getSearchLoop().getObjectiveManager().getObjective();
             int kind = objective.getTypeAndKind() & Variable.KIND;
@@ -136,14 +142,21 @@ public class DefaultSearchBinder implements ISearchBinder {
             strats[nb++] = SSF.force_minDelta_first(svars);
         }
 
+        // GRAPH VARIABLES DEFAULT SEARCH STRATEGY
+        // c. enforce first undecided node or arc
+        GraphVar[] gvars = lgvars.toArray(new GraphVar[lgvars.size()]);
+        if (gvars.length > 0) {
+            strats[nb++] = GSF.enforce_first(gvars);
+        }
+
         // REAL VARIABLES DEFAULT SEARCH STRATEGY
-        // c. cyclic + middle
+        // d. cyclic + middle
         RealVar[] rvars = lrvars.toArray(new RealVar[lrvars.size()]);
         if (rvars.length > 0) {
             strats[nb++] = RealStrategyFactory.cyclic_middle(rvars);
         }
 
-        // d. lexico LB/UB for the objective variable
+        // e. lexico LB/UB for the objective variable
         if (objective != null) {
             boolean max = solver.getSearchLoop().getObjectiveManager().getPolicy() == ResolutionPolicy.MAXIMIZE;
             int kind = objective.getTypeAndKind() & Variable.KIND;
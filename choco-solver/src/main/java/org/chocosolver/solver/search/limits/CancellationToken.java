@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.limits;
+
+import org.chocosolver.solver.ICause;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * A token shared between a solver and other threads, to stop a resolution as soon as possible.
+ * <br/>
+ * Contrary to limits, which are checked between two nodes of the search tree, the token is checked by
+ * the propagation engines before each propagator execution, and may be polled by expensive propagators.
+ * When the token is cancelled, the current propagation fails and the search loop restores the last
+ * consistent world before stopping, as if a limit was reached.
+ * <br/>
+ * The token can be cancelled directly, with {@link #cancel()}, or on a deadline, checked by a timer thread.
+ * Both are safe to call from any thread, and reading the state of the token is a single volatile read.
+ * <br/>
+ * A cancelled token remains cancelled until it is {@link #reset()}, which is done on search loop reset.
+ *
+ * @author Charles Prud'homme
+ * @since 01/07/2015
+ */
+public final class CancellationToken implements ICause {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Message of the contradictions thrown on cancellation
+     */
+    public static final String MSG_CANCELLED = "resolution cancelled";
+
+    private static Timer TIMER;
+
+    private volatile boolean cancelled;
+
+    private long deadline;
+
+    private transient TimerTask task;
+
+    public CancellationToken() {
+        this.cancelled = false;
+        this.deadline = Long.MAX_VALUE;
+    }
+
+    private static synchronized Timer timer() {
+        if (TIMER == null) {
+            TIMER = new Timer("cancellation deadline", true);
+        }
+        return TIMER;
+    }
+
+    /**
+     * @return <tt>true</tt> if the resolution has to be stopped
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Asks the resolution to stop as soon as possible.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Sets the deadline of the resolution to <code>duration</code> milliseconds from now,
+     * the token will be cancelled once the deadline is passed.
+     *
+     * @param duration duration in milliseconds
+     */
+    public synchronized void setDeadline(long duration) {
+        schedule(System.currentTimeMillis() + Math.max(duration, 0));
+    }
+
+    /**
+     * Postpones the deadline by <code>delay</code> milliseconds.
+     * Has no effect if no deadline is set, or if the token has already been cancelled.
+     *
+     * @param delay delay in milliseconds, can be negative to advance the deadline
+     */
+    public synchronized void extendDeadline(long delay) {
+        if (task != null && !cancelled) {
+            schedule(deadline + delay);
+        }
+    }
+
+    /**
+     * @return the deadline in milliseconds since the epoch, {@link Long#MAX_VALUE} if none has been set
+     */
+    public synchronized long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Clears the deadline, if any, and the cancellation.
+     */
+    public synchronized void reset() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        deadline = Long.MAX_VALUE;
+        cancelled = false;
+    }
+
+    private void schedule(long time) {
+        if (task != null) {
+            task.cancel();
+        }
+        deadline = time;
+        task = new TimerTask() {
+            @Override
+            public void run() {
+                CancellationToken.this.cancel();
+            }
+        };
+        timer().schedule(task, Math.max(time - System.currentTimeMillis(), 0));
+    }
+
+    @Override
+    public String toString() {
+        return MSG_CANCELLED;
+    }
+}
@@ -123,6 +123,11 @@ public interface ISearchLoop extends Serializable {
 
     void reachLimit();
 
+    /**
+     * Forget that a limit has been reached, {@link #reset()} does not.
+     */
+    void resetLimit();
+
     /**
      * Complete (or not) the declared search strategy with one over all variables
      *
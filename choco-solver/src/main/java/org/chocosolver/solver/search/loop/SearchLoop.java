@@ -29,12 +29,15 @@
 package org.chocosolver.solver.search.loop;
 
 import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.recomputation.EnvironmentRecomputation;
+import org.chocosolver.memory.recomputation.IReplayer;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.objective.ObjectiveManager;
 import org.chocosolver.solver.search.bind.DefaultSearchBinder;
 import org.chocosolver.solver.search.bind.ISearchBinder;
+import org.chocosolver.solver.search.limits.CancellationToken;
 import org.chocosolver.solver.search.loop.monitors.ISearchMonitor;
 import org.chocosolver.solver.search.loop.monitors.SearchMonitorList;
 import org.chocosolver.solver.search.measure.IMeasures;
@@ -101,6 +104,9 @@ public class SearchLoop implements ISearchLoop {
     /* Reference to the environment of the solver */
     IEnvironment env;
 
+    /* Reference to the cancellation token of the solver */
+    final CancellationToken token;
+
     /* Node selection, or how to select a couple variable-value to continue branching */
     AbstractStrategy<Variable> strategy;
 
@@ -119,6 +125,12 @@ public class SearchLoop implements ISearchLoop {
     // Store the number of wrolds to jump to -- usefull in UpBranch
     int jumpTo;
 
+    /* set to true while pushing a world which can be rebuilt by re-applying the decision path */
+    boolean replayable;
+
+    /* the failure raised while rebuilding the last restored world, null if it has been rebuilt successfully */
+    ContradictionException replayFailure;
+
     /**
      * Stores the search measures
      */
@@ -151,6 +163,7 @@ public class SearchLoop implements ISearchLoop {
     public SearchLoop(Solver solver) {
         this.solver = solver;
         this.env = solver.getEnvironment();
+        this.token = solver.getCancellationToken();
         this.measures = solver.getMeasures();
         smList = new SearchMonitorList();
         smList.add(this.measures);
@@ -173,9 +186,14 @@ public class SearchLoop implements ISearchLoop {
                 decision = tmp.getPrevious();
                 tmp.free();
             }
+            if (env instanceof EnvironmentRecomputation) {
+                ((EnvironmentRecomputation) env).setReplayer(null);
+            }
+            token.reset();
             nextState = INIT;
             rootWorldIndex = -1;
             searchWorldIndex = -1;
+            replayFailure = null;
             measures.reset();
             objectivemanager = SAT();
             solver.set(SINGLETON);
@@ -224,6 +242,7 @@ public class SearchLoop implements ISearchLoop {
     @Override
     public void restoreRootNode() {
         env.worldPopUntil(searchWorldIndex); // restore state after initial propagation
+        replayFailure = null;
         Decision tmp;
         while (decision != ROOT) {
             tmp = decision;
@@ -314,6 +333,9 @@ public class SearchLoop implements ISearchLoop {
         this.rootWorldIndex = env.getWorldIndex();
         this.nextState = INITIAL_PROPAGATION;
         this.env.buildFakeHistoryOn(solver.getSettings().getEnvironmentHistorySimulationCondition());
+        if (env instanceof EnvironmentRecomputation) {
+            ((EnvironmentRecomputation) env).setReplayer(new DecisionReplayer());
+        }
     }
 
     /**
@@ -325,6 +347,11 @@ public class SearchLoop implements ISearchLoop {
             solver.getEngine().propagate();
         } catch (ContradictionException e) {
             solver.getEngine().flush();
+            if (token.isCancelled()) {
+                this.env.worldPop();
+                reachLimit();
+                return;
+            }
             solver.setFeasible(FALSE);
             interrupt(MSG_INIT);
             smList.onContradiction(e);
@@ -351,9 +378,13 @@ public class SearchLoop implements ISearchLoop {
             strategy.init(); // the initialisation of the strategy can detect inconsistency
         } catch (ContradictionException cex) {
             this.env.worldPop();
-            solver.setFeasible(FALSE);
             solver.getEngine().flush();
-            interrupt(MSG_SEARCH_INIT + ": " + cex.getMessage());
+            if (token.isCancelled()) {
+                reachLimit();
+            } else {
+                solver.setFeasible(FALSE);
+                interrupt(MSG_SEARCH_INIT + ": " + cex.getMessage());
+            }
         }
         moveTo(OPEN_NODE);
     }
@@ -362,6 +393,10 @@ public class SearchLoop implements ISearchLoop {
      * Opens a new node in the tree search : compute the next decision or store a solution.
      */
     private void openNode() {
+        if (token.isCancelled()) {
+            reachLimit();
+            return;
+        }
         Decision tmp = decision;
         decision = strategy.getDecision();
         if (decision != null) { // null means there is no more decision
@@ -398,7 +433,9 @@ public class SearchLoop implements ISearchLoop {
     }
 
     private void downBranch() {
+        replayable = true;
         env.worldPush();
+        replayable = false;
         try {
             decision.buildNext();
             objectivemanager.apply(decision);
@@ -408,6 +445,10 @@ public class SearchLoop implements ISearchLoop {
             moveTo(OPEN_NODE);
         } catch (ContradictionException e) {
             solver.getEngine().flush();
+            if (token.isCancelled()) {
+                abort();
+                return;
+            }
             moveTo(UP_BRANCH);
             jumpTo = 1;
             smList.onContradiction(e);
@@ -428,6 +469,13 @@ public class SearchLoop implements ISearchLoop {
             interrupt(MSG_ROOT);
         } else {
             jumpTo--;
+            if (replayFailure != null) {
+                // the restored world failed while being rebuilt: it is closed, and so is the current decision
+                ContradictionException e = replayFailure;
+                replayFailure = null;
+                jumpTo = Math.max(jumpTo, 1);
+                smList.onContradiction(e);
+            }
             if (jumpTo <= 0 && decision.hasNext()) {
                 moveTo(DOWN_RIGHT_BRANCH);
             } else {
@@ -449,10 +497,67 @@ public class SearchLoop implements ISearchLoop {
             solver.getEngine().propagate();
             nextState = OPEN_NODE;
         } catch (ContradictionException e) {
+            if (token.isCancelled()) {
+                solver.getEngine().flush();
+                abort();
+                return;
+            }
             interrupt(MSG_CUT);
         }
     }
 
+    /**
+     * Stops the search when the propagation has been cancelled.
+     * The partially propagated current world is replaced by the last consistent one,
+     * the interrupted branch is not explored again on resumption.
+     */
+    private void abort() {
+        env.worldPop();
+        env.worldPush();
+        reachLimit();
+    }
+
+    /**
+     * Rebuilds the worlds which are not saved by a {@link EnvironmentRecomputation},
+     * by re-applying the decisions of the current path.
+     * The world created by the decision at depth <i>d</i> is <code>searchWorldIndex + 1 + d</code>.
+     */
+    private class DecisionReplayer implements IReplayer {
+
+        @Override
+        public boolean canReplay(int world) {
+            return replayable;
+        }
+
+        @Override
+        public void replay(int from, int to) {
+            int depth = 0;
+            for (Decision d = decision; d != ROOT; d = d.getPrevious()) {
+                depth++;
+            }
+            Decision[] path = new Decision[to - from];
+            Decision d = decision;
+            for (int w = searchWorldIndex + 1 + depth; d != ROOT; w--, d = d.getPrevious()) {
+                if (w > from && w <= to) {
+                    path[w - from - 1] = d;
+                }
+            }
+            try {
+                for (int i = 0; i < path.length; i++) {
+                    objectivemanager.apply(path[i]);
+                    objectivemanager.postDynamicCut();
+                    solver.getEngine().propagate();
+                }
+            } catch (ContradictionException e) {
+                // may only happen with constraints added since the first application of the decisions,
+                // such as a tighter objective cut: the rebuilt world is partially propagated and has no solution,
+                // the search loop is notified so that it does not keep searching from it
+                solver.getEngine().flush();
+                replayFailure = e;
+            }
+        }
+    }
+
     /**
      * Close the search, restore the last solution if any,
      * and set the feasibility and optimality variables.
@@ -511,6 +616,11 @@ public class SearchLoop implements ISearchLoop {
         interrupt(MSG_LIMIT);
     }
 
+    @Override
+    public void resetLimit() {
+        hasReachedLimit = false;
+    }
+
     @Override
     public void setLastDecision(Decision d) {
         decision = d;
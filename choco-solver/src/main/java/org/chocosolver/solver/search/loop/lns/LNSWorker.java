@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.lns;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.objective.ObjectiveManager;
+import org.chocosolver.solver.search.limits.ACounter;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.thread.AbstractParallelSlave;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A worker of a {@link ParallelLNS}: it runs a LNS on its own copy of the model, around the shared incumbent.
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class LNSWorker extends AbstractParallelSlave<ParallelLNS> implements INeighbor, IMonitorOpenNode {
+
+    final Solver solver;
+    final IntVar[] vars;
+    final IntVar objective;
+    final INeighbor[] operators;
+    final Random random;
+
+    /**
+     * Version of the incumbent known by the neighbors
+     */
+    int version;
+
+    /**
+     * Index of the operator applied on the current LNS run, -1 if none
+     */
+    int who;
+
+    /**
+     * Objective value of an incumbent found by another worker, not yet applied, <tt>null</tt> if none.
+     * It is published by the worker which found the incumbent, and applied by this worker on its own thread.
+     */
+    private final AtomicReference<Integer> improvement = new AtomicReference<>();
+
+    private boolean fastRestart;
+
+    public LNSWorker(ParallelLNS master, int id, Solver solver, IntVar objective) {
+        super(master, id);
+        this.solver = solver;
+        this.objective = objective;
+        this.vars = new IntVar[master.vIdx.length];
+        for (int i = 0; i < vars.length; i++) {
+            vars[i] = (IntVar) solver.getVar(master.vIdx[i]);
+        }
+        this.random = new Random(master.seed + id);
+        this.operators = new INeighbor[master.operators.length];
+        for (int i = 0; i < operators.length; i++) {
+            operators[i] = master.operators[i].make(solver, vars, master.seed + id * operators.length + i);
+        }
+        this.who = -1;
+    }
+
+    @Override
+    public void work() {
+        if (solver.getStrategy() == null) {
+            solver.set(ISF.domOverWDeg(vars, master.seed + id));
+        }
+        solver.plugMonitor(this);
+        solver.plugMonitor(new LargeNeighborhoodSearch(solver, this, true) {
+            @Override
+            protected boolean hasSolution() {
+                return master.hasSolution();
+            }
+        });
+        solver.findOptimalSolution(master.policy, objective);
+        if (!solver.hasReachedLimit()) {
+            master.closeWithSuccess();
+        }
+    }
+
+    /**
+     * Another worker has improved the incumbent: only better solutions are now accepted, around the new incumbent.
+     * This is called from the thread of the other worker, the bound is only published here,
+     * and it is applied on the next node opened by this worker.
+     *
+     * @param value value of the objective in the new incumbent
+     */
+    void improvedBy(int value) {
+        improvement.set(value);
+    }
+
+    void stop() {
+        solver.getCancellationToken().cancel();
+    }
+
+    @Override
+    public void beforeOpenNode() {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterOpenNode() {
+        Integer value = improvement.getAndSet(null);
+        if (value != null) {
+            ObjectiveManager<IntVar, Integer> om = solver.getSearchLoop().getObjectiveManager();
+            if (om.isOptimization()) {
+                if (master.policy == ResolutionPolicy.MINIMIZE) {
+                    om.updateBestUB(value);
+                } else {
+                    om.updateBestLB(value);
+                }
+                solver.getSearchLoop().restart();
+            }
+        }
+    }
+
+    //***********************************************************************************
+    // NEIGHBOR
+    //***********************************************************************************
+
+    @Override
+    public void recordSolution() {
+        int[] values = new int[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            values[i] = vars[i].getValue();
+        }
+        version = master.offer(this, values, objective.getValue(), who);
+        for (int i = 0; i < operators.length; i++) {
+            operators[i].recordSolution();
+        }
+    }
+
+    @Override
+    public void loadSolution(int[] values) {
+        for (int i = 0; i < operators.length; i++) {
+            operators[i].loadSolution(values);
+        }
+    }
+
+    @Override
+    public void fixSomeVariables(ICause cause) throws ContradictionException {
+        if (version != master.getVersion()) {
+            // synchronize with the incumbent
+            int v = master.getVersion();
+            int[] values = master.getIncumbent();
+            version = v;
+            loadSolution(values);
+            activeFastRestart();
+        }
+        who = master.select(random);
+        operators[who].fixSomeVariables(cause);
+    }
+
+    @Override
+    public void restrictLess() {
+        if (who > -1) {
+            operators[who].restrictLess();
+        }
+    }
+
+    @Override
+    public boolean isSearchComplete() {
+        boolean isComplete = false;
+        for (int i = 0; i < operators.length; i++) {
+            isComplete |= operators[i].isSearchComplete();
+        }
+        return isComplete;
+    }
+
+    @Override
+    public void fastRestart(ACounter counter) {
+        for (int i = 0; i < operators.length; i++) {
+            operators[i].fastRestart(counter);
+        }
+    }
+
+    @Override
+    public void activeFastRestart() {
+        if (!fastRestart) {
+            fastRestart = true;
+            for (int i = 0; i < operators.length; i++) {
+                operators[i].activeFastRestart();
+            }
+        }
+    }
+}
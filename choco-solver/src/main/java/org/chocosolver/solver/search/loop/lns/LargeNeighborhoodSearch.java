@@ -86,13 +86,20 @@ public class LargeNeighborhoodSearch implements ICause, IMonitorSolution, IMonit
 
     @Override
     public void afterInterrupt() {
-        if (hasAppliedNeighborhood && solver.getMeasures().getSolutionCount() > 0 && !solver.getSearchLoop().hasReachedLimit() && !neighbor.isSearchComplete()) {
+        if (hasAppliedNeighborhood && hasSolution() && !solver.getSearchLoop().hasReachedLimit() && !neighbor.isSearchComplete()) {
             neighbor.restrictLess();
             solver.getSearchLoop().forceAlive(true);
             solver.getSearchLoop().restart();
         }
     }
 
+    /**
+     * @return <tt>true</tt> if a solution is known, around which a neighborhood can be built
+     */
+    protected boolean hasSolution() {
+        return solver.getMeasures().getSolutionCount() > 0;
+    }
+
     //***********************************************************************************
     // FIX VARIABLES FOR NEXT LNS STEP
     //***********************************************************************************
@@ -104,7 +111,7 @@ public class LargeNeighborhoodSearch implements ICause, IMonitorSolution, IMonit
 
     @Override
     public void afterRestart() {
-        if (solver.getMeasures().getSolutionCount() > 0) {
+        if (hasSolution()) {
             try {
                 neighbor.fixSomeVariables(this);
                 hasAppliedNeighborhood = true;
@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.lns;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.thread.AbstractParallelMaster;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.Random;
+
+/**
+ * A parallel Large Neighborhood Search.
+ * The model is duplicated into several solvers, each of them run by a worker in its own thread.
+ * All the workers share the best solution found so far, the incumbent: each of them relaxes a neighborhood of the
+ * incumbent, and when a worker improves it, the new incumbent is broadcast to the others, which restart around it.
+ * <p>
+ * The neighborhood operators are given as factories, so that each worker has its own instances.
+ * On each LNS run, a worker selects an operator with a probability proportional to its success rate,
+ * computed over all the workers: a success is a run which improves the incumbent.
+ * <p>
+ * The expected way to use a ParallelLNS is:
+ * <pre>
+ *     Solver solver = new Solver();
+ *     // declare the variables and constraints, and an optional search strategy
+ *     ParallelLNS plns = new ParallelLNS(solver, decisionVars, 4, 0,
+ *          (s, v, seed) -> LNSFactory.random(s, v, 3, seed, new FailCounter(100)),
+ *          (s, v, seed) -> LNSFactory.pg(s, v, 100, 10, seed, new FailCounter(100)));
+ *     // declare a limit in each solver
+ *     for (Solver s : plns.getSolvers()) {
+ *         SMF.limitTime(s, "10s");
+ *     }
+ *     plns.findOptimalSolution(ResolutionPolicy.MINIMIZE, cost);
+ * </pre>
+ * Unless the search strategy of a solver is declared, a worker uses a dom/wdeg heuristic on the decision variables,
+ * with its own seed.
+ * When a worker ends its search without reaching a limit, the optimality is proven and the other workers are stopped.
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class ParallelLNS extends AbstractParallelMaster<LNSWorker> {
+
+    /**
+     * Copies of the model, the first one is the original one.
+     */
+    final Solver[] solvers;
+
+    /**
+     * Index of the decision variables in the model.
+     */
+    final int[] vIdx;
+
+    final INeighborFactory[] operators;
+
+    final long seed;
+
+    ResolutionPolicy policy;
+
+    private boolean limit;
+
+    private int nbSolutions;
+
+    private int version;
+
+    private int[] incumbent;
+
+    private int bestValue;
+
+    private final int[] calls;
+
+    private final int[] successes;
+
+    /**
+     * Prepare a parallel LNS, with <code>n</code> workers.
+     *
+     * @param model     the model to solve, it will be duplicated <code>n - 1</code> times
+     * @param vars      the decision variables, declared in <code>model</code>, to freeze and unfreeze
+     * @param n         number of workers
+     * @param seed      a seed for random
+     * @param operators the neighborhood operators
+     */
+    public ParallelLNS(Solver model, IntVar[] vars, int n, long seed, INeighborFactory... operators) {
+        if (n < 1) {
+            throw new SolverException("ParallelLNS requires at least one worker");
+        }
+        if (operators.length == 0) {
+            throw new SolverException("ParallelLNS requires at least one neighborhood operator");
+        }
+        this.vIdx = new int[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            vIdx[i] = indexOf(model, vars[i]);
+        }
+        this.solvers = new Solver[n];
+        solvers[0] = model;
+        for (int i = 1; i < n; i++) {
+            solvers[i] = model.duplicateModel();
+        }
+        this.operators = operators.clone();
+        this.seed = seed;
+        this.calls = new int[operators.length];
+        this.successes = new int[operators.length];
+        this.limit = true;
+    }
+
+    private static int indexOf(Solver solver, Variable var) {
+        int n = solver.getNbVars();
+        for (int i = 0; i < n; i++) {
+            if (solver.getVar(i) == var) {
+                return i;
+            }
+        }
+        throw new SolverException(var.getName() + " cannot be found in the model");
+    }
+
+    /**
+     * Return the solvers driven by the workers, the first one is the model.
+     * It can be used to declare limits and search strategies before the resolution.
+     *
+     * @return the array of solvers
+     */
+    public Solver[] getSolvers() {
+        return solvers;
+    }
+
+    /**
+     * Attempts optimize the value of the <code>objective</code> variable w.r.t. to the optimization <code>policy</code>.
+     *
+     * @param policy    optimization policy, among ResolutionPolicy.MINIMIZE and ResolutionPolicy.MAXIMIZE
+     * @param objective the variable to optimize, declared in the model
+     */
+    public void findOptimalSolution(ResolutionPolicy policy, IntVar objective) {
+        if (policy == ResolutionPolicy.SATISFACTION) {
+            throw new SolverException("ParallelLNS.findOptimalSolution(...) cannot be called with ResolutionPolicy.SATISFACTION.");
+        }
+        this.policy = policy;
+        int oidx = indexOf(solvers[0], objective);
+        this.slaves = new LNSWorker[solvers.length];
+        for (int i = 0; i < solvers.length; i++) {
+            slaves[i] = new LNSWorker(this, i, solvers[i], (IntVar) solvers[i].getVar(oidx));
+        }
+        distributedSlavery();
+    }
+
+    /**
+     * A worker found a solution, it becomes the incumbent if it is better than the current one.
+     *
+     * @param worker   the worker
+     * @param values   values of the decision variables
+     * @param value    value of the objective variable
+     * @param operator index of the operator whose neighborhood contained the solution, -1 if none
+     * @return the version of the incumbent the worker knows
+     */
+    synchronized int offer(LNSWorker worker, int[] values, int value, int operator) {
+        boolean better = nbSolutions == 0
+                || (policy == ResolutionPolicy.MINIMIZE ? value < bestValue : value > bestValue);
+        if (better) {
+            nbSolutions++;
+            version++;
+            incumbent = values.clone();
+            bestValue = value;
+            if (operator > -1) {
+                successes[operator]++;
+            }
+            for (LNSWorker w : slaves) {
+                if (w != worker) {
+                    w.improvedBy(value);
+                }
+            }
+            return version;
+        }
+        return worker.version;
+    }
+
+    /**
+     * Selects an operator for the next LNS run, with a probability proportional to its success rate.
+     *
+     * @param random random numbers source of the worker
+     * @return the index of the selected operator
+     */
+    synchronized int select(Random random) {
+        double[] rates = new double[calls.length];
+        double sum = 0;
+        for (int i = 0; i < calls.length; i++) {
+            rates[i] = (successes[i] + 1.) / (calls[i] + 2.);
+            sum += rates[i];
+        }
+        double r = random.nextDouble() * sum;
+        int o = 0;
+        while (o < calls.length - 1 && (r -= rates[o]) >= 0) {
+            o++;
+        }
+        calls[o]++;
+        return o;
+    }
+
+    synchronized int getVersion() {
+        return version;
+    }
+
+    synchronized int[] getIncumbent() {
+        return incumbent == null ? null : incumbent.clone();
+    }
+
+    synchronized void closeWithSuccess() {
+        limit = false;
+        for (LNSWorker w : slaves) {
+            w.stop();
+        }
+    }
+
+    /**
+     * @return <tt>true</tt> if a solution has been found
+     */
+    public synchronized boolean hasSolution() {
+        return nbSolutions > 0;
+    }
+
+    /**
+     * @return the number of improving solutions found by the workers
+     */
+    public synchronized int getNbSolutions() {
+        return nbSolutions;
+    }
+
+    /**
+     * @return the values of the decision variables in the best solution found, <tt>null</tt> if none has been found
+     */
+    public int[] getBestSolution() {
+        return getIncumbent();
+    }
+
+    /**
+     * @return the value of the objective in the best solution found
+     */
+    public synchronized int getBestValue() {
+        if (nbSolutions == 0) {
+            throw new SolverException("No solution has been found");
+        }
+        return bestValue;
+    }
+
+    /**
+     * @return <tt>true</tt> if the resolution stopped after reaching a limit, that is, the optimality is not proven
+     */
+    public synchronized boolean hasReachedLimit() {
+        return limit;
+    }
+
+    /**
+     * @return for each operator, the number of LNS runs it has been selected for
+     */
+    public synchronized int[] getNbCalls() {
+        return calls.clone();
+    }
+
+    /**
+     * @return for each operator, the number of LNS runs which have improved the incumbent
+     */
+    public synchronized int[] getNbSuccesses() {
+        return successes.clone();
+    }
+}
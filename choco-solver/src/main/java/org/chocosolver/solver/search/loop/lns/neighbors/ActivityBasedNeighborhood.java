@@ -75,6 +75,11 @@ public class ActivityBasedNeighborhood extends ANeighbor {
         }
     }
 
+    @Override
+    public void loadSolution(int[] values) {
+        System.arraycopy(values, 0, bestSolution, 0, n);
+    }
+
     @Override
     public void restrictLess() {
         nbFixedVars /= 2;
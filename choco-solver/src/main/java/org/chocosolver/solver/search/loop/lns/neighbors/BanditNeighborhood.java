@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.lns.neighbors;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Random;
+
+/**
+ * A portfolio of neighbors, which selects the neighbor to apply on each LNS run with a multi-armed bandit policy.
+ * <br/>
+ * A run starts on a call to {@link #fixSomeVariables(ICause)} and ends on the next one.
+ * For each neighbor, it records the number of runs, the number of runs which improved the solution,
+ * the time spent in its runs and the size of its relaxations (the number of variables left free).
+ * The reward of a neighbor is its improvement rate.
+ * <br/>
+ * The relaxation size is adapted per neighbor: after <code>patience</code> consecutive runs without improvement,
+ * the neighbor is asked to restrict less ({@link INeighbor#restrictLess()}), whereas a solution resets every neighbor.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class BanditNeighborhood extends SequenceNeighborhood {
+
+    /**
+     * Operator selection policies
+     */
+    public enum Policy {
+        /**
+         * Upper Confidence Bound: the neighbor maximizing its improvement rate plus an exploration term is selected.
+         */
+        UCB1,
+        /**
+         * With probability epsilon, a neighbor is selected randomly, otherwise the one with the best improvement rate.
+         */
+        EPSILON_GREEDY
+    }
+
+    private final Policy policy;
+    private final Random random;
+    private final IntVar[] vars;
+
+    private double epsilon = .1;
+    private int patience = 5;
+
+    private final int[] runs;
+    private final int[] improvements;
+    private final long[] times;
+    private final long[] relaxations;
+    private final int[] fruitless;
+
+    private int nbRuns;
+    private long start;
+    private boolean improved;
+
+    /**
+     * Create a portfolio of neighbors using the UCB1 policy
+     *
+     * @param vars      the decision variables the neighbors work on, to measure relaxation sizes
+     * @param seed      a seed for random
+     * @param neighbors the neighbors
+     */
+    public BanditNeighborhood(IntVar[] vars, long seed, INeighbor... neighbors) {
+        this(Policy.UCB1, vars, seed, neighbors);
+    }
+
+    /**
+     * Create a portfolio of neighbors
+     *
+     * @param policy    the operator selection policy
+     * @param vars      the decision variables the neighbors work on, to measure relaxation sizes
+     * @param seed      a seed for random
+     * @param neighbors the neighbors
+     */
+    public BanditNeighborhood(Policy policy, IntVar[] vars, long seed, INeighbor... neighbors) {
+        super(neighbors);
+        this.policy = policy;
+        this.vars = vars.clone();
+        this.random = new Random(seed);
+        this.runs = new int[count];
+        this.improvements = new int[count];
+        this.times = new long[count];
+        this.relaxations = new long[count];
+        this.fruitless = new int[count];
+        this.who = -1;
+    }
+
+    /**
+     * Set the probability to select a random neighbor, with the {@link Policy#EPSILON_GREEDY} policy
+     *
+     * @param epsilon a probability
+     */
+    public void setEpsilon(double epsilon) {
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Set the number of consecutive runs without improvement after which a neighbor restricts less
+     *
+     * @param patience a positive number of runs
+     */
+    public void setPatience(int patience) {
+        this.patience = patience;
+    }
+
+    @Override
+    public void recordSolution() {
+        if (who > -1 && !improved) {
+            improvements[who]++;
+            fruitless[who] = 0;
+        }
+        improved = true;
+        for (int i = 0; i < count; i++) {
+            neighbors[i].recordSolution();
+        }
+    }
+
+    @Override
+    public void loadSolution(int[] values) {
+        for (int i = 0; i < count; i++) {
+            neighbors[i].loadSolution(values);
+        }
+        who = -1;
+    }
+
+    @Override
+    public void fixSomeVariables(ICause cause) throws ContradictionException {
+        endRun();
+        who = select();
+        runs[who]++;
+        nbRuns++;
+        improved = false;
+        start = System.nanoTime();
+        neighbors[who].fixSomeVariables(cause);
+        int free = 0;
+        for (int i = 0; i < vars.length; i++) {
+            if (!vars[i].isInstantiated()) {
+                free++;
+            }
+        }
+        relaxations[who] += free;
+    }
+
+    @Override
+    public void restrictLess() {
+        if (who > -1) {
+            neighbors[who].restrictLess();
+        }
+    }
+
+    private void endRun() {
+        if (who > -1) {
+            times[who] += System.nanoTime() - start;
+            if (!improved && ++fruitless[who] >= patience) {
+                neighbors[who].restrictLess();
+                fruitless[who] = 0;
+            }
+        }
+    }
+
+    private int select() {
+        for (int i = 0; i < count; i++) {
+            if (runs[i] == 0) {
+                return i;
+            }
+        }
+        switch (policy) {
+            case EPSILON_GREEDY:
+                if (random.nextDouble() < epsilon) {
+                    return random.nextInt(count);
+                }
+                return best(0);
+            case UCB1:
+            default:
+                return best(Math.sqrt(2. * Math.log(nbRuns)));
+        }
+    }
+
+    private int best(double exploration) {
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double score = getImprovementRate(i) + exploration / Math.sqrt(runs[i]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    //***********************************************************************************
+    // STATISTICS
+    //***********************************************************************************
+
+    /**
+     * @return the number of neighbors in the portfolio
+     */
+    public int getNbNeighbors() {
+        return count;
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the number of runs of the <code>i</code>-th neighbor
+     */
+    public int getNbRuns(int i) {
+        return runs[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the number of runs of the <code>i</code>-th neighbor which improved the solution
+     */
+    public int getNbImprovements(int i) {
+        return improvements[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the ratio of runs of the <code>i</code>-th neighbor which improved the solution
+     */
+    public double getImprovementRate(int i) {
+        return runs[i] == 0 ? 0. : improvements[i] / (double) runs[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the time spent in the completed runs of the <code>i</code>-th neighbor, in nanoseconds
+     */
+    public long getTime(int i) {
+        return times[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the mean number of variables left free by the <code>i</code>-th neighbor
+     */
+    public double getMeanRelaxationSize(int i) {
+        return runs[i] == 0 ? 0. : relaxations[i] / (double) runs[i];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder();
+        st.append(String.format("%s (%s)\n", getClass().getSimpleName(), policy));
+        for (int i = 0; i < count; i++) {
+            st.append(String.format("\t%s: %d runs, %d improvements (%.2f), %.3fs, %.1f free vars\n",
+                    neighbors[i].getClass().getSimpleName(), runs[i], improvements[i], getImprovementRate(i),
+                    times[i] / 1e9, getMeanRelaxationSize(i)));
+        }
+        return st.toString();
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.lns.neighbors;
+
+import java.util.Arrays;
+
+/**
+ * A bounded pool of good and diverse solutions, stored as arrays of values.
+ * <br/>
+ * A solution is rated with a score, the greater the better.
+ * A candidate solution is rejected when it is already in the pool.
+ * When it is closer than <code>minDistance</code> (in Hamming distance) to some stored solutions,
+ * it replaces them all, provided that it is strictly better than each of them.
+ * Otherwise, it fills the pool or replaces the worst solution it is better than.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class ElitePool {
+
+    private final int capacity;
+    private final int minDistance;
+    private final int[][] solutions;
+    private final long[] scores;
+    private int size;
+
+    /**
+     * Create an elite pool
+     *
+     * @param capacity    maximum number of solutions stored
+     * @param minDistance minimum Hamming distance between two stored solutions
+     */
+    public ElitePool(int capacity, int minDistance) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of an elite pool should be positive");
+        }
+        this.capacity = capacity;
+        this.minDistance = minDistance;
+        this.solutions = new int[capacity][];
+        this.scores = new long[capacity];
+    }
+
+    /**
+     * Submit a solution to the pool, which may store a copy of it.
+     *
+     * @param solution values of the variables in the solution
+     * @param score    rating of the solution, the greater the better
+     * @return <tt>true</tt> if the solution has been stored
+     */
+    public boolean offer(int[] solution, long score) {
+        int nbClose = 0;
+        for (int i = 0; i < size; i++) {
+            int d = distance(solutions[i], solution);
+            if (d == 0 || d < minDistance && score <= scores[i]) {
+                return false;
+            }
+            if (d < minDistance) {
+                nbClose++;
+            }
+        }
+        if (nbClose > 0) {
+            // the solution replaces all the worse solutions it is too close to
+            int k = 0;
+            for (int i = 0; i < size; i++) {
+                if (distance(solutions[i], solution) >= minDistance) {
+                    swap(i, k++);
+                }
+            }
+            size = k + 1;
+            store(k, solution, score);
+            return true;
+        }
+        if (size < capacity) {
+            store(size++, solution, score);
+            return true;
+        }
+        int worst = getWorst();
+        if (score > scores[worst]) {
+            store(worst, solution, score);
+            return true;
+        }
+        return false;
+    }
+
+    private void swap(int i, int j) {
+        int[] s = solutions[i];
+        solutions[i] = solutions[j];
+        solutions[j] = s;
+        long c = scores[i];
+        scores[i] = scores[j];
+        scores[j] = c;
+    }
+
+    private void store(int i, int[] solution, long score) {
+        if (solutions[i] == null || solutions[i].length != solution.length) {
+            solutions[i] = solution.clone();
+        } else {
+            System.arraycopy(solution, 0, solutions[i], 0, solution.length);
+        }
+        scores[i] = score;
+    }
+
+    /**
+     * Remove all solutions from the pool
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the number of solutions stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the maximum number of solutions stored
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Return the <code>i</code>-th solution of the pool, which should not be modified.
+     *
+     * @param i index of a solution, in [0, size()-1]
+     * @return the values of the <code>i</code>-th solution
+     */
+    public int[] get(int i) {
+        return solutions[i];
+    }
+
+    /**
+     * @param i index of a solution, in [0, size()-1]
+     * @return the score of the <code>i</code>-th solution
+     */
+    public long getScore(int i) {
+        return scores[i];
+    }
+
+    /**
+     * @return index of the best solution of the pool, -1 if the pool is empty
+     */
+    public int getBest() {
+        int best = -1;
+        for (int i = 0; i < size; i++) {
+            if (best == -1 || scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return index of the worst solution of the pool, -1 if the pool is empty
+     */
+    public int getWorst() {
+        int worst = -1;
+        for (int i = 0; i < size; i++) {
+            if (worst == -1 || scores[i] < scores[worst]) {
+                worst = i;
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * @param a a solution
+     * @param b another solution
+     * @return the number of variables which take different values in <code>a</code> and <code>b</code>
+     */
+    public static int distance(int[] a, int[] b) {
+        int d = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) {
+                d++;
+            }
+        }
+        return d;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("ElitePool[");
+        for (int i = 0; i < size; i++) {
+            st.append(i == 0 ? "" : ", ").append(scores[i]).append(':').append(Arrays.toString(solutions[i]));
+        }
+        return st.append(']').toString();
+    }
+}
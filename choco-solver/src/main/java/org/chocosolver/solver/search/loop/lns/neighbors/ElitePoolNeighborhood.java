@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.lns.neighbors;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.objective.ObjectiveManager;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * A neighbor built from an elite pool of solutions, instead of the last solution only.
+ * <br/>
+ * Each solution found is offered to the pool ({@link ElitePool}).
+ * On each run, either:
+ * <ul>
+ * <li>an elite solution is selected randomly, and a random subset of the variables are fixed to their value in it, or</li>
+ * <li>with probability <code>relinkRate</code>, a path relinking neighbor is built: two elite solutions are selected
+ * and the variables on which they agree are fixed.</li>
+ * </ul>
+ * The number of variables fixed decreases with each fruitless run, and is restored on a new solution.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class ElitePoolNeighborhood extends ANeighbor {
+
+    private static final double INIT_RATIO = 2. / 3.;
+
+    protected final int n;
+    protected final IntVar[] vars;
+    protected final ElitePool pool;
+    private final double relinkRate;
+    private final double decay;
+    private final Random rd;
+    private final int[] values;
+    private final BitSet fragment;
+    private double ratio;
+    private int nbRelinks;
+
+    /**
+     * Create a neighbor relying on an elite pool
+     *
+     * @param solver     the solver
+     * @param vars       the variables to fix
+     * @param pool       an elite pool, possibly shared
+     * @param relinkRate probability to build a path relinking neighbor
+     * @param seed       a seed for random
+     */
+    public ElitePoolNeighborhood(Solver solver, IntVar[] vars, ElitePool pool, double relinkRate, long seed) {
+        super(solver);
+        this.n = vars.length;
+        this.vars = vars.clone();
+        this.pool = pool;
+        this.relinkRate = relinkRate;
+        this.decay = Math.pow(.5, 1. / Math.max(n, 1));
+        this.rd = new Random(seed);
+        this.values = new int[n];
+        this.fragment = new BitSet(n);
+        this.ratio = INIT_RATIO;
+    }
+
+    /**
+     * Create a neighbor relying on a new elite pool, storing up to 10 solutions
+     *
+     * @param solver the solver
+     * @param vars   the variables to fix
+     * @param seed   a seed for random
+     */
+    public ElitePoolNeighborhood(Solver solver, IntVar[] vars, long seed) {
+        this(solver, vars, new ElitePool(10, Math.max(1, vars.length / 10)), .3, seed);
+    }
+
+    /**
+     * @return the elite pool this neighbor relies on
+     */
+    public ElitePool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return the number of path relinking neighbors built so far
+     */
+    public int getNbRelinks() {
+        return nbRelinks;
+    }
+
+    @Override
+    public boolean isSearchComplete() {
+        return false;
+    }
+
+    @Override
+    public void recordSolution() {
+        for (int i = 0; i < n; i++) {
+            values[i] = vars[i].getValue();
+        }
+        pool.offer(values, score(false));
+        ratio = INIT_RATIO;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The solution is offered to the pool. Since its objective value is unknown, it is rated with the best bound known
+     * by the solver, which is expected to have been updated with the value of that solution.
+     */
+    @Override
+    public void loadSolution(int[] values) {
+        pool.offer(values, score(true));
+        ratio = INIT_RATIO;
+    }
+
+    /**
+     * @param bound set to <tt>true</tt> to rate the best bound known instead of the current solution
+     * @return the score of the current solution, or of the best bound, with respect to the objective
+     */
+    private long score(boolean bound) {
+        ObjectiveManager om = mSolver.getObjectiveManager();
+        if (om.isOptimization() && om.getObjective() instanceof IntVar) {
+            long value = bound ?
+                    om.getBestSolutionValue().longValue() :
+                    ((IntVar) om.getObjective()).getValue();
+            return om.getPolicy() == ResolutionPolicy.MAXIMIZE ? value : -value;
+        }
+        return 0;
+    }
+
+    @Override
+    public void fixSomeVariables(ICause cause) throws ContradictionException {
+        int size = pool.size();
+        if (size == 0) {
+            return;
+        }
+        int[] elite = pool.get(rd.nextInt(size));
+        fragment.clear();
+        if (size > 1 && rd.nextDouble() < relinkRate) {
+            nbRelinks++;
+            int[] guide;
+            do {
+                guide = pool.get(rd.nextInt(size));
+            } while (guide == elite);
+            for (int i = 0; i < n; i++) {
+                if (elite[i] == guide[i]) {
+                    fragment.set(i);
+                }
+            }
+        } else {
+            fragment.set(0, n);
+        }
+        int nbFixed = (int) Math.ceil(ratio * n);
+        // drop variables randomly until the relaxation is large enough
+        for (int k = fragment.cardinality(); k > nbFixed; k--) {
+            fragment.clear(select(k));
+        }
+        for (int i = fragment.nextSetBit(0); i > -1; i = fragment.nextSetBit(i + 1)) {
+            if (vars[i].contains(elite[i])) {
+                vars[i].instantiateTo(elite[i], cause);
+            }
+        }
+    }
+
+    private int select(int card) {
+        int cc = rd.nextInt(card);
+        int id = fragment.nextSetBit(0);
+        for (; cc > 0; cc--) {
+            id = fragment.nextSetBit(id + 1);
+        }
+        return id;
+    }
+
+    @Override
+    public void restrictLess() {
+        ratio *= decay;
+    }
+}
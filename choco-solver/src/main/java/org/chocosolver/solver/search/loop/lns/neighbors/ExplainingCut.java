@@ -107,8 +107,21 @@ public class ExplainingCut extends ANeighbor implements IMonitorUpBranch {
         forceCft = true;
     }
 
+    /**
+     * {@inheritDoc}
+     * The explanations rely on the decision path leading to a solution, which is unknown for an external one:
+     * the neighbor keeps relaxing around the last solution it has recorded, if any.
+     */
+    @Override
+    public void loadSolution(int[] values) {
+    }
+
     @Override
     public void fixSomeVariables(ICause cause) throws ContradictionException {
+        if (path.isEmpty()) {
+            // no solution recorded yet, nothing to fix
+            return;
+        }
         // this is called after restart
         // if required, force the cut and explain the cut
         if (forceCft) {
@@ -106,7 +106,11 @@ public class ExplainingObjective extends ExplainingCut implements IMonitorInitPr
         }
         unrelated.clear();
         unrelated.or(related);
-        unrelated.flip(path.get(0).getWorldIndex(), unrelated.length());
+        int from = path.get(0).getWorldIndex();
+        // no decision may be related to the objective, when its values have been removed by propagation only
+        if (from < unrelated.length()) {
+            unrelated.flip(from, unrelated.length());
+        }
         forceCft = true;
     }
 
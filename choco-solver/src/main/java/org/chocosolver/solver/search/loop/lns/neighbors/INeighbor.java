@@ -47,6 +47,14 @@ public interface INeighbor {
      */
     void recordSolution();
 
+    /**
+     * Record values of decision variables from a solution found elsewhere, for instance by another solver working on
+     * a copy of the model, to freeze some ones during the next LNS run.
+     *
+     * @param values values of the decision variables, in the order the variables were given to the neighbor
+     */
+    void loadSolution(int[] values);
+
     /**
      * Freezes some variables in order to have a fast computation
      *
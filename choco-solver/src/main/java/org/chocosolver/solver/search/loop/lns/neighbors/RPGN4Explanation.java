@@ -38,6 +38,7 @@ import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.fast.FastDecision;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.PoolManager;
 import org.chocosolver.util.objects.IntCircularQueue;
 
 /**
@@ -72,6 +73,15 @@ public class RPGN4Explanation extends ReversePropagationGuidedNeighborhood imple
         super.restrictLess();
     }
 
+    @Override
+    public void loadSolution(int[] values) {
+        super.loadSolution(values);
+        if (duplicator == null) {
+            // no decision of this solver to mimic yet: the fake decisions are built from scratch
+            duplicator = new FastDecision(new PoolManager<>());
+        }
+    }
+
     @Override
     public void fixSomeVariables(ICause cause) throws ContradictionException {
         queue.clear();
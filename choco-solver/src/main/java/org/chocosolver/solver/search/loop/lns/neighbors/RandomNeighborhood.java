@@ -80,6 +80,19 @@ public class RandomNeighborhood extends ANeighbor {
             previous[i] = bestSolution[i];
             bestSolution[i] = vars[i].getValue();
         }
+        resetLevel();
+    }
+
+    @Override
+    public void loadSolution(int[] values) {
+        for (int i = 0; i < vars.length; i++) {
+            previous[i] = bestSolution[i];
+            bestSolution[i] = values[i];
+        }
+        resetLevel();
+    }
+
+    private void resetLevel() {
         nbFixedVariables = 2. * n / 3. + 1;
         nbCall = 0;
         limit = 200; //geo.getNextCutoff(nbCall);
@@ -38,6 +38,7 @@ import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.fast.FastDecision;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.PoolManager;
 
 /**
  * This class extends {@link org.chocosolver.solver.search.loop.lns.neighbors.RandomNeighborhood}, but, instead of instantiating variables
@@ -65,6 +66,15 @@ public class RandomNeighborhood4Explanation extends RandomNeighborhood implement
         }
     }
 
+    @Override
+    public void loadSolution(int[] values) {
+        super.loadSolution(values);
+        if (duplicator == null) {
+            // no decision of this solver to mimic yet: the fake decisions are built from scratch
+            duplicator = new FastDecision(new PoolManager<>());
+        }
+    }
+
     @Override
     public void fixSomeVariables(ICause cause) throws ContradictionException {
         last = null;
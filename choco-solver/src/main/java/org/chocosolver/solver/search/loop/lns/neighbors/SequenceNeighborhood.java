@@ -65,6 +65,14 @@ public class SequenceNeighborhood extends ANeighbor {
 //        System.out.printf("%s %s\n", "% REPARTITION", Arrays.toString(counters));
     }
 
+    @Override
+    public void loadSolution(int[] values) {
+        for (int i = 0; i < count; i++) {
+            neighbors[i].loadSolution(values);
+        }
+        who = count - 1;
+    }
+
     @Override
     public void fixSomeVariables(ICause cause) throws ContradictionException {
         nextNeighbor();
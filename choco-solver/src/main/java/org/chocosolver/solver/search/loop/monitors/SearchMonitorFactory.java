@@ -170,6 +170,42 @@ public class SearchMonitorFactory {
         limitThreadTime(solver, convertInMilliseconds(duration));
     }
 
+    /**
+     * Defines a hard deadline over the run time, counted from the beginning of the resolution.
+     * When the deadline is passed, the {@link org.chocosolver.solver.search.limits.CancellationToken} of the solver
+     * is cancelled by a timer thread: the current propagation is aborted, the last consistent world is restored
+     * and the resolution is stopped.
+     * <br/>
+     * Contrary to {@link #limitTime(org.chocosolver.solver.Solver, long)}, the deadline is also checked during
+     * propagation, which makes it suitable for tight latency budgets.
+     *
+     * @param limit maximal resolution time in millisecond
+     * @see org.chocosolver.solver.Solver#getCancellationToken()
+     */
+    public static void deadline(Solver solver, long limit) {
+        solver.plugMonitor(new IMonitorInitialize() {
+            @Override
+            public void beforeInitialize() {
+                solver.getCancellationToken().setDeadline(limit);
+            }
+
+            @Override
+            public void afterInitialize() {
+            }
+        });
+    }
+
+    /**
+     * Defines a hard deadline over the run time, counted from the beginning of the resolution.
+     *
+     * @param duration a String which states the duration like "WWd XXh YYm ZZs".
+     * @see SearchMonitorFactory#deadline(org.chocosolver.solver.Solver, long)
+     * @see SearchMonitorFactory#convertInMilliseconds(String)
+     */
+    public static void deadline(Solver solver, String duration) {
+        deadline(solver, convertInMilliseconds(duration));
+    }
+
     private static Pattern Dp = Pattern.compile("(\\d+)d");
     private static Pattern Hp = Pattern.compile("(\\d+)h");
     private static Pattern Mp = Pattern.compile("(\\d+)m");
@@ -223,6 +223,21 @@ public final class SearchMonitorList implements IMonitorClose, IMonitorContradic
         }
     }
 
+    public void remove(ISearchMonitor sm) {
+        if (sm != null) {
+            mclos.remove(sm);
+            mcont.remove(sm);
+            mdbra.remove(sm);
+            minit.remove(sm);
+            mipro.remove(sm);
+            minte.remove(sm);
+            mopno.remove(sm);
+            mrest.remove(sm);
+            msolu.remove(sm);
+            mubra.remove(sm);
+        }
+    }
+
     public boolean contains(ISearchMonitor sm) {
         boolean isPluggedIn = false;
         if (sm != null) {
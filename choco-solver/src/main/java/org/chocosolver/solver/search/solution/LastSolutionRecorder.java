@@ -43,7 +43,7 @@ import java.util.List;
  * @author Jean-Guillaume Fages
  * @since 2013
  */
-public class LastSolutionRecorder implements ISolutionRecorder {
+public class LastSolutionRecorder implements ISolutionRecorder, IMonitorSolution, IMonitorClose {
 
 	Solution solution;
 	Solver solver;
@@ -53,28 +53,31 @@ public class LastSolutionRecorder implements ISolutionRecorder {
 		this.solver = solver;
 		this.solution = solution;
 		this.restoreOnClose = restoreOnClose;
-		solver.plugMonitor((IMonitorSolution) () -> solution.record(solver));
-		if(restoreOnClose){
-			solver.plugMonitor(new IMonitorClose() {
-				@Override
-				public void beforeClose() {
-					if(solution.hasBeenFound()){
-						try{
-							solver.getSearchLoop().restoreRootNode();
-							solver.getEnvironment().worldPush();
-							solution.restore();
-						}catch (ContradictionException e){
-							throw new UnsupportedOperationException("restoring the last solution ended in a failure");
-						}
-						solver.getEngine().flush();
-					}
-				}
-				@Override
-				public void afterClose() {}
-			});
+		solver.plugMonitor(this);
+	}
+
+	@Override
+	public void onSolution() {
+		solution.record(solver);
+	}
+
+	@Override
+	public void beforeClose() {
+		if(restoreOnClose && solution.hasBeenFound()){
+			try{
+				solver.getSearchLoop().restoreRootNode();
+				solver.getEnvironment().worldPush();
+				solution.restore();
+			}catch (ContradictionException e){
+				throw new UnsupportedOperationException("restoring the last solution ended in a failure");
+			}
+			solver.getEngine().flush();
 		}
 	}
 
+	@Override
+	public void afterClose() {}
+
 	@Override
 	public Solution getLastSolution(){
 		return solution.hasBeenFound()?solution:null;
@@ -33,6 +33,7 @@ import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.GraphVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
 import org.chocosolver.solver.variables.SetVar;
@@ -59,6 +60,7 @@ public class Solution implements Serializable {
     HashMap<IntVar, Integer> intmap = new HashMap<>();
     HashMap<RealVar, double[]> realmap = new HashMap<>();
     HashMap<SetVar, int[]> setmap = new HashMap<>();
+    HashMap<GraphVar, int[][]> graphmap = new HashMap<>();
     TIntHashSet dvars = new TIntHashSet(16, .5f, -1);
     boolean empty = true;
 
@@ -83,6 +85,7 @@ public class Solution implements Serializable {
         intmap.clear();
         realmap.clear();
         setmap.clear();
+        graphmap.clear();
         Variable[] vars = solver.getVars();
         for (int i = 0; i < vars.length; i++) {
             int kind = vars[i].getTypeAndKind() & Variable.KIND;
@@ -107,6 +110,10 @@ public class Solution implements Serializable {
                         SetVar s = (SetVar) vars[i];
                         setmap.put(s, s.getValues());
                         break;
+                    case Variable.GRAPH:
+                        GraphVar g = (GraphVar) vars[i];
+                        graphmap.put(g, adjacency(g));
+                        break;
                 }
             }
         }
@@ -115,6 +122,21 @@ public class Solution implements Serializable {
         }
     }
 
+    /**
+     * @return for each node of the instantiated graph variable g, its sorted successors (or neighbors),
+     * null if the node does not belong to the graph
+     */
+    private static int[][] adjacency(GraphVar g) {
+        int[][] adj = new int[g.getNbMaxNodes()][];
+        for (int x = 0; x < adj.length; x++) {
+            if (g.getEnvelopeGraph().getNodes().contain(x)) {
+                adj[x] = g.getEnvelopeGraph().getSuccOrNeighOf(x).toArray();
+                Arrays.sort(adj[x]);
+            }
+        }
+        return adj;
+    }
+
     /**
      * Set all variables to their respective value in the solution
      * Throws an exception is this empties a domain (i.e. this domain does not contain
@@ -136,6 +158,24 @@ public class Solution implements Serializable {
             double[] bounds = realmap.get(r);
             r.updateBounds(bounds[0], bounds[1], Cause.Null);
         }
+        for (GraphVar g : graphmap.keySet()) {
+            int[][] adj = graphmap.get(g);
+            for (int x = 0; x < adj.length; x++) {
+                if (adj[x] == null) {
+                    g.removeNode(x, Cause.Null);
+                } else {
+                    for (int y : adj[x]) {
+                        g.enforceArc(x, y, Cause.Null);
+                    }
+                    for (int y : g.getEnvelopeGraph().getSuccOrNeighOf(x).toArray()) {
+                        if (Arrays.binarySearch(adj[x], y) < 0) {
+                            g.removeArc(x, y, Cause.Null);
+                        }
+                    }
+                    g.enforceNode(x, Cause.Null);
+                }
+            }
+        }
     }
 
     @Override
@@ -151,6 +191,9 @@ public class Solution implements Serializable {
             double[] bounds = realmap.get(r);
             st.append(r.getName()).append("=[").append(bounds[0]).append(",").append(bounds[1]).append("], ");
         }
+        for (GraphVar g : graphmap.keySet()) {
+            st.append(g.getName()).append("=").append(Arrays.deepToString(graphmap.get(g))).append(", ");
+        }
 
         return st.toString();
     }
@@ -203,6 +246,23 @@ public class Solution implements Serializable {
         } else return null;
     }
 
+    /**
+     * Get the value of graph variable g in this solution
+     *
+     * @param g GraphVar
+     * @return for each node of g, its sorted successors (or neighbors) in this solution, or null if the node does not
+     * belong to the graph; null if the variable is not instantiated in the solution
+     */
+    public int[][] getGraphVal(GraphVar g) {
+        if (empty) {
+            throw new UnsupportedOperationException("Empty solution. No solution found");
+        }
+        if (graphmap.containsKey(g)) {
+            return graphmap.get(g);
+        } else
+            return null;
+    }
+
     /**
      * @return true iff this is a valid solution
      */
@@ -26,59 +26,43 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.chocosolver.solver.constraints.nary.automata.structure.regular;
+package org.chocosolver.solver.search.strategy;
 
-import org.chocosolver.memory.structure.IndexedObject;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
-import org.jgrapht.EdgeFactory;
+import org.chocosolver.solver.search.strategy.strategy.GraphStrategy;
+import org.chocosolver.solver.variables.GraphVar;
 
 /**
- * Created by IntelliJ IDEA.
- * User: julien
- * Date: Oct 30, 2009
- * Time: 3:48:11 PM
+ * Strategies over graph variables
+ * Just there to simplify strategies creation.
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
  */
-public class Arc implements IndexedObject {
-
-    public int id;
-    public Node orig;
-    public Node dest;
-    public int value;
-
+public class GraphStrategyFactory {
 
-    public Arc(Node orig, Node dest, int value, int id) {
-        this.id = id;
-        this.orig = orig;
-        this.dest = dest;
-        this.value = value;
+    GraphStrategyFactory() {
     }
 
-
-    public String toString() {
-        return value + "";
+    /**
+     * strategy to branch on graphs by choosing the first uninstantiated variable
+     * and enforcing its first undecided node, or arc once all nodes are decided
+     *
+     * @param graphs variables to branch on
+     * @return a strategy to instantiate graphs
+     */
+    public static GraphStrategy enforce_first(GraphVar... graphs) {
+        return new GraphStrategy(graphs, true);
     }
 
-    @Override
-    public int getObjectIdx() {
-        return orig.state;
+    /**
+     * strategy to branch on graphs by choosing the first uninstantiated variable
+     * and removing its first undecided node, or arc once all nodes are decided
+     *
+     * @param graphs variables to branch on
+     * @return a strategy to instantiate graphs
+     */
+    public static GraphStrategy remove_first(GraphVar... graphs) {
+        return new GraphStrategy(graphs, false);
     }
-
-
-    public static class ArcFactory implements EdgeFactory<Node, Arc> {
-
-        public Arc createEdge(Node node, Node node1) {
-            return new Arc(node, node1, 0, 0);
-        }
-    }
-
-    @Override
-    public Arc clone() throws CloneNotSupportedException {
-        Arc arc = (Arc) super.clone();
-        arc.orig = orig.clone();
-        arc.dest = dest.clone();
-        arc.id = id;
-        arc.value = value;
-        return arc;
-    }
-
 }
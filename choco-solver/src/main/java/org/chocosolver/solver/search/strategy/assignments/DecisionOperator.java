@@ -30,6 +30,7 @@ package org.chocosolver.solver.search.strategy.assignments;
 
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.GraphVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.solver.variables.Variable;
@@ -233,4 +234,81 @@ public abstract class DecisionOperator<V extends Variable> implements Serializab
             return set_force;
         }
     };
+
+    // GRAPHS
+    // value x in [0,n-1] denotes node x, value n + x * n + y denotes arc (x,y)
+    public static DecisionOperator<GraphVar> graph_enforce = new DecisionOperator<GraphVar>() {
+
+        @Override
+        public void apply(GraphVar var, int value, ICause cause) throws ContradictionException {
+            int n = var.getNbMaxNodes();
+            if (value < n) {
+                var.enforceNode(value, cause);
+            } else {
+                var.enforceArc((value - n) / n, (value - n) % n, cause);
+            }
+        }
+
+        @Override
+        public void unapply(GraphVar var, int value, ICause cause) throws ContradictionException {
+            int n = var.getNbMaxNodes();
+            if (value < n) {
+                var.removeNode(value, cause);
+            } else {
+                var.removeArc((value - n) / n, (value - n) % n, cause);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return " contains ";
+        }
+
+        @Override
+        public boolean isValid(GraphVar var, int value) {
+            return isUndecided(var, value);
+        }
+
+        @Override
+        public DecisionOperator opposite() {
+            return graph_remove;
+        }
+    };
+
+    public static DecisionOperator<GraphVar> graph_remove = new DecisionOperator<GraphVar>() {
+
+        @Override
+        public void apply(GraphVar var, int value, ICause cause) throws ContradictionException {
+            graph_enforce.unapply(var, value, cause);
+        }
+
+        @Override
+        public void unapply(GraphVar var, int value, ICause cause) throws ContradictionException {
+            graph_enforce.apply(var, value, cause);
+        }
+
+        @Override
+        public String toString() {
+            return " !contains ";
+        }
+
+        @Override
+        public boolean isValid(GraphVar var, int value) {
+            return isUndecided(var, value);
+        }
+
+        @Override
+        public DecisionOperator opposite() {
+            return graph_enforce;
+        }
+    };
+
+    private static boolean isUndecided(GraphVar var, int value) {
+        int n = var.getNbMaxNodes();
+        if (value < n) {
+            return var.getEnvelopeGraph().getNodes().contain(value) && !var.getKernelGraph().getNodes().contain(value);
+        }
+        int x = (value - n) / n, y = (value - n) % n;
+        return var.getEnvelopeGraph().isArcOrEdge(x, y) && !var.getKernelGraph().isArcOrEdge(x, y);
+    }
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy.decision.fast;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.variables.GraphVar;
+import org.chocosolver.util.PoolManager;
+
+/**
+ * Decision on a node or an arc of a graph variable.
+ * The value encodes node x as x and arc (x,y) as n + x * n + y.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class FastDecisionGraph extends Decision<GraphVar> {
+
+    int value;
+    DecisionOperator<GraphVar> operator;
+    final PoolManager<FastDecisionGraph> poolManager;
+
+    public FastDecisionGraph(PoolManager<FastDecisionGraph> poolManager) {
+        this.poolManager = poolManager;
+    }
+
+    @Override
+    public Integer getDecisionValue() {
+        return value;
+    }
+
+    @Override
+    public DecisionOperator<GraphVar> getDecisionOperator() {
+        return operator;
+    }
+
+    @Override
+    public void apply() throws ContradictionException {
+        if (branch == 1) {
+            operator.apply(var, value, this);
+        } else if (branch == 2) {
+            operator.unapply(var, value, this);
+        }
+    }
+
+    public void set(GraphVar v, int value, DecisionOperator<GraphVar> operator) {
+        super.set(v);
+        this.var = v;
+        this.value = value;
+        this.operator = operator;
+    }
+
+    @Override
+    public void reverse() {
+        this.operator = operator.opposite();
+    }
+
+    @Override
+    public void free() {
+        previous = null;
+        poolManager.returnE(this);
+    }
+
+    @Override
+    public String toString() {
+        int n = var.getNbMaxNodes();
+        String element = value < n ? "node " + value : "arc (" + (value - n) / n + "," + (value - n) % n + ")";
+        return String.format("%s%s %s %s (%d)", (branch < 2 ? "" : "!"), var.getName(), operator.toString(), element, branch);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy.strategy;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.fast.FastDecisionGraph;
+import org.chocosolver.solver.variables.GraphVar;
+import org.chocosolver.util.PoolManager;
+import org.chocosolver.util.objects.graphs.IGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+
+/**
+ * Strategy for branching on graph variables:
+ * selects the first uninstantiated variable, then its first undecided node if any,
+ * otherwise its first undecided arc (from the node of smallest index).
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class GraphStrategy extends AbstractStrategy<GraphVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    protected PoolManager<FastDecisionGraph> pool;
+    protected DecisionOperator<GraphVar> operator;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Generic strategy to branch on graph variables
+     *
+     * @param scope        GraphVar array to branch on
+     * @param enforceFirst branching order true = enforce first; false = remove first
+     */
+    public GraphStrategy(GraphVar[] scope, boolean enforceFirst) {
+        super(scope);
+        operator = enforceFirst ? DecisionOperator.graph_enforce : DecisionOperator.graph_remove;
+        pool = new PoolManager<>();
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public void init() throws ContradictionException {
+    }
+
+    @Override
+    public Decision<GraphVar> getDecision() {
+        for (GraphVar g : vars) {
+            if (!g.isInstantiated()) {
+                return computeDecision(g);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Decision<GraphVar> computeDecision(GraphVar g) {
+        if (g == null) {
+            return null;
+        }
+        int value = select(g);
+        if (value < 0) {
+            return null;
+        }
+        FastDecisionGraph d = pool.getE();
+        if (d == null) {
+            d = new FastDecisionGraph(pool);
+        }
+        d.set(g, value, operator);
+        return d;
+    }
+
+    /**
+     * @return the encoding of the first undecided node or arc of g, -1 if g is instantiated
+     */
+    private static int select(GraphVar g) {
+        int n = g.getNbMaxNodes();
+        IGraph ker = g.getKernelGraph();
+        IGraph env = g.getEnvelopeGraph();
+        ISet nodes = env.getNodes();
+        ISetIterator nodesIt = nodes.newIterator();
+        while (nodesIt.hasNext()) {
+            int x = nodesIt.nextInt();
+            if (!ker.getNodes().contain(x)) {
+                return x;
+            }
+        }
+        nodesIt.reset();
+        while (nodesIt.hasNext()) {
+            int x = nodesIt.nextInt();
+            ISet succ = env.getSuccOrNeighOf(x);
+            ISetIterator succIt = succ.newIterator();
+            while (succIt.hasNext()) {
+                int y = succIt.nextInt();
+                if (!ker.isArcOrEdge(x, y)) {
+                    return n + x * n + y;
+                }
+            }
+        }
+        return -1;
+    }
+}
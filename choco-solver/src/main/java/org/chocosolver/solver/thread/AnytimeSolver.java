@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.thread;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.objective.ObjectiveManager;
+import org.chocosolver.solver.search.limits.CancellationToken;
+import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs an optimization in a separate thread, and gives access to its progress from any other thread.
+ * <br/>
+ * Each improving solution is copied when found: the best one so far, its objective value and the current bound
+ * on the objective can be read at any time, and the improving solutions can be consumed as a stream.
+ * The resolution can be cancelled, and its deadline can be moved, while it runs.
+ * <pre>
+ *     AnytimeSolver as = new AnytimeSolver(solver);
+ *     as.findOptimalSolution(ResolutionPolicy.MINIMIZE, cost, 500);
+ *     // ...
+ *     as.await();
+ *     Solution best = as.getBestSolution();
+ * </pre>
+ * The solver must not be accessed directly while the resolution runs.
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class AnytimeSolver implements IMonitorSolution, IMonitorClose {
+
+    private static final Object END = new Object();
+
+    private final Solver solver;
+
+    private IntVar objective;
+
+    private volatile Solution best;
+
+    private volatile Integer bestValue;
+
+    private volatile Integer bound;
+
+    private volatile boolean optimal;
+
+    private volatile Throwable failure;
+
+    private final LinkedBlockingQueue<Object> improvements;
+
+    private final CountDownLatch done;
+
+    private boolean started;
+
+    public AnytimeSolver(Solver solver) {
+        this.solver = solver;
+        this.improvements = new LinkedBlockingQueue<>();
+        this.done = new CountDownLatch(1);
+    }
+
+    public Solver getSolver() {
+        return solver;
+    }
+
+    /**
+     * Starts optimizing <code>objective</code> wrt <code>policy</code> in a new thread, and returns immediately.
+     *
+     * @param policy    optimization policy, among ResolutionPolicy.MINIMIZE and ResolutionPolicy.MAXIMIZE
+     * @param objective the variable to optimize
+     * @param deadline  maximal resolution time in milliseconds, a negative value means no deadline
+     * @return <code>this</code>
+     */
+    public synchronized AnytimeSolver findOptimalSolution(ResolutionPolicy policy, IntVar objective, long deadline) {
+        if (policy == ResolutionPolicy.SATISFACTION) {
+            throw new UnsupportedOperationException("cannot optimize a satisfaction problem!");
+        }
+        if (started) {
+            throw new SolverException("The resolution has already been started");
+        }
+        started = true;
+        this.objective = objective;
+        solver.plugMonitor(this);
+        if (deadline >= 0) {
+            solver.getCancellationToken().setDeadline(deadline);
+        }
+        Thread t = new Thread("anytime " + solver.getName()) {
+            @Override
+            public void run() {
+                try {
+                    solver.findOptimalSolution(policy, objective);
+                } catch (Throwable e) {
+                    failure = e;
+                } finally {
+                    improvements.add(END);
+                    done.countDown();
+                }
+            }
+        };
+        t.setDaemon(true);
+        t.start();
+        return this;
+    }
+
+    @Override
+    public void onSolution() {
+        Solution solution = new Solution();
+        solution.record(solver);
+        bestValue = objective.getValue();
+        updateBound();
+        best = solution;
+        improvements.add(solution);
+    }
+
+    @Override
+    public void beforeClose() {
+    }
+
+    @Override
+    public void afterClose() {
+        optimal = best != null && solver.getMeasures().isObjectiveOptimal();
+        if (optimal) {
+            bound = bestValue;
+        } else {
+            updateBound();
+        }
+    }
+
+    private void updateBound() {
+        ObjectiveManager<IntVar, Integer> om = solver.getObjectiveManager();
+        bound = om.getPolicy() == ResolutionPolicy.MINIMIZE ? om.getBestLB() : om.getBestUB();
+    }
+
+    /**
+     * @return a copy of the best solution found so far, <tt>null</tt> if none has been found yet
+     */
+    public Solution getBestSolution() {
+        return best;
+    }
+
+    /**
+     * @return the objective value of the best solution found so far, <tt>null</tt> if none has been found yet
+     */
+    public Integer getBestValue() {
+        return bestValue;
+    }
+
+    /**
+     * @return the best proved bound on the objective (lower bound when minimizing, upper bound when maximizing),
+     * known at the last solution or at the end of the resolution, <tt>null</tt> if none is known yet
+     */
+    public Integer getBound() {
+        return bound;
+    }
+
+    /**
+     * @return <tt>true</tt> if the resolution is over and the best solution has been proved optimal
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * @return <tt>true</tt> if the resolution is over
+     */
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * Asks the resolution to stop as soon as possible; the best solution found so far remains available.
+     */
+    public void cancel() {
+        solver.getCancellationToken().cancel();
+    }
+
+    /**
+     * Postpones the deadline of the resolution.
+     *
+     * @param delay delay in milliseconds, can be negative to advance the deadline
+     * @see CancellationToken#extendDeadline(long)
+     */
+    public void extendDeadline(long delay) {
+        solver.getCancellationToken().extendDeadline(delay);
+    }
+
+    /**
+     * Waits for the end of the resolution.
+     *
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        done.await();
+        check();
+    }
+
+    /**
+     * Waits for the end of the resolution, at most <code>timeout</code> milliseconds.
+     *
+     * @param timeout maximum time to wait in milliseconds
+     * @return <tt>true</tt> if the resolution is over
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean await(long timeout) throws InterruptedException {
+        boolean over = done.await(timeout, TimeUnit.MILLISECONDS);
+        check();
+        return over;
+    }
+
+    private void check() {
+        if (failure != null) {
+            throw new SolverException("The resolution ended with an exception: " + failure);
+        }
+    }
+
+    /**
+     * Returns the improving solutions, in the order they were found.
+     * The stream blocks until the next improving solution is found, and ends with the resolution.
+     * Each solution is delivered once, even if several streams are consumed.
+     *
+     * @return a stream of improving solutions
+     */
+    public Stream<Solution> solutions() {
+        Iterator<Solution> it = new Iterator<Solution>() {
+            Object next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = improvements.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        next = END;
+                    }
+                    if (next == END) {
+                        // let other consumers see the end too
+                        improvements.add(END);
+                    }
+                }
+                return next != END;
+            }
+
+            @Override
+            public Solution next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Solution s = (Solution) next;
+                next = null;
+                return s;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
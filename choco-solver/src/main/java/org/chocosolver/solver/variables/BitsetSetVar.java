@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+
+/**
+ * A set variable whose envelope and kernel are stored as bitsets and can be read and filtered
+ * 64 elements at a time.
+ * <br/>
+ * Word <code>w</code> stores elements <code>64 * w</code> to <code>64 * w + 63</code>, bit <code>b</code>
+ * standing for element <code>64 * w + b</code>. Words are thus aligned among all variables of this type,
+ * which enables set propagators to work with bitwise operations instead of element by element.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public interface BitsetSetVar extends SetVar {
+
+    /**
+     * @return index of the word storing the smallest element of the initial envelope
+     */
+    int getFirstWord();
+
+    /**
+     * @return index of the word storing the largest element of the initial envelope
+     */
+    int getLastWord();
+
+    /**
+     * Get the elements of the kernel stored in word <code>wordIndex</code>.
+     *
+     * @param wordIndex a word index
+     * @return the word, 0 if <code>wordIndex</code> is out of [getFirstWord(), getLastWord()]
+     */
+    long getKernelWord(int wordIndex);
+
+    /**
+     * Get the elements of the envelope stored in word <code>wordIndex</code>.
+     *
+     * @param wordIndex a word index
+     * @return the word, 0 if <code>wordIndex</code> is out of [getFirstWord(), getLastWord()]
+     */
+    long getEnvelopeWord(int wordIndex);
+
+    /**
+     * Adds to the kernel every element set in <code>mask</code>, within word <code>wordIndex</code>.
+     * Fails if one of them is not in the envelope.
+     *
+     * @param wordIndex a word index
+     * @param mask      elements to add
+     * @param cause     cause of the modification
+     * @return true iff at least one element was not already in the kernel
+     * @throws ContradictionException if an element of <code>mask</code> is not in the envelope
+     */
+    boolean addWordToKernel(int wordIndex, long mask, ICause cause) throws ContradictionException;
+
+    /**
+     * Removes from the envelope every element set in <code>mask</code>, within word <code>wordIndex</code>.
+     * Fails if one of them is in the kernel.
+     *
+     * @param wordIndex a word index
+     * @param mask      elements to remove
+     * @param cause     cause of the modification
+     * @return true iff at least one element was in the envelope
+     * @throws ContradictionException if an element of <code>mask</code> is in the kernel
+     */
+    boolean removeWordFromEnvelope(int wordIndex, long mask, ICause cause) throws ContradictionException;
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.objects.graphs.IGraph;
+
+/**
+ * Graph variable, defined over nodes [0,n-1].
+ * Its domain is bounded by a kernel graph, containing the mandatory nodes and arcs,
+ * and an envelope graph, containing the potential nodes and arcs.
+ * An arc can only belong to the graph if both its extremities do.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public interface GraphVar<E extends IGraph> extends Variable {
+
+	/**
+	 * @return the graph of mandatory nodes and arcs
+	 */
+	E getKernelGraph();
+
+	/**
+	 * @return the graph of potential nodes and arcs
+	 */
+	E getEnvelopeGraph();
+
+	/**
+	 * @return the maximum number of nodes of the graph, nodes belong to [0,getNbMaxNodes()-1]
+	 */
+	int getNbMaxNodes();
+
+	/**
+	 * @return true iff arcs are directed
+	 */
+	boolean isDirected();
+
+	/**
+	 * Enforces node x to belong to the graph
+	 *
+	 * @param x     a node index
+	 * @param cause cause of the modification
+	 * @return true iff the domain has been modified
+	 * @throws ContradictionException if x cannot belong to the graph
+	 */
+	boolean enforceNode(int x, ICause cause) throws ContradictionException;
+
+	/**
+	 * Removes node x from the graph, as well as its incident arcs
+	 *
+	 * @param x     a node index
+	 * @param cause cause of the modification
+	 * @return true iff the domain has been modified
+	 * @throws ContradictionException if x is mandatory
+	 */
+	boolean removeNode(int x, ICause cause) throws ContradictionException;
+
+	/**
+	 * Enforces arc (x,y) to belong to the graph, as well as its extremities
+	 *
+	 * @param x     a node index
+	 * @param y     a node index
+	 * @param cause cause of the modification
+	 * @return true iff the domain has been modified
+	 * @throws ContradictionException if (x,y) cannot belong to the graph
+	 */
+	boolean enforceArc(int x, int y, ICause cause) throws ContradictionException;
+
+	/**
+	 * Removes arc (x,y) from the graph
+	 *
+	 * @param x     a node index
+	 * @param y     a node index
+	 * @param cause cause of the modification
+	 * @return true iff the domain has been modified
+	 * @throws ContradictionException if (x,y) is mandatory
+	 */
+	boolean removeArc(int x, int y, ICause cause) throws ContradictionException;
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+
+/**
+ * A set variable whose domain is, in addition to its kernel and envelope, bounded in the length-lex ordering.
+ * <br/>
+ * Sets are compared first by cardinality, then lexicographically on their elements sorted increasingly
+ * (see {@link #compare(int[], int[])}).
+ * The domain is the set of values S such that kernel &sube; S &sube; envelope and LB &le; S &le; UB.
+ * Both bounds are kept consistent with the kernel and the envelope: they are solutions of the variable themselves.
+ * As a consequence, the cardinality of the variable ranges over [|LB|, |UB|].
+ * <br/>
+ * Modifications of the bounds are notified with {@link org.chocosolver.solver.variables.events.SetEventType#LENGTH_LEX_BOUND}.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public interface LengthLexSetVar extends SetVar {
+
+    /**
+     * Compares two sets, given as increasing arrays of integers, in the length-lex ordering.
+     *
+     * @param s1 a set
+     * @param s2 another set
+     * @return a negative integer, zero, or a positive integer as s1 is less than, equal to, or greater than s2
+     */
+    static int compare(int[] s1, int[] s2) {
+        if (s1.length != s2.length) {
+            return s1.length < s2.length ? -1 : 1;
+        }
+        for (int i = 0; i < s1.length; i++) {
+            if (s1[i] != s2[i]) {
+                return s1[i] < s2[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the smallest value of the domain, as an increasing array of integers
+     */
+    int[] getLengthLexLB();
+
+    /**
+     * @return the largest value of the domain, as an increasing array of integers
+     */
+    int[] getLengthLexUB();
+
+    /**
+     * @return the smallest cardinality of the domain, that is |LB|
+     */
+    int getMinCard();
+
+    /**
+     * @return the largest cardinality of the domain, that is |UB|
+     */
+    int getMaxCard();
+
+    /**
+     * Removes from the domain every set smaller than <code>bound</code> (or equal to, if <code>strict</code> is set).
+     * The lower bound is then moved to the smallest remaining value of the domain.
+     *
+     * @param bound  an increasing array of integers, whose elements do not need to belong to the envelope
+     * @param strict set to true to remove <code>bound</code> too
+     * @param cause  cause of the modification
+     * @return true iff the lower bound has been modified
+     * @throws ContradictionException if the domain becomes empty
+     */
+    boolean updateLengthLexLB(int[] bound, boolean strict, ICause cause) throws ContradictionException;
+
+    /**
+     * Removes from the domain every set greater than <code>bound</code> (or equal to, if <code>strict</code> is set).
+     * The upper bound is then moved to the largest remaining value of the domain.
+     *
+     * @param bound  an increasing array of integers, whose elements do not need to belong to the envelope
+     * @param strict set to true to remove <code>bound</code> too
+     * @param cause  cause of the modification
+     * @return true iff the upper bound has been modified
+     * @throws ContradictionException if the domain becomes empty
+     */
+    boolean updateLengthLexUB(int[] bound, boolean strict, ICause cause) throws ContradictionException;
+
+    /**
+     * Removes from the domain every set whose cardinality is out of [min, max].
+     *
+     * @param min minimum cardinality
+     * @param max maximum cardinality
+     * @param cause  cause of the modification
+     * @return true iff a bound has been modified
+     * @throws ContradictionException if the domain becomes empty
+     */
+    boolean updateCardinality(int min, int max, ICause cause) throws ContradictionException;
+}
@@ -29,13 +29,18 @@
 package org.chocosolver.solver.variables;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
 import org.chocosolver.solver.constraints.real.IntEqRealConstraint;
+import org.chocosolver.solver.constraints.set.PropLengthLex;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.impl.*;
 import org.chocosolver.solver.variables.view.*;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.tools.ArrayUtils;
 
 import java.util.Arrays;
 
@@ -310,7 +315,9 @@ public class VariableFactory {
 
     /**
      * Build an integer variable whose domain is explicitly represented with a BitSet.
-     * Its initial domain is VALUES
+     * Its initial domain is VALUES.
+     * When VALUES are spread over a large range, the domain is represented with a sparse set instead,
+     * whose memory footprint only depends on the number of values.
      *
      * @param NAME   name of the variable
      * @param VALUES initial domain
@@ -325,7 +332,7 @@ public class VariableFactory {
         } else {
             int gap = VALUES[VALUES.length - 1] - VALUES[0];
             if (gap > 30 && gap / VALUES.length > 5) {
-                return new BitsetArrayIntVarImpl(NAME, VALUES, SOLVER);
+                return new SparseSetIntVarImpl(NAME, VALUES, SOLVER);
             } else {
                 return new BitsetIntVarImpl(NAME, VALUES, SOLVER);
             }
@@ -442,9 +449,12 @@ public class VariableFactory {
      * @param KERNEL   elements that must belong to the final set
      * @param KER_TYPE type of data structure for storing the kernel
      * @param SOLVER   solver involving the variable
-     * @return a set variable
+     * @return a set variable, which is a {@link BitsetSetVar} when both types are {@link SetType#BITSET}
      */
     public static SetVar set(String NAME, int[] ENVELOPE, SetType ENV_TYPE, int[] KERNEL, SetType KER_TYPE, Solver SOLVER) {
+        if (ENV_TYPE == SetType.BITSET && KER_TYPE == SetType.BITSET && ENVELOPE.length > 0) {
+            return new BitsetSetVarImpl(NAME, ENVELOPE, KERNEL, SOLVER);
+        }
         return new SetVarImpl(NAME, ENVELOPE, ENV_TYPE, KERNEL, KER_TYPE, SOLVER);
     }
 
@@ -482,12 +492,94 @@ public class VariableFactory {
      * @param MIN_ELEMENT lower bound
      * @param MAX_ELEMENT upper bound
      * @param SOLVER      solver involving the variable
-     * @return a set variable
+     * @return a set variable, which is a {@link BitsetSetVar} when MIN_ELEMENT &le; MAX_ELEMENT
      */
     public static SetVar set(String NAME, int MIN_ELEMENT, int MAX_ELEMENT, Solver SOLVER) {
+        if (MIN_ELEMENT <= MAX_ELEMENT) {
+            return new BitsetSetVarImpl(NAME, MIN_ELEMENT, MAX_ELEMENT, SOLVER);
+        }
         return new SetVarImpl(NAME, MIN_ELEMENT, MAX_ELEMENT, SOLVER);
     }
 
+    /**
+     * Builds a set variable with an initial domain given by ENVELOP and KERNEL,
+     * whose cardinality is in [MIN_CARD, MAX_CARD].
+     * In addition to its kernel and envelope, the domain is bounded in the length-lex ordering
+     * (sets are compared by cardinality, then lexicographically), which enables stronger cardinality
+     * and ordering reasoning, see {@link LengthLexSetVar}.
+     * A constraint channeling the bounds with the kernel and the envelope is posted.
+     *
+     * @param NAME     name of the variable
+     * @param ENVELOPE elements potentially in the set, not empty
+     * @param KERNEL   elements that must belong to the final set
+     * @param MIN_CARD minimum cardinality
+     * @param MAX_CARD maximum cardinality
+     * @param SOLVER   solver involving the variable
+     * @return a set variable with length-lex bounds
+     */
+    public static LengthLexSetVar set(String NAME, int[] ENVELOPE, int[] KERNEL, int MIN_CARD, int MAX_CARD, Solver SOLVER) {
+        LengthLexSetVar var = new LengthLexSetVarImpl(NAME, ENVELOPE, KERNEL, MIN_CARD, MAX_CARD, SOLVER);
+        SOLVER.post(new Constraint("SetLengthLex", new PropLengthLex(var)));
+        return var;
+    }
+
+    /**
+     * Builds a set variable with an initial domain given by
+     * ENVELOP = [MIN_ELEMENT,MAX_ELEMENT] and an empty KERNEL,
+     * whose cardinality is in [MIN_CARD, MAX_CARD].
+     * In addition to its kernel and envelope, the domain is bounded in the length-lex ordering,
+     * see {@link #set(String, int[], int[], int, int, Solver)}.
+     *
+     * @param NAME        name of the variable
+     * @param MIN_ELEMENT lower bound
+     * @param MAX_ELEMENT upper bound
+     * @param MIN_CARD    minimum cardinality
+     * @param MAX_CARD    maximum cardinality
+     * @param SOLVER      solver involving the variable
+     * @return a set variable with length-lex bounds
+     */
+    public static LengthLexSetVar set(String NAME, int MIN_ELEMENT, int MAX_ELEMENT, int MIN_CARD, int MAX_CARD, Solver SOLVER) {
+        return set(NAME, ArrayUtils.linspace(MIN_ELEMENT, MAX_ELEMENT + 1), new int[0], MIN_CARD, MAX_CARD, SOLVER);
+    }
+
+    //*************************************************************************************
+    // GRAPH VARIABLES
+    //*************************************************************************************
+
+    /**
+     * Builds an undirected graph variable with an initial domain given by KERNEL and ENVELOPE.
+     * Both graphs must be backtrackable, that is, created with SOLVER,
+     * e.g., <code>new UndirectedGraph(SOLVER, n, SetType.BITSET, false)</code>.
+     * The data structure of the graphs sets the memory footprint of the variable
+     * (e.g., SetType.LINKED_LIST for sparse envelopes).
+     * If the node set of ENVELOPE is full (not backtrackable), all nodes are mandatory.
+     *
+     * @param NAME     name of the variable
+     * @param KERNEL   mandatory nodes and edges
+     * @param ENVELOPE potential nodes and edges
+     * @param SOLVER   solver involving the variable
+     * @return an undirected graph variable
+     */
+    public static UndirectedGraphVar undirectedGraph(String NAME, UndirectedGraph KERNEL, UndirectedGraph ENVELOPE, Solver SOLVER) {
+        return new UndirectedGraphVarImpl(NAME, KERNEL, ENVELOPE, SOLVER);
+    }
+
+    /**
+     * Builds a directed graph variable with an initial domain given by KERNEL and ENVELOPE.
+     * Both graphs must be backtrackable, that is, created with SOLVER,
+     * e.g., <code>new DirectedGraph(SOLVER, n, SetType.BITSET, false)</code>.
+     * If the node set of ENVELOPE is full (not backtrackable), all nodes are mandatory.
+     *
+     * @param NAME     name of the variable
+     * @param KERNEL   mandatory nodes and arcs
+     * @param ENVELOPE potential nodes and arcs
+     * @param SOLVER   solver involving the variable
+     * @return a directed graph variable
+     */
+    public static DirectedGraphVar directedGraph(String NAME, DirectedGraph KERNEL, DirectedGraph ENVELOPE, Solver SOLVER) {
+        return new DirectedGraphVarImpl(NAME, KERNEL, ENVELOPE, SOLVER);
+    }
+
     //*************************************************************************************
     // TASKS
     //*************************************************************************************
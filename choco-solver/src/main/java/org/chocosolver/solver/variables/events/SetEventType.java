@@ -33,6 +33,7 @@ package org.chocosolver.solver.variables.events;
  * <ul>
  * <li><code>ADD_TO_KER</code>: value enforcing event,</li>
  * <li><code>REMOVE_FROM_ENVELOPE</code>: value removal event,</li>
+ * <li><code>LENGTH_LEX_BOUND</code>: length-lex bound modification event (see {@link org.chocosolver.solver.variables.LengthLexSetVar}),</li>
  * </ul>
  * <p/>
  *
@@ -42,7 +43,8 @@ public enum SetEventType implements IEventType {
 
 	VOID(0),
 	ADD_TO_KER(1),
-	REMOVE_FROM_ENVELOPE(2);
+	REMOVE_FROM_ENVELOPE(2),
+	LENGTH_LEX_BOUND(4);
 
 	private final int mask;
 	private final int strengthened_mask;
@@ -76,4 +78,8 @@ public enum SetEventType implements IEventType {
 	public static boolean isEnvRemoval(int mask) {
 		return (mask & REMOVE_FROM_ENVELOPE.mask) != 0;
 	}
+
+	public static boolean isLengthLexBound(int mask) {
+		return (mask & LENGTH_LEX_BOUND.mask) != 0;
+	}
 }
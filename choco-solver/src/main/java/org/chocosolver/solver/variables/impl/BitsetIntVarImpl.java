@@ -100,10 +100,10 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         OFFSET = offset;
         int cardinality = values.cardinality();
         this.VALUES = env.makeBitSet(cardinality);
-        for (int i = 0; i > -1; i = values.nextSetBit(i+1)) {
+        for (int i = values.nextSetBit(0); i > -1; i = values.nextSetBit(i + 1)) {
             this.VALUES.set(i);
         }
-        this.LB = env.makeInt(0);
+        this.LB = env.makeInt(VALUES.nextSetBit(0));
         this.UB = env.makeInt(VALUES.prevSetBit(VALUES.size()));
         this.SIZE = env.makeInt(cardinality);
         LENGTH = this.UB.get();
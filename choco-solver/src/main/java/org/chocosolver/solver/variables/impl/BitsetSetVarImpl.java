@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BitsetSetVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.delta.SetDelta;
+import org.chocosolver.solver.variables.events.SetEventType;
+import org.chocosolver.util.objects.setDataStructures.Set_Std_BitSet;
+import org.chocosolver.util.tools.StringUtils;
+
+/**
+ * Set variable whose envelope and kernel are bitsets aligned on multiples of 64,
+ * so that they can be read and filtered word by word.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class BitsetSetVarImpl extends SetVarImpl implements BitsetSetVar {
+
+    // typed references to envelope and kernel
+    private final Set_Std_BitSet envWords, kerWords;
+    // index of the word storing offset
+    private final int firstWord;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates a Set variable
+     *
+     * @param name   name of the variable
+     * @param env    initial envelope domain, not empty
+     * @param ker    initial kernel domain
+     * @param solver solver of the variable.
+     */
+    public BitsetSetVarImpl(String name, int[] env, int[] ker, Solver solver) {
+        this(name, min(env), max(env), solver);
+        check(env, ker, max, min);
+        envWords.clear();
+        for (int i : env) {
+            envWords.add(i - offset);
+        }
+        for (int i : ker) {
+            kerWords.add(i - offset);
+        }
+    }
+
+    /**
+     * Creates a Set variable
+     *
+     * @param name   name of the variable
+     * @param min    first envelope value
+     * @param max    last envelope value
+     * @param solver solver of the variable.
+     */
+    public BitsetSetVarImpl(String name, int min, int max, Solver solver) {
+        super(name,
+                new Set_Std_BitSet(solver.getEnvironment(), max - Math.floorDiv(min, 64) * 64 + 1),
+                new Set_Std_BitSet(solver.getEnvironment(), max - Math.floorDiv(min, 64) * 64 + 1),
+                min, max, Math.floorDiv(min, 64) * 64, solver);
+        this.envWords = (Set_Std_BitSet) envelope;
+        this.kerWords = (Set_Std_BitSet) kernel;
+        this.firstWord = Math.floorDiv(min, 64);
+        for (int i = min; i <= max; i++) {
+            envWords.add(i - offset);
+        }
+    }
+
+    private static int min(int[] values) {
+        int min = Integer.MAX_VALUE;
+        for (int i : values) {
+            if (i == Integer.MIN_VALUE || i == Integer.MAX_VALUE) {
+                throw new UnsupportedOperationException("too large (infinite) integers within the set variable. " +
+                        "Integer.MIN_VALUE and i==Integer.MAX_VALUE are not handled.");
+            }
+            min = Math.min(min, i);
+        }
+        return min;
+    }
+
+    private static int max(int[] values) {
+        int max = Integer.MIN_VALUE;
+        for (int i : values) {
+            max = Math.max(max, i);
+        }
+        return max;
+    }
+
+    //***********************************************************************************
+    // WORD METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getFirstWord() {
+        return firstWord;
+    }
+
+    @Override
+    public int getLastWord() {
+        return Math.floorDiv(max, 64);
+    }
+
+    @Override
+    public long getKernelWord(int wordIndex) {
+        return wordIndex < firstWord ? 0L : kerWords.getWord(wordIndex - firstWord);
+    }
+
+    @Override
+    public long getEnvelopeWord(int wordIndex) {
+        return wordIndex < firstWord ? 0L : envWords.getWord(wordIndex - firstWord);
+    }
+
+    @Override
+    public boolean addWordToKernel(int wordIndex, long mask, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (mask == 0) {
+            return false;
+        }
+        if ((mask & ~getEnvelopeWord(wordIndex)) != 0) {
+            contradiction(cause, null, "");
+            return true;
+        }
+        long old = getKernelWord(wordIndex);
+        long added = mask & ~old;
+        if (added == 0) {
+            return false;
+        }
+        kerWords.setWord(wordIndex - firstWord, old | added);
+        if (reactOnModification) {
+            for (long w = added; w != 0; w &= w - 1) {
+                delta.add(wordIndex * 64 + Long.numberOfTrailingZeros(w), SetDelta.KERNEL, cause);
+            }
+        }
+        notifyPropagators(SetEventType.ADD_TO_KER, cause);
+        return true;
+    }
+
+    @Override
+    public boolean removeWordFromEnvelope(int wordIndex, long mask, ICause cause) throws ContradictionException {
+        assert cause != null;
+        long old = getEnvelopeWord(wordIndex);
+        long removed = mask & old;
+        if (removed == 0) {
+            return false;
+        }
+        if ((removed & getKernelWord(wordIndex)) != 0) {
+            contradiction(cause, SetEventType.REMOVE_FROM_ENVELOPE, "");
+            return true;
+        }
+        envWords.setWord(wordIndex - firstWord, old & ~removed);
+        if (reactOnModification) {
+            for (long w = removed; w != 0; w &= w - 1) {
+                delta.add(wordIndex * 64 + Long.numberOfTrailingZeros(w), SetDelta.ENVELOP, cause);
+            }
+        }
+        notifyPropagators(SetEventType.REMOVE_FROM_ENVELOPE, cause);
+        return true;
+    }
+
+    //***********************************************************************************
+    // VARIABLE STUFF
+    //***********************************************************************************
+
+    /**
+     * @return the elements of the envelope, in increasing order
+     */
+    protected int[] envelopeValues() {
+        int[] env = new int[getEnvelopeSize()];
+        int idx = 0;
+        for (int i = getEnvelopeFirst(); i != END; i = getEnvelopeNext()) {
+            env[idx++] = i;
+        }
+        return env;
+    }
+
+    @Override
+    public SetVar duplicate() {
+        return new BitsetSetVarImpl(StringUtils.randomName(this.name), envelopeValues(), getValues(), solver);
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            BitsetSetVarImpl clone = new BitsetSetVarImpl(this.name, envelopeValues(), getValues(), solver);
+            identitymap.put(this, clone);
+            for (int i = mIdx - 1; i >= 0; i--) {
+                monitors[i].duplicate(solver, identitymap);
+            }
+        }
+    }
+}
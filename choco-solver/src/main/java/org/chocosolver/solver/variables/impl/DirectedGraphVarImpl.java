@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.DirectedGraphVar;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+
+/**
+ * Directed graph variable
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class DirectedGraphVarImpl extends GraphVarImpl<DirectedGraph> implements DirectedGraphVar {
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates a directed graph variable
+     *
+     * @param name     name of the variable
+     * @param kernel   backtrackable graph of mandatory nodes and arcs
+     * @param envelope backtrackable graph of potential nodes and arcs
+     * @param solver   solver of the variable
+     */
+    public DirectedGraphVarImpl(String name, DirectedGraph kernel, DirectedGraph envelope, Solver solver) {
+        super(name, kernel, envelope, solver);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    protected boolean addArc(DirectedGraph g, int x, int y) {
+        return g.addArc(x, y);
+    }
+
+    @Override
+    protected boolean removeArc(DirectedGraph g, int x, int y) {
+        return g.removeArc(x, y);
+    }
+
+    @Override
+    protected DirectedGraph makeGraph(DirectedGraph g, Solver solver) {
+        return new DirectedGraph(solver, n, g.getType(), false);
+    }
+
+    @Override
+    protected DirectedGraphVarImpl make(String name, DirectedGraph kernel, DirectedGraph envelope, Solver solver) {
+        return new DirectedGraphVarImpl(name, kernel, envelope, solver);
+    }
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.GraphVar;
+import org.chocosolver.solver.variables.delta.IDelta;
+import org.chocosolver.solver.variables.delta.NoDelta;
+import org.chocosolver.solver.variables.events.GraphEventType;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.util.objects.graphs.IGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.Set_Full;
+import org.chocosolver.util.tools.StringUtils;
+
+/**
+ * Graph variable, whose domain is represented by two backtrackable graphs:
+ * the kernel (mandatory nodes and arcs) and the envelope (potential nodes and arcs).
+ * The memory footprint is the one of the adjacency structures of these graphs, chosen at their creation,
+ * instead of a boolean variable per potential arc.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public abstract class GraphVarImpl<E extends IGraph> extends AbstractVariable implements GraphVar<E> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    protected final E kernel, envelope;
+    protected final int n;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates a graph variable.
+     * Extremities of arcs are added to the node sets if missing.
+     * If the node set of the envelope is full (not backtrackable), all nodes are mandatory.
+     *
+     * @param name     name of the variable
+     * @param kernel   backtrackable graph of mandatory nodes and arcs
+     * @param envelope backtrackable graph of potential nodes and arcs
+     * @param solver   solver of the variable
+     */
+    protected GraphVarImpl(String name, E kernel, E envelope, Solver solver) {
+        super(name, solver);
+        this.kernel = kernel;
+        this.envelope = envelope;
+        this.n = envelope.getNbMaxNodes();
+        if (kernel.getNbMaxNodes() != n) {
+            throw new UnsupportedOperationException("Invalid kernel/envelope definition. They must have the same number of nodes.");
+        }
+        for (int x = 0; x < n; x++) {
+            if (envelope.getSuccOrNeighOf(x).getSize() > 0 || envelope.getPredOrNeighOf(x).getSize() > 0) {
+                envelope.addNode(x);
+            }
+            if (kernel.getSuccOrNeighOf(x).getSize() > 0 || kernel.getPredOrNeighOf(x).getSize() > 0) {
+                kernel.addNode(x);
+            }
+        }
+        if (envelope.getNodes() instanceof Set_Full) {
+            for (int x = 0; x < n; x++) {
+                kernel.addNode(x);
+            }
+        }
+        for (int x = 0; x < n; x++) {
+            if (kernel.getNodes().contain(x)) {
+                if (!envelope.getNodes().contain(x)) {
+                    throw new UnsupportedOperationException("Invalid kernel/envelope definition. "
+                            + "Node " + x + " is in the kernel but not in the envelope.");
+                }
+                ISet succ = kernel.getSuccOrNeighOf(x);
+                ISetIterator succIt = succ.newIterator();
+                while (succIt.hasNext()) {
+                    int y = succIt.nextInt();
+                    if (!envelope.isArcOrEdge(x, y)) {
+                        throw new UnsupportedOperationException("Invalid kernel/envelope definition. "
+                                + "(" + x + "," + y + ") is in the kernel but not in the envelope.");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds arc (x,y) to graph g
+     */
+    protected abstract boolean addArc(E g, int x, int y);
+
+    /**
+     * Removes arc (x,y) from graph g
+     */
+    protected abstract boolean removeArc(E g, int x, int y);
+
+    /**
+     * Creates an empty backtrackable graph, of the same kind and data structure as g, in solver
+     */
+    protected abstract E makeGraph(E g, Solver solver);
+
+    /**
+     * Creates a graph variable over the given kernel and envelope graphs
+     */
+    protected abstract GraphVarImpl<E> make(String name, E kernel, E envelope, Solver solver);
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public E getKernelGraph() {
+        return kernel;
+    }
+
+    @Override
+    public E getEnvelopeGraph() {
+        return envelope;
+    }
+
+    @Override
+    public int getNbMaxNodes() {
+        return n;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return envelope.isDirected();
+    }
+
+    @Override
+    public boolean isInstantiated() {
+        if (kernel.getNodes().getSize() != envelope.getNodes().getSize()) {
+            return false;
+        }
+        ISet nodes = envelope.getNodes();
+        ISetIterator nodesIt = nodes.newIterator();
+        while (nodesIt.hasNext()) {
+            int x = nodesIt.nextInt();
+            if (kernel.getSuccOrNeighOf(x).getSize() != envelope.getSuccOrNeighOf(x).getSize()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean enforceNode(int x, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (x < 0 || x >= n || !envelope.getNodes().contain(x)) {
+            contradiction(cause, GraphEventType.ADD_NODE, "node not in the envelope");
+            return true;
+        }
+        if (kernel.addNode(x)) {
+            notifyPropagators(GraphEventType.ADD_NODE, cause);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeNode(int x, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (x < 0 || x >= n || !envelope.getNodes().contain(x)) {
+            return false;
+        }
+        if (kernel.getNodes().contain(x)) {
+            contradiction(cause, GraphEventType.REMOVE_NODE, "mandatory node");
+            return true;
+        }
+        boolean arcs = envelope.getSuccOrNeighOf(x).getSize() > 0 || envelope.getPredOrNeighOf(x).getSize() > 0;
+        envelope.removeNode(x);
+        if (arcs) {
+            notifyPropagators(GraphEventType.REMOVE_ARC, cause);
+        }
+        notifyPropagators(GraphEventType.REMOVE_NODE, cause);
+        return true;
+    }
+
+    @Override
+    public boolean enforceArc(int x, int y, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (x < 0 || x >= n || y < 0 || y >= n || !envelope.isArcOrEdge(x, y)) {
+            contradiction(cause, GraphEventType.ADD_ARC, "arc not in the envelope");
+            return true;
+        }
+        if (kernel.isArcOrEdge(x, y)) {
+            return false;
+        }
+        enforceNode(x, cause);
+        enforceNode(y, cause);
+        addArc(kernel, x, y);
+        notifyPropagators(GraphEventType.ADD_ARC, cause);
+        return true;
+    }
+
+    @Override
+    public boolean removeArc(int x, int y, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (x < 0 || x >= n || y < 0 || y >= n) {
+            return false;
+        }
+        if (kernel.isArcOrEdge(x, y)) {
+            contradiction(cause, GraphEventType.REMOVE_ARC, "mandatory arc");
+            return true;
+        }
+        if (removeArc(envelope, x, y)) {
+            notifyPropagators(GraphEventType.REMOVE_ARC, cause);
+            return true;
+        }
+        return false;
+    }
+
+    //***********************************************************************************
+    // VARIABLE STUFF
+    //***********************************************************************************
+
+    @Override
+    public IDelta getDelta() {
+        return NoDelta.singleton;
+    }
+
+    @Override
+    public void createDelta() {
+    }
+
+    @Override
+    public int getTypeAndKind() {
+        return VAR | GRAPH;
+    }
+
+    private E copy(E g, Solver solver) {
+        E c = makeGraph(g, solver);
+        ISet nodes = g.getNodes();
+        ISetIterator nodesIt = nodes.newIterator();
+        while (nodesIt.hasNext()) {
+            int x = nodesIt.nextInt();
+            c.addNode(x);
+        }
+        for (int x = 0; x < n; x++) {
+            ISet succ = g.getSuccOrNeighOf(x);
+            ISetIterator succIt = succ.newIterator();
+            while (succIt.hasNext()) {
+                int y = succIt.nextInt();
+                addArc(c, x, y);
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public GraphVar<E> duplicate() {
+        return make(StringUtils.randomName(this.name), copy(kernel, solver), copy(envelope, solver), solver);
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            GraphVarImpl<E> clone = make(this.name, copy(kernel, solver), copy(envelope, solver), solver);
+            identitymap.put(this, clone);
+            for (int i = mIdx - 1; i >= 0; i--) {
+                monitors[i].duplicate(solver, identitymap);
+            }
+        }
+    }
+
+    @Override
+    public void notifyMonitors(IEventType event) throws ContradictionException {
+        for (int i = mIdx - 1; i >= 0; i--) {
+            monitors[i].onUpdate(this, event);
+        }
+    }
+
+    @Override
+    public void contradiction(ICause cause, IEventType event, String message) throws ContradictionException {
+        assert cause != null;
+        solver.getEngine().fails(cause, this, message);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getName()).append(" Envelope : {");
+        appendArcs(sb, envelope);
+        sb.append("} Kernel : {");
+        appendArcs(sb, kernel);
+        sb.append("}");
+        return sb.toString();
+    }
+
+    private void appendArcs(StringBuilder sb, E g) {
+        ISet nodes = g.getNodes();
+        boolean first = true;
+        ISetIterator nodesIt = nodes.newIterator();
+        while (nodesIt.hasNext()) {
+            int x = nodesIt.nextInt();
+            if (!first) {
+                sb.append(",");
+            }
+            first = false;
+            sb.append(x).append(":[");
+            ISet succ = g.getSuccOrNeighOf(x);
+            ISetIterator succIt = succ.newIterator();
+            while (succIt.hasNext()) {
+                int y = succIt.nextInt();
+                sb.append(y).append(" ");
+            }
+            sb.append("]");
+        }
+    }
+}
@@ -0,0 +1,510 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.LengthLexSetVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.events.SetEventType;
+import org.chocosolver.util.tools.StringUtils;
+
+import java.util.Arrays;
+
+/**
+ * Set variable with a kernel, an envelope and length-lex bounds.
+ * <br/>
+ * The bounds are stored as indices in the initial envelope (the universe).
+ * Finding the smallest set greater than a given one, consistent with the kernel, the envelope and a cardinality range,
+ * takes O(n) for a universe of n elements: the set keeps the longest possible prefix of the given one,
+ * then increases the next element as little as possible and is completed with the smallest possible elements.
+ * Largest sets smaller than a given one are computed symmetrically.
+ * <br/>
+ * Bound values given as parameters are mapped to doubled positions in the universe:
+ * <code>2i</code> for the i-th element of the universe, <code>2i-1</code> for values between the (i-1)-th and i-th ones.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class LengthLexSetVarImpl extends BitsetSetVarImpl implements LengthLexSetVar {
+
+    // elements of the initial envelope, in increasing order
+    private final int[] universe;
+    // bounds, as indices in universe
+    private final IStateInt[] lb, ub;
+    private final IStateInt lbSize, ubSize;
+    // snapshot of the kernel and the envelope, refreshed by scan()
+    private final boolean[] inK, inE;
+    // number of kernel (resp. envelope) elements with an index greater or equal to i
+    private final int[] kAbove, eAbove;
+    // smallest kernel (resp. envelope) index greater or equal to i, n if none
+    private final int[] nextK, nextE;
+    // greatest envelope index lower or equal to i, -1 if none
+    private final int[] prevE;
+    // envelope indices, in increasing order
+    private final int[] eList;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates a Set variable
+     *
+     * @param name    name of the variable
+     * @param env     initial envelope domain, not empty
+     * @param ker     initial kernel domain
+     * @param minCard minimum cardinality
+     * @param maxCard maximum cardinality
+     * @param solver  solver of the variable.
+     */
+    public LengthLexSetVarImpl(String name, int[] env, int[] ker, int minCard, int maxCard, Solver solver) {
+        super(name, env, ker, solver);
+        universe = env.clone();
+        Arrays.sort(universe);
+        int n = universe.length;
+        inK = new boolean[n];
+        inE = new boolean[n];
+        kAbove = new int[n + 1];
+        eAbove = new int[n + 1];
+        nextK = new int[n + 1];
+        nextE = new int[n + 1];
+        prevE = new int[n];
+        eList = new int[n];
+        scan();
+        int[] first = succ(null, false, minCard, maxCard);
+        int[] last = pred(null, false, minCard, maxCard);
+        if (first == null) {
+            throw new UnsupportedOperationException("Invalid set definition. No set of cardinality in ["
+                    + minCard + "," + maxCard + "] fits the envelope and the kernel.");
+        }
+        IEnvironment environment = solver.getEnvironment();
+        lb = new IStateInt[n];
+        ub = new IStateInt[n];
+        for (int i = 0; i < n; i++) {
+            lb[i] = environment.makeInt(i < first.length ? first[i] : 0);
+            ub[i] = environment.makeInt(i < last.length ? last[i] : 0);
+        }
+        lbSize = environment.makeInt(first.length);
+        ubSize = environment.makeInt(last.length);
+    }
+
+    //***********************************************************************************
+    // LENGTH-LEX METHODS
+    //***********************************************************************************
+
+    @Override
+    public int[] getLengthLexLB() {
+        return values(lb, lbSize.get());
+    }
+
+    @Override
+    public int[] getLengthLexUB() {
+        return values(ub, ubSize.get());
+    }
+
+    @Override
+    public int getMinCard() {
+        return lbSize.get();
+    }
+
+    @Override
+    public int getMaxCard() {
+        return ubSize.get();
+    }
+
+    @Override
+    public boolean updateLengthLexLB(int[] bound, boolean strict, ICause cause) throws ContradictionException {
+        assert cause != null;
+        scan();
+        int[] from = positions(bound);
+        int[] current = positions(lb, lbSize.get());
+        int cmp = LengthLexSetVar.compare(from, current);
+        if (cmp < 0 || (cmp == 0 && !strict)) {
+            from = current;
+            strict = false;
+        }
+        return setLB(succ(from, strict, 0, ubSize.get()), cause);
+    }
+
+    @Override
+    public boolean updateLengthLexUB(int[] bound, boolean strict, ICause cause) throws ContradictionException {
+        assert cause != null;
+        scan();
+        int[] from = positions(bound);
+        int[] current = positions(ub, ubSize.get());
+        int cmp = LengthLexSetVar.compare(from, current);
+        if (cmp > 0 || (cmp == 0 && !strict)) {
+            from = current;
+            strict = false;
+        }
+        return setUB(pred(from, strict, lbSize.get(), Integer.MAX_VALUE), cause);
+    }
+
+    @Override
+    public boolean updateCardinality(int min, int max, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (min <= lbSize.get() && max >= ubSize.get()) {
+            return false;
+        }
+        scan();
+        int[] first = succ(positions(lb, lbSize.get()), false, min, Math.min(max, ubSize.get()));
+        boolean change = setLB(first, cause);
+        int[] last = pred(positions(ub, ubSize.get()), false, lbSize.get(), max);
+        return setUB(last, cause) | change;
+    }
+
+    private boolean setLB(int[] first, ICause cause) throws ContradictionException {
+        if (first == null || compare(first, ub, ubSize.get()) > 0) {
+            contradiction(cause, SetEventType.LENGTH_LEX_BOUND, "");
+            return true;
+        }
+        if (compare(first, lb, lbSize.get()) == 0) {
+            return false;
+        }
+        store(first, lb, lbSize);
+        notifyPropagators(SetEventType.LENGTH_LEX_BOUND, cause);
+        return true;
+    }
+
+    private boolean setUB(int[] last, ICause cause) throws ContradictionException {
+        if (last == null || compare(last, lb, lbSize.get()) < 0) {
+            contradiction(cause, SetEventType.LENGTH_LEX_BOUND, "");
+            return true;
+        }
+        if (compare(last, ub, ubSize.get()) == 0) {
+            return false;
+        }
+        store(last, ub, ubSize);
+        notifyPropagators(SetEventType.LENGTH_LEX_BOUND, cause);
+        return true;
+    }
+
+    //***********************************************************************************
+    // LENGTH-LEX ALGORITHMS
+    //***********************************************************************************
+
+    /**
+     * Takes a snapshot of the kernel and the envelope
+     */
+    private void scan() {
+        int n = universe.length;
+        kAbove[n] = eAbove[n] = 0;
+        nextK[n] = nextE[n] = n;
+        for (int i = n - 1; i >= 0; i--) {
+            inK[i] = kernelContains(universe[i]);
+            inE[i] = envelopeContains(universe[i]);
+            kAbove[i] = kAbove[i + 1] + (inK[i] ? 1 : 0);
+            eAbove[i] = eAbove[i + 1] + (inE[i] ? 1 : 0);
+            nextK[i] = inK[i] ? i : nextK[i + 1];
+            nextE[i] = inE[i] ? i : nextE[i + 1];
+        }
+        for (int i = 0, p = -1, e = 0; i < n; i++) {
+            if (inE[i]) {
+                p = i;
+                eList[e++] = i;
+            }
+            prevE[i] = p;
+        }
+    }
+
+    /**
+     * Smallest set greater than (or equal to, when not strict) <code>from</code> whose cardinality is in [cmin, cmax].
+     *
+     * @param from   doubled positions of a set, null stands for the smallest set of cardinality cmin
+     * @param strict set to true to exclude <code>from</code>
+     * @param cmin   minimum cardinality
+     * @param cmax   maximum cardinality
+     * @return the indices of the set, null if there is none
+     */
+    private int[] succ(int[] from, boolean strict, int cmin, int cmax) {
+        int c0 = from == null ? -1 : from.length;
+        for (int c = Math.max(c0, cmin); c <= Math.min(cmax, eAbove[0]); c++) {
+            if (c == c0) {
+                int[] s = lexSucc(from, strict);
+                if (s != null) {
+                    return s;
+                }
+            } else if (c >= kAbove[0]) {
+                return complete(new int[c], 0, -1, c, true);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Largest set smaller than (or equal to, when not strict) <code>from</code> whose cardinality is in [cmin, cmax].
+     *
+     * @param from   doubled positions of a set, null stands for the largest set of cardinality cmax
+     * @param strict set to true to exclude <code>from</code>
+     * @param cmin   minimum cardinality
+     * @param cmax   maximum cardinality
+     * @return the indices of the set, null if there is none
+     */
+    private int[] pred(int[] from, boolean strict, int cmin, int cmax) {
+        int c0 = from == null ? Integer.MAX_VALUE : from.length;
+        for (int c = Math.min(c0, Math.min(cmax, eAbove[0])); c >= Math.max(cmin, kAbove[0]); c--) {
+            if (c == c0) {
+                int[] s = lexPred(from, strict);
+                if (s != null) {
+                    return s;
+                }
+            } else {
+                return complete(new int[c], 0, -1, c, false);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the length of the longest prefix of <code>from</code> which can be extended to a valid set
+     */
+    private int validPrefix(int[] from) {
+        int p = 0, k = 0;
+        while (p < from.length) {
+            int x = from[p];
+            if ((x & 1) != 0 || !inE[x >> 1]) {
+                break;
+            }
+            int i = x >> 1;
+            if (inK[i]) {
+                k++;
+            }
+            // no kernel element can be skipped
+            if (k != kAbove[0] - kAbove[i + 1]) {
+                break;
+            }
+            p++;
+        }
+        return p;
+    }
+
+    private boolean isValid(int[] from, int p) {
+        return p == from.length && (p == 0 ? kAbove[0] == 0 : kAbove[(from[p - 1] >> 1) + 1] == 0);
+    }
+
+    private int[] lexSucc(int[] from, boolean strict) {
+        int c = from.length;
+        int p = validPrefix(from);
+        if (!strict && isValid(from, p)) {
+            return indices(from);
+        }
+        for (int i = Math.min(p, c - 1); i >= 0; i--) {
+            int prev = i > 0 ? from[i - 1] >> 1 : -1;
+            int x = from[i];
+            // first index whose value is greater than the one of x
+            int lo = (x & 1) == 0 ? (x >> 1) + 1 : (x + 1) >> 1;
+            int r = c - i - 1;
+            int kRest = kAbove[prev + 1];
+            int kmin = nextK[prev + 1];
+            int s;
+            if (kRest == r + 1) {
+                // the i-th element has to be the next kernel element
+                if (kmin < lo) continue;
+                s = kmin;
+            } else if (kRest > r + 1) {
+                continue;
+            } else {
+                s = nextE[Math.min(lo, universe.length)];
+                if (s >= universe.length || s > kmin) continue;
+            }
+            if (eAbove[s + 1] < r) continue;
+            int[] set = new int[c];
+            for (int j = 0; j < i; j++) {
+                set[j] = from[j] >> 1;
+            }
+            set[i] = s;
+            return complete(set, i + 1, s, r, true);
+        }
+        return null;
+    }
+
+    private int[] lexPred(int[] from, boolean strict) {
+        int c = from.length;
+        int p = validPrefix(from);
+        if (!strict && isValid(from, p)) {
+            return indices(from);
+        }
+        for (int i = Math.min(p, c - 1); i >= 0; i--) {
+            int prev = i > 0 ? from[i - 1] >> 1 : -1;
+            int x = from[i];
+            // last index whose value is lower than the one of x
+            int hi = Math.min((x & 1) == 0 ? (x >> 1) - 1 : (x - 1) >> 1, universe.length - 1);
+            int r = c - i - 1;
+            if (hi <= prev) continue;
+            int kRest = kAbove[prev + 1];
+            int kmin = nextK[prev + 1];
+            int s;
+            if (kRest == r + 1) {
+                // the i-th element has to be the next kernel element
+                if (kmin > hi) continue;
+                s = kmin;
+            } else if (kRest > r + 1 || eAbove[0] < r) {
+                continue;
+            } else {
+                // at least r envelope elements must remain above s
+                int b = r == 0 ? universe.length - 1 : eList[eAbove[0] - r] - 1;
+                b = Math.min(b, Math.min(hi, kmin));
+                if (b <= prev) continue;
+                s = prevE[b];
+                if (s <= prev) continue;
+            }
+            int[] set = new int[c];
+            for (int j = 0; j < i; j++) {
+                set[j] = from[j] >> 1;
+            }
+            set[i] = s;
+            return complete(set, i + 1, s, r, false);
+        }
+        return null;
+    }
+
+    /**
+     * Completes <code>set</code> from position <code>pos</code> with the smallest (resp. largest) <code>r</code> elements
+     * greater than index <code>s</code>, including the kernel ones.
+     */
+    private int[] complete(int[] set, int pos, int s, int r, boolean smallest) {
+        int quota = r - kAbove[s + 1];
+        assert quota >= 0 && r <= eAbove[s + 1];
+        int n = universe.length;
+        int threshold;
+        if (smallest) {
+            threshold = -1;
+        } else {
+            // only the quota largest optional elements are taken
+            threshold = n;
+            for (int i = n - 1, q = quota; i > s && q > 0; i--) {
+                if (inE[i] && !inK[i]) {
+                    threshold = i;
+                    q--;
+                }
+            }
+        }
+        for (int i = s + 1; i < n && pos < set.length; i++) {
+            if (inK[i]) {
+                set[pos++] = i;
+            } else if (inE[i] && (smallest ? quota > 0 : i >= threshold)) {
+                set[pos++] = i;
+                quota--;
+            }
+        }
+        return set;
+    }
+
+    //***********************************************************************************
+    // CONVERSIONS
+    //***********************************************************************************
+
+    private int[] positions(int[] values) {
+        int[] pos = new int[values.length];
+        for (int j = 0; j < values.length; j++) {
+            int i = Arrays.binarySearch(universe, values[j]);
+            pos[j] = i >= 0 ? 2 * i : 2 * (-i - 1) - 1;
+        }
+        return pos;
+    }
+
+    private static int[] positions(IStateInt[] bound, int size) {
+        int[] pos = new int[size];
+        for (int j = 0; j < size; j++) {
+            pos[j] = 2 * bound[j].get();
+        }
+        return pos;
+    }
+
+    private static int[] indices(int[] positions) {
+        int[] idx = new int[positions.length];
+        for (int j = 0; j < positions.length; j++) {
+            idx[j] = positions[j] >> 1;
+        }
+        return idx;
+    }
+
+    private int[] values(IStateInt[] bound, int size) {
+        int[] values = new int[size];
+        for (int j = 0; j < size; j++) {
+            values[j] = universe[bound[j].get()];
+        }
+        return values;
+    }
+
+    private static int compare(int[] set, IStateInt[] bound, int size) {
+        if (set.length != size) {
+            return set.length < size ? -1 : 1;
+        }
+        for (int j = 0; j < size; j++) {
+            int b = bound[j].get();
+            if (set[j] != b) {
+                return set[j] < b ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void store(int[] set, IStateInt[] bound, IStateInt size) {
+        for (int j = 0; j < set.length; j++) {
+            if (j >= size.get() || bound[j].get() != set[j]) {
+                bound[j].set(set[j]);
+            }
+        }
+        size.set(set.length);
+    }
+
+    //***********************************************************************************
+    // VARIABLE STUFF
+    //***********************************************************************************
+
+    @Override
+    public SetVar duplicate() {
+        return new LengthLexSetVarImpl(StringUtils.randomName(this.name), envelopeValues(), getValues(),
+                getMinCard(), getMaxCard(), solver);
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            LengthLexSetVarImpl clone = new LengthLexSetVarImpl(this.name, envelopeValues(), getValues(),
+                    getMinCard(), getMaxCard(), solver);
+            identitymap.put(this, clone);
+            for (int i = mIdx - 1; i >= 0; i--) {
+                monitors[i].duplicate(solver, identitymap);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + " LengthLex : [" + Arrays.toString(getLengthLexLB()) + ","
+                + Arrays.toString(getLengthLexUB()) + "]";
+    }
+}
@@ -60,6 +60,8 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
     protected ISet envelope, kernel;
     protected SetDelta delta;
     protected int min, max;
+    // value of the first element of the data structures
+    protected int offset;
     ///////////// Attributes related to Variable ////////////
     protected boolean reactOnModification;
 
@@ -100,6 +102,7 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
 		}
 		this.min = min;
 		this.max = max;
+		this.offset = min;
 	}
 
 	/**
@@ -119,9 +122,30 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
 		}
 		this.min = min;
 		this.max = max;
+		this.offset = min;
 	}
 
-	private static void check(int[] env, int[] ker, int max, int min) {
+	/**
+	 * Creates a Set variable over given data structures, storing element i at index i-offset
+	 *
+	 * @param name		name of the variable
+	 * @param envelope	initial envelope domain
+	 * @param kernel	initial kernel domain
+	 * @param min		smallest element of the envelope
+	 * @param max		largest element of the envelope
+	 * @param offset	value stored at index 0 of envelope and kernel
+	 * @param solver	solver of the variable.
+	 */
+	protected SetVarImpl(String name, ISet envelope, ISet kernel, int min, int max, int offset, Solver solver) {
+		super(name, solver);
+		this.envelope = envelope;
+		this.kernel = kernel;
+		this.min = min;
+		this.max = max;
+		this.offset = offset;
+	}
+
+	protected static void check(int[] env, int[] ker, int max, int min) {
 		BitSet b = new BitSet(max-min);
 		for(int i:env){
 			if(b.get(i-min)){
@@ -148,14 +172,14 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
     @Override
     public boolean addToKernel(int element, ICause cause) throws ContradictionException {
         assert cause != null;
-        if (element < min || element > max || !envelope.contain(element - min)) {
+        if (element < min || element > max || !envelope.contain(element - offset)) {
             contradiction(cause, null, "");
             return true;
         }
-        if (kernel.contain(element - min)) {
+        if (kernel.contain(element - offset)) {
             return false;
         }
-        kernel.add(element - min);
+        kernel.add(element - offset);
         if (reactOnModification) {
             delta.add(element, SetDelta.KERNEL, cause);
         }
@@ -168,11 +192,11 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
     public boolean removeFromEnvelope(int element, ICause cause) throws ContradictionException {
         assert cause != null;
         if (element < min || element > max) return false;
-        if (kernel.contain(element - min)) {
+        if (kernel.contain(element - offset)) {
             contradiction(cause, SetEventType.REMOVE_FROM_ENVELOPE, "");
             return true;
         }
-        if (!envelope.remove(element - min)) {
+        if (!envelope.remove(element - offset)) {
             return false;
         }
         if (reactOnModification) {
@@ -207,7 +231,7 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
         int[] lb = new int[kernel.getSize()];
         int k = 0;
         for (int i = kernel.getFirstElement(); i >= 0; i = kernel.getNextElement()) {
-            lb[k++] = i + min;
+            lb[k++] = i + offset;
         }
         return lb;
     }
@@ -219,13 +243,13 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
     @Override
     public int getKernelFirst() {
         int i = kernel.getFirstElement();
-        return (i == -1) ? END : i + min;
+        return (i == -1) ? END : i + offset;
     }
 
     @Override
     public int getKernelNext() {
         int i = kernel.getNextElement();
-        return (i == -1) ? END : i + min;
+        return (i == -1) ? END : i + offset;
     }
 
     @Override
@@ -235,19 +259,19 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
 
     @Override
     public boolean kernelContains(int i) {
-        return !(i < min || i > max) && kernel.contain(i - min);
+        return !(i < min || i > max) && kernel.contain(i - offset);
     }
 
     @Override
     public int getEnvelopeFirst() {
         int i = envelope.getFirstElement();
-        return (i == -1) ? END : i + min;
+        return (i == -1) ? END : i + offset;
     }
 
     @Override
     public int getEnvelopeNext() {
         int i = envelope.getNextElement();
-        return (i == -1) ? END : i + min;
+        return (i == -1) ? END : i + offset;
     }
 
     @Override
@@ -257,7 +281,7 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
 
     @Override
     public boolean envelopeContains(int i) {
-        return !(i < min || i > max) && envelope.contain(i - min);
+        return !(i < min || i > max) && envelope.contain(i - offset);
     }
 
     //***********************************************************************************
@@ -317,7 +341,7 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
         sb.append(" Envelope : {");
         int s = envelope.getSize();
         for (int i = envelope.getFirstElement(); i >= 0; i = envelope.getNextElement()) {
-            sb.append(i + min);
+            sb.append(i + offset);
             s--;
             if (s > 0) {
                 sb.append(",");
@@ -326,7 +350,7 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
         sb.append("} Kernel : {");
         s = kernel.getSize();
         for (int i = kernel.getFirstElement(); i >= 0; i = kernel.getNextElement()) {
-            sb.append(i + min);
+            sb.append(i + offset);
             s--;
             if (s > 0) {
                 sb.append(",");
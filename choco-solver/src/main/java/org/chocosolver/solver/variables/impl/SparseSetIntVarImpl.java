@@ -0,0 +1,731 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.EnumDelta;
+import org.chocosolver.solver.variables.delta.IEnumDelta;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.NoDelta;
+import org.chocosolver.solver.variables.delta.monitor.EnumDeltaMonitor;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.tools.StringUtils;
+
+import java.util.Arrays;
+
+/**
+ * <br/>IntVar implementation for domains made of few values spread over a large range, e.g. timestamps.
+ * <br/>
+ * The domain is a reversible sparse set over the indexes of the sorted initial values:
+ * the indexes in <code>dense[0..SIZE-1]</code> are in the domain, the others have been removed.
+ * Removing a value swaps its index with the last one of the prefix, so that restoring the domain
+ * on backtrack only requires to restore <code>SIZE</code>.
+ * The memory footprint depends on the number of values, not on the range.
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public final class SparseSetIntVarImpl extends AbstractVariable implements IntVar {
+
+    private static final long serialVersionUID = 1L;
+
+    protected boolean reactOnRemoval = false;
+
+    //  values, sorted
+    private final int[] values;
+    // indexes of the values, the first SIZE ones are in the domain
+    private final int[] dense;
+    // position of each index in dense
+    private final int[] positions;
+    // Lower bound of the current domain
+    private final IStateInt LB;
+    // Upper bound of the current domain
+    private final IStateInt UB;
+    // Size of the current domain
+    private final IStateInt SIZE;
+    // number of initial values
+    private final int LENGTH;
+
+    private IEnumDelta delta = NoDelta.singleton;
+
+    private DisposableValueIterator _viterator;
+    private DisposableRangeIterator _riterator;
+
+    //////////////////////////////////////////////////////////////////////////////////////
+
+    public SparseSetIntVarImpl(String name, int[] sortedValues, Solver solver) {
+        super(name, solver);
+        IEnvironment env = solver.getEnvironment();
+        this.LENGTH = sortedValues.length;
+        this.values = sortedValues.clone();
+        this.dense = new int[LENGTH];
+        this.positions = new int[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            dense[i] = i;
+            positions[i] = i;
+        }
+        this.LB = env.makeInt(0);
+        this.UB = env.makeInt(LENGTH - 1);
+        this.SIZE = env.makeInt(LENGTH);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Removes <code>value</code>from the domain of <code>this</code>. The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If <code>value</code> is out of the domain, nothing is done and the return value is <code>false</code>,</li>
+     * <li>if removing <code>value</code> leads to a dead-end (domain wipe-out),
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>otherwise, if removing <code>value</code> from the domain can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is <code>true</code></li>
+     * </ul>
+     *
+     * @param value value to remove from the domain (int)
+     * @param cause removal releaser
+     * @return true if the value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean removeValue(int value, ICause cause) throws ContradictionException {
+        // BEWARE: THIS CODE SHOULD NOT BE MOVED TO THE DOMAIN TO NOT DECREASE PERFORMANCES!
+        assert cause != null;
+        int index = indexOf(value);
+        if (index != -1) {
+            int size = SIZE.get();
+            if (size == 1) {
+                if (_plugexpl) {
+                    solver.getEventObserver().removeValue(this, value, cause);
+                }
+                this.contradiction(cause, IntEventType.REMOVE, MSG_REMOVE);
+            }
+            IntEventType e = IntEventType.REMOVE;
+            swap(positions[index], size - 1);
+            this.SIZE.set(size - 1);
+            if (reactOnRemoval) {
+                delta.add(value, cause);
+            }
+            if (index == LB.get()) {
+                LB.set(nextIndex(index + 1));
+                e = IntEventType.INCLOW;
+            } else if (index == UB.get()) {
+                UB.set(previousIndex(index - 1));
+                e = IntEventType.DECUPP;
+            }
+            if (this.isInstantiated()) {
+                e = IntEventType.INSTANTIATE;
+            }
+            this.notifyPropagators(e, cause);
+            if (_plugexpl) {
+                solver.getEventObserver().removeValue(this, value, cause);
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeInterval(int from, int to, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (from <= getLB())
+            return updateLowerBound(to + 1, cause);
+        else if (getUB() <= to)
+            return updateUpperBound(from - 1, cause);
+        else {
+            boolean anyChange = false;
+            for (int v = this.nextValue(from - 1); v <= to; v = nextValue(v)) {
+                anyChange |= removeValue(v, cause);
+            }
+            return anyChange;
+        }
+    }
+
+    /**
+     * Instantiates the domain of <code>this</code> to <code>value</code>. The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If the domain of <code>this</code> is already instantiated to <code>value</code>,
+     * nothing is done and the return value is <code>false</code>,</li>
+     * <li>If the domain of <code>this</code> is already instantiated to another value,
+     * then a <code>ContradictionException</code> is thrown,</li>
+     * <li>Otherwise, the domain of <code>this</code> is restricted to <code>value</code> and the observers are notified
+     * and the return value is <code>true</code>.</li>
+     * </ul>
+     *
+     * @param value instantiation value (int)
+     * @param cause instantiation releaser
+     * @return true if the instantiation is done, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
+        // BEWARE: THIS CODE SHOULD NOT BE MOVED TO THE DOMAIN TO NOT DECREASE PERFORMANCES!
+        assert cause != null;
+        if (this.isInstantiated()) {
+            int cvalue = this.getValue();
+            if (value != cvalue) {
+                if (_plugexpl) {
+                    solver.getEventObserver().instantiateTo(this, value, cause, cvalue, cvalue);
+                }
+                this.contradiction(cause, IntEventType.INSTANTIATE, MSG_INST);
+            }
+            return false;
+        } else {
+            int index = indexOf(value);
+            if (index != -1) {
+                if (reactOnRemoval) {
+                    for (int k = SIZE.get() - 1; k >= 0; k--) {
+                        if (dense[k] != index) {
+                            delta.add(values[dense[k]], cause);
+                        }
+                    }
+                }
+                int oldLB = 0;
+                int oldUB = 0;
+                if (_plugexpl) {
+                    oldLB = getLB(); // call getter to avoid adding OFFSET..
+                    oldUB = getUB();
+                }
+
+                swap(positions[index], 0);
+                this.LB.set(index);
+                this.UB.set(index);
+                this.SIZE.set(1);
+
+                if (_plugexpl) {
+                    solver.getEventObserver().instantiateTo(this, value, cause, oldLB, oldUB);
+                }
+                this.notifyPropagators(IntEventType.INSTANTIATE, cause);
+                return true;
+            } else {
+                if (_plugexpl) {
+                    solver.getEventObserver().instantiateTo(this, value, cause, getLB(), getUB());
+                }
+                this.contradiction(cause, IntEventType.INSTANTIATE, MSG_UNKNOWN);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Updates the lower bound of the domain of <code>this</code> to <code>value</code>.
+     * The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If <code>value</code> is smaller than the lower bound of the domain, nothing is done and the return value is <code>false</code>,</li>
+     * <li>if updating the lower bound to <code>value</code> leads to a dead-end (domain wipe-out),
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>otherwise, if updating the lower bound to <code>value</code> can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is <code>true</code></li>
+     * </ul>
+     *
+     * @param value new lower bound (included)
+     * @param cause updating releaser
+     * @return true if the lower bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = this.getLB();
+        if (old < value) {
+            int oub = this.getUB();
+            if (oub < value) {
+                if (_plugexpl) {
+                    solver.getEventObserver().updateLowerBound(this, oub + 1, old, cause);
+                }
+                this.contradiction(cause, IntEventType.INCLOW, MSG_LOW);
+            } else {
+                IntEventType e = IntEventType.INCLOW;
+                int bound = ceilIndex(value);
+                int size = SIZE.get();
+                if (bound - LB.get() < size) {
+                    // fewer indexes to visit in the sorted values than in the domain
+                    for (int i = LB.get(); i < bound; i++) {
+                        if (positions[i] < size) {
+                            if (reactOnRemoval) {
+                                delta.add(values[i], cause);
+                            }
+                            swap(positions[i], --size);
+                        }
+                    }
+                } else {
+                    for (int k = size - 1; k >= 0; k--) {
+                        int i = dense[k];
+                        if (i < bound) {
+                            if (reactOnRemoval) {
+                                delta.add(values[i], cause);
+                            }
+                            swap(k, --size);
+                        }
+                    }
+                }
+                SIZE.set(size);
+                LB.set(nextIndex(bound));
+                if (isInstantiated()) {
+                    e = IntEventType.INSTANTIATE;
+                }
+                this.notifyPropagators(e, cause);
+                if (_plugexpl) {
+                    solver.getEventObserver().updateLowerBound(this, value, old, cause);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Updates the upper bound of the domain of <code>this</code> to <code>value</code>.
+     * The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If <code>value</code> is greater than the upper bound of the domain, nothing is done and the return value is <code>false</code>,</li>
+     * <li>if updating the upper bound to <code>value</code> leads to a dead-end (domain wipe-out),
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>otherwise, if updating the upper bound to <code>value</code> can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is <code>true</code></li>
+     * </ul>
+     *
+     * @param value new upper bound (included)
+     * @param cause update releaser
+     * @return true if the upper bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = this.getUB();
+        if (old > value) {
+            int olb = this.getLB();
+            if (olb > value) {
+                if (_plugexpl) {
+                    solver.getEventObserver().updateUpperBound(this, olb - 1, old, cause);
+                }
+                this.contradiction(cause, IntEventType.DECUPP, MSG_UPP);
+            } else {
+                IntEventType e = IntEventType.DECUPP;
+                // last index whose value is not greater than value
+                int bound = ceilIndex(value + 1) - 1;
+                int size = SIZE.get();
+                if (UB.get() - bound < size) {
+                    for (int i = UB.get(); i > bound; i--) {
+                        if (positions[i] < size) {
+                            if (reactOnRemoval) {
+                                delta.add(values[i], cause);
+                            }
+                            swap(positions[i], --size);
+                        }
+                    }
+                } else {
+                    for (int k = size - 1; k >= 0; k--) {
+                        int i = dense[k];
+                        if (i > bound) {
+                            if (reactOnRemoval) {
+                                delta.add(values[i], cause);
+                            }
+                            swap(k, --size);
+                        }
+                    }
+                }
+                SIZE.set(size);
+                UB.set(previousIndex(bound));
+                if (isInstantiated()) {
+                    e = IntEventType.INSTANTIATE;
+                }
+                this.notifyPropagators(e, cause);
+                if (_plugexpl) {
+                    solver.getEventObserver().updateUpperBound(this, value, old, cause);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isInstantiated() {
+        return SIZE.get() == 1;
+    }
+
+    @Override
+    public boolean isInstantiatedTo(int value) {
+        return isInstantiated() && getLB() == value;
+    }
+
+    @Override
+    public boolean contains(int aValue) {
+        return indexOf(aValue) != -1;
+    }
+
+    /**
+     * Retrieves the current value of the variable if instantiated, otherwier the lower bound.
+     *
+     * @return the current value (or lower bound if not yet instantiated).
+     */
+    @Override
+    public int getValue() {
+        assert isInstantiated() : name + " not instantiated";
+        return getLB();
+    }
+
+    /**
+     * Retrieves the lower bound of the variable
+     *
+     * @return the lower bound
+     */
+    @Override
+    public int getLB() {
+        assert LB.get() >= 0 && LB.get() < LENGTH;
+        return values[LB.get()];
+    }
+
+    /**
+     * Retrieves the upper bound of the variable
+     *
+     * @return the upper bound
+     */
+    @Override
+    public int getUB() {
+        assert UB.get() >= 0 && UB.get() < LENGTH;
+        return values[UB.get()];
+    }
+
+    @Override
+    public int getDomainSize() {
+        return SIZE.get();
+    }
+
+    @Override
+    public int nextValue(int aValue) {
+        int lb = getLB();
+        if (aValue < lb) return lb;
+        if (aValue >= getUB()) return Integer.MAX_VALUE;
+        return values[nextIndex(ceilIndex(aValue + 1))];
+    }
+
+    @Override
+    public int previousValue(int aValue) {
+        int ub = getUB();
+        if (aValue > ub) return ub;
+        if (aValue <= getLB()) return Integer.MIN_VALUE;
+        return values[previousIndex(ceilIndex(aValue) - 1)];
+    }
+
+    @Override
+    public boolean hasEnumeratedDomain() {
+        return true;
+    }
+
+    @Override
+    public IEnumDelta getDelta() {
+        return delta;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder(20);
+        s.append(name).append(" = ");
+        if (SIZE.get() == 1) {
+            s.append(this.getLB());
+        } else {
+            s.append('{').append(getLB());
+            int nb = 5;
+            for (int i = nextValue(getLB()); i < Integer.MAX_VALUE && nb > 0; i = nextValue(i)) {
+                s.append(',').append(i);
+                nb--;
+            }
+            if (nb == 0 && SIZE.get() > 6) {
+                s.append("...,").append(this.getUB());
+            }
+            s.append('}');
+        }
+        return s.toString();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the index of <code>value</code> if it belongs to the domain, -1 otherwise
+     */
+    private int indexOf(int value) {
+        int lb = LB.get();
+        int ub = UB.get();
+        if (value < values[lb] || value > values[ub]) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(values, lb, ub + 1, value);
+        return i >= 0 && positions[i] < SIZE.get() ? i : -1;
+    }
+
+    /**
+     * @return the smallest index, within the current bounds, whose value is greater or equal to <code>value</code>
+     */
+    private int ceilIndex(int value) {
+        int i = Arrays.binarySearch(values, LB.get(), UB.get() + 1, value);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * @return the smallest index in the domain greater or equal to <code>i</code>, -1 if none
+     */
+    private int nextIndex(int i) {
+        int size = SIZE.get();
+        while (i < LENGTH && positions[i] >= size) {
+            i++;
+        }
+        return i < LENGTH ? i : -1;
+    }
+
+    /**
+     * @return the largest index in the domain smaller or equal to <code>i</code>, -1 if none
+     */
+    private int previousIndex(int i) {
+        int size = SIZE.get();
+        while (i >= 0 && positions[i] >= size) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Exchanges the indexes stored at positions <code>p</code> and <code>q</code> in <code>dense</code>.
+     */
+    private void swap(int p, int q) {
+        int ip = dense[p];
+        int iq = dense[q];
+        dense[p] = iq;
+        positions[iq] = p;
+        dense[q] = ip;
+        positions[ip] = q;
+    }
+
+    ////////////////////////////////////////////////////////////////
+    ///// methode liees au fait qu'une variable est observable /////
+    ////////////////////////////////////////////////////////////////
+
+
+    @Override
+    public void createDelta() {
+        if (!reactOnRemoval) {
+            delta = new EnumDelta(solver.getEnvironment());
+            reactOnRemoval = true;
+        }
+    }
+
+    @Override
+    public IIntDeltaMonitor monitorDelta(ICause propagator) {
+        createDelta();
+        return new EnumDeltaMonitor(delta, propagator);
+    }
+
+    @Override
+    public void notifyMonitors(IEventType event) throws ContradictionException {
+        for (int i = mIdx - 1; i >= 0; i--) {
+            monitors[i].onUpdate(this, event);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+
+    @Override
+    public void contradiction(ICause cause, IEventType event, String message) throws ContradictionException {
+        assert cause != null;
+        solver.getEngine().fails(cause, this, message);
+    }
+
+    @Override
+    public int getTypeAndKind() {
+        return VAR | INT;
+    }
+
+    @Override
+    public IntVar duplicate() {
+        return new SparseSetIntVarImpl(StringUtils.randomName(this.name), this.values, this.getSolver());
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            SparseSetIntVarImpl clone = new SparseSetIntVarImpl(this.name, this.values, solver);
+            identitymap.put(this, clone);
+            for (int i = mIdx - 1; i >= 0; i--) {
+                monitors[i].duplicate(solver, identitymap);
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public DisposableValueIterator getValueIterator(boolean bottomUp) {
+        if (_viterator == null || !_viterator.isReusable()) {
+            _viterator = new DisposableValueIterator() {
+
+                int index;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    index = LB.get();
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    index = UB.get();
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return index != -1;
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return index != -1;
+                }
+
+                @Override
+                public int next() {
+                    int old = values[index];
+                    index = index < UB.get() ? nextIndex(index + 1) : -1;
+                    return old;
+                }
+
+                @Override
+                public int previous() {
+                    int old = values[index];
+                    index = index > LB.get() ? previousIndex(index - 1) : -1;
+                    return old;
+                }
+            };
+        }
+        if (bottomUp) {
+            _viterator.bottomUpInit();
+        } else {
+            _viterator.topDownInit();
+        }
+        return _viterator;
+    }
+
+    @Override
+    public DisposableRangeIterator getRangeIterator(boolean bottomUp) {
+        if (_riterator == null || !_riterator.isReusable()) {
+            _riterator = new DisposableRangeIterator() {
+
+                int from;
+                int to;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    this.from = LB.get();
+                    this.to = upTo(from);
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    this.to = UB.get();
+                    this.from = downTo(to);
+                }
+
+                public boolean hasNext() {
+                    return this.from != -1;
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return this.to != -1;
+                }
+
+                public void next() {
+                    this.from = to < UB.get() ? nextIndex(to + 1) : -1;
+                    this.to = from == -1 ? -1 : upTo(from);
+                }
+
+                @Override
+                public void previous() {
+                    this.to = from > LB.get() ? previousIndex(from - 1) : -1;
+                    this.from = to == -1 ? -1 : downTo(to);
+                }
+
+                @Override
+                public int min() {
+                    return values[from];
+                }
+
+                @Override
+                public int max() {
+                    return values[to];
+                }
+
+                // last index of the range of consecutive values starting at i
+                private int upTo(int i) {
+                    int size = SIZE.get();
+                    while (i < UB.get() && positions[i + 1] < size && values[i] == values[i + 1] - 1) {
+                        i++;
+                    }
+                    return i;
+                }
+
+                // first index of the range of consecutive values ending at i
+                private int downTo(int i) {
+                    int size = SIZE.get();
+                    while (i > LB.get() && positions[i - 1] < size && values[i - 1] == values[i] - 1) {
+                        i--;
+                    }
+                    return i;
+                }
+            };
+        }
+        if (bottomUp) {
+            _riterator.bottomUpInit();
+        } else {
+            _riterator.topDownInit();
+        }
+        return _riterator;
+    }
+}
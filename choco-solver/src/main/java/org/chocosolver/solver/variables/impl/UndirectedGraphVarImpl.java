@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.UndirectedGraphVar;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+
+/**
+ * Undirected graph variable, (x,y) and (y,x) denote the same edge
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class UndirectedGraphVarImpl extends GraphVarImpl<UndirectedGraph> implements UndirectedGraphVar {
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates an undirected graph variable
+     *
+     * @param name     name of the variable
+     * @param kernel   backtrackable graph of mandatory nodes and arcs
+     * @param envelope backtrackable graph of potential nodes and arcs
+     * @param solver   solver of the variable
+     */
+    public UndirectedGraphVarImpl(String name, UndirectedGraph kernel, UndirectedGraph envelope, Solver solver) {
+        super(name, kernel, envelope, solver);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    protected boolean addArc(UndirectedGraph g, int x, int y) {
+        return g.addEdge(x, y);
+    }
+
+    @Override
+    protected boolean removeArc(UndirectedGraph g, int x, int y) {
+        return g.removeEdge(x, y);
+    }
+
+    @Override
+    protected UndirectedGraph makeGraph(UndirectedGraph g, Solver solver) {
+        return new UndirectedGraph(solver, n, g.getType(), false);
+    }
+
+    @Override
+    protected UndirectedGraphVarImpl make(String name, UndirectedGraph kernel, UndirectedGraph envelope, Solver solver) {
+        return new UndirectedGraphVarImpl(name, kernel, envelope, solver);
+    }
+}
@@ -28,6 +28,9 @@
  */
 package org.chocosolver.util.objects.setDataStructures;
 
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.procedure.IntProcedure;
+
 import java.io.Serializable;
 
 /**
@@ -94,12 +97,37 @@ public interface ISet extends Serializable {
      * <p/>
      * The use of getFirstElement() is necessary to ensure a complete iteration
      * <p/>
-     * WARNING cannot encapsulate two for loops (copy the set for that)
+     * WARNING cannot encapsulate two for loops (use {@link #newIterator()} for that)
      *
      * @return the next element of the set
      */
     int getNextElement();
 
+    /**
+     * Creates a cursor over the elements of the set, which holds its own iteration state.
+     * It does not interfere with {@link #getFirstElement()}/{@link #getNextElement()} nor with other cursors.
+     *
+     * @return a new cursor, positioned before the first element of the set
+     */
+    ISetIterator newIterator();
+
+    /**
+     * Applies proc to every element of the set.
+     * The set must not be modified by proc.
+     *
+     * @param proc procedure to apply
+     * @throws ContradictionException if proc fails
+     */
+    void forEach(IntProcedure proc) throws ContradictionException;
+
+    /**
+     * Copies the elements of the set in buffer, from index 0, without allocating any object.
+     *
+     * @param buffer an array whose length is at least {@link #getSize()}
+     * @return the number of elements copied, that is the size of the set
+     */
+    int toArray(int[] buffer);
+
 	/**
 	 * @return the implementation type of this set
 	 */
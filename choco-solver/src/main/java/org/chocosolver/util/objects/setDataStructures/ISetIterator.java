@@ -26,59 +26,41 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.chocosolver.solver.constraints.nary.automata.structure.multicostregular;
-
-import org.chocosolver.memory.structure.IndexedObject;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
-import org.jgrapht.EdgeFactory;
+package org.chocosolver.util.objects.setDataStructures;
 
 /**
- * Created by IntelliJ IDEA.
- * User: julien
- * Date: Oct 30, 2009
- * Time: 3:48:11 PM
+ * Cursor over the elements of an {@link ISet}.
+ * <br/>
+ * Unlike {@link ISet#getFirstElement()} and {@link ISet#getNextElement()}, the iteration state is held by the cursor,
+ * not by the set, so several cursors can iterate over the same set at the same time (e.g., in nested loops).
+ * A cursor can be reused by calling {@link #reset()}.
+ * The set must not be modified while a cursor iterates over it: copy it with {@link ISet#toArray(int[])} first.
+ * <p/>
+ * should be used as follow :
+ * <p/>
+ * ISetIterator iter = set.newIterator();
+ * while(iter.hasNext()){
+ * int i = iter.nextInt();
+ * ...
+ * }
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
  */
-public class Arc implements IndexedObject {
-
-    public int id;
-    public Node orig;
-    public Node dest;
-    public int value;
-
-
-    public Arc(Node orig, Node dest, int value, int id) {
-        this.id = id;
-        this.orig = orig;
-        this.dest = dest;
-        this.value = value;
-    }
-
-
-    public String toString() {
-        return value + "";
-    }
-
-    @Override
-    public int getObjectIdx() {
-        return orig.state;
-    }
-
-
-    public static class ArcFactory implements EdgeFactory<Node, Arc> {
+public interface ISetIterator {
 
-        public Arc createEdge(Node node, Node node1) {
-            return new Arc(node, node1, 0, 0);
-        }
-    }
+    /**
+     * Moves the cursor back before the first element of the set
+     */
+    void reset();
 
-    @Override
-    public Arc clone() throws CloneNotSupportedException {
-        Arc arc = (Arc) super.clone();
-        arc.orig = orig.clone();
-        arc.dest = dest.clone();
-        arc.id = id;
-        arc.value = value;
-        return arc;
-    }
+    /**
+     * @return true iff there is an element left to visit
+     */
+    boolean hasNext();
 
+    /**
+     * @return the next element of the set, undefined if {@link #hasNext()} returns false
+     */
+    int nextInt();
 }
@@ -37,6 +37,8 @@ package org.chocosolver.util.objects.setDataStructures;
 
 import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.memory.copy.EnvironmentCopying;
+import org.chocosolver.memory.hybrid.EnvironmentHybrid;
+import org.chocosolver.memory.recomputation.EnvironmentRecomputation;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.util.objects.setDataStructures.linkedlist.*;
@@ -96,6 +98,10 @@ public class SetFactory {
             return new Set_Trail((EnvironmentTrailing) environment, makeSet(type, maximumSize));
         } else if (environment instanceof EnvironmentCopying) {
             return new Set_Copy((EnvironmentCopying) environment, makeSet(type, maximumSize));
+        } else if (environment instanceof EnvironmentHybrid) {
+            return new Set_Trail(((EnvironmentHybrid) environment).getTrailing(), makeSet(type, maximumSize));
+        } else if (environment instanceof EnvironmentRecomputation) {
+            return new Set_Trail(((EnvironmentRecomputation) environment).getTrailing(), makeSet(type, maximumSize));
         } else {
             throw new UnsupportedOperationException("not implemented yet");
         }
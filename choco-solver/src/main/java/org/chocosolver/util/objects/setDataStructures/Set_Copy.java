@@ -32,6 +32,8 @@ import org.chocosolver.memory.copy.EnvironmentCopying;
 import org.chocosolver.memory.copy.RcObject;
 import org.chocosolver.memory.copy.RecomputableElement;
 import org.chocosolver.memory.copy.store.StoredObjectCopy;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * Backtrable set
@@ -145,6 +147,21 @@ public class Set_Copy extends RcObject implements ISet {
 		return set.getSetType();
 	}
 
+	@Override
+	public ISetIterator newIterator() {
+		return set.newIterator();
+	}
+
+	@Override
+	public void forEach(IntProcedure proc) throws ContradictionException {
+		set.forEach(proc);
+	}
+
+	@Override
+	public int toArray(int[] buffer) {
+		return set.toArray(buffer);
+	}
+
 	@Override
 	public int[] toArray(){
 		return set.toArray();
@@ -28,6 +28,9 @@
  */
 package org.chocosolver.util.objects.setDataStructures;
 
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.procedure.IntProcedure;
+
 /**
  * Fixed Set which ALWAYS contains all integers in range [0,n-1]
  * cannot add or remove elements
@@ -112,12 +115,47 @@ public class Set_Full implements ISet {
 		return "["+0+","+(n-1)+"]";
 	}
 
+	@Override
+	public ISetIterator newIterator() {
+		return new ISetIterator() {
+			private int next;
+
+			@Override
+			public void reset() {
+				next = 0;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next < n;
+			}
+
+			@Override
+			public int nextInt() {
+				return next++;
+			}
+		};
+	}
+
+	@Override
+	public void forEach(IntProcedure proc) throws ContradictionException {
+		for (int i = 0; i < n; i++) {
+			proc.execute(i);
+		}
+	}
+
+	@Override
+	public int toArray(int[] buffer) {
+		for (int i = 0; i < n; i++) {
+			buffer[i] = i;
+		}
+		return n;
+	}
+
 	@Override
 	public int[] toArray(){
 		int[] a = new int[n];
-		for(int i=0;i<n;i++){
-			a[i] = i;
-		}
+		toArray(a);
 		return a;
 	}
 
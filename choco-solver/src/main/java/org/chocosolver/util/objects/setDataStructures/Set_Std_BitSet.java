@@ -31,6 +31,8 @@ package org.chocosolver.util.objects.setDataStructures;
 import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.memory.IStateInt;
 import org.chocosolver.memory.structure.S64BitSet;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * Created by IntelliJ IDEA.
@@ -92,6 +94,15 @@ public class Set_Std_BitSet extends S64BitSet implements ISet {
         return current;
     }
 
+    @Override
+    public void setWord(int wordIndex, long word) {
+        long old = getWord(wordIndex);
+        if (old != word) {
+            card.add(Long.bitCount(word) - Long.bitCount(old));
+            super.setWord(wordIndex, word);
+        }
+    }
+
     @Override
     public void clear() {
         super.clear();
@@ -103,15 +114,57 @@ public class Set_Std_BitSet extends S64BitSet implements ISet {
 		return SetType.BITSET;
 	}
 
-	@Override
-	public int[] toArray(){
-		int[] a = new int[getSize()];
-		int idx = 0;
-		for(int i=getFirstElement();i>=0;i=getNextElement()){
-			a[idx++] = i;
-		}
-		return a;
-	}
+    @Override
+    public ISetIterator newIterator() {
+        return new ISetIterator() {
+            private int next = nextSetBit(0);
+
+            @Override
+            public void reset() {
+                next = nextSetBit(0);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                int i = next;
+                next = nextSetBit(i + 1);
+                return i;
+            }
+        };
+    }
+
+    @Override
+    public void forEach(IntProcedure proc) throws ContradictionException {
+        // word by word, a copy of the word being consumed bit by bit
+        for (int w = 0, last = (length() - 1) >> 6; w <= last; w++) {
+            for (long word = getWord(w); word != 0; word &= word - 1) {
+                proc.execute((w << 6) + Long.numberOfTrailingZeros(word));
+            }
+        }
+    }
+
+    @Override
+    public int toArray(int[] buffer) {
+        int k = 0;
+        for (int w = 0, last = (length() - 1) >> 6; w <= last; w++) {
+            for (long word = getWord(w); word != 0; word &= word - 1) {
+                buffer[k++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return k;
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] a = new int[getSize()];
+        toArray(a);
+        return a;
+    }
 
 	@Override
 	public int getMaxSize(){
@@ -30,7 +30,9 @@ package org.chocosolver.util.objects.setDataStructures;
 
 import org.chocosolver.memory.structure.Operation;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.PoolManager;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * Backtrable set
@@ -161,6 +163,21 @@ public class Set_Trail implements ISet {
 		return set.getSetType();
 	}
 
+	@Override
+	public ISetIterator newIterator() {
+		return set.newIterator();
+	}
+
+	@Override
+	public void forEach(IntProcedure proc) throws ContradictionException {
+		set.forEach(proc);
+	}
+
+	@Override
+	public int toArray(int[] buffer) {
+		return set.toArray(buffer);
+	}
+
 	@Override
 	public int[] toArray() {
 		return set.toArray();
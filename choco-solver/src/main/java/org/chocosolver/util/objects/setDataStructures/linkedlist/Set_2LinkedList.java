@@ -28,8 +28,11 @@
  */
 package org.chocosolver.util.objects.setDataStructures.linkedlist;
 
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * Linked list of m elements with double link (predecessor and successor)
@@ -221,13 +224,50 @@ public class Set_2LinkedList implements ISet {
         return el;
     }
 
+	@Override
+	public ISetIterator newIterator() {
+		return new ISetIterator() {
+			private DoubleIntCell current = first;
+
+			@Override
+			public void reset() {
+				current = first;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return current != null;
+			}
+
+			@Override
+			public int nextInt() {
+				int e = current.element;
+				current = current.next;
+				return e;
+			}
+		};
+	}
+
+	@Override
+	public void forEach(IntProcedure proc) throws ContradictionException {
+		for (DoubleIntCell c = first; c != null; c = c.next) {
+			proc.execute(c.element);
+		}
+	}
+
+	@Override
+	public int toArray(int[] buffer) {
+		int k = 0;
+		for (DoubleIntCell c = first; c != null; c = c.next) {
+			buffer[k++] = c.element;
+		}
+		return k;
+	}
+
 	@Override
 	public int[] toArray(){
 		int[] a = new int[getSize()];
-		int idx = 0;
-		for(int i=getFirstElement();i>=0;i=getNextElement()){
-			a[idx++] = i;
-		}
+		toArray(a);
 		return a;
 	}
 
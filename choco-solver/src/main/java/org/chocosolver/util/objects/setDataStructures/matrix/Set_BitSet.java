@@ -28,8 +28,11 @@
  */
 package org.chocosolver.util.objects.setDataStructures.matrix;
 
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.procedure.IntProcedure;
 
 import java.util.BitSet;
 
@@ -109,13 +112,50 @@ public class Set_BitSet extends BitSet implements ISet {
 		return SetType.BITSET;
 	}
 
+	@Override
+	public ISetIterator newIterator() {
+		return new ISetIterator() {
+			private int next = nextSetBit(0);
+
+			@Override
+			public void reset() {
+				next = nextSetBit(0);
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public int nextInt() {
+				int i = next;
+				next = nextSetBit(i + 1);
+				return i;
+			}
+		};
+	}
+
+	@Override
+	public void forEach(IntProcedure proc) throws ContradictionException {
+		for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+			proc.execute(i);
+		}
+	}
+
+	@Override
+	public int toArray(int[] buffer) {
+		int k = 0;
+		for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+			buffer[k++] = i;
+		}
+		return k;
+	}
+
 	@Override
 	public int[] toArray(){
 		int[] a = new int[getSize()];
-		int idx = 0;
-		for(int i=getFirstElement();i>=0;i=getNextElement()){
-			a[idx++] = i;
-		}
+		toArray(a);
 		return a;
 	}
 
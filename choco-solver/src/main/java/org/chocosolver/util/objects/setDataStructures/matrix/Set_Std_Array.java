@@ -38,8 +38,11 @@ package org.chocosolver.util.objects.setDataStructures.matrix;
 import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.memory.IStateBool;
 import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * Set represented by an array of backtrable booleans
@@ -149,13 +152,62 @@ public class Set_Std_Array implements ISet {
 		return SetType.BOOL_ARRAY;
 	}
 
+	@Override
+	public ISetIterator newIterator() {
+		return new ISetIterator() {
+			private int next = next(0);
+
+			private int next(int from) {
+				int i = from;
+				while (i < n && !elements[i].get()) {
+					i++;
+				}
+				return i;
+			}
+
+			@Override
+			public void reset() {
+				next = next(0);
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next < n;
+			}
+
+			@Override
+			public int nextInt() {
+				int i = next;
+				next = next(i + 1);
+				return i;
+			}
+		};
+	}
+
+	@Override
+	public void forEach(IntProcedure proc) throws ContradictionException {
+		for (int i = 0; i < n; i++) {
+			if (elements[i].get()) {
+				proc.execute(i);
+			}
+		}
+	}
+
+	@Override
+	public int toArray(int[] buffer) {
+		int k = 0;
+		for (int i = 0; i < n; i++) {
+			if (elements[i].get()) {
+				buffer[k++] = i;
+			}
+		}
+		return k;
+	}
+
 	@Override
 	public int[] toArray(){
 		int[] a = new int[getSize()];
-		int idx = 0;
-		for(int i=getFirstElement();i>=0;i=getNextElement()){
-			a[idx++] = i;
-		}
+		toArray(a);
 		return a;
 	}
 
@@ -28,7 +28,10 @@
  */
 package org.chocosolver.util.objects.setDataStructures.swapList;
 
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * List of m elements based on Array int_swaping
@@ -109,13 +112,46 @@ public abstract class Set_Swap implements ISet {
         return array[currentIdx];
     }
 
+	@Override
+	public ISetIterator newIterator() {
+		return new ISetIterator() {
+			private int idx;
+
+			@Override
+			public void reset() {
+				idx = 0;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return idx < getSize();
+			}
+
+			@Override
+			public int nextInt() {
+				return array[idx++];
+			}
+		};
+	}
+
+	@Override
+	public void forEach(IntProcedure proc) throws ContradictionException {
+		for (int i = 0, s = getSize(); i < s; i++) {
+			proc.execute(array[i]);
+		}
+	}
+
+	@Override
+	public int toArray(int[] buffer) {
+		int s = getSize();
+		System.arraycopy(array, 0, buffer, 0, s);
+		return s;
+	}
+
 	@Override
 	public int[] toArray(){
 		int[] a = new int[getSize()];
-		int idx = 0;
-		for(int i=getFirstElement();i>=0;i=getNextElement()){
-			a[idx++] = i;
-		}
+		toArray(a);
 		return a;
 	}
 
@@ -31,10 +31,15 @@ package org.chocosolver.choco;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.limits.CancellationToken;
 import org.chocosolver.solver.search.loop.monitors.SMF;
 import org.chocosolver.solver.search.loop.monitors.SearchMonitorFactory;
+import org.chocosolver.solver.search.strategy.ISF;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.ESat;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -148,4 +153,92 @@ public class LimitsTest {
         Assert.assertEquals(d, 71000);
     }
 
+    @Test(groups = "1s")
+    public void testDeadline() {
+        Solver s = modelit();
+        long tl = 500;
+        SMF.deadline(s, tl);
+        s.findAllSolutions();
+        int tc = (int) (s.getMeasures().getTimeCount() * 1000);
+        Assert.assertTrue(s.hasReachedLimit());
+        Assert.assertTrue(tl - (tl * 10 / 100) <= tc && tc <= tl + (tl * 10 / 100), tl + " vs. " + tc);
+    }
+
+    /**
+     * A propagator which never ends unless the resolution is cancelled,
+     * as soon as its first variable is instantiated.
+     */
+    private static class PropEndless extends Propagator<IntVar> {
+
+        PropEndless(IntVar x, IntVar y) {
+            super(x, y);
+        }
+
+        @Override
+        public void propagate(int evtmask) throws ContradictionException {
+            if (vars[0].isInstantiated()) {
+                vars[1].removeValue(vars[0].getValue(), aCause);
+                //noinspection InfiniteLoopStatement
+                while (true) {
+                    checkCancellation();
+                }
+            }
+        }
+
+        @Override
+        public ESat isEntailed() {
+            return ESat.UNDEFINED;
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testCancel() throws InterruptedException {
+        Solver s = new Solver();
+        IntVar x = VariableFactory.enumerated("x", 1, 5, s);
+        IntVar y = VariableFactory.enumerated("y", 1, 5, s);
+        s.post(new Constraint("endless", new PropEndless(x, y)));
+        s.set(ISF.lexico_LB(x, y));
+        Thread t = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            s.getCancellationToken().cancel();
+        });
+        t.start();
+        s.findSolution();
+        t.join();
+        Assert.assertTrue(s.hasReachedLimit());
+        Assert.assertEquals(s.isFeasible(), ESat.UNDEFINED);
+        // the last consistent world is restored
+        Assert.assertFalse(x.isInstantiated());
+        Assert.assertEquals(y.getDomainSize(), 5);
+        s.getSearchLoop().reset();
+        Assert.assertFalse(s.getCancellationToken().isCancelled());
+    }
+
+    @Test(groups = "1s")
+    public void testCancelBefore() {
+        Solver s = modelit();
+        s.getCancellationToken().cancel();
+        s.findSolution();
+        Assert.assertTrue(s.hasReachedLimit());
+        Assert.assertEquals(s.isFeasible(), ESat.UNDEFINED);
+    }
+
+    @Test(groups = "1s")
+    public void testExtendDeadline() throws InterruptedException {
+        CancellationToken token = new CancellationToken();
+        token.setDeadline(50);
+        token.extendDeadline(10000);
+        Thread.sleep(100);
+        Assert.assertFalse(token.isCancelled());
+        token.extendDeadline(-10000);
+        Thread.sleep(50);
+        Assert.assertTrue(token.isCancelled());
+        token.reset();
+        Assert.assertFalse(token.isCancelled());
+        Assert.assertEquals(token.getDeadline(), Long.MAX_VALUE);
+    }
+
 }
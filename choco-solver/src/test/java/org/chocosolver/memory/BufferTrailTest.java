@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 29/06/2015
+ */
+public class BufferTrailTest {
+
+    @Test(groups = "1s")
+    public void test1() {
+        EnvironmentTrailing env = new EnvironmentTrailing(AbstractEnvironment.Type.BUFFER);
+        int n = 6000;
+        IStateInt[] is = new IStateInt[n];
+        IStateLong[] ls = new IStateLong[n];
+        IStateDouble[] ds = new IStateDouble[n];
+        IStateBool[] bs = new IStateBool[n];
+        for (int i = 0; i < n; i++) {
+            is[i] = env.makeInt(i);
+            ls[i] = env.makeLong(i);
+            ds[i] = env.makeFloat(i);
+            bs[i] = env.makeBool(false);
+        }
+        for (int w = 1; w <= 3; w++) {
+            env.worldPush();
+            for (int i = 0; i < n; i++) {
+                is[i].set(i + w);
+                ls[i].set(i + w);
+                ds[i].set(i + w);
+                bs[i].set(w % 2 == 1);
+            }
+        }
+        for (int w = 3; w >= 1; w--) {
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(is[i].get(), i + w);
+                Assert.assertEquals(ls[i].get(), i + w);
+                Assert.assertEquals(ds[i].get(), i + w, 0.);
+                Assert.assertEquals(bs[i].get(), w % 2 == 1);
+            }
+            env.worldPop();
+        }
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(is[i].get(), i);
+            Assert.assertEquals(ls[i].get(), i);
+            Assert.assertEquals(ds[i].get(), i, 0.);
+            Assert.assertFalse(bs[i].get());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void test2() {
+        for (AbstractEnvironment.Type t : AbstractEnvironment.Type.values()) {
+            Solver solver = new Solver(new EnvironmentTrailing(t), "");
+            IntVar[] X = VF.enumeratedArray("X", 7, 1, 7, solver);
+            solver.post(ICF.alldifferent(X));
+            solver.post(ICF.arithm(X[0], "<", X[1]));
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 2520, t.name());
+        }
+    }
+}
@@ -26,78 +26,56 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.chocosolver.solver.constraints.nary.automata.structure.costregular;
+package org.chocosolver.memory;
 
-import org.chocosolver.memory.structure.IndexedObject;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
-import org.jgrapht.EdgeFactory;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import org.chocosolver.memory.copy.EnvironmentCopying;
+import org.chocosolver.memory.copy.RcIntVector;
+import org.testng.Assert;
+import org.testng.annotations.Test;
 
 /**
- * Created by IntelliJ IDEA.
- * User: julien
- * Date: Oct 30, 2009
- * Time: 3:48:11 PM
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
  */
-public class Arc extends DefaultWeightedEdge implements IndexedObject {
-
-    public int id;
-    public Node orig;
-    public Node dest;
-    public int value;
-    public double cost;
-
-
-    public Arc(Node orig, Node dest, int value, int id, double cost) {
-        this.id = id;
-        this.orig = orig;
-        this.dest = dest;
-        this.value = value;
-        this.cost = cost;
-    }
-
-    public Arc(Node orig, Node dest, int value) {
-        this(orig, dest, value, Integer.MIN_VALUE, Double.POSITIVE_INFINITY);
-    }
-
-    public double getWeight() {
-        return this.cost;
-    }
+public class EnvironmentCopyingTest {
 
-
-    public String toString() {
-        return value + "";
-    }
-
-    public final void setId(int id) {
-        this.id = id;
-    }
-
-    @Override
-    public int getObjectIdx() {
-        return orig.state;
+    @Test(groups = "1s")
+    public void testIntVector() {
+        EnvironmentCopying env = new EnvironmentCopying();
+        IStateIntVector v = env.makeIntVector(3, 1);
+        IStateIntVector w = env.makeIntVector(2, 5);
+        Assert.assertTrue(v instanceof RcIntVector);
+        env.worldPush();
+        v.set(1, 2);
+        w.set(0, 6);
+        env.worldPush();
+        v.set(1, 3);
+        v.add(4);
+        w.set(0, 7);
+        env.worldPop();
+        Assert.assertEquals(env.getWorldIndex(), 1);
+        Assert.assertEquals(v.size(), 3);
+        Assert.assertEquals(v.get(1), 2);
+        Assert.assertEquals(w.get(0), 6);
+        env.worldPop();
+        Assert.assertEquals(v.get(1), 1);
+        Assert.assertEquals(w.get(0), 5);
     }
 
-
-    public static class ArcFacroty implements EdgeFactory<Node, Arc> {
-
-        public Arc createEdge(Node node, Node node1) {
-            return new Arc(node, node1, 0, 0, 0.0);
+    @Test(groups = "1s")
+    public void testManyWorlds() {
+        EnvironmentCopying env = new EnvironmentCopying();
+        IStateIntVector v = env.makeIntVector(1, 0);
+        for (int i = 1; i <= 200; i++) {
+            env.worldPush();
+            v.set(0, i);
         }
-    }
-
-    @Override
-    public Arc clone() {
-        Arc arc = (Arc) super.clone();
-        arc.id = id;
-        try {
-            arc.orig = orig.clone();
-            arc.dest = dest.clone();
-        } catch (CloneNotSupportedException e) {
-            e.printStackTrace();
+        for (int i = 200; i > 0; i--) {
+            Assert.assertEquals(v.get(0), i);
+            env.worldPop();
         }
-        arc.value = value;
-        arc.cost = cost;
-        return arc;
+        Assert.assertEquals(v.get(0), 0);
     }
 }
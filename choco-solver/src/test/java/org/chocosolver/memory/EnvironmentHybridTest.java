@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.copy.RcInt;
+import org.chocosolver.memory.hybrid.EnvironmentHybrid;
+import org.chocosolver.memory.trailing.StoredInt;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.set.SCF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 26/06/2015
+ */
+public class EnvironmentHybridTest {
+
+    @Test(groups = "1s")
+    public void test1() {
+        EnvironmentHybrid env = new EnvironmentHybrid();
+        IStateInt a = env.makeInt(1);
+        IStateInt b = env.makeInt(1, EnvironmentHybrid.Restoration.TRAIL);
+        IStateLong l = env.makeLong(1);
+        IStateIntVector v = env.makeIntVector(3, 1);
+        Assert.assertTrue(a instanceof RcInt);
+        Assert.assertTrue(b instanceof StoredInt);
+        env.worldPush();
+        a.set(2);
+        b.set(2);
+        l.set(2);
+        v.set(1, 2);
+        env.worldPush();
+        a.set(3);
+        b.set(3);
+        l.set(3);
+        v.set(1, 3);
+        env.worldPop();
+        Assert.assertEquals(env.getWorldIndex(), 1);
+        Assert.assertEquals(a.get(), 2);
+        Assert.assertEquals(b.get(), 2);
+        Assert.assertEquals(l.get(), 2);
+        Assert.assertEquals(v.get(1), 2);
+        env.worldPop();
+        Assert.assertEquals(a.get(), 1);
+        Assert.assertEquals(b.get(), 1);
+        Assert.assertEquals(l.get(), 1);
+        Assert.assertEquals(v.get(1), 1);
+    }
+
+    @Test(groups = "1s")
+    public void test2() {
+        for (Environments e : new Environments[]{Environments.TRAIL, Environments.COPY, Environments.HYBRID}) {
+            Solver solver = new Solver(e.make(), "");
+            IntVar[] X = VF.enumeratedArray("X", 6, 1, 6, solver);
+            IntVar[] Y = VF.boundedArray("Y", 2, 1, 6, solver);
+            SetVar S = VF.set("S", 1, 6, solver);
+            solver.post(ICF.alldifferent(X));
+            solver.post(ICF.arithm(Y[0], "<", Y[1]));
+            solver.post(SCF.member(X[0], S));
+            solver.post(SCF.cardinality(S, VF.fixed(1, solver)));
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 720 * 15, e.name());
+        }
+    }
+}
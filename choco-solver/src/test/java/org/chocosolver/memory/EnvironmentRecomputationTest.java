@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.recomputation.EnvironmentRecomputation;
+import org.chocosolver.memory.recomputation.IReplayer;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.set.SCF;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 30/06/2015
+ */
+public class EnvironmentRecomputationTest {
+
+    @Test(groups = "1s")
+    public void test1() {
+        EnvironmentRecomputation env = new EnvironmentRecomputation(4);
+        IStateInt a = env.makeInt(0);
+        IStateLong b = env.makeLong(0);
+        // the state of a world is entirely defined by its index
+        env.setReplayer(new IReplayer() {
+            @Override
+            public boolean canReplay(int world) {
+                return true;
+            }
+
+            @Override
+            public void replay(int from, int to) {
+                Assert.assertEquals(a.get(), from);
+                a.set(to);
+                b.set(to * 10);
+            }
+        });
+        for (int i = 1; i <= 20; i++) {
+            env.worldPush();
+            a.set(i);
+            b.set(i * 10);
+        }
+        Assert.assertEquals(env.getNbSavedWorlds(), 5);
+        for (int i = 19; i >= 0; i--) {
+            env.worldPop();
+            Assert.assertEquals(env.getWorldIndex(), i);
+            Assert.assertEquals(a.get(), i);
+            Assert.assertEquals(b.get(), i * 10);
+        }
+        Assert.assertEquals(env.getNbSavedWorlds(), 0);
+        for (int i = 1; i <= 20; i++) {
+            env.worldPush();
+            a.set(i);
+        }
+        env.worldPopUntil(6);
+        Assert.assertEquals(a.get(), 6);
+        env.worldPopUntil(4);
+        Assert.assertEquals(a.get(), 4);
+        env.setReplayer(null);
+        env.worldPush();
+        a.set(5);
+        env.worldPush();
+        a.set(6);
+        env.worldPop();
+        Assert.assertEquals(a.get(), 5);
+    }
+
+    private static Solver queens(IEnvironment env, int n) {
+        Solver solver = new Solver(env, "");
+        IntVar[] q = VF.enumeratedArray("Q", n, 1, n, solver);
+        IntVar[] d1 = new IntVar[n];
+        IntVar[] d2 = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            d1[i] = VF.offset(q[i], i);
+            d2[i] = VF.offset(q[i], -i);
+        }
+        solver.post(ICF.alldifferent(q, "BC"));
+        solver.post(ICF.alldifferent(d1, "BC"));
+        solver.post(ICF.alldifferent(d2, "BC"));
+        solver.set(ISF.lexico_LB(q));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void test2() {
+        Solver ref = queens(new EnvironmentTrailing(), 9);
+        ref.findAllSolutions();
+        for (int p : new int[]{1, 2, 3, 5, 100}) {
+            Solver solver = queens(new EnvironmentRecomputation(p), 9);
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), ref.getMeasures().getSolutionCount());
+            Assert.assertEquals(solver.getMeasures().getNodeCount(), ref.getMeasures().getNodeCount());
+            Assert.assertEquals(solver.getMeasures().getFailCount(), ref.getMeasures().getFailCount());
+        }
+    }
+
+    private static int knapsack(IEnvironment env) {
+        Solver solver = new Solver(env, "");
+        IntVar[] x = VF.enumeratedArray("x", 8, 0, 5, solver);
+        IntVar w = VF.bounded("w", 0, 27, solver);
+        IntVar v = VF.bounded("v", 0, 200, solver);
+        solver.post(ICF.scalar(x, new int[]{3, 4, 5, 6, 7, 8, 9, 10}, w));
+        solver.post(ICF.scalar(x, new int[]{5, 7, 8, 10, 11, 13, 14, 16}, v));
+        SMF.luby(solver, 2, 2, new FailCounter(2), 50);
+        solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, v);
+        return solver.getSolutionRecorder().getLastSolution().getIntVal(v);
+    }
+
+    @Test(groups = "1s")
+    public void test3() {
+        int best = knapsack(new EnvironmentTrailing());
+        for (int p : new int[]{1, 3, 7}) {
+            Assert.assertEquals(knapsack(new EnvironmentRecomputation(p)), best);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void test4() {
+        Solver solver = new Solver(new EnvironmentRecomputation(3), "");
+        IntVar[] X = VF.enumeratedArray("X", 6, 1, 6, solver);
+        SetVar S = VF.set("S", 1, 6, solver);
+        solver.post(ICF.alldifferent(X));
+        solver.post(SCF.member(X[0], S));
+        solver.post(SCF.cardinality(S, VF.fixed(1, solver)));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 720);
+    }
+
+    private static Solver tightening(IEnvironment env) {
+        Solver solver = new Solver(env, "");
+        IntVar[] x = VF.enumeratedArray("x", 7, 0, 6, solver);
+        IntVar v = VF.bounded("v", 0, 100, solver);
+        solver.post(ICF.alldifferent(x, "BC"));
+        solver.post(ICF.scalar(x, new int[]{1, 3, 2, 5, 4, 1, 2}, v));
+        solver.set(ISF.lexico_LB(x));
+        solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, v);
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void test5() {
+        // the objective cut tightens between the first application of decisions and their replay
+        Solver ref = tightening(new EnvironmentTrailing());
+        for (int p : new int[]{2, 5, 100}) {
+            Solver solver = tightening(new EnvironmentRecomputation(p));
+            Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue(),
+                    ref.getObjectiveManager().getBestSolutionValue());
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), ref.getMeasures().getSolutionCount());
+            Assert.assertTrue(solver.getMeasures().getNodeCount() <= ref.getMeasures().getNodeCount());
+        }
+    }
+}
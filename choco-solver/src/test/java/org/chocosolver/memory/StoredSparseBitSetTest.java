@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.copy.EnvironmentCopying;
+import org.chocosolver.memory.structure.StoredSparseBitSet;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 25/06/2015
+ */
+public class StoredSparseBitSetTest {
+
+    @Test(groups = "1s")
+    public void test1() {
+        IEnvironment env = new EnvironmentTrailing();
+        StoredSparseBitSet set = new StoredSparseBitSet(env, 200);
+        Assert.assertEquals(set.cardinality(), 200);
+        Assert.assertEquals(set.getNbNonZeroWords(), 4);
+
+        env.worldPush();
+        long[] mask = new long[4];
+        mask[1] = 0xFL;
+        mask[3] = 0x1L;
+        Assert.assertTrue(set.and(mask));
+        Assert.assertEquals(set.getNbNonZeroWords(), 2);
+        Assert.assertEquals(set.cardinality(), 5);
+        Assert.assertEquals(set.nextSetBit(0), 64);
+        Assert.assertEquals(set.nextSetBit(68), 192);
+        Assert.assertFalse(set.and(mask));
+
+        env.worldPush();
+        set.clear(192);
+        Assert.assertEquals(set.getNbNonZeroWords(), 1);
+        long[] rem = new long[2];
+        rem[1] = 0xFL;
+        Assert.assertTrue(set.andNot(rem));
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertEquals(set.nextSetBit(0), -1);
+
+        env.worldPop();
+        Assert.assertEquals(set.cardinality(), 5);
+        Assert.assertEquals(set.getNbNonZeroWords(), 2);
+        Assert.assertTrue(set.get(192));
+
+        env.worldPop();
+        Assert.assertEquals(set.cardinality(), 200);
+        Assert.assertEquals(set.getNbNonZeroWords(), 4);
+    }
+
+    @Test(groups = "1s")
+    public void test2() {
+        IEnvironment env = new EnvironmentTrailing();
+        BitSet init = new BitSet();
+        init.set(3);
+        init.set(130);
+        StoredSparseBitSet set = new StoredSparseBitSet(env, init);
+        Assert.assertEquals(set.getNbNonZeroWords(), 2);
+        long[] mask = new long[3];
+        mask[2] = 1L << 2;
+        int w = set.intersectIndex(mask);
+        Assert.assertEquals(w, 2);
+        Assert.assertTrue(set.intersects(mask, w));
+        Assert.assertFalse(set.intersects(mask, 0));
+        BitSet visited = new BitSet();
+        set.forEachSetBit(visited::set);
+        Assert.assertEquals(visited, init);
+    }
+
+    @Test(groups = "1s")
+    public void testRandom() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            IEnvironment env = seed % 2 == 0 ? new EnvironmentTrailing() : new EnvironmentCopying();
+            int n = 1 + rnd.nextInt(500);
+            StoredSparseBitSet set = new StoredSparseBitSet(env, n);
+            BitSet[] expected = new BitSet[10];
+            BitSet ref = new BitSet();
+            ref.set(0, n);
+            for (int d = 0; d < 10; d++) {
+                expected[d] = (BitSet) ref.clone();
+                env.worldPush();
+                long[] mask = new long[(n >> 6) + 1];
+                for (int k = 0; k < mask.length; k++) {
+                    mask[k] = rnd.nextLong() | rnd.nextLong();
+                }
+                if (rnd.nextBoolean()) {
+                    set.and(mask);
+                    ref.and(BitSet.valueOf(mask));
+                } else {
+                    for (int k = 0; k < mask.length; k++) {
+                        mask[k] &= rnd.nextLong();
+                    }
+                    set.andNot(mask);
+                    ref.andNot(BitSet.valueOf(mask));
+                }
+                int b = rnd.nextInt(n);
+                set.clear(b);
+                ref.clear(b);
+                Assert.assertEquals(set.copyToBitSet(), ref);
+                Assert.assertEquals(set.cardinality(), ref.cardinality());
+                Assert.assertEquals(set.isEmpty(), ref.isEmpty());
+            }
+            for (int d = 9; d >= 0; d--) {
+                env.worldPop();
+                Assert.assertEquals(set.copyToBitSet(), expected[d]);
+            }
+        }
+    }
+}
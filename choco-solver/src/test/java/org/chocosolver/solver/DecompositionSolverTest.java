@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 23/06/2015
+ */
+public class DecompositionSolverTest {
+
+    private static IntVar[][] groups(Solver solver, int n) {
+        return groups(solver, n, 2);
+    }
+
+    private static IntVar[][] groups(Solver solver, int n, int ub) {
+        IntVar[][] X = new IntVar[n][];
+        for (int i = 0; i < n; i++) {
+            X[i] = VF.enumeratedArray("X" + i, 3, 0, ub, solver);
+            solver.post(ICF.alldifferent(X[i]));
+            solver.post(ICF.arithm(X[i][0], "<", X[i][1]));
+        }
+        return X;
+    }
+
+    @Test(groups = "1s")
+    public void testSat() {
+        Solver solver = new Solver();
+        IntVar[][] X = groups(solver, 4);
+        DecompositionSolver ds = new DecompositionSolver(solver);
+        Assert.assertEquals(ds.decompose(), 4);
+        Assert.assertTrue(ds.findSolution(false));
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(ds.getIntVal(X[i][0]) < ds.getIntVal(X[i][1]));
+            Assert.assertNotEquals(ds.getIntVal(X[i][0]), ds.getIntVal(X[i][2]));
+            Assert.assertNotEquals(ds.getIntVal(X[i][1]), ds.getIntVal(X[i][2]));
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testOpt() {
+        for (boolean parallel : new boolean[]{false, true}) {
+            Solver solver = new Solver();
+            IntVar[][] X = groups(solver, 3);
+            DecompositionSolver ds = new DecompositionSolver(solver);
+            Assert.assertEquals(ds.decompose(), 3);
+            ds.findOptimalSolution(ResolutionPolicy.MAXIMIZE, parallel, X[0][2], X[1][2], X[2][2], X[2][0]);
+            Assert.assertEquals(ds.isFeasible(), ESat.TRUE);
+            Assert.assertEquals(ds.getBestSolutionValue().intValue(), 6);
+            Assert.assertEquals(ds.getIntVal(X[0][2]).intValue(), 2);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testUnsat() {
+        Solver solver = new Solver();
+        IntVar[][] X = groups(solver, 3);
+        solver.post(ICF.arithm(X[1][2], "=", 0));
+        solver.post(ICF.arithm(X[1][0], "=", 0));
+        DecompositionSolver ds = new DecompositionSolver(solver);
+        Assert.assertEquals(ds.decompose(), 3);
+        Assert.assertFalse(ds.findSolution(true));
+        Assert.assertEquals(ds.isFeasible(), ESat.FALSE);
+    }
+
+    @Test(groups = "1s")
+    public void testDynamic() throws ContradictionException {
+        Solver solver = new Solver();
+        IntVar[][] X = groups(solver, 2, 3);
+        IntVar y = VF.enumerated("Y", 0, 2, solver);
+        solver.post(ICF.arithm(X[0][2], "=", y));
+        solver.post(ICF.arithm(X[1][2], "!=", y));
+        DecompositionSolver ds = new DecompositionSolver(solver);
+        Assert.assertEquals(ds.decompose(), 1);
+        solver.getEnvironment().worldPush();
+        y.instantiateTo(1, Cause.Null);
+        solver.propagate();
+        Assert.assertEquals(ds.decompose(), 2);
+        Assert.assertTrue(ds.findSolution(false));
+        Assert.assertEquals(ds.getIntVal(X[0][2]).intValue(), 1);
+        Assert.assertNotEquals(ds.getIntVal(X[1][2]).intValue(), 1);
+        Assert.assertEquals(ds.getIntVal(y).intValue(), 1);
+    }
+
+    @Test(groups = "1s")
+    public void testFixedFirstVariable() throws ContradictionException {
+        Solver solver = new Solver();
+        IntVar y = VF.enumerated("Y", 0, 5, solver);
+        IntVar b = VF.enumerated("B", 0, 5, solver);
+        IntVar c = VF.enumerated("C", 0, 5, solver);
+        solver.post(ICF.sum(new IntVar[]{y, b, c}, VF.fixed(6, solver)));
+        solver.post(ICF.arithm(b, "<", 5));
+        solver.getEnvironment().worldPush();
+        y.instantiateTo(1, Cause.Null);
+        solver.propagate();
+        DecompositionSolver ds = new DecompositionSolver(solver);
+        Assert.assertEquals(ds.decompose(), 1);
+        Assert.assertTrue(ds.findSolution(false));
+        Assert.assertEquals(ds.getIntVal(b) + ds.getIntVal(c), 5);
+    }
+
+    @Test(groups = "1s")
+    public void testFixedObjectiveTerm() throws ContradictionException {
+        Solver solver = new Solver();
+        IntVar[][] X = groups(solver, 2);
+        IntVar z = VF.enumerated("Z", 0, 4, solver);
+        solver.getEnvironment().worldPush();
+        z.instantiateTo(3, Cause.Null);
+        DecompositionSolver ds = new DecompositionSolver(solver);
+        Assert.assertEquals(ds.decompose(), 2);
+        ds.findOptimalSolution(ResolutionPolicy.MAXIMIZE, false, X[0][2], z);
+        Assert.assertEquals(ds.getBestSolutionValue().intValue(), 5);
+        ds.findOptimalSolution(ResolutionPolicy.MINIMIZE, false, X[0][2], X[1][2], z);
+        Assert.assertEquals(ds.getBestSolutionValue().intValue(), 3);
+    }
+
+    @Test(groups = "1s")
+    public void testObjectiveBuiltOnce() {
+        Solver solver = new Solver();
+        IntVar[][] X = groups(solver, 2);
+        DecompositionSolver ds = new DecompositionSolver(solver);
+        Assert.assertEquals(ds.decompose(), 2);
+        Solver component = ds.getComponents()[0];
+        int nbVars = component.getNbVars();
+        int nbCstrs = component.getNbCstrs();
+        for (int i = 0; i < 2; i++) {
+            ds.findOptimalSolution(ResolutionPolicy.MAXIMIZE, false, X[0][1], X[0][2]);
+            Assert.assertEquals(ds.getBestSolutionValue().intValue(), 3);
+            Assert.assertEquals(component.getNbVars(), nbVars + 1);
+            Assert.assertEquals(component.getNbCstrs(), nbCstrs + 1);
+        }
+        ds.findOptimalSolution(ResolutionPolicy.MAXIMIZE, false, X[0][0], X[0][2]);
+        Assert.assertEquals(ds.getBestSolutionValue().intValue(), 2);
+        Assert.assertEquals(component.getNbVars(), nbVars + 1);
+        Assert.assertEquals(component.getNbCstrs(), nbCstrs + 1);
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class IncrementalSolverTest {
+
+    @Test(groups = "1s")
+    public void testGroups() {
+        Solver solver = new Solver();
+        IntVar x = VF.enumerated("x", 0, 5, solver);
+        IntVar y = VF.enumerated("y", 0, 5, solver);
+        IncrementalSolver is = new IncrementalSolver(solver);
+        is.push("g1");
+        is.post(ICF.arithm(x, ">", y));
+        Assert.assertEquals(is.solve(), ESat.TRUE);
+        Assert.assertTrue(x.getValue() > y.getValue());
+        is.push("g2");
+        is.post(ICF.arithm(x, "<", y));
+        Assert.assertEquals(is.getNbGroups(), 2);
+        Assert.assertEquals(is.solve(), ESat.FALSE);
+        Assert.assertTrue(is.getUnsatCore().isEmpty());
+        Assert.assertEquals(is.pop(), "g2");
+        Assert.assertEquals(is.solve(), ESat.TRUE);
+        Assert.assertTrue(x.getValue() > y.getValue());
+        Assert.assertEquals(is.pop(), "g1");
+        is.assume(x, 2);
+        is.assume(y, 4);
+        Assert.assertEquals(is.solve(), ESat.TRUE);
+        Assert.assertEquals(x.getValue(), 2);
+        Assert.assertEquals(y.getValue(), 4);
+    }
+
+    @Test(groups = "1s")
+    public void testRootCore() {
+        Solver solver = new Solver();
+        IntVar x = VF.enumerated("x", 0, 5, solver);
+        IntVar y = VF.enumerated("y", 0, 5, solver);
+        BoolVar[] b = VF.boolArray("b", 3, solver);
+        ICF.arithm(x, ">=", 4).reifyWith(b[0]);
+        ICF.arithm(x, "<=", 2).reifyWith(b[1]);
+        ICF.arithm(y, "=", 1).reifyWith(b[2]);
+        IncrementalSolver is = new IncrementalSolver(solver);
+        Constraint a0 = is.assume(b[0]);
+        Constraint a1 = is.assume(b[1]);
+        Constraint a2 = is.assume(b[2]);
+        Assert.assertEquals(is.solve(), ESat.FALSE);
+        List<Constraint> core = is.getUnsatCore();
+        Assert.assertTrue(core.contains(a0));
+        Assert.assertTrue(core.contains(a1));
+        Assert.assertFalse(core.contains(a2));
+
+        is.assume(b[0]);
+        is.assume(b[2]);
+        Assert.assertEquals(is.solve(), ESat.TRUE);
+        Assert.assertTrue(x.getValue() >= 4);
+        Assert.assertEquals(y.getValue(), 1);
+        Assert.assertTrue(is.getUnsatCore().isEmpty());
+    }
+
+    @Test(groups = "1s")
+    public void testSearchCore() {
+        Solver solver = new Solver();
+        int n = 5;
+        IntVar[] x = VF.enumeratedArray("x", n, 0, n, solver);
+        IntVar y = VF.enumerated("y", 0, 5, solver);
+        solver.post(ICF.alldifferent(x, "NEQS"));
+        IncrementalSolver is = new IncrementalSolver(solver);
+        for (int r = 0; r < 3; r++) {
+            Constraint noise = is.assume(ICF.arithm(y, "=", r));
+            Constraint[] pigeons = new Constraint[n];
+            for (int i = 0; i < n; i++) {
+                pigeons[i] = is.assume(ICF.arithm(x[i], "<", n - 1));
+            }
+            Assert.assertEquals(is.solve(), ESat.FALSE);
+            Assert.assertTrue(solver.getMeasures().getNodeCount() > 0);
+            List<Constraint> core = is.getUnsatCore();
+            Assert.assertFalse(core.contains(noise));
+            Assert.assertFalse(core.isEmpty());
+            // the core is enough to prove infeasibility
+            for (Constraint c : core) {
+                is.assume(c);
+            }
+            Assert.assertEquals(is.solve(), ESat.FALSE);
+        }
+        is.assume(ICF.arithm(x[0], "<", n - 1));
+        Assert.assertEquals(is.solve(), ESat.TRUE);
+    }
+}
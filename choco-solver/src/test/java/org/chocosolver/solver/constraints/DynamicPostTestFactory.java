@@ -44,7 +44,8 @@ public class DynamicPostTestFactory {
 
     PropagationEngineFactory[] engines = new PropagationEngineFactory[]{
             PropagationEngineFactory.TWOBUCKETPROPAGATIONENGINE,
-            PropagationEngineFactory.PROPAGATORDRIVEN_7QD};
+            PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+            PropagationEngineFactory.PROPAGATORDRIVEN_CLUSTERED};
 
     @Factory
     public Object[] createInstances() {
@@ -29,9 +29,12 @@
 package org.chocosolver.solver.constraints.binary;
 
 import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.nary.element.PropElementV_fast;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.explanations.ExplanationFactory;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.variables.IntVar;
@@ -189,4 +192,115 @@ public class ElementTest {
         nasty(153, 15, 192);
     }
 
+
+    private static IntVar var(String name, int lb, int ub, boolean enumerated, Solver solver) {
+        return enumerated ? VariableFactory.enumerated(name, lb, ub, solver) : VariableFactory.bounded(name, lb, ub, solver);
+    }
+
+    @Test(groups = "1s")
+    public void testSupportConsistency() throws ContradictionException {
+        Random r = new Random();
+        for (int seed = 0; seed < 500; seed++) {
+            r.setSeed(seed);
+            int[] values = new int[1 + r.nextInt(8)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = r.nextInt(10) - 3;
+            }
+            int offset = r.nextInt(3) - 1;
+            boolean ev = r.nextBoolean(), ei = r.nextBoolean();
+            Solver s = new Solver();
+            IntVar var = var("v", r.nextInt(5) - 5, r.nextInt(5) + 2, ev, s);
+            IntVar index = var("i", r.nextInt(4) - 2, r.nextInt(6) + 2, ei, s);
+            s.post(IntConstraintFactory.element(var, values, index, offset));
+            if (ev) {
+                var.removeValue(var.getLB() + 1, Cause.Null);
+            }
+            if (ei) {
+                index.removeValue(index.getLB() + 1, Cause.Null);
+            }
+            try {
+                s.propagate();
+            } catch (ContradictionException e) {
+                continue;
+            }
+            // supports of each remaining value (every value for enumerated domains, bounds otherwise)
+            for (int v = var.getLB(); v <= var.getUB(); v = var.nextValue(v)) {
+                boolean supported = false;
+                for (int i = index.getLB(); i <= index.getUB(); i = index.nextValue(i)) {
+                    supported |= values[i - offset] == v;
+                }
+                if (ev || v == var.getLB() || v == var.getUB()) {
+                    Assert.assertTrue(supported, "seed " + seed + ", value " + v);
+                }
+            }
+            for (int i = index.getLB(); i <= index.getUB(); i = index.nextValue(i)) {
+                if (ei || i == index.getLB() || i == index.getUB()) {
+                    Assert.assertTrue(var.contains(values[i - offset]), "seed " + seed + ", index " + i);
+                }
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSupportSameSolutions() {
+        Random r = new Random();
+        for (int seed = 0; seed < 200; seed++) {
+            r.setSeed(seed);
+            int[] values = new int[2 + r.nextInt(10)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = r.nextInt(8);
+            }
+            boolean ev = r.nextBoolean(), ei = r.nextBoolean();
+            long[] counts = new long[2];
+            for (int k = 0; k < 2; k++) {
+                Solver s = new Solver();
+                IntVar var = var("v", 0, 7, ev, s);
+                IntVar index = var("i", -1, values.length, ei, s);
+                IntVar other = VariableFactory.enumerated("o", 0, 7, s);
+                s.post(k == 0 ?
+                        IntConstraintFactory.element(var, values, index, 0, "none") :
+                        IntConstraintFactory.element(var, values, index, 0));
+                s.post(IntConstraintFactory.arithm(var, "!=", other));
+                s.set(IntStrategyFactory.lexico_LB(new IntVar[]{other, index, var}));
+                s.findAllSolutions();
+                counts[k] = s.getMeasures().getSolutionCount();
+            }
+            Assert.assertEquals(counts[0], 7 * values.length, "seed " + seed);
+            Assert.assertEquals(counts[1], counts[0], "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testVariableArray() {
+        Random r = new Random();
+        for (int seed = 0; seed < 200; seed++) {
+            r.setSeed(seed);
+            int n = 1 + r.nextInt(4);
+            int offset = r.nextInt(3) - 1;
+            boolean enumerated = r.nextBoolean();
+            long[] counts = new long[2];
+            for (int k = 0; k < 2; k++) {
+                r.setSeed(seed);
+                Solver s = new Solver();
+                IntVar[] table = new IntVar[n];
+                for (int i = 0; i < n; i++) {
+                    int lb = r.nextInt(4);
+                    table[i] = var("t" + i, lb, lb + r.nextInt(3), enumerated, s);
+                }
+                IntVar var = var("v", 0, 5, r.nextBoolean(), s);
+                IntVar index = var("i", offset - 1, offset + n, r.nextBoolean(), s);
+                if (k == 0) {
+                    s.post(new Constraint("Element",
+                            new PropElementV_fast(var, table, index, offset, false),
+                            new PropElementV_fast(var, table, index, offset, false)));
+                } else {
+                    s.post(IntConstraintFactory.element(var, table, index, offset));
+                }
+                s.set(IntStrategyFactory.lexico_LB(ArrayUtils.append(table, new IntVar[]{index, var})));
+                s.findAllSolutions();
+                counts[k] = s.getMeasures().getSolutionCount();
+            }
+            Assert.assertEquals(counts[1], counts[0], "seed " + seed);
+        }
+    }
 }
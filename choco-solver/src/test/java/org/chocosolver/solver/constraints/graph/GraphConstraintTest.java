@@ -0,0 +1,365 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.graph;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.solver.search.strategy.GSF;
+import org.chocosolver.solver.variables.DirectedGraphVar;
+import org.chocosolver.solver.variables.GraphVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compares the number of solutions of graph constraints with a brute force enumeration of small graphs.
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class GraphConstraintTest {
+
+    private static final int N = 4;
+
+    /**
+     * A graph given by its nodes and its arcs, as bit masks
+     */
+    private static class G {
+        final int nodes;
+        final boolean[][] adj;
+
+        G(int nodes, boolean[][] adj) {
+            this.nodes = nodes;
+            this.adj = adj;
+        }
+
+        boolean has(int x) {
+            return (nodes & (1 << x)) != 0;
+        }
+
+        int degree(int x) {
+            int d = 0;
+            for (int y = 0; y < adj.length; y++) {
+                if (adj[x][y]) d++;
+            }
+            return d;
+        }
+
+        int indegree(int x) {
+            int d = 0;
+            for (int y = 0; y < adj.length; y++) {
+                if (adj[y][x]) d++;
+            }
+            return d;
+        }
+
+        int nbArcs(boolean directed) {
+            int c = 0;
+            for (int x = 0; x < adj.length; x++) {
+                for (int y = directed ? 0 : x; y < adj.length; y++) {
+                    if (adj[x][y]) c++;
+                }
+            }
+            return c;
+        }
+
+        int nbCC() {
+            int n = adj.length;
+            int[] cc = new int[n];
+            int nb = 0;
+            for (int r = 0; r < n; r++) {
+                if (has(r) && cc[r] == 0) {
+                    nb++;
+                    cc[r] = nb;
+                    boolean change = true;
+                    while (change) {
+                        change = false;
+                        for (int x = 0; x < n; x++) {
+                            for (int y = 0; y < n; y++) {
+                                if ((adj[x][y] || adj[y][x]) && cc[x] == nb && cc[y] == 0) {
+                                    cc[y] = nb;
+                                    change = true;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            return nb;
+        }
+    }
+
+    /**
+     * Counts the graphs over N nodes, without loops, satisfying check
+     */
+    private static int enumerate(boolean directed, Predicate<G> check) {
+        int count = 0;
+        int m = 0;
+        int[][] arcs = new int[N * N][];
+        for (int x = 0; x < N; x++) {
+            for (int y = directed ? 0 : x + 1; y < N; y++) {
+                if (x != y) {
+                    arcs[m++] = new int[]{x, y};
+                }
+            }
+        }
+        for (int nodes = 0; nodes < 1 << N; nodes++) {
+            for (int a = 0; a < 1 << m; a++) {
+                boolean[][] adj = new boolean[N][N];
+                boolean valid = true;
+                for (int k = 0; k < m && valid; k++) {
+                    if ((a & (1 << k)) != 0) {
+                        int x = arcs[k][0], y = arcs[k][1];
+                        valid = (nodes & (1 << x)) != 0 && (nodes & (1 << y)) != 0;
+                        adj[x][y] = true;
+                        if (!directed) {
+                            adj[y][x] = true;
+                        }
+                    }
+                }
+                if (valid && check.test(new G(nodes, adj))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static UndirectedGraphVar undirected(Solver solver) {
+        UndirectedGraph ker = new UndirectedGraph(solver, N, SetType.BITSET, false);
+        UndirectedGraph env = new UndirectedGraph(solver, N, SetType.LINKED_LIST, false);
+        for (int x = 0; x < N; x++) {
+            env.addNode(x);
+            for (int y = x + 1; y < N; y++) {
+                env.addEdge(x, y);
+            }
+        }
+        return VariableFactory.undirectedGraph("g", ker, env, solver);
+    }
+
+    private static DirectedGraphVar directed(Solver solver) {
+        DirectedGraph ker = new DirectedGraph(solver, N, SetType.BITSET, false);
+        DirectedGraph env = new DirectedGraph(solver, N, SetType.BITSET, false);
+        for (int x = 0; x < N; x++) {
+            for (int y = 0; y < N; y++) {
+                if (x != y) {
+                    env.addArc(x, y);
+                }
+            }
+        }
+        return VariableFactory.directedGraph("g", ker, env, solver);
+    }
+
+    private static long solve(Solver solver, GraphVar g, Constraint c, boolean enforceFirst) {
+        solver.post(c);
+        solver.set(enforceFirst ? GSF.enforce_first(g) : GSF.remove_first(g));
+        solver.findAllSolutions();
+        return solver.getMeasures().getSolutionCount();
+    }
+
+    private static void check(Function<Solver, Constraint> model, boolean directed, Predicate<G> check) {
+        int expected = enumerate(directed, check);
+        Assert.assertTrue(expected > 0);
+        for (boolean enforceFirst : new boolean[]{true, false}) {
+            Solver solver = new Solver();
+            GraphVar g = directed ? directed(solver) : undirected(solver);
+            Constraint c = model.apply(solver);
+            Assert.assertEquals(solve(solver, g, c, enforceFirst), expected);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testConnected() {
+        check(s -> GCF.connected((GraphVar) s.getVars()[s.getNbVars() - 1]), false, g -> g.nbCC() <= 1);
+        check(s -> GCF.connected((GraphVar) s.getVars()[s.getNbVars() - 1]), true, g -> g.nbCC() <= 1);
+    }
+
+    @Test(groups = "1s")
+    public void testTree() {
+        check(s -> GCF.tree((UndirectedGraphVar) s.getVars()[s.getNbVars() - 1]), false,
+                g -> g.nbCC() <= 1 && g.nbArcs(false) == Math.max(0, Integer.bitCount(g.nodes) - 1));
+    }
+
+    @Test(groups = "1s")
+    public void testSpanningTrees() {
+        // Cayley's formula: n^(n-2) spanning trees in a complete graph
+        Solver solver = new Solver();
+        int n = 5;
+        UndirectedGraph ker = new UndirectedGraph(solver, n, SetType.BITSET, true);
+        UndirectedGraph env = new UndirectedGraph(solver, n, SetType.BITSET, true);
+        for (int x = 0; x < n; x++) {
+            for (int y = x + 1; y < n; y++) {
+                env.addEdge(x, y);
+            }
+        }
+        UndirectedGraphVar g = VariableFactory.undirectedGraph("g", ker, env, solver);
+        solver.post(GCF.tree(g));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 125);
+    }
+
+    @Test(groups = "1s")
+    public void testNbCC() {
+        for (int k = 0; k <= N; k++) {
+            int nb = k;
+            check(s -> {
+                GraphVar g = (GraphVar) s.getVars()[s.getNbVars() - 1];
+                return GCF.nb_connected_components(g, VariableFactory.fixed(nb, s));
+            }, false, g -> g.nbCC() == nb);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testDegrees() {
+        for (int d = 0; d < N; d++) {
+            int deg = d;
+            check(s -> GCF.min_degrees((UndirectedGraphVar) s.getVars()[s.getNbVars() - 1], deg), false, g -> {
+                for (int x = 0; x < N; x++) {
+                    if (g.has(x) && g.degree(x) < deg) return false;
+                }
+                return true;
+            });
+            check(s -> GCF.max_degrees((UndirectedGraphVar) s.getVars()[s.getNbVars() - 1], deg), false, g -> {
+                for (int x = 0; x < N; x++) {
+                    if (g.degree(x) > deg) return false;
+                }
+                return true;
+            });
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testDirectedDegrees() {
+        int[] degrees = {1, 2, 0, 1};
+        check(s -> GCF.min_out_degrees((DirectedGraphVar) s.getVars()[s.getNbVars() - 1], degrees), true, g -> {
+            for (int x = 0; x < N; x++) {
+                if (g.has(x) && g.degree(x) < degrees[x]) return false;
+            }
+            return true;
+        });
+        check(s -> GCF.max_in_degrees((DirectedGraphVar) s.getVars()[s.getNbVars() - 1], degrees), true, g -> {
+            for (int x = 0; x < N; x++) {
+                if (g.indegree(x) > degrees[x]) return false;
+            }
+            return true;
+        });
+    }
+
+    @Test(groups = "1s")
+    public void testNbArcs() {
+        for (int k = 0; k <= 6; k += 2) {
+            int nb = k;
+            check(s -> GCF.nb_edges((UndirectedGraphVar) s.getVars()[s.getNbVars() - 1], VariableFactory.fixed(nb, s)),
+                    false, g -> g.nbArcs(false) == nb);
+            check(s -> GCF.nb_arcs((DirectedGraphVar) s.getVars()[s.getNbVars() - 1], VariableFactory.fixed(nb, s)),
+                    true, g -> g.nbArcs(true) == nb);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testDefaultSearch() {
+        Solver solver = new Solver();
+        UndirectedGraphVar g = undirected(solver);
+        IntVar nb = VariableFactory.bounded("nb", 0, 10, solver);
+        solver.post(GCF.tree(g));
+        solver.post(GCF.nb_edges(g, nb));
+        solver.post(GCF.max_degrees(g, 2));
+        Assert.assertTrue(solver.findSolution());
+        Assert.assertTrue(g.isInstantiated());
+        Assert.assertEquals(nb.getValue(), g.getKernelGraph().getNodes().getSize() - 1);
+    }
+
+    @Test(groups = "1s")
+    public void testLargeSparse() {
+        // a spanning tree with bounded degree over a sparse grid
+        Solver solver = new Solver();
+        int w = 30, n = w * w;
+        UndirectedGraph ker = new UndirectedGraph(solver, n, SetType.LINKED_LIST, true);
+        UndirectedGraph env = new UndirectedGraph(solver, n, SetType.LINKED_LIST, true);
+        for (int i = 0; i < w; i++) {
+            for (int j = 0; j < w; j++) {
+                if (i + 1 < w) env.addEdge(i * w + j, (i + 1) * w + j);
+                if (j + 1 < w) env.addEdge(i * w + j, i * w + j + 1);
+            }
+        }
+        UndirectedGraphVar g = VariableFactory.undirectedGraph("g", ker, env, solver);
+        IntVar nb = VariableFactory.bounded("nb", 0, 2 * n, solver);
+        solver.post(GCF.tree(g));
+        solver.post(GCF.nb_edges(g, nb));
+        solver.set(GSF.remove_first(g));
+        Assert.assertTrue(solver.findSolution());
+        Assert.assertEquals(nb.getValue(), n - 1);
+    }
+
+    @Test(groups = "1s")
+    public void testOptimalGraphRestored() {
+        // the longest path without cycle over a complete graph visits every node
+        Solver solver = new Solver();
+        int n = 5;
+        UndirectedGraph ker = new UndirectedGraph(solver, n, SetType.BITSET, true);
+        UndirectedGraph env = new UndirectedGraph(solver, n, SetType.BITSET, true);
+        for (int x = 0; x < n; x++) {
+            for (int y = x + 1; y < n; y++) {
+                env.addEdge(x, y);
+            }
+        }
+        UndirectedGraphVar g = VariableFactory.undirectedGraph("g", ker, env, solver);
+        IntVar nb = VariableFactory.bounded("nb", 0, 10, solver);
+        solver.post(GCF.no_cycle(g));
+        solver.post(GCF.max_degrees(g, 2));
+        solver.post(GCF.nb_edges(g, nb));
+        solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, nb);
+        Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue().intValue(), n - 1);
+        Assert.assertTrue(g.isInstantiated());
+        Solution solution = solver.getSolutionRecorder().getLastSolution();
+        int[][] adj = solution.getGraphVal(g);
+        int nbEdges = 0;
+        for (int x = 0; x < n; x++) {
+            Assert.assertTrue(g.getKernelGraph().getNodes().contain(x));
+            Assert.assertTrue(adj[x].length <= 2);
+            Assert.assertEquals(g.getKernelGraph().getNeighOf(x).getSize(), adj[x].length);
+            for (int y : adj[x]) {
+                Assert.assertTrue(g.getKernelGraph().isArcOrEdge(x, y));
+            }
+            nbEdges += adj[x].length;
+        }
+        Assert.assertEquals(nbEdges / 2, n - 1);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.search.strategy.IntStrategyFactory;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class BinPackingTest {
+
+    private static Solver model(int[] sizes, int nbBins, int capacity, int offset, boolean decomposition, boolean bounded) {
+        Solver solver = new Solver();
+        int n = sizes.length;
+        IntVar[] bins = bounded ?
+                VariableFactory.boundedArray("b", n, offset, nbBins - 1 + offset, solver) :
+                VariableFactory.enumeratedArray("b", n, offset, nbBins - 1 + offset, solver);
+        IntVar[] loads = VariableFactory.boundedArray("l", nbBins, 0, capacity, solver);
+        if (decomposition) {
+            BoolVar[][] xbi = VariableFactory.boolMatrix("xbi", nbBins, n, solver);
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                solver.post(IntConstraintFactory.boolean_channeling(ArrayUtils.getColumn(xbi, i), bins[i], offset));
+                sum += sizes[i];
+            }
+            for (int b = 0; b < nbBins; b++) {
+                solver.post(IntConstraintFactory.scalar(xbi[b], sizes, loads[b]));
+            }
+            solver.post(IntConstraintFactory.sum(loads, VariableFactory.fixed(sum, solver)));
+        } else {
+            solver.post(IntConstraintFactory.bin_packing(bins, sizes, loads, offset));
+        }
+        solver.set(IntStrategyFactory.lexico_LB(ArrayUtils.append(bins, loads)));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testSmall() {
+        Solver solver = model(new int[]{2, 3, 1, 4, 2}, 3, 5, 1, false, false);
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 42);
+    }
+
+    @Test(groups = "1s")
+    public void testRandom() {
+        Random rnd = new Random();
+        for (int seed = 0; seed < 100; seed++) {
+            rnd.setSeed(seed);
+            int n = 2 + rnd.nextInt(6);
+            int m = 1 + rnd.nextInt(4);
+            int[] sizes = new int[n];
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                sizes[i] = rnd.nextInt(8);
+                sum += sizes[i];
+            }
+            int capacity = sum / m + rnd.nextInt(6);
+            int offset = rnd.nextInt(3) - 1;
+            boolean bounded = rnd.nextBoolean();
+            Solver ref = model(sizes, m, capacity, offset, true, bounded);
+            ref.findAllSolutions();
+            Solver solver = model(sizes, m, capacity, offset, false, bounded);
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), ref.getMeasures().getSolutionCount(), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testL2() {
+        // three items of size 6 cannot fit in two bins of capacity 10
+        Solver solver = model(new int[]{6, 6, 6, 1}, 2, 10, 0, false, false);
+        Assert.assertFalse(solver.findSolution());
+        Assert.assertEquals(solver.getMeasures().getNodeCount(), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testLarge() {
+        Random rnd = new Random(0);
+        int n = 2000, m = 200;
+        int[] sizes = new int[n];
+        for (int i = 0; i < n; i++) {
+            sizes[i] = 1 + rnd.nextInt(20);
+        }
+        Solver solver = new Solver();
+        IntVar[] bins = VariableFactory.enumeratedArray("b", n, 0, m - 1, solver);
+        IntVar[] loads = VariableFactory.boundedArray("l", m, 0, 150, solver);
+        solver.post(IntConstraintFactory.bin_packing(bins, sizes, loads, 0));
+        Assert.assertEquals(solver.getNbCstrs(), 1);
+        solver.set(IntStrategyFactory.lexico_LB(bins));
+        Assert.assertTrue(solver.findSolution());
+        for (int b = 0; b < m; b++) {
+            int load = 0;
+            for (int i = 0; i < n; i++) {
+                if (bins[i].getValue() == b) {
+                    load += sizes[i];
+                }
+            }
+            Assert.assertEquals(loads[b].getValue(), load);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testWideLoads() {
+        // the sums of the load bounds exceed the int range
+        Solver solver = new Solver();
+        int n = 4, m = 150;
+        IntVar[] bins = VariableFactory.enumeratedArray("b", n, 0, m - 1, solver);
+        IntVar[] loads = VariableFactory.boundedArray("l", m, 0, VariableFactory.MAX_INT_BOUND, solver);
+        solver.post(IntConstraintFactory.bin_packing(bins, new int[]{3, 5, 2, 7}, loads, 0));
+        solver.set(IntStrategyFactory.lexico_LB(ArrayUtils.append(bins, loads)));
+        Assert.assertTrue(solver.findSolution());
+        Assert.assertEquals(loads[0].getValue(), 17);
+        Assert.assertEquals(loads[1].getValue(), 0);
+    }
+}
@@ -28,83 +28,179 @@
  */
 package org.chocosolver.solver.constraints.nary;
 
+import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.nary.globalcardinality.GlobalCardinality;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.IntStrategyFactory;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
 /**
  * <br/>
- * CONSISTENCY TEST (not relevant yet)
+ * CONSISTENCY TEST
  *
  * @author Charles Prud'homme
  * @since 15/06/11
  */
 public class GlobalCardinalityTest {
 
-//    @Test
-//    public void testGCC() {
-//        Solver solver = new Solver();
-//
-//        IntVar peter = VariableFactory.enumerated("Peter", 0, 1, solver);
-//        IntVar paul = VariableFactory.enumerated("Paul", 0, 1, solver);
-//        IntVar mary = VariableFactory.enumerated("Mary", 0, 1, solver);
-//        IntVar john = VariableFactory.enumerated("John", 0, 1, solver);
-//        IntVar bob = VariableFactory.enumerated("Bob", 0, 2, solver);
-//        IntVar mike = VariableFactory.enumerated("Mike", 1, 4, solver);
-//        IntVar julia = VariableFactory.enumerated("Julia", 2, 4, solver);
-//
-//        IntVar[] vars = new IntVar[]{peter, paul, mary, john, bob, mike, julia};
-//
-//		IntVar[] cards = new IntVar[]{
-//				VariableFactory.bounded("card 0",1,2,solver),
-//				VariableFactory.bounded("card 1",1,2,solver),
-//				VariableFactory.bounded("card 2",1,1,solver),
-//				VariableFactory.bounded("card 3",0,2,solver),
-//				VariableFactory.bounded("card 4",0,2,solver)
-//		};
-//        Constraint gcc = IntConstraintFactory.global_cardinality(vars, new int[]{0, 1, 2, 3, 4}, cards, false);
-//
-//        solver.post(gcc);
-//        try {
-//            solver.propagate();
-//            assertEquals(bob.getLB(), 2);
-//            assertEquals(bob.getUB(), 2);
-//            julia.removeValue(3, Cause.Null);
-//            solver.propagate();
-//        } catch (ContradictionException e) {
-//            e.printStackTrace();
-//            Assert.fail();
-//        }
-//    }
-//
-//    @Test
-//    public void testGCC_Cards_JG() {
-//        Solver solver = new Solver();
-//
-//        IntVar peter = VariableFactory.enumerated("Peter", 0, 1, solver);
-//        IntVar paul = VariableFactory.enumerated("Paul", 0, 1, solver);
-//        IntVar mary = VariableFactory.enumerated("Mary", 0, 1, solver);
-//        IntVar john = VariableFactory.enumerated("John", 0, 1, solver);
-//        IntVar bob = VariableFactory.enumerated("Bob", 0, 2, solver);
-//        IntVar mike = VariableFactory.enumerated("Mike", 1, 4, solver);
-//        IntVar julia = VariableFactory.enumerated("Julia", 2, 4, solver);
-//
-//        IntVar[] vars = new IntVar[]{peter, paul, mary, john, bob, mike, julia};
-//
-//        IntVar[] cards = new IntVar[]{
-//                VariableFactory.bounded("card0", 1, 2, solver),
-//                VariableFactory.bounded("card1", 1, 2, solver),
-//                VariableFactory.bounded("card2", 1, 1, solver),
-//                VariableFactory.bounded("card3", 0, 2, solver),
-//                VariableFactory.bounded("card4", 0, 2, solver)};
-//
-//        Constraint gcc = IntConstraintFactory.global_cardinality(vars, new int[]{0, 1, 2, 3, 4}, cards, false);
-//        solver.post(gcc);
-//        try {
-//            solver.propagate();
-//            assertEquals(bob.getLB(), 2);
-//            assertEquals(bob.getUB(), 2);
-//            julia.removeValue(3, Cause.Null);
-//            solver.propagate();
-//        } catch (ContradictionException e) {
-//            e.printStackTrace();
-//            Assert.fail();
-//        }
-//    }
+    @Test(groups = "1s")
+    public void testGCC() throws ContradictionException {
+        Solver solver = new Solver();
+
+        IntVar peter = VariableFactory.enumerated("Peter", 0, 1, solver);
+        IntVar paul = VariableFactory.enumerated("Paul", 0, 1, solver);
+        IntVar mary = VariableFactory.enumerated("Mary", 0, 1, solver);
+        IntVar john = VariableFactory.enumerated("John", 0, 1, solver);
+        IntVar bob = VariableFactory.enumerated("Bob", 0, 2, solver);
+        IntVar mike = VariableFactory.enumerated("Mike", 1, 4, solver);
+        IntVar julia = VariableFactory.enumerated("Julia", 2, 4, solver);
+
+        IntVar[] vars = new IntVar[]{peter, paul, mary, john, bob, mike, julia};
+
+        IntVar[] cards = new IntVar[]{
+                VariableFactory.bounded("card 0", 1, 2, solver),
+                VariableFactory.bounded("card 1", 1, 2, solver),
+                VariableFactory.bounded("card 2", 1, 1, solver),
+                VariableFactory.bounded("card 3", 0, 2, solver),
+                VariableFactory.bounded("card 4", 0, 2, solver)
+        };
+        solver.post(IntConstraintFactory.global_cardinality(vars, new int[]{0, 1, 2, 3, 4}, cards, false, "AC"));
+        solver.propagate();
+        // Peter, Paul, Mary and John saturate values 0 and 1
+        Assert.assertTrue(bob.isInstantiatedTo(2));
+        Assert.assertEquals(mike.getLB(), 3);
+        Assert.assertEquals(julia.getLB(), 3);
+        Assert.assertTrue(cards[0].isInstantiatedTo(2));
+        Assert.assertTrue(cards[1].isInstantiatedTo(2));
+        Assert.assertEquals(cards[3].getUB(), 2);
+        Assert.assertEquals(cards[4].getUB(), 2);
+        Assert.assertEquals(cards[3].getLB() + cards[4].getLB(), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testCardinalityBounds() throws ContradictionException {
+        Solver solver = new Solver();
+        IntVar[] vars = new IntVar[]{
+                VariableFactory.enumerated("x0", new int[]{0, 1}, solver),
+                VariableFactory.enumerated("x1", new int[]{0, 1}, solver),
+                VariableFactory.enumerated("x2", new int[]{1, 2}, solver),
+        };
+        IntVar[] cards = VariableFactory.boundedArray("c", 3, 0, 3, solver);
+        solver.post(IntConstraintFactory.global_cardinality(vars, new int[]{0, 1, 2}, cards, true, "AC"));
+        solver.propagate();
+        Assert.assertEquals(cards[0].getUB(), 2);
+        Assert.assertEquals(cards[1].getUB(), 3);
+        Assert.assertEquals(cards[2].getUB(), 1);
+        cards[1].updateUpperBound(0, Cause.Null);
+        solver.propagate();
+        Assert.assertTrue(vars[0].isInstantiatedTo(0));
+        Assert.assertTrue(vars[1].isInstantiatedTo(0));
+        Assert.assertTrue(vars[2].isInstantiatedTo(2));
+        Assert.assertTrue(cards[0].isInstantiatedTo(2));
+        Assert.assertTrue(cards[2].isInstantiatedTo(1));
+    }
+
+    private static Solver model(int seed, boolean ac, boolean ref) {
+        Random random = new Random(seed);
+        int n = 1 + random.nextInt(6);
+        int m = 1 + random.nextInt(4);
+        Solver solver = new Solver();
+        IntVar[] vars = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            // domains with a hole, and possibly values which are not constrained
+            int lb = random.nextInt(m), ub = lb + random.nextInt(m + 1);
+            TIntArrayList dom = new TIntArrayList();
+            for (int k = lb; k <= ub; k++) {
+                if (k != lb + 1 || ub - lb < 2) {
+                    dom.add(k);
+                }
+            }
+            vars[i] = VariableFactory.enumerated("x" + i, dom.toArray(), solver);
+        }
+        int[] values = new int[m];
+        IntVar[] cards = new IntVar[m];
+        for (int j = 0; j < m; j++) {
+            values[j] = j;
+            int lb = random.nextInt(3);
+            cards[j] = VariableFactory.enumerated("card" + j, lb, lb + random.nextInt(n), solver);
+        }
+        if (ref) {
+            solver.post(GlobalCardinality.reformulate(vars, cards, solver));
+        } else {
+            solver.post(IntConstraintFactory.global_cardinality(vars, values, cards, false, ac ? "AC" : "DEFAULT"));
+        }
+        solver.set(IntStrategyFactory.lexico_LB(ArrayUtils.append(vars, cards)));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testRandom() {
+        for (int seed = 0; seed < 300; seed++) {
+            Solver ref = model(seed, false, true);
+            ref.findAllSolutions();
+            Solver fast = model(seed, false, false);
+            fast.findAllSolutions();
+            Solver ac = model(seed, true, false);
+            ac.findAllSolutions();
+            Assert.assertEquals(ac.getMeasures().getSolutionCount(), ref.getMeasures().getSolutionCount(), "seed " + seed);
+            Assert.assertEquals(fast.getMeasures().getSolutionCount(), ref.getMeasures().getSolutionCount(), "seed " + seed);
+            // arc consistency never fails, once the root node is consistent
+            Assert.assertEquals(ac.getMeasures().getFailCount(), ref.getMeasures().getSolutionCount() > 0 ? 0 : 1, "seed " + seed);
+            Assert.assertTrue(ac.getMeasures().getNodeCount() <= fast.getMeasures().getNodeCount(), "seed " + seed);
+        }
+    }
+
+    private static IntVar[] scope(Solver solver) {
+        return Arrays.stream(solver.getVars())
+                .filter(v -> v.getName().startsWith("x") || v.getName().startsWith("card"))
+                .toArray(IntVar[]::new);
+    }
+
+    @Test(groups = "1s")
+    public void testArcConsistency() {
+        for (int seed = 0; seed < 300; seed++) {
+            Solver ac = model(seed, true, false);
+            boolean consistent = true;
+            try {
+                ac.propagate();
+            } catch (ContradictionException e) {
+                consistent = false;
+            }
+            IntVar[] filtered = scope(ac);
+            IntVar[] initial = scope(model(seed, false, true));
+            for (int i = 0; i < initial.length; i++) {
+                IntVar v = initial[i];
+                boolean card = v.getName().startsWith("card");
+                int ub = v.getUB();
+                for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                    Solver sup = model(seed, false, true);
+                    sup.post(IntConstraintFactory.arithm(scope(sup)[i], "=", k));
+                    boolean supported = sup.findSolution();
+                    String msg = "seed " + seed + ", " + v.getName() + " = " + k;
+                    if (!consistent) {
+                        Assert.assertFalse(supported, msg);
+                    } else if (card) {
+                        // bound consistency
+                        if (k == filtered[i].getLB() || k == filtered[i].getUB()) {
+                            Assert.assertTrue(supported, msg);
+                        } else if (supported) {
+                            Assert.assertTrue(filtered[i].contains(k), msg);
+                        }
+                    } else {
+                        Assert.assertEquals(filtered[i].contains(k), supported, msg);
+                    }
+                }
+            }
+        }
+    }
 }
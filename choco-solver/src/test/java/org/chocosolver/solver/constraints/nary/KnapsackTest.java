@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.IntStrategyFactory;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class KnapsackTest {
+
+    private static Solver model(int[] weights, int[] energies, int[] ubs, int capacity, boolean dp, boolean bounded) {
+        Solver solver = new Solver();
+        int n = weights.length;
+        IntVar[] occ = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            occ[i] = bounded ?
+                    VariableFactory.bounded("o" + i, 0, ubs[i], solver) :
+                    VariableFactory.enumerated("o" + i, 0, ubs[i], solver);
+        }
+        IntVar weight = VariableFactory.enumerated("w", 0, capacity, solver);
+        IntVar energy = VariableFactory.bounded("e", -1000, 1000, solver);
+        if (dp) {
+            Constraint knapsack = IntConstraintFactory.knapsack(occ, weight, energy, weights, energies);
+            Assert.assertTrue(knapsack.getPropagators()[knapsack.getPropagators().length - 1] instanceof PropKnapsackDP);
+            solver.post(knapsack);
+        } else {
+            solver.post(new Constraint("Knapsack", ArrayUtils.append(
+                    IntConstraintFactory.scalar(occ, weights, weight).getPropagators(),
+                    IntConstraintFactory.scalar(occ, energies, energy).getPropagators())));
+        }
+        solver.set(IntStrategyFactory.lexico_LB(ArrayUtils.append(occ, new IntVar[]{weight})));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testRandom() {
+        Random rnd = new Random();
+        for (int seed = 0; seed < 100; seed++) {
+            rnd.setSeed(seed);
+            int n = 1 + rnd.nextInt(5);
+            int[] weights = new int[n], energies = new int[n], ubs = new int[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = rnd.nextInt(6);
+                energies[i] = rnd.nextInt(11) - 3;
+                ubs[i] = rnd.nextInt(4);
+            }
+            int capacity = rnd.nextInt(15);
+            boolean bounded = rnd.nextBoolean();
+            Solver ref = model(weights, energies, ubs, capacity, false, bounded);
+            ref.findAllSolutions();
+            Solver solver = model(weights, energies, ubs, capacity, true, bounded);
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), ref.getMeasures().getSolutionCount(), "seed " + seed);
+            if (!bounded) {
+                Assert.assertEquals(solver.getMeasures().getFailCount(), 0, "seed " + seed);
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testOptimization() {
+        Random rnd = new Random();
+        for (int seed = 0; seed < 50; seed++) {
+            rnd.setSeed(seed);
+            int n = 2 + rnd.nextInt(6);
+            int[] weights = new int[n], energies = new int[n], ubs = new int[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = 1 + rnd.nextInt(9);
+                energies[i] = rnd.nextInt(20);
+                ubs[i] = 1 + rnd.nextInt(3);
+            }
+            int capacity = 5 + rnd.nextInt(30);
+            boolean bounded = rnd.nextBoolean();
+            Solver ref = model(weights, energies, ubs, capacity, false, bounded);
+            IntVar e1 = (IntVar) ref.getVars()[n + 1];
+            ref.findOptimalSolution(ResolutionPolicy.MAXIMIZE, e1);
+            Solver solver = model(weights, energies, ubs, capacity, true, bounded);
+            IntVar e2 = (IntVar) solver.getVars()[n + 1];
+            solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, e2);
+            Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue(),
+                    ref.getObjectiveManager().getBestSolutionValue(), "seed " + seed);
+            Assert.assertTrue(solver.getMeasures().getNodeCount() <= ref.getMeasures().getNodeCount(), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testArcConsistency() throws ContradictionException {
+        // 3a + 5b = w, w in {7, 8}: only a = 1, b = 1 (w = 8)
+        Solver solver = new Solver();
+        IntVar a = VariableFactory.enumerated("a", 0, 5, solver);
+        IntVar b = VariableFactory.enumerated("b", 0, 5, solver);
+        IntVar w = VariableFactory.enumerated("w", 7, 8, solver);
+        IntVar e = VariableFactory.bounded("e", 0, 100, solver);
+        solver.post(IntConstraintFactory.knapsack(new IntVar[]{a, b}, w, e, new int[]{3, 5}, new int[]{2, 7}));
+        solver.propagate();
+        Assert.assertTrue(a.isInstantiatedTo(1));
+        Assert.assertTrue(b.isInstantiatedTo(1));
+        Assert.assertTrue(w.isInstantiatedTo(8));
+        Assert.assertTrue(e.isInstantiatedTo(9));
+    }
+
+    @Test(groups = "1s")
+    public void testFallback() {
+        Solver solver = new Solver();
+        IntVar[] occ = VariableFactory.boundedArray("o", 10, 0, 100, solver);
+        IntVar w = VariableFactory.bounded("w", 0, 1000000, solver);
+        IntVar e = VariableFactory.bounded("e", 0, 1000000, solver);
+        Assert.assertFalse(PropKnapsackDP.isAffordable(occ, w, new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}));
+        Constraint c = IntConstraintFactory.knapsack(occ, w, e, new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10},
+                new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+        Assert.assertTrue(c.getPropagators()[c.getPropagators().length - 1] instanceof PropKnapsack);
+    }
+}
@@ -32,6 +32,8 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
 import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.LayeredGraphCache;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.solution.Solution;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
@@ -300,4 +302,24 @@ public class RegularTest {
         solver.findAllSolutions();
         Assert.assertEquals(solver.getMeasures().getSolutionCount(), 2);
     }
-}
\ No newline at end of file
+
+    @Test(groups = "1s")
+    public void testSharedGraph() {
+        FiniteAutomaton auto = new FiniteAutomaton("(0|1)*2(0|1)*");
+        Solver solver = new Solver();
+        IntVar[] X = VF.enumeratedArray("X", 5, 0, 2, solver);
+        IntVar[] Y = VF.enumeratedArray("Y", 5, 0, 2, solver);
+        IntVar[] Z = VF.enumeratedArray("Z", 5, 0, 3, new Solver());
+        Assert.assertSame(LayeredGraphCache.get(X, auto, false), LayeredGraphCache.get(Y, auto, false));
+        Assert.assertNotSame(LayeredGraphCache.get(X, auto, false), LayeredGraphCache.get(Z, auto, false));
+        Assert.assertSame(LayeredGraphCache.get(X, auto, false), LayeredGraphCache.get(X, new FiniteAutomaton(auto), false));
+        solver.post(ICF.regular(X, auto));
+        solver.post(ICF.regular(Y, auto));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 80 * 80);
+        // a modification of the automaton invalidates the graph
+        LayeredGraph g = LayeredGraphCache.get(X, auto, false);
+        auto.setFinal(auto.getInitialState());
+        Assert.assertNotSame(LayeredGraphCache.get(X, auto, false), g);
+    }
+}
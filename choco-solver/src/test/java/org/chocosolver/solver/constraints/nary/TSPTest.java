@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.nary.circuit.PropCircuitHeldKarp;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.IntStrategyFactory;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class TSPTest {
+
+    private static int[][] matrix(int n, long seed, boolean symmetric) {
+        Random rnd = new Random(seed);
+        int[][] costs = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = symmetric ? i + 1 : 0; j < n; j++) {
+                costs[i][j] = i == j ? 0 : 1 + rnd.nextInt(100);
+                if (symmetric) {
+                    costs[j][i] = costs[i][j];
+                }
+            }
+        }
+        return costs;
+    }
+
+    private static Solver model(int[][] costs, boolean heldKarp) {
+        Solver solver = new Solver();
+        int n = costs.length;
+        IntVar[] succs = VariableFactory.enumeratedArray("s", n, 0, n - 1, solver);
+        IntVar cost = VariableFactory.bounded("c", 0, 100 * n, solver);
+        Constraint[] tsp = IntConstraintFactory.tsp(succs, cost, costs);
+        Assert.assertEquals(tsp.length, n + 3);
+        if (!heldKarp) {
+            tsp = Arrays.copyOf(tsp, n + 2);
+        }
+        solver.post(tsp);
+        solver.set(IntStrategyFactory.lexico_LB(succs));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testOptimum() {
+        for (int seed = 0; seed < 40; seed++) {
+            int n = 3 + seed % 6;
+            int[][] costs = matrix(n, seed, seed % 2 == 0);
+            Solver ref = model(costs, false);
+            ref.findOptimalSolution(ResolutionPolicy.MINIMIZE, (IntVar) ref.getVars()[n]);
+            Solver solver = model(costs, true);
+            solver.findOptimalSolution(ResolutionPolicy.MINIMIZE, (IntVar) solver.getVars()[n]);
+            Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue(),
+                    ref.getObjectiveManager().getBestSolutionValue(), "seed " + seed);
+            Assert.assertTrue(solver.getMeasures().getNodeCount() <= ref.getMeasures().getNodeCount(), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testAllSolutions() {
+        // tours of cost at most 250 are all kept
+        for (int seed = 0; seed < 20; seed++) {
+            int[][] costs = matrix(6, seed, seed % 2 == 0);
+            Solver ref = model(costs, false);
+            ref.post(IntConstraintFactory.arithm((IntVar) ref.getVars()[6], "<=", 250));
+            ref.findAllSolutions();
+            Solver solver = model(costs, true);
+            solver.post(IntConstraintFactory.arithm((IntVar) solver.getVars()[6], "<=", 250));
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), ref.getMeasures().getSolutionCount(), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testRootBound() throws ContradictionException {
+        // points on a line: the optimal tour goes forth and back, it costs twice the length of the line
+        int n = 8;
+        int[][] costs = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i][j] = Math.abs(i - j);
+            }
+        }
+        Solver solver = new Solver();
+        IntVar[] succs = VariableFactory.enumeratedArray("s", n, 0, n - 1, solver);
+        IntVar cost = VariableFactory.bounded("c", 0, 1000, solver);
+        solver.post(new Constraint("HeldKarp", new PropCircuitHeldKarp(succs, 0, costs, cost)));
+        solver.propagate();
+        Assert.assertEquals(cost.getLB(), 2 * (n - 1));
+    }
+
+    @Test(groups = "1s", expectedExceptions = ContradictionException.class)
+    public void testFail() throws ContradictionException {
+        int[][] costs = matrix(7, 0, true);
+        Solver solver = new Solver();
+        IntVar[] succs = VariableFactory.enumeratedArray("s", 7, 0, 6, solver);
+        IntVar cost = VariableFactory.bounded("c", 0, 6, solver);
+        solver.post(new Constraint("HeldKarp", new PropCircuitHeldKarp(succs, 0, costs, cost)));
+        solver.propagate();
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.SSF;
+import org.chocosolver.solver.variables.BitsetSetVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class BitsetSetVarTest {
+
+    private static SetVar set(String name, int[] env, boolean bitset, Solver solver) {
+        return bitset ?
+                VF.set(name, env, new int[0], solver) :
+                VF.set(name, env, SetType.LINKED_LIST, new int[0], SetType.LINKED_LIST, solver);
+    }
+
+    private static int[] envelope(Random rnd, int lb, int size) {
+        int[] env = new int[size];
+        for (int i = 0, v = lb; i < size; i++) {
+            v += 1 + rnd.nextInt(40);
+            env[i] = v;
+        }
+        return env;
+    }
+
+    private static long count(int seed, int model, boolean bitset) {
+        Random rnd = new Random(seed);
+        Solver solver = new Solver();
+        int n = 2 + rnd.nextInt(2);
+        SetVar[] sets = new SetVar[n];
+        for (int i = 0; i < n; i++) {
+            sets[i] = set("s" + i, envelope(rnd, -70, 2 + rnd.nextInt(3)), bitset, solver);
+        }
+        SetVar res = set("r", envelope(rnd, -70, 3 + rnd.nextInt(3)), bitset, solver);
+        IntVar card = VF.enumerated("c", 0, 3, solver);
+        Constraint c;
+        switch (model) {
+            case 0:
+                c = SCF.union(sets, res);
+                break;
+            case 1:
+                c = SCF.intersection(sets, res);
+                break;
+            case 2:
+                c = SCF.subsetEq(new SetVar[]{sets[0], res});
+                break;
+            case 3:
+                c = SCF.all_disjoint(sets);
+                break;
+            default:
+                c = SCF.partition(sets, res);
+                break;
+        }
+        Assert.assertEquals(c.getPropagators()[0].getClass().getSimpleName().startsWith("PropBitset"), bitset);
+        solver.post(c);
+        solver.post(SCF.cardinality(res, card));
+        SetVar[] all = new SetVar[n + 1];
+        System.arraycopy(sets, 0, all, 0, n);
+        all[n] = res;
+        solver.set(SSF.force_first(all));
+        solver.findAllSolutions();
+        return solver.getMeasures().getSolutionCount();
+    }
+
+    @Test(groups = "1s")
+    public void testSameSolutions() {
+        for (int seed = 0; seed < 40; seed++) {
+            for (int model = 0; model < 5; model++) {
+                Assert.assertEquals(count(seed, model, true), count(seed, model, false), "seed " + seed + ", model " + model);
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testWords() throws ContradictionException {
+        Solver solver = new Solver();
+        BitsetSetVar s = (BitsetSetVar) VF.set("s", -3, 130, solver);
+        Assert.assertEquals(s.getFirstWord(), -1);
+        Assert.assertEquals(s.getLastWord(), 2);
+        Assert.assertEquals(s.getEnvelopeWord(-1), 0b111L << 61);
+        Assert.assertEquals(s.getEnvelopeWord(0), -1L);
+        Assert.assertEquals(s.getEnvelopeWord(2), 0b111L);
+        Assert.assertEquals(s.getEnvelopeWord(3), 0L);
+        Assert.assertEquals(s.getEnvelopeSize(), 134);
+        solver.getEnvironment().worldPush();
+        Assert.assertTrue(s.addWordToKernel(0, 0b1010L, Cause.Null));
+        Assert.assertFalse(s.addWordToKernel(0, 0b10L, Cause.Null));
+        Assert.assertTrue(s.kernelContains(1) && s.kernelContains(3));
+        Assert.assertEquals(s.getKernelSize(), 2);
+        Assert.assertTrue(s.removeWordFromEnvelope(-1, -1L, Cause.Null));
+        Assert.assertTrue(s.removeWordFromEnvelope(2, 0b101L, Cause.Null));
+        Assert.assertEquals(s.getEnvelopeSize(), 129);
+        Assert.assertFalse(s.envelopeContains(-1));
+        Assert.assertTrue(s.envelopeContains(129));
+        Assert.assertFalse(s.envelopeContains(130));
+        try {
+            s.removeWordFromEnvelope(0, 0b1000L, Cause.Null);
+            Assert.fail();
+        } catch (ContradictionException ignored) {
+        }
+        solver.getEnvironment().worldPop();
+        Assert.assertEquals(s.getKernelSize(), 0);
+        Assert.assertEquals(s.getEnvelopeSize(), 134);
+        Assert.assertTrue(s.envelopeContains(-3));
+    }
+
+    @Test(groups = "1s")
+    public void testLargeUniverse() {
+        // partition 10,000 elements into 4 sets of equal size
+        Solver solver = new Solver();
+        int n = 10000;
+        SetVar universe = VF.set("u", 0, n - 1, solver);
+        SetVar[] parts = new SetVar[4];
+        for (int i = 0; i < 4; i++) {
+            parts[i] = VF.set("p" + i, 0, n - 1, solver);
+            solver.post(SCF.cardinality(parts[i], VF.fixed(n / 4, solver)));
+        }
+        solver.post(SCF.partition(parts, universe));
+        solver.post(SCF.cardinality(universe, VF.fixed(n, solver)));
+        solver.set(SSF.force_first(parts));
+        Assert.assertTrue(solver.findSolution());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(parts[i].getKernelSize(), n / 4);
+        }
+    }
+}
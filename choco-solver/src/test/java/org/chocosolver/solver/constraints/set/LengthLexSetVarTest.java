@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.SSF;
+import org.chocosolver.solver.variables.LengthLexSetVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class LengthLexSetVarTest {
+
+    /**
+     * @return every subset of universe, in increasing order
+     */
+    private static List<int[]> subsets(int[] universe) {
+        List<int[]> sets = new ArrayList<>();
+        for (int m = 0; m < 1 << universe.length; m++) {
+            int[] s = new int[Integer.bitCount(m)];
+            for (int i = 0, k = 0; i < universe.length; i++) {
+                if ((m & (1 << i)) != 0) {
+                    s[k++] = universe[i];
+                }
+            }
+            sets.add(s);
+        }
+        sets.sort(LengthLexSetVar::compare);
+        return sets;
+    }
+
+    private static boolean fits(int[] s, SetVar var) {
+        int k = 0;
+        for (int e : s) {
+            if (!var.envelopeContains(e)) return false;
+            if (var.kernelContains(e)) k++;
+        }
+        return k == var.getKernelSize();
+    }
+
+    @Test(groups = "1s")
+    public void testBounds() throws ContradictionException {
+        Random rnd = new Random(0);
+        for (int seed = 0; seed < 300; seed++) {
+            rnd.setSeed(seed);
+            int n = 1 + rnd.nextInt(6);
+            int[] universe = new int[n];
+            for (int i = 0, v = -5; i < n; i++) {
+                v += 1 + rnd.nextInt(3);
+                universe[i] = v;
+            }
+            List<int[]> all = subsets(universe);
+            Solver solver = new Solver();
+            int cmin = rnd.nextInt(n + 1);
+            int cmax = cmin + rnd.nextInt(n + 1 - cmin);
+            LengthLexSetVar var;
+            try {
+                var = VF.set("s", universe, new int[0], cmin, cmax, solver);
+            } catch (UnsupportedOperationException e) {
+                Assert.fail("seed " + seed);
+                return;
+            }
+            for (int e : universe) {
+                int r = rnd.nextInt(5);
+                if (r == 0) var.addToKernel(e, Cause.Null);
+                if (r == 1) var.removeFromEnvelope(e, Cause.Null);
+            }
+            int[] bound = new int[rnd.nextInt(n + 1)];
+            for (int i = 0, v = -7; i < bound.length; i++) {
+                v += 1 + rnd.nextInt(3);
+                bound[i] = v;
+            }
+            boolean strict = rnd.nextBoolean();
+            boolean lower = rnd.nextBoolean();
+            // brute force
+            int[] expected = null;
+            for (int[] s : lower ? all : reverse(all)) {
+                int c = LengthLexSetVar.compare(s, bound);
+                boolean after = lower ? (strict ? c > 0 : c >= 0) : (strict ? c < 0 : c <= 0);
+                if (after && s.length >= cmin && s.length <= cmax && fits(s, var)) {
+                    expected = s;
+                    break;
+                }
+            }
+            try {
+                if (lower) {
+                    var.updateLengthLexLB(bound, strict, Cause.Null);
+                    Assert.assertNotNull(expected, "seed " + seed);
+                    Assert.assertEquals(var.getLengthLexLB(), expected, "seed " + seed);
+                } else {
+                    var.updateLengthLexUB(bound, strict, Cause.Null);
+                    Assert.assertNotNull(expected, "seed " + seed);
+                    Assert.assertEquals(var.getLengthLexUB(), expected, "seed " + seed);
+                }
+            } catch (ContradictionException e) {
+                Assert.assertNull(expected, "seed " + seed);
+            }
+        }
+    }
+
+    private static List<int[]> reverse(List<int[]> sets) {
+        List<int[]> r = new ArrayList<>(sets);
+        Collections.reverse(r);
+        return r;
+    }
+
+    private static long count(int seed, boolean lengthLex) {
+        Random rnd = new Random(seed);
+        Solver solver = new Solver();
+        int n = 2 + rnd.nextInt(3);
+        int u = 4 + rnd.nextInt(3);
+        SetVar[] sets = new SetVar[n];
+        int[] cmin = new int[n], cmax = new int[n];
+        for (int i = 0; i < n; i++) {
+            cmin[i] = rnd.nextInt(3);
+            cmax[i] = cmin[i] + rnd.nextInt(3);
+            if (lengthLex) {
+                sets[i] = VF.set("s" + i, 0, u - 1, cmin[i], cmax[i], solver);
+            } else {
+                sets[i] = VF.set("s" + i, 0, u - 1, solver);
+                solver.post(SCF.cardinality(sets[i], VF.bounded("c" + i, cmin[i], cmax[i], solver)));
+            }
+        }
+        solver.post(SCF.all_disjoint(sets));
+        long[] count = new long[1];
+        if (lengthLex) {
+            LengthLexSetVar[] ll = new LengthLexSetVar[n];
+            for (int i = 0; i < n; i++) {
+                ll[i] = (LengthLexSetVar) sets[i];
+            }
+            solver.post(SCF.lex_chain_less(ll));
+            solver.plugMonitor((IMonitorSolution) () -> count[0]++);
+        } else {
+            // filter solutions which are not ordered
+            solver.plugMonitor((IMonitorSolution) () -> {
+                for (int i = 0; i < n - 1; i++) {
+                    int[] a = sets[i].getValues(), b = sets[i + 1].getValues();
+                    Arrays.sort(a);
+                    Arrays.sort(b);
+                    if (LengthLexSetVar.compare(a, b) >= 0) return;
+                }
+                count[0]++;
+            });
+        }
+        solver.set(SSF.force_first(sets));
+        solver.findAllSolutions();
+        return count[0];
+    }
+
+    @Test(groups = "1s")
+    public void testSameSolutions() {
+        for (int seed = 0; seed < 50; seed++) {
+            Assert.assertEquals(count(seed, true), count(seed, false), "seed " + seed);
+        }
+    }
+
+    private static Solver golfer(int g, int s, int w, boolean lengthLex) {
+        Solver solver = new Solver();
+        int p = g * s;
+        SetVar[][] groups = new SetVar[w][g];
+        for (int i = 0; i < w; i++) {
+            for (int j = 0; j < g; j++) {
+                if (lengthLex) {
+                    groups[i][j] = VF.set("G_" + i + "_" + j, 0, p - 1, s, s, solver);
+                } else {
+                    groups[i][j] = VF.set("G_" + i + "_" + j, 0, p - 1, solver);
+                    solver.post(SCF.cardinality(groups[i][j], VF.fixed(s, solver)));
+                }
+            }
+            solver.post(SCF.all_disjoint(groups[i]));
+            if (lengthLex) {
+                LengthLexSetVar[] week = new LengthLexSetVar[g];
+                for (int j = 0; j < g; j++) {
+                    week[j] = (LengthLexSetVar) groups[i][j];
+                }
+                solver.post(SCF.lex_chain_less(week));
+            }
+        }
+        // two golfers meet at most once
+        for (int i1 = 0; i1 < w; i1++) {
+            for (int i2 = i1 + 1; i2 < w; i2++) {
+                for (int j1 = 0; j1 < g; j1++) {
+                    for (int j2 = 0; j2 < g; j2++) {
+                        SetVar inter = VF.set("I", 0, p - 1, solver);
+                        solver.post(SCF.intersection(new SetVar[]{groups[i1][j1], groups[i2][j2]}, inter));
+                        solver.post(SCF.cardinality(inter, VF.bounded("c", 0, 1, solver)));
+                    }
+                }
+            }
+        }
+        solver.set(SSF.force_first(ArrayUtils.flatten(groups)));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testSocialGolfer() {
+        Solver ll = golfer(3, 2, 2, true);
+        ll.findAllSolutions();
+        Solver plain = golfer(3, 2, 2, false);
+        plain.findAllSolutions();
+        // groups of a week are ordered: 3! symmetric solutions per week
+        Assert.assertEquals(ll.getMeasures().getSolutionCount() * 36, plain.getMeasures().getSolutionCount());
+        Assert.assertTrue(ll.getMeasures().getNodeCount() * 10 < plain.getMeasures().getNodeCount());
+    }
+}
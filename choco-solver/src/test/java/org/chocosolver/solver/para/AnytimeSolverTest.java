@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.para;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.thread.AnytimeSolver;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class AnytimeSolverTest {
+
+    private IntVar golomb(Solver solver, int m) {
+        IntVar[] ticks = VariableFactory.enumeratedArray("a", m, 0, (1 << (m + 1)) - 1, solver);
+        solver.post(IntConstraintFactory.arithm(ticks[0], "=", 0));
+        for (int i = 0; i < m - 1; i++) {
+            solver.post(IntConstraintFactory.arithm(ticks[i + 1], ">", ticks[i]));
+        }
+        IntVar[] diffs = VariableFactory.enumeratedArray("d", (m * m - m) / 2, 0, (1 << (m + 1)) - 1, solver);
+        for (int k = 0, i = 0; i < m - 1; i++) {
+            for (int j = i + 1; j < m; j++, k++) {
+                solver.post(IntConstraintFactory.scalar(new IntVar[]{ticks[j], ticks[i]}, new int[]{1, -1}, diffs[k]));
+                solver.post(IntConstraintFactory.arithm(diffs[k], ">=", (j - i) * (j - i + 1) / 2));
+            }
+        }
+        solver.post(IntConstraintFactory.alldifferent(diffs, "BC"));
+        solver.set(ISF.lexico_LB(ticks));
+        return ticks[m - 1];
+    }
+
+    @Test(groups = "1s")
+    public void testOptimal() throws InterruptedException {
+        Solver solver = new Solver();
+        IntVar obj = golomb(solver, 6);
+        AnytimeSolver as = new AnytimeSolver(solver).findOptimalSolution(ResolutionPolicy.MINIMIZE, obj, -1);
+        List<Solution> sols = as.solutions().collect(Collectors.toList());
+        as.await();
+        Assert.assertTrue(as.isDone());
+        Assert.assertTrue(as.isOptimal());
+        Assert.assertEquals(as.getBestValue().intValue(), 17);
+        Assert.assertEquals(as.getBound().intValue(), 17);
+        Assert.assertFalse(sols.isEmpty());
+        for (int i = 1; i < sols.size(); i++) {
+            Assert.assertTrue(sols.get(i).getIntVal(obj) < sols.get(i - 1).getIntVal(obj));
+        }
+        Assert.assertEquals(sols.get(sols.size() - 1).getIntVal(obj).intValue(), 17);
+        Assert.assertSame(as.getBestSolution(), sols.get(sols.size() - 1));
+    }
+
+    @Test(groups = "1s")
+    public void testDeadline() throws InterruptedException {
+        Solver solver = new Solver();
+        IntVar obj = golomb(solver, 11);
+        AnytimeSolver as = new AnytimeSolver(solver).findOptimalSolution(ResolutionPolicy.MINIMIZE, obj, 300);
+        Assert.assertTrue(as.await(10000));
+        Assert.assertFalse(as.isOptimal());
+        Assert.assertNotNull(as.getBestSolution());
+        Assert.assertTrue(as.getBound() <= as.getBestValue());
+    }
+
+    @Test(groups = "1s")
+    public void testCancel() throws InterruptedException {
+        Solver solver = new Solver();
+        IntVar obj = golomb(solver, 11);
+        AnytimeSolver as = new AnytimeSolver(solver).findOptimalSolution(ResolutionPolicy.MINIMIZE, obj, -1);
+        Solution first = as.solutions().findFirst().get();
+        as.cancel();
+        Assert.assertTrue(as.await(10000));
+        Assert.assertFalse(as.isOptimal());
+        Assert.assertTrue(as.getBestValue() <= first.getIntVal(obj));
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.pool;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.search.solution.ISolutionRecorder;
+import org.chocosolver.solver.search.solution.LastSolutionRecorder;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class SolverPoolTest {
+
+    private static final int[] WEIGHTS = {3, 5, 7, 2, 8, 4};
+    private static final int[] PROFITS = {4, 6, 9, 2, 11, 5};
+
+    private static class Knapsack implements ISkeleton {
+        final Solver solver;
+        final IntVar[] items;
+        final IntVar weight;
+        final IntVar profit;
+
+        Knapsack() {
+            solver = new Solver();
+            items = VF.enumeratedArray("i", WEIGHTS.length, 0, 3, solver);
+            weight = VF.bounded("w", 0, 200, solver);
+            profit = VF.bounded("p", 0, 200, solver);
+            solver.post(ICF.scalar(items, WEIGHTS, weight));
+            solver.post(ICF.scalar(items, PROFITS, profit));
+            solver.set(ISF.lexico_LB(items));
+        }
+
+        @Override
+        public Solver getSolver() {
+            return solver;
+        }
+    }
+
+    private static int solve(Knapsack k, Parametrization p, int capacity, int fixed) {
+        p.upperBound(k.weight, capacity).instantiate(k.items[0], fixed);
+        k.solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, k.profit);
+        return k.solver.isFeasible() == ESat.TRUE ? k.solver.getObjectiveManager().getBestSolutionValue().intValue() : -1;
+    }
+
+    @Test(groups = "1s")
+    public void testReuse() {
+        SolverPool<Knapsack> pool = new SolverPool<>(Knapsack::new, 2);
+        Random rnd = new Random(0);
+        IPropagationEngine engine = null;
+        for (int r = 0; r < 20; r++) {
+            int capacity = rnd.nextInt(30);
+            int fixed = rnd.nextInt(4);
+            WarmSolver<Knapsack> ws = pool.acquire();
+            int warm = solve(ws.getModel(), ws.getParametrization(), capacity, fixed);
+            if (engine == null) {
+                engine = ws.getSolver().getEngine();
+            } else {
+                Assert.assertSame(ws.getSolver().getEngine(), engine);
+            }
+            ws.release();
+
+            Knapsack cold = new Knapsack();
+            Parametrization p = new Parametrization(cold.solver);
+            cold.solver.post(p);
+            Assert.assertEquals(warm, solve(cold, p, capacity, fixed), "run " + r);
+        }
+        Assert.assertEquals(pool.getNbBuilt(), 1);
+        Assert.assertEquals(pool.getNbIdle(), 1);
+    }
+
+    @Test(groups = "1s")
+    public void testInfeasibleThenFeasible() {
+        SolverPool<Knapsack> pool = new SolverPool<>(Knapsack::new, 1);
+        WarmSolver<Knapsack> ws = pool.acquire();
+        ws.getParametrization().instantiate(ws.getModel().items[0], 3).upperBound(ws.getModel().weight, 5);
+        Assert.assertFalse(ws.getSolver().findSolution());
+        Assert.assertEquals(ws.getSolver().isFeasible(), ESat.FALSE);
+        ws.release();
+        ws = pool.acquire();
+        Assert.assertEquals(ws.getNbUses(), 2);
+        Assert.assertEquals(ws.getSolver().isFeasible(), ESat.UNDEFINED);
+        ws.getParametrization().instantiate(ws.getModel().items[0], 3);
+        Assert.assertTrue(ws.getSolver().findSolution());
+        Assert.assertEquals(ws.getModel().items[0].getValue(), 3);
+        ws.release();
+    }
+
+    @Test(groups = "1s")
+    public void testObjectiveCut() {
+        SolverPool<Knapsack> pool = new SolverPool<>(Knapsack::new, 1);
+        WarmSolver<Knapsack> ws = pool.acquire();
+        ws.getParametrization().upperBound(ws.getModel().weight, 20);
+        ws.getSolver().findOptimalSolution(ResolutionPolicy.MAXIMIZE, ws.getModel().profit);
+        int best = ws.getSolver().getObjectiveManager().getBestSolutionValue().intValue();
+        ws.release();
+        ws = pool.acquire();
+        ws.getParametrization().upperBound(ws.getModel().weight, 20)
+                .objectiveCut(ResolutionPolicy.MAXIMIZE, ws.getModel().profit, best);
+        Assert.assertFalse(ws.getSolver().findSolution());
+        ws.release();
+    }
+
+    @Test(groups = "1s")
+    public void testCapacity() {
+        SolverPool<Knapsack> pool = new SolverPool<>(Knapsack::new, 1);
+        WarmSolver<Knapsack> w1 = pool.acquire();
+        WarmSolver<Knapsack> w2 = pool.acquire();
+        Assert.assertNotSame(w1, w2);
+        Assert.assertEquals(pool.getNbBuilt(), 2);
+        w1.release();
+        w2.release();
+        Assert.assertEquals(pool.getNbIdle(), 1);
+        Assert.assertSame(pool.acquire(), w1);
+    }
+
+    @Test(groups = "1s")
+    public void testLimitForgotten() {
+        SolverPool<Knapsack> pool = new SolverPool<>(Knapsack::new, 1);
+        WarmSolver<Knapsack> ws = pool.acquire();
+        ws.getSolver().getCancellationToken().cancel();
+        Assert.assertFalse(ws.getSolver().findSolution());
+        Assert.assertTrue(ws.getSolver().hasReachedLimit());
+        ws.release();
+        ws = pool.acquire();
+        Assert.assertFalse(ws.getSolver().hasReachedLimit());
+        ws.getParametrization().instantiate(ws.getModel().items[0], 3).upperBound(ws.getModel().weight, 5);
+        Assert.assertFalse(ws.getSolver().findSolution());
+        Assert.assertFalse(ws.getSolver().hasReachedLimit());
+        Assert.assertEquals(ws.getSolver().isFeasible(), ESat.FALSE);
+        ws.release();
+    }
+
+    @Test(groups = "1s")
+    public void testRecorderReplaced() {
+        SolverPool<Knapsack> pool = new SolverPool<>(Knapsack::new, 1);
+        WarmSolver<Knapsack> ws = pool.acquire();
+        LastSolutionRecorder recorder = new LastSolutionRecorder(new Solution(), true, ws.getSolver());
+        ws.getSolver().set(recorder);
+        ws.getParametrization().instantiate(ws.getModel().items[0], 0);
+        Assert.assertTrue(ws.getSolver().findSolution());
+        ws.release();
+        ws = pool.acquire();
+        ISolutionRecorder fresh = ws.getSolver().getSolutionRecorder();
+        Assert.assertNotSame(fresh, recorder);
+        Assert.assertNull(fresh.getLastSolution());
+        ws.getParametrization().instantiate(ws.getModel().items[0], 3);
+        Assert.assertTrue(ws.getSolver().findSolution());
+        Assert.assertEquals(fresh.getLastSolution().getIntVal(ws.getModel().items[0]).intValue(), 3);
+        // the replaced recorder does not monitor the search anymore
+        Assert.assertEquals(recorder.getLastSolution().getIntVal(ws.getModel().items[0]).intValue(), 0);
+        ws.release();
+    }
+}
@@ -32,6 +32,7 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.propagation.hardcoded.ClusteredPropagationEngine;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VF;
 import org.chocosolver.solver.variables.VariableFactory;
@@ -70,4 +71,40 @@ public class PropEngineTest {
         solver.findAllSolutions();
         Assert.assertEquals(solver.getMeasures().getSolutionCount(), 3);
     }
+
+    private static Solver clusters(int n, PropagationEngineFactory engine) {
+        Solver solver = new Solver();
+        for (int i = 0; i < n; i++) {
+            IntVar[] X = VF.enumeratedArray("X" + i, 4, 0, 3, solver);
+            solver.post(ICF.alldifferent(X, "AC"));
+            solver.post(ICF.arithm(X[0], "<", X[1]));
+        }
+        solver.set(engine.make(solver));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testClustered1() {
+        Solver solver = clusters(3, PropagationEngineFactory.PROPAGATORDRIVEN_CLUSTERED);
+        solver.findAllSolutions();
+        Assert.assertEquals(((ClusteredPropagationEngine) solver.getEngine()).getNbClusters(), 3);
+        Solver ref = clusters(3, PropagationEngineFactory.PROPAGATORDRIVEN_7QD);
+        ref.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), ref.getMeasures().getSolutionCount());
+        Assert.assertEquals(solver.getMeasures().getNodeCount(), ref.getMeasures().getNodeCount());
+    }
+
+    @Test(groups = "1s")
+    public void testClustered2() {
+        Solver solver = new Solver();
+        IntVar[] X = VF.enumeratedArray("X", 3, 0, 3, solver);
+        IntVar[] Y = VF.enumeratedArray("Y", 3, 0, 3, solver);
+        solver.post(ICF.alldifferent(X));
+        solver.post(ICF.alldifferent(Y));
+        solver.post(ICF.arithm(X[2], "=", Y[0]));
+        solver.set(PropagationEngineFactory.PROPAGATORDRIVEN_CLUSTERED.make(solver));
+        solver.findAllSolutions();
+        Assert.assertEquals(((ClusteredPropagationEngine) solver.getEngine()).getNbClusters(), 1);
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 144);
+    }
 }
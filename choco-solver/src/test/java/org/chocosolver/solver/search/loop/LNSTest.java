@@ -38,8 +38,11 @@ import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.trace.Chatterbox;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+
 /**
  * <br/>
  *
@@ -48,26 +51,40 @@ import org.testng.annotations.Test;
  */
 public class LNSTest {
 
-    Solver solver;
-    IntVar[] vars;
-
-    private void knapsack20(final int lns) {
-        int[] capacities = {99, 1101};
-        int[] volumes = {54, 12, 47, 33, 30, 65, 56, 57, 91, 88, 77, 99, 29, 23, 39, 86, 12, 85, 22, 64};
-        int[] energies = {38, 57, 69, 90, 79, 89, 28, 70, 38, 71, 46, 41, 49, 43, 36, 68, 92, 33, 84, 90};
+    static final int[] VOLUMES = {54, 12, 47, 33, 30, 65, 56, 57, 91, 88, 77, 99, 29, 23, 39, 86, 12, 85, 22, 64};
+    static final int[] ENERGIES = {38, 57, 69, 90, 79, 89, 28, 70, 38, 71, 46, 41, 49, 43, 36, 68, 92, 33, 84, 90};
 
-        solver = new Solver();
-        int nos = 20;
+    /**
+     * Declares in <code>solver</code> a knapsack problem over the first <code>nos</code> items.
+     *
+     * @param solver    the solver
+     * @param nos       number of items
+     * @param minWeight minimal weight of the knapsack
+     * @param capacity  capacity of the knapsack
+     * @return the occurrence variables of the items, followed by the power variable
+     */
+    static IntVar[] knapsack(Solver solver, int nos, int minWeight, int capacity) {
+        int[] volumes = Arrays.copyOf(VOLUMES, nos);
+        int[] energies = Arrays.copyOf(ENERGIES, nos);
+        IntVar[] vars = new IntVar[nos + 1];
         // occurrence of each item
-        IntVar[] objects = new IntVar[nos];
         for (int i = 0; i < nos; i++) {
-            objects[i] = VariableFactory.bounded("o_" + (i + 1), 0, (int) Math.ceil(capacities[1] / volumes[i]), solver);
+            vars[i] = VariableFactory.bounded("o_" + (i + 1), 0, capacity / volumes[i], solver);
         }
-        final IntVar power = VariableFactory.bounded("power", 0, 99999, solver);
-        IntVar scalar = VariableFactory.bounded("weight", capacities[0], capacities[1], solver);
+        IntVar[] objects = Arrays.copyOf(vars, nos);
+        IntVar power = vars[nos] = VariableFactory.bounded("power", 0, 99999, solver);
+        IntVar scalar = VariableFactory.bounded("weight", minWeight, capacity, solver);
         solver.post(IntConstraintFactory.scalar(objects, volumes, scalar));
         solver.post(IntConstraintFactory.scalar(objects, energies, power));
         solver.post(IntConstraintFactory.knapsack(objects, scalar, power, volumes, energies));
+        return vars;
+    }
+
+    private void knapsack20(final int lns) {
+        Solver solver = new Solver();
+        IntVar[] vars = knapsack(solver, 20, 99, 1101);
+        IntVar[] objects = Arrays.copyOf(vars, 20);
+        IntVar power = vars[20];
         solver.set(IntStrategyFactory.lexico_LB(objects));
 //        SearchMonitorFactory.log(solver, true, false);
         switch (lns) {
@@ -118,6 +135,20 @@ public class LNSTest {
                 solver.getSearchLoop().plugSearchMonitor(new LargeNeighborhoodSearch(solver, ngb, true));
                 SearchMonitorFactory.limitThreadTime(solver, 10000);
                 break;
+            case 8:
+                solver.getSearchLoop().plugSearchMonitor(new LargeNeighborhoodSearch(solver,
+                        new BanditNeighborhood(objects, 123456L,
+                                new PropagationGuidedNeighborhood(solver, objects, 123456L, 100, 10),
+                                new ReversePropagationGuidedNeighborhood(solver, objects, 123456L, 100, 10),
+                                new RandomNeighborhood(solver, objects, 200, 123456L)
+                        ), true));
+                SearchMonitorFactory.limitThreadTime(solver, 10000);
+                break;
+            case 9:
+                solver.getSearchLoop().plugSearchMonitor(new LargeNeighborhoodSearch(solver,
+                        new ElitePoolNeighborhood(solver, objects, 123456L), true));
+                SearchMonitorFactory.limitThreadTime(solver, 10000);
+                break;
         }
 //        Chatterbox.showDecisions(solver, ()->""+solver.getEnvironment().getWorldIndex());
         solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, power);
@@ -137,7 +168,79 @@ public class LNSTest {
         knapsack20(5);
         knapsack20(6);
         knapsack20(7);
+        knapsack20(8);
+        knapsack20(9);
+    }
+
+    @Test(groups = "1s")
+    public void testBandit() {
+        for (BanditNeighborhood.Policy policy : BanditNeighborhood.Policy.values()) {
+            Solver solver = new Solver();
+            IntVar[] vars = knapsack(solver, 20, 99, 1101);
+            IntVar[] objects = Arrays.copyOf(vars, 20);
+            IntVar power = vars[20];
+            solver.set(IntStrategyFactory.lexico_LB(objects));
+            BanditNeighborhood bandit = new BanditNeighborhood(policy, objects, 0L,
+                    new PropagationGuidedNeighborhood(solver, objects, 0L, 100, 10),
+                    new RandomNeighborhood(solver, objects, 200, 0L));
+            bandit.setPatience(2);
+            solver.getSearchLoop().plugSearchMonitor(new LargeNeighborhoodSearch(solver, bandit, true));
+            SearchMonitorFactory.limitNode(solver, 20000);
+            solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, power);
+            Assert.assertTrue(solver.getMeasures().getSolutionCount() > 1);
+            int runs = 0, improvements = 0;
+            for (int i = 0; i < bandit.getNbNeighbors(); i++) {
+                Assert.assertTrue(bandit.getNbRuns(i) > 0);
+                Assert.assertTrue(bandit.getNbImprovements(i) <= bandit.getNbRuns(i));
+                Assert.assertTrue(bandit.getMeanRelaxationSize(i) <= objects.length);
+                runs += bandit.getNbRuns(i);
+                improvements += bandit.getNbImprovements(i);
+            }
+            Assert.assertTrue(runs > 0);
+            Assert.assertTrue(improvements < solver.getMeasures().getSolutionCount());
+        }
     }
 
+    @Test(groups = "1s")
+    public void testElitePool() {
+        ElitePool pool = new ElitePool(3, 2);
+        Assert.assertTrue(pool.offer(new int[]{0, 0, 0, 0}, 1));
+        Assert.assertFalse(pool.offer(new int[]{0, 0, 0, 0}, 5));
+        // too close to the first one, and better
+        Assert.assertTrue(pool.offer(new int[]{0, 0, 0, 1}, 2));
+        Assert.assertEquals(pool.size(), 1);
+        // too close, and worse
+        Assert.assertFalse(pool.offer(new int[]{0, 0, 1, 1}, 0));
+        Assert.assertTrue(pool.offer(new int[]{1, 1, 1, 1}, 3));
+        Assert.assertTrue(pool.offer(new int[]{2, 2, 0, 1}, 4));
+        Assert.assertEquals(pool.size(), 3);
+        // full, replaces the worst one
+        Assert.assertFalse(pool.offer(new int[]{3, 3, 3, 3}, 1));
+        Assert.assertTrue(pool.offer(new int[]{3, 3, 3, 3}, 5));
+        Assert.assertEquals(pool.size(), 3);
+        Assert.assertEquals(pool.getScore(pool.getWorst()), 3);
+        Assert.assertEquals(pool.get(pool.getBest()), new int[]{3, 3, 3, 3});
+    }
 
+    @Test(groups = "1s")
+    public void testElitePoolNeighborhood() {
+        Solver solver = new Solver();
+        IntVar[] vars = knapsack(solver, 20, 99, 1101);
+        IntVar[] objects = Arrays.copyOf(vars, 20);
+        IntVar power = vars[20];
+        solver.set(IntStrategyFactory.lexico_LB(objects));
+        ElitePoolNeighborhood elite = new ElitePoolNeighborhood(solver, objects, new ElitePool(5, 2), .5, 0L);
+        solver.getSearchLoop().plugSearchMonitor(new LargeNeighborhoodSearch(solver, elite, true));
+        SearchMonitorFactory.limitNode(solver, 20000);
+        solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, power);
+        ElitePool pool = elite.getPool();
+        Assert.assertTrue(pool.size() > 1);
+        Assert.assertTrue(elite.getNbRelinks() > 0);
+        Assert.assertEquals(pool.getScore(pool.getBest()), solver.getObjectiveManager().getBestSolutionValue().intValue());
+        for (int i = 0; i < pool.size(); i++) {
+            for (int j = i + 1; j < pool.size(); j++) {
+                Assert.assertTrue(ElitePool.distance(pool.get(i), pool.get(j)) >= 2);
+            }
+        }
+    }
 }
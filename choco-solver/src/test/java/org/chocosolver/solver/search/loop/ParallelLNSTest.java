@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.lns.LNSFactory;
+import org.chocosolver.solver.search.loop.lns.ParallelLNS;
+import org.chocosolver.solver.search.loop.lns.neighbors.ElitePoolNeighborhood;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class ParallelLNSTest {
+
+    private static int power(int[] values) {
+        int p = 0;
+        for (int i = 0; i < values.length; i++) {
+            p += values[i] * LNSTest.ENERGIES[i];
+        }
+        return p;
+    }
+
+    private static int weight(int[] values) {
+        int w = 0;
+        for (int i = 0; i < values.length; i++) {
+            w += values[i] * LNSTest.VOLUMES[i];
+        }
+        return w;
+    }
+
+    @Test(groups = "10s")
+    public void testKnapsack20() {
+        Solver solver = new Solver();
+        IntVar[] vars = LNSTest.knapsack(solver, 20, 0, 1101);
+        IntVar[] objects = Arrays.copyOf(vars, 20);
+        ParallelLNS plns = new ParallelLNS(solver, objects, 3, 0,
+                (s, v, seed) -> LNSFactory.random(s, v, 3, seed, new FailCounter(100)),
+                (s, v, seed) -> LNSFactory.pg(s, v, 100, 10, seed, new FailCounter(100)));
+        Assert.assertEquals(plns.getSolvers().length, 3);
+        for (Solver s : plns.getSolvers()) {
+            SMF.limitNode(s, 200);
+        }
+        plns.findOptimalSolution(ResolutionPolicy.MAXIMIZE, vars[20]);
+        Assert.assertTrue(plns.hasSolution());
+        int[] best = plns.getBestSolution();
+        Assert.assertEquals(power(best), plns.getBestValue());
+        Assert.assertTrue(weight(best) <= 1101);
+        int[] calls = plns.getNbCalls();
+        int[] successes = plns.getNbSuccesses();
+        Assert.assertTrue(calls[0] + calls[1] > 0);
+        for (int i = 0; i < calls.length; i++) {
+            Assert.assertTrue(successes[i] <= calls[i]);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSameOptimum() {
+        Solver ref = new Solver();
+        IntVar[] rvars = LNSTest.knapsack(ref, 8, 0, 200);
+        ref.set(ISF.lexico_LB(Arrays.copyOf(rvars, 8)));
+        ref.findOptimalSolution(ResolutionPolicy.MAXIMIZE, rvars[8]);
+        int optimum = ref.getObjectiveManager().getBestSolutionValue().intValue();
+
+        Solver solver = new Solver();
+        IntVar[] vars = LNSTest.knapsack(solver, 8, 0, 200);
+        ParallelLNS plns = new ParallelLNS(solver, Arrays.copyOf(vars, 8), 2, 42,
+                (s, v, seed) -> LNSFactory.random(s, v, 3, seed, new FailCounter(50)));
+        for (Solver s : plns.getSolvers()) {
+            SMF.limitNode(s, 5000);
+        }
+        plns.findOptimalSolution(ResolutionPolicy.MAXIMIZE, vars[8]);
+        Assert.assertEquals(plns.getBestValue(), optimum);
+        Assert.assertEquals(power(plns.getBestSolution()), optimum);
+    }
+
+    @Test(groups = "1s")
+    public void testElitePool() {
+        Solver solver = new Solver();
+        IntVar[] vars = LNSTest.knapsack(solver, 10, 0, 500);
+        ParallelLNS plns = new ParallelLNS(solver, Arrays.copyOf(vars, 10), 3, 7,
+                (s, v, seed) -> new ElitePoolNeighborhood(s, v, seed));
+        for (Solver s : plns.getSolvers()) {
+            SMF.limitNode(s, 5000);
+        }
+        plns.findOptimalSolution(ResolutionPolicy.MAXIMIZE, vars[10]);
+        Assert.assertTrue(plns.hasSolution());
+        int[] best = plns.getBestSolution();
+        Assert.assertEquals(power(best), plns.getBestValue());
+        Assert.assertTrue(weight(best) <= 500);
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.fast;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.solver.variables.impl.BitsetIntVarImpl;
+import org.chocosolver.solver.variables.impl.SparseSetIntVarImpl;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class SparseSetIntVarImplTest {
+
+    private static SparseSetIntVarImpl make() {
+        return new SparseSetIntVarImpl("test", new int[]{-5, 0, 3, 4, 5}, new Solver());
+    }
+
+    @Test(groups = "1s")
+    public void testRemoveValue() throws Exception {
+        SparseSetIntVarImpl var = make();
+        Assert.assertFalse(var.removeValue(7, Cause.Null));
+        Assert.assertFalse(var.removeValue(1, Cause.Null));
+        Assert.assertTrue(var.removeValue(0, Cause.Null));
+        Assert.assertFalse(var.contains(0));
+        Assert.assertTrue(var.removeValue(-5, Cause.Null));
+        Assert.assertEquals(var.getLB(), 3);
+        Assert.assertEquals(var.getDomainSize(), 3);
+    }
+
+    @Test(groups = "1s")
+    public void testRemoveInterval() throws Exception {
+        SparseSetIntVarImpl var = make();
+        Assert.assertFalse(var.removeInterval(7, 8, Cause.Null));
+        Assert.assertTrue(var.removeInterval(0, 3, Cause.Null));
+        Assert.assertFalse(var.contains(0));
+        Assert.assertFalse(var.contains(3));
+        Assert.assertEquals(var.getDomainSize(), 3);
+    }
+
+    @Test(groups = "1s")
+    public void testUpdateBounds() throws Exception {
+        SparseSetIntVarImpl var = make();
+        Assert.assertFalse(var.updateLowerBound(-6, Cause.Null));
+        Assert.assertTrue(var.updateLowerBound(-1, Cause.Null));
+        Assert.assertEquals(var.getLB(), 0);
+        Assert.assertFalse(var.updateUpperBound(6, Cause.Null));
+        Assert.assertTrue(var.updateUpperBound(4, Cause.Null));
+        Assert.assertEquals(var.getUB(), 4);
+        Assert.assertEquals(var.getDomainSize(), 3);
+    }
+
+    @Test(groups = "1s")
+    public void testNextPreviousValue() throws Exception {
+        SparseSetIntVarImpl var = make();
+        Assert.assertEquals(var.nextValue(-6), -5);
+        Assert.assertEquals(var.nextValue(-5), 0);
+        Assert.assertEquals(var.nextValue(1), 3);
+        Assert.assertEquals(var.nextValue(5), Integer.MAX_VALUE);
+        Assert.assertEquals(var.previousValue(6), 5);
+        Assert.assertEquals(var.previousValue(3), 0);
+        Assert.assertEquals(var.previousValue(-5), Integer.MIN_VALUE);
+    }
+
+    @Test(groups = "1s")
+    public void testIterators() throws Exception {
+        SparseSetIntVarImpl var = make();
+        var.removeValue(4, Cause.Null);
+        DisposableValueIterator vit = var.getValueIterator(true);
+        StringBuilder st = new StringBuilder();
+        while (vit.hasNext()) {
+            st.append(vit.next()).append(' ');
+        }
+        vit.dispose();
+        Assert.assertEquals(st.toString(), "-5 0 3 5 ");
+        DisposableRangeIterator rit = var.getRangeIterator(false);
+        st = new StringBuilder();
+        while (rit.hasPrevious()) {
+            st.append(rit.min()).append(':').append(rit.max()).append(' ');
+            rit.previous();
+        }
+        rit.dispose();
+        Assert.assertEquals(st.toString(), "5:5 3:3 0:0 -5:-5 ");
+    }
+
+    @Test(groups = "1s")
+    public void testFactory() {
+        Solver solver = new Solver();
+        Assert.assertTrue(VF.enumerated("x", new int[]{0, 1000000, 2000000000}, solver) instanceof SparseSetIntVarImpl);
+        Assert.assertTrue(VF.enumerated("y", new int[]{0, 1, 2, 4}, solver) instanceof BitsetIntVarImpl);
+    }
+
+    @Test(groups = "1s")
+    public void testRandomWithBacktrack() throws ContradictionException {
+        Random rnd = new Random();
+        for (int seed = 0; seed < 200; seed++) {
+            rnd.setSeed(seed);
+            int n = 1 + rnd.nextInt(20);
+            int[] values = new int[n];
+            values[0] = rnd.nextInt(10) - 5;
+            for (int i = 1; i < n; i++) {
+                values[i] = values[i - 1] + 1 + (rnd.nextBoolean() ? 0 : rnd.nextInt(5));
+            }
+            Solver solver = new Solver();
+            IntVar sparse = new SparseSetIntVarImpl("s", values, solver);
+            IntVar bitset = new BitsetIntVarImpl("b", values, solver);
+            solver.getEnvironment().worldPush();
+            for (int k = 0; k < 10 && sparse.getDomainSize() > 1; k++) {
+                if (rnd.nextInt(4) == 0) {
+                    solver.getEnvironment().worldPush();
+                }
+                int v = values[rnd.nextInt(n)] + rnd.nextInt(3) - 1;
+                switch (rnd.nextInt(3)) {
+                    case 0:
+                        Assert.assertEquals(sparse.removeValue(v, Cause.Null), bitset.removeValue(v, Cause.Null));
+                        break;
+                    case 1:
+                        if (v <= sparse.getUB()) {
+                            Assert.assertEquals(sparse.updateLowerBound(v, Cause.Null), bitset.updateLowerBound(v, Cause.Null));
+                        }
+                        break;
+                    default:
+                        if (v >= sparse.getLB()) {
+                            Assert.assertEquals(sparse.updateUpperBound(v, Cause.Null), bitset.updateUpperBound(v, Cause.Null));
+                        }
+                        break;
+                }
+                check(sparse, bitset, values, seed);
+            }
+            solver.getEnvironment().worldPopUntil(0);
+            check(sparse, bitset, values, seed);
+            Assert.assertEquals(sparse.getDomainSize(), n);
+        }
+    }
+
+    private static void check(IntVar sparse, IntVar bitset, int[] values, int seed) {
+        Assert.assertEquals(sparse.getDomainSize(), bitset.getDomainSize(), "seed " + seed);
+        Assert.assertEquals(sparse.getLB(), bitset.getLB(), "seed " + seed);
+        Assert.assertEquals(sparse.getUB(), bitset.getUB(), "seed " + seed);
+        for (int v = values[0] - 1; v <= values[values.length - 1] + 1; v++) {
+            Assert.assertEquals(sparse.contains(v), bitset.contains(v), "seed " + seed);
+            Assert.assertEquals(sparse.nextValue(v), bitset.nextValue(v), "seed " + seed);
+            Assert.assertEquals(sparse.previousValue(v), bitset.previousValue(v), "seed " + seed);
+        }
+        DisposableRangeIterator r1 = sparse.getRangeIterator(true);
+        DisposableRangeIterator r2 = bitset.getRangeIterator(true);
+        while (r2.hasNext()) {
+            Assert.assertTrue(r1.hasNext(), "seed " + seed);
+            Assert.assertEquals(r1.min(), r2.min(), "seed " + seed);
+            Assert.assertEquals(r1.max(), r2.max(), "seed " + seed);
+            r1.next();
+            r2.next();
+        }
+        Assert.assertFalse(r1.hasNext(), "seed " + seed);
+    }
+
+    @Test(groups = "1s")
+    public void testSolve() {
+        Solver solver = new Solver();
+        int[] stamps = {1435795200, 1435881600, 1435968000, 1436054400, 1436140800};
+        IntVar[] vars = new IntVar[3];
+        for (int i = 0; i < vars.length; i++) {
+            vars[i] = VF.enumerated("t" + i, stamps, solver);
+            Assert.assertTrue(vars[i] instanceof SparseSetIntVarImpl);
+        }
+        solver.post(ICF.alldifferent(vars, "AC"));
+        solver.post(ICF.arithm(vars[0], "<", vars[1]));
+        solver.set(ISF.lexico_LB(vars));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 30);
+    }
+}
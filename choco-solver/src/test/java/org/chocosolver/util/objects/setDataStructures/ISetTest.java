@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.util.objects.setDataStructures;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 02/07/2015
+ */
+public class ISetTest {
+
+    private static final int N = 150;
+
+    private static void check(ISet set, int[] expected) throws ContradictionException {
+        Arrays.sort(expected);
+        // cursor
+        TIntArrayList values = new TIntArrayList();
+        ISetIterator iter = set.newIterator();
+        while (iter.hasNext()) {
+            values.add(iter.nextInt());
+        }
+        values.sort();
+        Assert.assertEquals(values.toArray(), expected, set.getSetType().toString());
+        // a reset cursor starts again from the beginning
+        iter.reset();
+        Assert.assertEquals(iter.hasNext(), expected.length > 0);
+        // nested iterations over the same set
+        int pairs = 0;
+        ISetIterator outer = set.newIterator();
+        while (outer.hasNext()) {
+            outer.nextInt();
+            ISetIterator inner = set.newIterator();
+            while (inner.hasNext()) {
+                inner.nextInt();
+                pairs++;
+            }
+        }
+        Assert.assertEquals(pairs, expected.length * expected.length);
+        // bulk operations
+        TIntArrayList visited = new TIntArrayList();
+        set.forEach(visited::add);
+        visited.sort();
+        Assert.assertEquals(visited.toArray(), expected);
+        int[] buffer = new int[N];
+        int size = set.toArray(buffer);
+        Assert.assertEquals(size, expected.length);
+        int[] prefix = Arrays.copyOf(buffer, size);
+        Arrays.sort(prefix);
+        Assert.assertEquals(prefix, expected);
+        int[] array = set.toArray();
+        Arrays.sort(array);
+        Assert.assertEquals(array, expected);
+    }
+
+    private static int[] fill(ISet set, Random rnd) {
+        TIntArrayList expected = new TIntArrayList();
+        for (int i = 0; i < N; i++) {
+            if (rnd.nextInt(3) == 0) {
+                set.add(i);
+                expected.add(i);
+            }
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (rnd.nextInt(4) == 0) {
+                set.remove(expected.get(i));
+                expected.removeAt(i--);
+            }
+        }
+        return expected.toArray();
+    }
+
+    @Test(groups = "1s")
+    public void testSets() throws ContradictionException {
+        Random rnd = new Random(0);
+        for (SetType type : SetType.values()) {
+            ISet set = SetFactory.makeSet(type, N);
+            check(set, new int[0]);
+            check(set, fill(set, rnd));
+        }
+        check(SetFactory.makeFullSet(N), range(N));
+    }
+
+    @Test(groups = "1s")
+    public void testStoredSets() throws ContradictionException {
+        Random rnd = new Random(0);
+        for (SetType type : SetType.values()) {
+            Solver solver = new Solver();
+            ISet set = SetFactory.makeStoredSet(type, N, solver);
+            int[] before = fill(set, rnd);
+            solver.getEnvironment().worldPush();
+            check(set, before);
+            set.clear();
+            check(set, new int[0]);
+            solver.getEnvironment().worldPop();
+            check(set, before);
+        }
+    }
+
+    private static int[] range(int n) {
+        int[] r = new int[n];
+        for (int i = 0; i < n; i++) {
+            r[i] = i;
+        }
+        return r;
+    }
+}